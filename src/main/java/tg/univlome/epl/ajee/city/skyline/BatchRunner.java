@@ -0,0 +1,86 @@
+package tg.univlome.epl.ajee.city.skyline;
+
+import tg.univlome.epl.ajee.city.skyline.model.economy.Market;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.BatchSimulator;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.GameDifficulty;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Point d'entrée pour équilibrer les niveaux de difficulté : joue un lot de
+ * parties automatiques par niveau et affiche la répartition des jours
+ * survécus, le taux de faillite et le bonheur final.
+ *
+ * Usage : {@code BatchRunner [parties] [jours] [graine] [stratégie] [tarification]},
+ * la tarification étant {@code SUPPLY_RATIO} (par défaut) ou
+ * {@code MERIT_ORDER}.
+ */
+public class BatchRunner {
+
+    public static void main(String[] args) {
+        if (args.length > 5) {
+            System.err.println("Usage : BatchRunner [parties] [jours] [graine] [stratégie] [tarification]");
+            System.exit(2);
+        }
+
+        int worlds = 1000;
+        int days = BatchSimulator.DEFAULT_DAYS;
+        long seed = 1;
+        BatchSimulator.Strategy strategy = BatchSimulator.Strategy.COAL;
+        Market.PricingMode pricingMode = Market.PricingMode.SUPPLY_RATIO;
+        try {
+            if (args.length > 0) {
+                worlds = Integer.parseInt(args[0]);
+            }
+            if (args.length > 1) {
+                days = Integer.parseInt(args[1]);
+            }
+            if (args.length > 2) {
+                seed = Long.parseLong(args[2]);
+            }
+            if (args.length > 3) {
+                strategy = BatchSimulator.Strategy.valueOf(args[3].toUpperCase());
+            }
+            if (args.length > 4) {
+                pricingMode = Market.PricingMode.valueOf(args[4].toUpperCase());
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Argument invalide : " + e.getMessage());
+            System.exit(2);
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        BatchSimulator simulator = new BatchSimulator(pool);
+        simulator.setStrategy(strategy);
+        simulator.setMaxDays(days);
+        simulator.setPricingMode(pricingMode);
+
+        System.out.println("=== Simulation en lot ===");
+        System.out.printf("Parties       : %d par niveau, %d jours max%n", worlds, days);
+        System.out.printf("Stratégie     : %s (%s)%n", strategy, strategy.getDescription());
+        System.out.printf("Tarification  : %s%n", pricingMode.getDisplayName());
+        System.out.printf("Graine        : %d%n", seed);
+        System.out.printf("Threads       : %d%n", pool.getParallelism());
+        System.out.println();
+        System.out.printf("%-10s %8s %8s %6s %6s %6s %6s %6s %8s %6s %6s%n", "Niveau", "Faillite", "Perdues",
+                "J moy", "J p10", "J p50", "J p90", "J max", "Bonh moy", "B p10", "B p50");
+
+        long start = System.nanoTime();
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            BatchSimulator.Report report = BatchSimulator.Report.of(simulator.run(difficulty, seed, worlds));
+            System.out.printf("%-10s %7.1f%% %7.1f%% %6.0f %6d %6d %6d %6d %8.1f %6d %6d%n",
+                    difficulty.getDisplayName(),
+                    100 * report.getBankruptcyRate(),
+                    100 * report.getGameOverRate(),
+                    report.getMeanDays(),
+                    report.getDaysPercentile(10),
+                    report.getDaysPercentile(50),
+                    report.getDaysPercentile(90),
+                    report.getDaysPercentile(100),
+                    report.getMeanHappiness(),
+                    report.getHappinessPercentile(10),
+                    report.getHappinessPercentile(50));
+        }
+        System.out.printf("%nTemps total   : %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+}
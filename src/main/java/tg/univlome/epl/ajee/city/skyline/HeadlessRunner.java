@@ -0,0 +1,103 @@
+package tg.univlome.epl.ajee.city.skyline;
+
+import tg.univlome.epl.ajee.city.skyline.model.map.CityMap;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.GameEngine;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.Scenario;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Point d'entrée sans interface graphique : charge un scénario, exécute N
+ * cycles aussi vite que possible et affiche les performances (cycles par
+ * seconde, profil des phases) et l'état final de la partie.
+ *
+ * Usage : {@code HeadlessRunner <scenario> [cycles] [graine]}. La graine
+ * utilisée est affichée pour pouvoir rejouer exactement la même partie.
+ */
+public class HeadlessRunner {
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Usage : HeadlessRunner <scenario> [cycles] [graine]");
+            System.exit(2);
+        }
+
+        int requestedTicks = -1;
+        Long requestedSeed = null;
+        try {
+            if (args.length > 1) {
+                requestedTicks = Integer.parseInt(args[1]);
+            }
+            if (args.length > 2) {
+                requestedSeed = Long.parseLong(args[2]);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Nombre invalide : " + e.getMessage());
+            System.exit(2);
+        }
+
+        Scenario scenario;
+        GameEngine engine;
+        int ticks;
+        try {
+            scenario = Scenario.load(Path.of(args[0]));
+            ticks = requestedTicks >= 0 ? requestedTicks : scenario.getTicks();
+            engine = requestedSeed != null ? scenario.createEngine(requestedSeed) : scenario.createEngine();
+        } catch (IOException e) {
+            System.err.println("Lecture du scénario impossible : " + e.getMessage());
+            System.exit(1);
+            return;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Scénario invalide : " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        engine.setPhaseTimingEnabled(true);
+        engine.initializeGame();
+
+        long start = System.nanoTime();
+        int executed = 0;
+        while (executed < ticks && engine.isRunning()) {
+            engine.runCycle();
+            executed++;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        printReport(scenario, engine, ticks, executed, elapsed);
+    }
+
+    private static void printReport(Scenario scenario, GameEngine engine, int ticks, int executed, long elapsed) {
+        CityMap map = engine.getCityMap();
+        double seconds = elapsed / 1e9;
+
+        System.out.println("=== Simulation sans interface ===");
+        System.out.printf("Scénario      : %s (%s)%n", scenario.getName(), scenario.getDifficulty().getDisplayName());
+        System.out.printf("Graine        : %d%n", engine.getSeed());
+        System.out.printf("Prix          : %s%n", engine.getMarket().getPricingMode().getDisplayName());
+        System.out.printf("Carte         : %d x %d (%s)%n", map.getWidth(), map.getHeight(), map.getStorageType());
+        System.out.printf("Cycles        : %d / %d%s%n", executed, ticks,
+                engine.isGameOver() ? " (fin de partie)" : "");
+        System.out.printf("Temps total   : %.1f ms%n", elapsed / 1e6);
+        System.out.printf("Cycles/s      : %.0f%n", executed / Math.max(seconds, 1e-9));
+
+        System.out.println();
+        System.out.println("--- Temps par phase ---");
+        System.out.print(engine.getProfiler().formatTable());
+
+        System.out.println();
+        System.out.println("--- État final ---");
+        System.out.printf("État          : %s%n", engine.getState());
+        System.out.printf("Date          : %s%n", engine.getTimeManager().formatDate());
+        System.out.printf("Jours         : %d%n", engine.getPlayer().getDaysSurvived());
+        System.out.printf("Argent        : %d €%n", engine.getPlayer().getMoney());
+        System.out.printf("Bonheur       : %d %%%n", engine.getCity().getGlobalHappiness());
+        System.out.printf("Habitants     : %d%n", engine.getCity().getTotalInhabitants());
+        System.out.printf("Résidences    : %d (%d alimentées)%n", map.getResidenceCells().size(),
+                map.countPoweredResidences());
+        System.out.printf("Centrales     : %d%n", map.getPowerPlantCells().size());
+        System.out.printf("Lignes        : %d%n", map.getPowerLines().size());
+        System.out.printf("Prix          : %.3f €/kWh%n", engine.getMarket().getCurrentPrice());
+    }
+}
@@ -9,6 +9,7 @@ import tg.univlome.epl.ajee.city.skyline.utils.Constants;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Point d'entrée principal de l'application CitySkyline.
@@ -68,15 +69,18 @@ public class Main {
         // Récupérer la difficulté sélectionnée
         GameDifficulty difficulty = menuPanel.getSelectedDifficulty();
 
-        gameEngine.setDifficulty(difficulty);
-        gameEngine.reset();
-
-        // Supprimer l'ancien panneau de jeu si existant
+        // Supprimer l'ancien panneau de jeu si existant (et arrêter sa
+        // simulation avant de réinitialiser le moteur)
         if (gamePanel != null) {
             gamePanel.stopTimer();
+            gameEngine.removeObserver(gamePanel);
             containerPanel.remove(gamePanel);
         }
 
+        gameEngine.setDifficulty(difficulty);
+        // Nouvelle graine à chaque partie (reproductible via getSeed())
+        gameEngine.reset(ThreadLocalRandom.current().nextLong());
+
         // Créer le nouveau panneau de jeu
         gamePanel = new GamePanel(gameEngine, Main::showMenu);
         containerPanel.add(gamePanel, "GAME");
@@ -1,6 +1,7 @@
 package tg.univlome.epl.ajee.city.skyline.model.config;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Utilitaire pour gérer des intervalles de valeurs aléatoires.
@@ -9,8 +10,6 @@ import java.util.Random;
  */
 public class RandomRange {
 
-    private static final Random RANDOM = new Random();
-
     private final int min;
     private final int max;
 
@@ -26,17 +25,29 @@ public class RandomRange {
      * Génère une valeur aléatoire dans l'intervalle [min, max].
      */
     public int getValue() {
+        return getValue(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Génère une valeur dans l'intervalle [min, max] à partir d'un flux
+     * donné (par exemple celui d'une {@link WorldRandom}).
+     */
+    public int getValue(RandomGenerator random) {
         if (min == max) {
             return min;
         }
-        return RANDOM.nextInt(max - min + 1) + min;
+        return random.nextInt(max - min + 1) + min;
     }
 
     /**
      * Génère une valeur double aléatoire dans l'intervalle.
      */
     public double getDoubleValue() {
-        return min + RANDOM.nextDouble() * (max - min);
+        return getDoubleValue(ThreadLocalRandom.current());
+    }
+
+    public double getDoubleValue(RandomGenerator random) {
+        return min + random.nextDouble() * (max - min);
     }
 
     public int getMin() {
@@ -0,0 +1,93 @@
+package tg.univlome.epl.ajee.city.skyline.model.config;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source d'aléa d'une partie, initialisée par une graine.
+ *
+ * Chaque sous-système tire ses valeurs dans son propre flux, dérivé de la
+ * graine : une même graine et une même suite d'actions donnent une partie
+ * identique, et ajouter des tirages dans un sous-système ne décale pas les
+ * autres. Une instance appartient à une seule partie à la fois et n'est
+ * pas partagée entre threads ; {@link #reseed(long)} la réinitialise pour
+ * la partie suivante sans changer les références qu'en gardent les
+ * sous-systèmes.
+ */
+public final class WorldRandom {
+
+    /**
+     * Flux indépendants, un par sous-système.
+     */
+    public enum Stream {
+        MAP("Génération de la carte"),
+        MARKET("Fluctuation des prix"),
+        EVENTS("Événements aléatoires"),
+        PRODUCTION("Production des centrales"),
+        DISTRIBUTION("Distribution en cas de pénurie"),
+        POPULATION("Croissance et habitants"),
+        RESIDENCES("Caractéristiques des résidences");
+
+        private final String description;
+
+        Stream(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private long seed;
+    private final SplittableRandom[] streams = new SplittableRandom[Stream.values().length];
+
+    public WorldRandom(long seed) {
+        reseed(seed);
+    }
+
+    /**
+     * Recrée tous les flux à partir d'une graine, comme une instance neuve.
+     * Les flux obtenus avant l'appel sont abandonnés : ne pas les garder
+     * en champ, les relire via {@link #stream(Stream)}.
+     */
+    public void reseed(long seed) {
+        this.seed = seed;
+        SplittableRandom root = new SplittableRandom(seed);
+        for (Stream stream : Stream.values()) {
+            streams[stream.ordinal()] = root.split();
+        }
+    }
+
+    /**
+     * Crée une source avec une graine tirée au hasard.
+     */
+    public static WorldRandom unseeded() {
+        return new WorldRandom(ThreadLocalRandom.current().nextLong());
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retourne le flux d'un sous-système.
+     */
+    public SplittableRandom stream(Stream stream) {
+        return streams[stream.ordinal()];
+    }
+
+    /**
+     * Tire un entier dans [min, max] (bornes incluses).
+     */
+    public int nextInt(Stream stream, int min, int max) {
+        return new RandomRange(min, max).getValue(stream(stream));
+    }
+
+    /**
+     * Tire un réel dans [0, 1).
+     */
+    public double nextDouble(Stream stream) {
+        return stream(stream).nextDouble();
+    }
+}
@@ -0,0 +1,108 @@
+package tg.univlome.epl.ajee.city.skyline.model.economy;
+
+import java.util.Arrays;
+
+/**
+ * Totaux des transactions par catégorie et par jour, interrogeables sur
+ * n'importe quel intervalle de jours en O(log n) : un arbre de Fenwick par
+ * catégorie, indexé par le jour de la partie (à partir de 1).
+ *
+ * Un enregistrement coûte aussi O(log n), quel que soit le jour. Les
+ * arbres doublent de taille à la demande (un long par jour et par
+ * catégorie, soit environ 1 Mo pour 50 ans de partie).
+ */
+public class FinancialIndex {
+
+    private static final Transaction.Category[] CATEGORIES = Transaction.Category.values();
+    private static final int INITIAL_DAYS = 512;
+
+    private long[][] trees = new long[CATEGORIES.length][INITIAL_DAYS + 1]; // Indices 1 à capacity
+    private int lastDay;
+
+    /**
+     * Ajoute un montant au jour donné.
+     */
+    public void add(Transaction.Category category, int dayInGame, long amount) {
+        if (dayInGame < 1) {
+            throw new IllegalArgumentException("Jour invalide : " + dayInGame);
+        }
+        ensureCapacity(dayInGame);
+        long[] tree = trees[category.ordinal()];
+        for (int i = dayInGame; i < tree.length; i += i & -i) {
+            tree[i] += amount;
+        }
+        lastDay = Math.max(lastDay, dayInGame);
+    }
+
+    /**
+     * Double la capacité jusqu'à couvrir le jour donné. La capacité étant
+     * une puissance de deux, le seul nouveau nœud non nul est la racine
+     * (jours 1 à 2 × capacité), qui reprend le total de l'ancienne racine.
+     */
+    private void ensureCapacity(int dayInGame) {
+        int capacity = trees[0].length - 1;
+        if (dayInGame <= capacity) {
+            return;
+        }
+        while (capacity < dayInGame) {
+            for (int c = 0; c < trees.length; c++) {
+                long[] grown = Arrays.copyOf(trees[c], 2 * capacity + 1);
+                grown[2 * capacity] = grown[capacity];
+                trees[c] = grown;
+            }
+            capacity *= 2;
+        }
+    }
+
+    private long prefix(long[] tree, int day) {
+        long sum = 0;
+        for (int i = Math.min(day, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Total d'une catégorie du jour {@code fromDay} au jour {@code toDay}
+     * inclus.
+     */
+    public long sum(Transaction.Category category, int fromDay, int toDay) {
+        if (toDay < fromDay) {
+            return 0;
+        }
+        long[] tree = trees[category.ordinal()];
+        return prefix(tree, toDay) - prefix(tree, Math.max(0, fromDay - 1));
+    }
+
+    /**
+     * Total des catégories d'un type (revenus ou dépenses) sur l'intervalle.
+     */
+    public long sum(Transaction.Type type, int fromDay, int toDay) {
+        long sum = 0;
+        for (Transaction.Category category : CATEGORIES) {
+            if (category.getType() == type) {
+                sum += sum(category, fromDay, toDay);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Revenus moins dépenses sur l'intervalle.
+     */
+    public long net(int fromDay, int toDay) {
+        return sum(Transaction.Type.INCOME, fromDay, toDay) - sum(Transaction.Type.EXPENSE, fromDay, toDay);
+    }
+
+    /**
+     * Dernier jour ayant reçu une transaction, 0 si aucun.
+     */
+    public int getLastDay() {
+        return lastDay;
+    }
+
+    public void clear() {
+        trees = new long[CATEGORIES.length][INITIAL_DAYS + 1];
+        lastDay = 0;
+    }
+}
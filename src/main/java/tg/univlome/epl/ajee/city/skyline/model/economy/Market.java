@@ -1,25 +1,57 @@
 package tg.univlome.epl.ajee.city.skyline.model.economy;
 
 import tg.univlome.epl.ajee.city.skyline.model.config.RandomRange;
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
 import tg.univlome.epl.ajee.city.skyline.utils.Constants;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Marché de l'électricité.
- * Gère le prix de vente et l'historique des transactions.
+ * Gère le prix de vente et l'historique des transactions, gardé dans un
+ * {@link TransactionLedger} à mémoire bornée.
+ *
+ * Le prix suit par défaut le rapport entre offre et demande
+ * ({@link #updatePrice(int, int)}) ; en mode {@link PricingMode#MERIT_ORDER}
+ * il résulte de la compensation du {@link MeritOrderBook}.
  */
 public class Market {
 
+    /**
+     * Mode de fixation du prix.
+     */
+    public enum PricingMode {
+        SUPPLY_RATIO("Offre / demande"),
+        MERIT_ORDER("Préséance économique");
+
+        private final String displayName;
+
+        PricingMode(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
     private double currentPrice; // Prix actuel par kWh
-    private final List<Transaction> transactionHistory;
+    private PricingMode pricingMode = PricingMode.SUPPLY_RATIO;
+    private final MeritOrderBook orderBook = new MeritOrderBook();
+    private MeritOrderBook.Clearing lastClearing;
+    private final TransactionLedger ledger;
     private int totalEnergySold;
     private int totalRevenue;
+    private final WorldRandom random;
 
     public Market() {
+        this(WorldRandom.unseeded());
+    }
+
+    public Market(WorldRandom random) {
+        this.random = random;
         this.currentPrice = Constants.BASE_ELECTRICITY_PRICE;
-        this.transactionHistory = new ArrayList<>();
+        this.ledger = new TransactionLedger();
         this.totalEnergySold = 0;
         this.totalRevenue = 0;
     }
@@ -28,6 +60,28 @@ public class Market {
         return currentPrice;
     }
 
+    public PricingMode getPricingMode() {
+        return pricingMode;
+    }
+
+    public void setPricingMode(PricingMode pricingMode) {
+        this.pricingMode = pricingMode;
+    }
+
+    /**
+     * Carnet d'ordres des centrales, tenu à jour quel que soit le mode.
+     */
+    public MeritOrderBook getOrderBook() {
+        return orderBook;
+    }
+
+    /**
+     * Dernière compensation du carnet, null si aucune.
+     */
+    public MeritOrderBook.Clearing getLastClearing() {
+        return lastClearing;
+    }
+
     /**
      * Met à jour le prix en fonction de l'offre et la demande.
      * 
@@ -52,11 +106,25 @@ public class Market {
             currentPrice = Constants.BASE_ELECTRICITY_PRICE * 0.9;
         } else {
             // Équilibre : prix normal avec petite fluctuation
-            double fluctuation = new RandomRange(-5, 5).getValue() / 100.0;
+            double fluctuation = new RandomRange(-5, 5).getValue(random.stream(WorldRandom.Stream.MARKET)) / 100.0;
             currentPrice = Constants.BASE_ELECTRICITY_PRICE * (1 + fluctuation);
         }
     }
 
+    /**
+     * Fixe le prix par compensation du carnet d'ordres, face aux demandes
+     * soumises pour ce cycle. Sans offre ni demande, le prix ne change pas.
+     *
+     * @param supply Production totale du cycle
+     */
+    public MeritOrderBook.Clearing clearOrderBook(int supply) {
+        lastClearing = orderBook.clear(supply);
+        if (!Double.isNaN(lastClearing.getPrice())) {
+            currentPrice = lastClearing.getPrice();
+        }
+        return lastClearing;
+    }
+
     /**
      * Enregistre une vente d'électricité.
      * 
@@ -68,11 +136,7 @@ public class Market {
         totalEnergySold += energySold;
         totalRevenue += revenue;
 
-        transactionHistory.add(new Transaction(
-                Transaction.Type.INCOME,
-                revenue,
-                String.format("Vente de %d kWh", energySold),
-                dayInGame));
+        ledger.record(Transaction.Category.ENERGY_SALE, revenue, dayInGame, energySold, null);
 
         return revenue;
     }
@@ -81,32 +145,57 @@ public class Market {
      * Enregistre une dépense.
      */
     public void recordExpense(int amount, String description, int dayInGame) {
-        transactionHistory.add(new Transaction(
-                Transaction.Type.EXPENSE,
-                amount,
-                description,
-                dayInGame));
+        recordExpense(Transaction.Category.OTHER_EXPENSE, amount, description, dayInGame);
+    }
+
+    /**
+     * Enregistre une dépense d'une catégorie donnée.
+     *
+     * @param detail Détail de la description, par exemple le nom du bâtiment
+     *               construit (voir {@link Transaction.Category#describe(int, String)})
+     */
+    public void recordExpense(Transaction.Category category, int amount, String detail, int dayInGame) {
+        if (category.getType() != Transaction.Type.EXPENSE) {
+            throw new IllegalArgumentException("Catégorie de revenu : " + category);
+        }
+        ledger.record(category, amount, dayInGame, 0, detail);
     }
 
     /**
      * Enregistre un revenu (taxes, etc.).
      */
     public void recordIncome(int amount, String description, int dayInGame) {
-        transactionHistory.add(new Transaction(
-                Transaction.Type.INCOME,
-                amount,
-                description,
-                dayInGame));
+        recordIncome(Transaction.Category.OTHER_INCOME, amount, description, dayInGame);
+    }
+
+    /**
+     * Enregistre un revenu d'une catégorie donnée.
+     *
+     * @param detail Détail de la description (voir
+     *               {@link Transaction.Category#describe(int, String)})
+     */
+    public void recordIncome(Transaction.Category category, int amount, String detail, int dayInGame) {
+        if (category.getType() != Transaction.Type.INCOME) {
+            throw new IllegalArgumentException("Catégorie de dépense : " + category);
+        }
+        ledger.record(category, amount, dayInGame, 0, detail);
     }
 
+    /**
+     * Retourne les transactions encore gardées telles quelles (au plus
+     * {@link TransactionLedger#getRecentCapacity()}) ; les plus anciennes ne
+     * subsistent que dans les totaux du journal ({@link #getLedger()}).
+     */
     public List<Transaction> getTransactionHistory() {
-        return new ArrayList<>(transactionHistory);
+        return ledger.getRecent(ledger.getRecentCapacity());
     }
 
     public List<Transaction> getRecentTransactions(int count) {
-        int size = transactionHistory.size();
-        int from = Math.max(0, size - count);
-        return new ArrayList<>(transactionHistory.subList(from, size));
+        return ledger.getRecent(count);
+    }
+
+    public TransactionLedger getLedger() {
+        return ledger;
     }
 
     public int getTotalEnergySold() {
@@ -126,7 +215,9 @@ public class Market {
      */
     public void reset() {
         this.currentPrice = Constants.BASE_ELECTRICITY_PRICE;
-        this.transactionHistory.clear();
+        this.orderBook.clear();
+        this.lastClearing = null;
+        this.ledger.clear();
         this.totalEnergySold = 0;
         this.totalRevenue = 0;
     }
@@ -0,0 +1,283 @@
+package tg.univlome.epl.ajee.city.skyline.model.economy;
+
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlantListener;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Carnet d'ordres du marché à préséance économique (merit order).
+ *
+ * Offre : chaque centrale en service propose sa capacité nominale à son
+ * coût marginal ({@link PowerPlant#calculateMarginalCost()}). Les offres
+ * sont regroupées par prix dans un arbre trié, tenu à jour à la
+ * construction, à l'amélioration, à l'arrêt et à la démolition d'une
+ * centrale (O(log n)) : rien n'est retrié à chaque cycle.
+ *
+ * Demande : chaque groupe de résidences soumet une quantité et le prix
+ * maximal qu'il accepte ({@link #addDemand(double, long)}).
+ *
+ * Le marché est compensé en parcourant les offres de la moins chère à la
+ * plus chère face aux demandes de la plus offrante à la moins offrante ;
+ * le coût se limite au nombre de prix distincts parcourus.
+ */
+public class MeritOrderBook {
+
+    // Offres regroupées par prix, du moins cher au plus cher
+    private final TreeMap<Double, PriceLevel> supply = new TreeMap<>();
+    private final Map<PowerPlant, Offer> offers = new HashMap<>();
+    private final PowerPlantListener plantListener = this::update;
+    private long totalCapacity;
+
+    // Demandes du cycle, dans l'ordre de soumission
+    private double[] bidPrices = new double[4];
+    private long[] bidQuantities = new long[4];
+    private int bidCount;
+
+    // ===== Offre =====
+
+    /**
+     * Inscrit une centrale ; son offre suit ensuite ses changements.
+     */
+    public void add(PowerPlant plant) {
+        if (offers.containsKey(plant)) {
+            return;
+        }
+        offers.put(plant, new Offer());
+        plant.addListener(plantListener);
+        update(plant);
+    }
+
+    /**
+     * Retire une centrale démolie.
+     */
+    public boolean remove(PowerPlant plant) {
+        Offer offer = offers.remove(plant);
+        if (offer == null) {
+            return false;
+        }
+        plant.removeListener(plantListener);
+        unlist(offer);
+        return true;
+    }
+
+    /**
+     * Recalcule l'offre d'une centrale (niveau ou état de fonctionnement
+     * changé).
+     */
+    private void update(PowerPlant plant) {
+        Offer offer = offers.get(plant);
+        if (offer == null) {
+            return;
+        }
+        unlist(offer);
+        if (plant.isOperational()) {
+            offer.price = plant.calculateMarginalCost();
+            offer.capacity = (long) plant.calculateNominalProduction();
+            PriceLevel level = supply.computeIfAbsent(offer.price, price -> new PriceLevel());
+            level.capacity += offer.capacity;
+            level.plants++;
+            totalCapacity += offer.capacity;
+            offer.listed = true;
+        }
+    }
+
+    private void unlist(Offer offer) {
+        if (!offer.listed) {
+            return;
+        }
+        PriceLevel level = supply.get(offer.price);
+        level.capacity -= offer.capacity;
+        if (--level.plants == 0) {
+            supply.remove(offer.price);
+        }
+        totalCapacity -= offer.capacity;
+        offer.listed = false;
+    }
+
+    public int getPlantCount() {
+        return offers.size();
+    }
+
+    /**
+     * Nombre de prix distincts parmi les offres.
+     */
+    public int getPriceLevelCount() {
+        return supply.size();
+    }
+
+    /**
+     * Capacité nominale totale des centrales en service, en kWh.
+     */
+    public long getTotalCapacity() {
+        return totalCapacity;
+    }
+
+    /**
+     * Prix de l'offre la moins chère, NaN si aucune.
+     */
+    public double getLowestOffer() {
+        return supply.isEmpty() ? Double.NaN : supply.firstKey();
+    }
+
+    // ===== Demande =====
+
+    /**
+     * Efface les demandes du cycle précédent.
+     */
+    public void clearDemand() {
+        bidCount = 0;
+    }
+
+    /**
+     * Ajoute la demande d'un groupe de résidences : {@code quantity} kWh à
+     * un prix au plus égal à {@code maxPrice}.
+     */
+    public void addDemand(double maxPrice, long quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        if (bidCount == bidPrices.length) {
+            bidPrices = Arrays.copyOf(bidPrices, 2 * bidCount);
+            bidQuantities = Arrays.copyOf(bidQuantities, 2 * bidCount);
+        }
+        // Insertion triée, de la plus offrante à la moins offrante
+        int i = bidCount++;
+        while (i > 0 && bidPrices[i - 1] < maxPrice) {
+            bidPrices[i] = bidPrices[i - 1];
+            bidQuantities[i] = bidQuantities[i - 1];
+            i--;
+        }
+        bidPrices[i] = maxPrice;
+        bidQuantities[i] = quantity;
+    }
+
+    // ===== Compensation =====
+
+    /**
+     * Compense le marché pour un cycle.
+     *
+     * La production réelle ({@code availableSupply}, variabilité des
+     * renouvelables et événements compris) réduit ou augmente chaque offre
+     * dans la même proportion par rapport à la capacité nominale.
+     *
+     * Le prix est le coût marginal de la dernière offre retenue. Si toute
+     * l'offre est vendue et qu'une demande reste à servir, c'est le prix
+     * maximal de cette demande (pénurie). Sans échange possible, c'est
+     * l'offre la moins chère ; NaN sans offre ni demande.
+     */
+    public Clearing clear(long availableSupply) {
+        double factor = totalCapacity > 0 ? (double) Math.max(0, availableSupply) / totalCapacity : 0;
+        Iterator<Map.Entry<Double, PriceLevel>> levels = supply.entrySet().iterator();
+        double offerPrice = Double.NaN;
+        double offerLeft = 0;
+        int bid = 0;
+        double bidLeft = bidCount > 0 ? bidQuantities[0] : 0;
+        double traded = 0;
+        double price = Double.NaN;
+        boolean shortage = false;
+
+        while (bid < bidCount) {
+            if (offerLeft <= 0) {
+                if (!levels.hasNext()) {
+                    shortage = true;
+                    break;
+                }
+                Map.Entry<Double, PriceLevel> level = levels.next();
+                offerPrice = level.getKey();
+                offerLeft = level.getValue().capacity * factor;
+                continue;
+            }
+            if (offerPrice > bidPrices[bid]) {
+                break; // Plus aucune demande n'accepte l'offre suivante
+            }
+            double quantity = Math.min(offerLeft, bidLeft);
+            traded += quantity;
+            offerLeft -= quantity;
+            bidLeft -= quantity;
+            price = offerPrice;
+            if (bidLeft <= 0) {
+                bid++;
+                bidLeft = bid < bidCount ? bidQuantities[bid] : 0;
+            }
+        }
+
+        if (shortage) {
+            price = bidPrices[bid];
+        } else if (traded == 0) {
+            price = getLowestOffer();
+        }
+        return new Clearing(price, (long) traded, shortage);
+    }
+
+    /**
+     * Vide le carnet (nouvelle partie).
+     */
+    public void clear() {
+        for (PowerPlant plant : offers.keySet()) {
+            plant.removeListener(plantListener);
+        }
+        offers.clear();
+        supply.clear();
+        totalCapacity = 0;
+        bidCount = 0;
+    }
+
+    /**
+     * Résultat d'une compensation.
+     */
+    public static final class Clearing {
+
+        private final double price;
+        private final long quantity;
+        private final boolean shortage;
+
+        Clearing(double price, long quantity, boolean shortage) {
+            this.price = price;
+            this.quantity = quantity;
+            this.shortage = shortage;
+        }
+
+        /**
+         * Prix d'équilibre en € par kWh, NaN si le carnet est vide.
+         */
+        public double getPrice() {
+            return price;
+        }
+
+        /**
+         * Quantité échangée en kWh.
+         */
+        public long getQuantity() {
+            return quantity;
+        }
+
+        /**
+         * Vrai si l'offre n'a pas suffi aux demandes prêtes à la payer.
+         */
+        public boolean isShortage() {
+            return shortage;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Compensation | Prix: %.3f€/kWh | Échangé: %d kWh%s", price, quantity,
+                    shortage ? " | Pénurie" : "");
+        }
+    }
+
+    private static final class PriceLevel {
+        private long capacity;
+        private int plants;
+    }
+
+    private static final class Offer {
+        private double price;
+        private long capacity;
+        private boolean listed;
+    }
+}
@@ -1,9 +1,16 @@
 package tg.univlome.epl.ajee.city.skyline.model.economy;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 /**
  * Représente une transaction financière.
+ *
+ * Les transactions du journal ({@link TransactionStore}) ne sont pas
+ * gardées comme objets : celles-ci sont recréées à la lecture, et leur
+ * description n'est formatée qu'au premier appel de
+ * {@link #getDescription()}.
  */
 public class Transaction {
 
@@ -22,34 +29,101 @@ public class Transaction {
         }
     }
 
+    /**
+     * Origine d'une transaction, pour les totaux par catégorie
+     * ({@link TransactionLedger}).
+     */
+    public enum Category {
+        ENERGY_SALE("Vente d'électricité", Type.INCOME),
+        TAXES("Taxes", Type.INCOME),
+        OTHER_INCOME("Autre revenu", Type.INCOME),
+        MAINTENANCE("Maintenance", Type.EXPENSE),
+        CONSTRUCTION("Construction", Type.EXPENSE),
+        UPGRADE("Amélioration", Type.EXPENSE),
+        OTHER_EXPENSE("Autre dépense", Type.EXPENSE);
+
+        private final String displayName;
+        private final Type type;
+
+        Category(String displayName, Type type) {
+            this.displayName = displayName;
+            this.type = type;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * Description d'une transaction de cette catégorie, à partir de son
+         * argument (kWh vendus) ou de son détail (nom du bâtiment, libellé
+         * libre).
+         */
+        public String describe(int argument, String detail) {
+            return switch (this) {
+                case ENERGY_SALE -> String.format("Vente de %d kWh", argument);
+                case TAXES -> "💰 Taxes collectées";
+                case MAINTENANCE -> "Maintenance des centrales";
+                case CONSTRUCTION -> "Construction: " + detail;
+                case UPGRADE -> "Amélioration: " + detail;
+                case OTHER_INCOME, OTHER_EXPENSE -> detail;
+            };
+        }
+    }
+
     private final Type type;
+    private final Category category;
     private final int amount;
-    private final String description;
-    private final LocalDateTime timestamp;
+    private final int argument;
+    private final String detail;
+    private String description; // Formatée à la demande
+    private final long timestampMillis;
     private final int dayInGame;
 
     public Transaction(Type type, int amount, String description, int dayInGame) {
-        this.type = type;
-        this.amount = amount;
+        this(type == Type.INCOME ? Category.OTHER_INCOME : Category.OTHER_EXPENSE, amount, description, dayInGame);
+    }
+
+    public Transaction(Category category, int amount, String description, int dayInGame) {
+        this(category, amount, dayInGame, 0, description, System.currentTimeMillis());
         this.description = description;
-        this.timestamp = LocalDateTime.now();
+    }
+
+    Transaction(Category category, int amount, int dayInGame, int argument, String detail, long timestampMillis) {
+        this.type = category.getType();
+        this.category = category;
+        this.amount = amount;
         this.dayInGame = dayInGame;
+        this.argument = argument;
+        this.detail = detail;
+        this.timestampMillis = timestampMillis;
     }
 
     public Type getType() {
         return type;
     }
 
+    public Category getCategory() {
+        return category;
+    }
+
     public int getAmount() {
         return amount;
     }
 
     public String getDescription() {
+        if (description == null) {
+            description = category.describe(argument, detail);
+        }
         return description;
     }
 
     public LocalDateTime getTimestamp() {
-        return timestamp;
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
     }
 
     public int getDayInGame() {
@@ -74,6 +148,6 @@ public class Transaction {
     @Override
     public String toString() {
         String sign = isIncome() ? "+" : "-";
-        return String.format("[Jour %d] %s%d€ - %s", dayInGame, sign, amount, description);
+        return String.format("[Jour %d] %s%d€ - %s", dayInGame, sign, amount, getDescription());
     }
 }
@@ -0,0 +1,237 @@
+package tg.univlome.epl.ajee.city.skyline.model.economy;
+
+import tg.univlome.epl.ajee.city.skyline.utils.Constants;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Journal des transactions à mémoire bornée, quelle que soit la durée de la
+ * partie. Trois niveaux :
+ * - les dernières transactions, telles quelles, dans un tampon circulaire
+ * en colonnes ({@link TransactionStore}) ;
+ * - les totaux par jour et par catégorie des {@link #DAYS_KEPT} derniers
+ * jours ;
+ * - les totaux par mois (de {@link Constants#DAYS_PER_MONTH} jours) et par
+ * catégorie des {@link #MONTHS_KEPT} derniers mois.
+ *
+ * Les totaux par catégorie depuis le début de la partie sont aussi gardés,
+ * ainsi qu'un {@link FinancialIndex} (totaux par jour sur toute la partie,
+ * interrogeables par intervalle ; un long par jour et par catégorie).
+ * Les transactions arrivent dans l'ordre des jours ; une transaction plus
+ * ancienne que la fenêtre d'un niveau n'y est pas comptée.
+ */
+public class TransactionLedger {
+
+    public static final int DEFAULT_RECENT_CAPACITY = 256;
+
+    /**
+     * Nombre de jours dont les totaux sont gardés (trois mois).
+     */
+    public static final int DAYS_KEPT = 3 * Constants.DAYS_PER_MONTH;
+
+    /**
+     * Nombre de mois dont les totaux sont gardés (dix ans).
+     */
+    public static final int MONTHS_KEPT = 10 * Constants.MONTHS_PER_YEAR;
+
+    private static final Transaction.Category[] CATEGORIES = Transaction.Category.values();
+
+    // ===== Dernières transactions =====
+    private final TransactionStore recent;
+    private long recordedCount;
+
+    // ===== Totaux =====
+    private final RollUp daily = new RollUp(DAYS_KEPT);
+    private final RollUp monthly = new RollUp(MONTHS_KEPT);
+    private final long[] totals = new long[CATEGORIES.length];
+    private final FinancialIndex index = new FinancialIndex();
+
+    public TransactionLedger() {
+        this(DEFAULT_RECENT_CAPACITY);
+    }
+
+    public TransactionLedger(int recentCapacity) {
+        this.recent = new TransactionStore(recentCapacity);
+    }
+
+    /**
+     * Mois (à partir de 1) contenant un jour de la partie.
+     */
+    public static int monthOf(int dayInGame) {
+        return Math.floorDiv(dayInGame - 1, Constants.DAYS_PER_MONTH) + 1;
+    }
+
+    /**
+     * Enregistre une transaction à tous les niveaux, sans allocation.
+     *
+     * @param argument Valeur numérique de la description (kWh vendus)
+     * @param detail   Texte de la description (nom du bâtiment), peut être
+     *                 null
+     * @see Transaction.Category#describe(int, String)
+     */
+    public void record(Transaction.Category category, int amount, int dayInGame, int argument, String detail) {
+        recent.add(category, amount, dayInGame, argument, detail);
+        recordedCount++;
+
+        daily.add(dayInGame, category.ordinal(), amount);
+        monthly.add(monthOf(dayInGame), category.ordinal(), amount);
+        totals[category.ordinal()] += amount;
+        index.add(category, dayInGame, amount);
+    }
+
+    // ===== Dernières transactions =====
+
+    public int getRecentCapacity() {
+        return recent.capacity();
+    }
+
+    /**
+     * Dernières transactions, à lire en place (sans créer d'objets).
+     */
+    public TransactionStore getRecentStore() {
+        return recent;
+    }
+
+    /**
+     * Retourne au plus {@code count} dernières transactions, de la plus
+     * ancienne à la plus récente.
+     */
+    public List<Transaction> getRecent(int count) {
+        return recent.getLast(count);
+    }
+
+    /**
+     * Nombre de transactions enregistrées depuis le début de la partie, y
+     * compris celles sorties du tampon.
+     */
+    public long getRecordedCount() {
+        return recordedCount;
+    }
+
+    // ===== Totaux =====
+
+    /**
+     * Total d'une catégorie pour un jour, 0 si ce jour n'est plus gardé.
+     */
+    public long getDailyTotal(int dayInGame, Transaction.Category category) {
+        return daily.get(dayInGame, category.ordinal());
+    }
+
+    /**
+     * Revenus moins dépenses d'un jour.
+     */
+    public long getDailyNet(int dayInGame) {
+        return daily.net(dayInGame);
+    }
+
+    /**
+     * Total d'une catégorie pour un mois ({@link #monthOf(int)}), 0 si ce
+     * mois n'est plus gardé.
+     */
+    public long getMonthlyTotal(int month, Transaction.Category category) {
+        return monthly.get(month, category.ordinal());
+    }
+
+    public long getMonthlyNet(int month) {
+        return monthly.net(month);
+    }
+
+    /**
+     * Total d'une catégorie depuis le début de la partie.
+     */
+    public long getTotal(Transaction.Category category) {
+        return totals[category.ordinal()];
+    }
+
+    /**
+     * Totaux par jour sur toute la partie, pour les rapports
+     * ({@code FinancialReport}).
+     */
+    public FinancialIndex getIndex() {
+        return index;
+    }
+
+    public boolean isDayKept(int dayInGame) {
+        return daily.contains(dayInGame);
+    }
+
+    public boolean isMonthKept(int month) {
+        return monthly.contains(month);
+    }
+
+    /**
+     * Vide le journal (nouvelle partie).
+     */
+    public void clear() {
+        recent.clear();
+        recordedCount = 0;
+        daily.clear();
+        monthly.clear();
+        Arrays.fill(totals, 0);
+        index.clear();
+    }
+
+    /**
+     * Totaux par période (jour ou mois) et par catégorie pour les
+     * {@code periods.length} dernières périodes. La période p occupe la
+     * ligne {@code p % lignes} ; une période plus récente recycle la ligne.
+     */
+    private static final class RollUp {
+
+        private static final int EMPTY = Integer.MIN_VALUE;
+
+        private final int[] periods; // Période occupant chaque ligne
+        private final long[] amounts; // ligne × catégorie
+        private int latest = EMPTY;
+
+        RollUp(int rows) {
+            periods = new int[rows];
+            amounts = new long[rows * CATEGORIES.length];
+            clear();
+        }
+
+        void add(int period, int category, int amount) {
+            if (latest != EMPTY && period <= latest - periods.length) {
+                return; // Hors de la fenêtre
+            }
+            int row = Math.floorMod(period, periods.length);
+            if (periods[row] != period) {
+                periods[row] = period;
+                Arrays.fill(amounts, row * CATEGORIES.length, (row + 1) * CATEGORIES.length, 0);
+            }
+            amounts[row * CATEGORIES.length + category] += amount;
+            latest = latest == EMPTY ? period : Math.max(latest, period);
+        }
+
+        boolean contains(int period) {
+            return periods[Math.floorMod(period, periods.length)] == period;
+        }
+
+        long get(int period, int category) {
+            if (!contains(period)) {
+                return 0;
+            }
+            return amounts[Math.floorMod(period, periods.length) * CATEGORIES.length + category];
+        }
+
+        long net(int period) {
+            if (!contains(period)) {
+                return 0;
+            }
+            int base = Math.floorMod(period, periods.length) * CATEGORIES.length;
+            long net = 0;
+            for (Transaction.Category category : CATEGORIES) {
+                long amount = amounts[base + category.ordinal()];
+                net += category.getType() == Transaction.Type.INCOME ? amount : -amount;
+            }
+            return net;
+        }
+
+        void clear() {
+            Arrays.fill(periods, EMPTY);
+            Arrays.fill(amounts, 0);
+            latest = EMPTY;
+        }
+    }
+}
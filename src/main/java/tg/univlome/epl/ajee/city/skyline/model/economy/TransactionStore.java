@@ -0,0 +1,118 @@
+package tg.univlome.epl.ajee.city.skyline.model.economy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tampon circulaire des dernières transactions, en colonnes primitives :
+ * catégorie, montant, jour, argument (kWh vendus) et détail (référence vers
+ * un nom existant), plus l'heure réelle en millisecondes.
+ *
+ * L'ajout n'alloue rien. La description n'est formatée qu'à la lecture
+ * ({@link #describe(int)}, {@link #get(int)}). Les indices de lecture vont
+ * de 0 (la plus ancienne gardée) à {@link #size()} - 1 (la plus récente).
+ */
+public class TransactionStore {
+
+    private static final Transaction.Category[] CATEGORIES = Transaction.Category.values();
+
+    private final byte[] categories;
+    private final int[] amounts;
+    private final int[] days;
+    private final int[] arguments;
+    private final String[] details;
+    private final long[] timestamps;
+    private int next; // Case de la prochaine écriture
+    private int size;
+
+    public TransactionStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacity);
+        }
+        categories = new byte[capacity];
+        amounts = new int[capacity];
+        days = new int[capacity];
+        arguments = new int[capacity];
+        details = new String[capacity];
+        timestamps = new long[capacity];
+    }
+
+    /**
+     * Ajoute une transaction, en écrasant la plus ancienne si le tampon est
+     * plein.
+     */
+    public void add(Transaction.Category category, int amount, int dayInGame, int argument, String detail) {
+        categories[next] = (byte) category.ordinal();
+        amounts[next] = amount;
+        days[next] = dayInGame;
+        arguments[next] = argument;
+        details[next] = detail;
+        timestamps[next] = System.currentTimeMillis();
+        next = (next + 1) % categories.length;
+        size = Math.min(size + 1, categories.length);
+    }
+
+    public int capacity() {
+        return categories.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Transaction " + index + " sur " + size);
+        }
+        return (next - size + index + categories.length) % categories.length;
+    }
+
+    public Transaction.Category getCategory(int index) {
+        return CATEGORIES[categories[slot(index)]];
+    }
+
+    public int getAmount(int index) {
+        return amounts[slot(index)];
+    }
+
+    public int getDayInGame(int index) {
+        return days[slot(index)];
+    }
+
+    /**
+     * Formate la description d'une transaction.
+     */
+    public String describe(int index) {
+        int slot = slot(index);
+        return CATEGORIES[categories[slot]].describe(arguments[slot], details[slot]);
+    }
+
+    /**
+     * Recrée une transaction (description formatée à la demande).
+     */
+    public Transaction get(int index) {
+        int slot = slot(index);
+        return new Transaction(CATEGORIES[categories[slot]], amounts[slot], days[slot], arguments[slot],
+                details[slot], timestamps[slot]);
+    }
+
+    /**
+     * Retourne au plus {@code count} dernières transactions, de la plus
+     * ancienne à la plus récente.
+     */
+    public List<Transaction> getLast(int count) {
+        int n = Math.max(0, Math.min(count, size));
+        List<Transaction> result = new ArrayList<>(n);
+        for (int i = size - n; i < size; i++) {
+            result.add(get(i));
+        }
+        return result;
+    }
+
+    public void clear() {
+        Arrays.fill(details, null);
+        next = 0;
+        size = 0;
+    }
+}
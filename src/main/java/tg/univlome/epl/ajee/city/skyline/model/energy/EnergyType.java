@@ -6,24 +6,27 @@ package tg.univlome.epl.ajee.city.skyline.model.energy;
  */
 public enum EnergyType {
 
-    COAL("Charbon", "🏭", "plant_coal.png", 0.8, 0.3),
-    SOLAR("Solaire", "☀️", "plant_solar.png", 0.0, 0.6),
-    WIND("Éolien", "🌬️", "plant_wind.png", 0.0, 0.5),
-    NUCLEAR("Nucléaire", "⚛️", "plant_nuclear.png", 0.1, 0.9),
-    HYDRO("Hydraulique", "💧", "plant_hydro.png", 0.0, 0.85);
+    COAL("Charbon", "🏭", "plant_coal.png", 0.8, 0.3, 0.05),
+    SOLAR("Solaire", "☀️", "plant_solar.png", 0.0, 0.6, 0.0),
+    WIND("Éolien", "🌬️", "plant_wind.png", 0.0, 0.5, 0.0),
+    NUCLEAR("Nucléaire", "⚛️", "plant_nuclear.png", 0.1, 0.9, 0.02),
+    HYDRO("Hydraulique", "💧", "plant_hydro.png", 0.0, 0.85, 0.0);
 
     private final String displayName;
     private final String icon;
     private final String imageName;
     private final double pollutionFactor;
     private final double reliability;
+    private final double fuelCost; // Coût du combustible par kWh produit
 
-    EnergyType(String displayName, String icon, String imageName, double pollutionFactor, double reliability) {
+    EnergyType(String displayName, String icon, String imageName, double pollutionFactor, double reliability,
+            double fuelCost) {
         this.displayName = displayName;
         this.icon = icon;
         this.imageName = imageName;
         this.pollutionFactor = pollutionFactor;
         this.reliability = reliability;
+        this.fuelCost = fuelCost;
     }
 
     public String getDisplayName() {
@@ -46,6 +49,13 @@ public enum EnergyType {
         return reliability;
     }
 
+    /**
+     * Coût du combustible en € par kWh (nul pour les renouvelables).
+     */
+    public double getFuelCost() {
+        return fuelCost;
+    }
+
     public boolean isRenewable() {
         return this == SOLAR || this == WIND || this == HYDRO;
     }
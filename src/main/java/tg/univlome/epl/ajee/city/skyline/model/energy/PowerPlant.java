@@ -1,6 +1,11 @@
 package tg.univlome.epl.ajee.city.skyline.model.energy;
 
 import tg.univlome.epl.ajee.city.skyline.model.config.RandomRange;
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Classe abstraite représentant une centrale électrique.
@@ -8,7 +13,8 @@ import tg.univlome.epl.ajee.city.skyline.model.config.RandomRange;
  */
 public abstract class PowerPlant {
 
-    private static int idCounter = 0;
+    // Atomique : des parties peuvent être simulées en parallèle
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger();
 
     protected final int id;
     protected String name;
@@ -19,10 +25,12 @@ public abstract class PowerPlant {
     protected final int baseMaintenance;
     protected boolean operational;
     protected int age; // Âge en cycles
+    protected WorldRandom random; // Aléa de la partie (production variable)
+    private final List<PowerPlantListener> listeners = new ArrayList<>(1);
 
     protected PowerPlant(String name, EnergyType energyType, int baseCost,
             int baseProduction, int baseMaintenance) {
-        this.id = ++idCounter;
+        this.id = ID_COUNTER.incrementAndGet();
         this.name = name;
         this.energyType = energyType;
         this.baseCost = baseCost;
@@ -31,6 +39,7 @@ public abstract class PowerPlant {
         this.level = PlantLevel.LEVEL_1;
         this.operational = true;
         this.age = 0;
+        this.random = WorldRandom.unseeded();
     }
 
     public int getId() {
@@ -57,6 +66,17 @@ public abstract class PowerPlant {
         return baseCost;
     }
 
+    public WorldRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Rattache la centrale à l'aléa d'une partie.
+     */
+    public void setRandom(WorldRandom random) {
+        this.random = random;
+    }
+
     /**
      * Calcule la production actuelle en tenant compte du niveau et de la fiabilité.
      * Les centrales renouvelables ont une production variable.
@@ -66,18 +86,31 @@ public abstract class PowerPlant {
             return 0;
         }
 
-        double production = baseProduction * level.getProductionMultiplier();
+        return (int) applyVariability(calculateNominalProduction(), energyType.getReliability(), random);
+    }
 
-        // Variabilité basée sur la fiabilité
-        double reliability = energyType.getReliability();
+    /**
+     * Applique la variabilité liée à la fiabilité à une production nominale
+     * (un tirage sur le flux de production si la fiabilité est inférieure
+     * à 1).
+     */
+    public static double applyVariability(double nominalProduction, double reliability, WorldRandom random) {
+        double production = nominalProduction;
         if (reliability < 1.0) {
             // Production variable : entre (reliability * 100)% et 100%
             double minFactor = reliability;
-            double factor = minFactor + new RandomRange(0, 100).getValue() / 100.0 * (1 - minFactor);
+            double factor = minFactor + new RandomRange(0, 100).getValue(random.stream(WorldRandom.Stream.PRODUCTION)) / 100.0 * (1 - minFactor);
             production *= factor;
         }
+        return production;
+    }
 
-        return (int) production;
+    /**
+     * Production à pleine capacité, sans la variabilité des renouvelables
+     * (ne consomme pas d'aléa).
+     */
+    public double calculateNominalProduction() {
+        return operational ? baseProduction * level.getProductionMultiplier() : 0;
     }
 
     /**
@@ -87,6 +120,16 @@ public abstract class PowerPlant {
         return (int) (baseMaintenance * level.getMaintenanceMultiplier());
     }
 
+    /**
+     * Coût marginal d'un kWh : maintenance rapportée à la production à
+     * pleine capacité, plus le combustible ({@link EnergyType#getFuelCost()}).
+     * Prix de l'offre de la centrale sur le marché à préséance économique.
+     */
+    public double calculateMarginalCost() {
+        return calculateMaintenance() / (baseProduction * level.getProductionMultiplier())
+                + energyType.getFuelCost();
+    }
+
     /**
      * Calcule le coût d'amélioration au niveau suivant.
      */
@@ -103,6 +146,7 @@ public abstract class PowerPlant {
     public boolean upgrade() {
         if (level.canUpgrade()) {
             level = level.getNextLevel();
+            fireChanged();
             return true;
         }
         return false;
@@ -113,7 +157,24 @@ public abstract class PowerPlant {
     }
 
     public void setOperational(boolean operational) {
-        this.operational = operational;
+        if (this.operational != operational) {
+            this.operational = operational;
+            fireChanged();
+        }
+    }
+
+    public void addListener(PowerPlantListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(PowerPlantListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireChanged() {
+        for (PowerPlantListener listener : listeners) {
+            listener.powerPlantChanged(this);
+        }
     }
 
     public int getAge() {
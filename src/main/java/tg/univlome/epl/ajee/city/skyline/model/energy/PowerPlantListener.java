@@ -0,0 +1,11 @@
+package tg.univlome.epl.ajee.city.skyline.model.energy;
+
+/**
+ * Prévenu quand le niveau ou l'état de fonctionnement d'une centrale
+ * change (valeurs agrégées par la ville).
+ */
+@FunctionalInterface
+public interface PowerPlantListener {
+
+    void powerPlantChanged(PowerPlant plant);
+}
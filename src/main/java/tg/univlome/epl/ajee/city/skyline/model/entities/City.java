@@ -1,6 +1,7 @@
 package tg.univlome.epl.ajee.city.skyline.model.entities;
 
 import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlantListener;
 import tg.univlome.epl.ajee.city.skyline.utils.Constants;
 
 import java.util.ArrayList;
@@ -9,18 +10,47 @@ import java.util.List;
 /**
  * Représente la ville que le joueur doit alimenter en énergie.
  * Conteneur principal pour les résidences et centrales.
+ *
+ * Les totaux (demande, habitants, satisfaction, maintenance) sont tenus à
+ * jour au fil des ajouts, suppressions et changements signalés par les
+ * résidences et les centrales : leur lecture ne parcourt plus les listes.
+ *
+ * L'état des résidences de la ville est rangé en colonnes dans son
+ * {@link ResidenceStore} ; les paramètres de production des centrales en
+ * service sont recopiés dans des tableaux parallèles.
  */
 public class City {
 
     private String name;
     private final List<Residence> residences;
     private final List<PowerPlant> powerPlants;
+    private final ResidenceStore residenceStore;
     private int globalHappiness;
 
+    // Totaux des résidences, mis à jour par residenceListener
+    private int totalDemand;
+    private int totalInhabitants;
+    private long totalSatisfaction;
+    private final ResidenceListener residenceListener = (residence, energyNeedDelta, inhabitantsDelta,
+            satisfactionDelta) -> {
+        totalDemand += energyNeedDelta;
+        totalInhabitants += inhabitantsDelta;
+        totalSatisfaction += satisfactionDelta;
+    };
+
+    // Centrales en service et leurs paramètres, recalculés après un changement signalé
+    private PowerPlant[] operationalPlants = new PowerPlant[0];
+    private double[] plantNominalProduction = new double[0];
+    private double[] plantReliability = new double[0];
+    private int totalMaintenance;
+    private boolean plantTotalsDirty;
+    private final PowerPlantListener plantListener = plant -> plantTotalsDirty = true;
+
     public City(String name) {
         this.name = name;
         this.residences = new ArrayList<>();
         this.powerPlants = new ArrayList<>();
+        this.residenceStore = new ResidenceStore();
         this.globalHappiness = Constants.INITIAL_HAPPINESS;
     }
 
@@ -40,10 +70,23 @@ public class City {
 
     public void addResidence(Residence residence) {
         residences.add(residence);
+        residence.moveTo(residenceStore);
+        residence.addListener(residenceListener);
+        residenceListener.residenceChanged(residence, residence.getEnergyNeed(),
+                residence.getInhabitantCount(), residence.getSatisfactionSum());
     }
 
     public boolean removeResidence(Residence residence) {
-        return residences.remove(residence);
+        if (!residences.remove(residence)) {
+            return false;
+        }
+        residence.removeListener(residenceListener);
+        residenceListener.residenceChanged(residence, -residence.getEnergyNeed(),
+                -residence.getInhabitantCount(), -residence.getSatisfactionSum());
+        if (!residences.contains(residence)) {
+            residence.detach();
+        }
+        return true;
     }
 
     public List<Residence> getResidences() {
@@ -54,14 +97,28 @@ public class City {
         return residences.size();
     }
 
+    /**
+     * Retourne le stockage en colonnes des résidences de la ville.
+     */
+    public ResidenceStore getResidenceStore() {
+        return residenceStore;
+    }
+
     // === Gestion des centrales ===
 
     public void addPowerPlant(PowerPlant plant) {
         powerPlants.add(plant);
+        plant.addListener(plantListener);
+        plantTotalsDirty = true;
     }
 
     public boolean removePowerPlant(PowerPlant plant) {
-        return powerPlants.remove(plant);
+        if (!powerPlants.remove(plant)) {
+            return false;
+        }
+        plant.removeListener(plantListener);
+        plantTotalsDirty = true;
+        return true;
     }
 
     public List<PowerPlant> getPowerPlants() {
@@ -76,21 +133,24 @@ public class City {
 
     /**
      * Calcule la production totale d'énergie de toutes les centrales.
+     * Chaque centrale tire sa production variable : ce total reste un
+     * parcours des centrales en service.
      */
     public int calculateTotalProduction() {
-        return powerPlants.stream()
-                .filter(PowerPlant::isOperational)
-                .mapToInt(PowerPlant::calculateProduction)
-                .sum();
+        refreshPlantTotals();
+        int production = 0;
+        for (int i = 0; i < operationalPlants.length; i++) {
+            production += (int) PowerPlant.applyVariability(plantNominalProduction[i], plantReliability[i],
+                    operationalPlants[i].getRandom());
+        }
+        return production;
     }
 
     /**
      * Calcule la demande totale d'énergie de toutes les résidences.
      */
     public int calculateTotalDemand() {
-        return residences.stream()
-                .mapToInt(Residence::getEnergyNeed)
-                .sum();
+        return totalDemand;
     }
 
     /**
@@ -105,19 +165,41 @@ public class City {
      * Calcule le coût total de maintenance des centrales.
      */
     public int calculateTotalMaintenance() {
-        return powerPlants.stream()
-                .filter(PowerPlant::isOperational)
-                .mapToInt(PowerPlant::calculateMaintenance)
-                .sum();
+        refreshPlantTotals();
+        return totalMaintenance;
+    }
+
+    /**
+     * Recalcule les totaux des centrales si l'une d'elles a changé.
+     */
+    private void refreshPlantTotals() {
+        if (!plantTotalsDirty) {
+            return;
+        }
+        List<PowerPlant> operational = new ArrayList<>(powerPlants.size());
+        int maintenance = 0;
+        for (PowerPlant plant : powerPlants) {
+            if (plant.isOperational()) {
+                operational.add(plant);
+                maintenance += plant.calculateMaintenance();
+            }
+        }
+        operationalPlants = operational.toArray(new PowerPlant[0]);
+        plantNominalProduction = new double[operationalPlants.length];
+        plantReliability = new double[operationalPlants.length];
+        for (int i = 0; i < operationalPlants.length; i++) {
+            plantNominalProduction[i] = operationalPlants[i].calculateNominalProduction();
+            plantReliability[i] = operationalPlants[i].getEnergyType().getReliability();
+        }
+        totalMaintenance = maintenance;
+        plantTotalsDirty = false;
     }
 
     /**
      * Compte le nombre total d'habitants.
      */
     public int getTotalInhabitants() {
-        return residences.stream()
-                .mapToInt(Residence::getInhabitantCount)
-                .sum();
+        return totalInhabitants;
     }
 
     /**
@@ -135,17 +217,10 @@ public class City {
      * Calcule la satisfaction moyenne de tous les habitants.
      */
     public double calculateAverageHappiness() {
-        int totalInhabitants = getTotalInhabitants();
         if (totalInhabitants == 0) {
             return globalHappiness;
         }
-
-        double totalSatisfaction = residences.stream()
-                .flatMap(r -> r.getInhabitants().stream())
-                .mapToInt(Inhabitant::getSatisfaction)
-                .sum();
-
-        return totalSatisfaction / totalInhabitants;
+        return (double) totalSatisfaction / totalInhabitants;
     }
 
     public int getGlobalHappiness() {
@@ -178,8 +253,21 @@ public class City {
      * Réinitialise la ville pour une nouvelle partie.
      */
     public void reset() {
+        for (Residence residence : residences) {
+            residence.removeListener(residenceListener);
+            if (residence.isStoredIn(residenceStore)) {
+                residence.detach();
+            }
+        }
+        for (PowerPlant plant : powerPlants) {
+            plant.removeListener(plantListener);
+        }
         this.residences.clear();
         this.powerPlants.clear();
+        this.totalDemand = 0;
+        this.totalInhabitants = 0;
+        this.totalSatisfaction = 0;
+        this.plantTotalsDirty = true;
         this.globalHappiness = Constants.INITIAL_HAPPINESS;
     }
 
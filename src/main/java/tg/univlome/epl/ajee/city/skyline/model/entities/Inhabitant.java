@@ -1,59 +1,53 @@
 package tg.univlome.epl.ajee.city.skyline.model.entities;
 
-import tg.univlome.epl.ajee.city.skyline.model.config.RandomRange;
+import java.util.Objects;
 
 /**
  * Représente un habitant de la ville.
  * Chaque habitant a un niveau de satisfaction individuel.
+ *
+ * Les habitants ne sont pas stockés comme objets : une {@link Residence}
+ * garde seulement leur nombre et leurs satisfactions. Un Inhabitant est une
+ * vue sur la place {@code index} de sa résidence, créée à la demande
+ * ({@link Residence#getInhabitants()}) ; elle ne reste valable que tant
+ * qu'aucun habitant placé avant elle n'est retiré.
  */
 public class Inhabitant {
 
-    private static int idCounter = 0;
-
-    private final int id;
-    private String name;
-    private int satisfaction; // 0 à 100
     private final Residence residence;
+    private final int index;
 
-    public Inhabitant(String name, Residence residence) {
-        this.id = ++idCounter;
-        this.name = name;
+    Inhabitant(Residence residence, int index) {
         this.residence = residence;
-        // Satisfaction initiale aléatoire entre 50 et 80
-        this.satisfaction = new RandomRange(50, 80).getValue();
-    }
-
-    public Inhabitant(Residence residence) {
-        this("Habitant_" + (idCounter + 1), residence);
+        this.index = index;
     }
 
-    public int getId() {
-        return id;
+    /**
+     * Position de l'habitant dans sa résidence (à partir de 0).
+     */
+    public int getIndex() {
+        return index;
     }
 
     public String getName() {
-        return name;
-    }
-
-    public void setName(String name) {
-        this.name = name;
+        return "Habitant_" + residence.getId() + "_" + (index + 1);
     }
 
     public int getSatisfaction() {
-        return satisfaction;
+        return residence.getSatisfaction(index);
     }
 
     public void setSatisfaction(int satisfaction) {
-        this.satisfaction = Math.max(0, Math.min(100, satisfaction));
+        residence.setSatisfaction(index, satisfaction);
     }
 
     /**
      * Modifie la satisfaction de l'habitant.
-     * 
+     *
      * @param delta Variation (+/-)
      */
     public void adjustSatisfaction(int delta) {
-        setSatisfaction(this.satisfaction + delta);
+        setSatisfaction(getSatisfaction() + delta);
     }
 
     public Residence getResidence() {
@@ -61,15 +55,29 @@ public class Inhabitant {
     }
 
     public boolean isHappy() {
-        return satisfaction >= 50;
+        return getSatisfaction() >= 50;
     }
 
     public boolean isVeryUnhappy() {
-        return satisfaction < 20;
+        return getSatisfaction() < 20;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Inhabitant)) {
+            return false;
+        }
+        Inhabitant other = (Inhabitant) o;
+        return residence == other.residence && index == other.index;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(residence.getId(), index);
     }
 
     @Override
     public String toString() {
-        return String.format("Habitant[%d] %s (Satisfaction: %d%%)", id, name, satisfaction);
+        return String.format("Habitant %s (Satisfaction: %d%%)", getName(), getSatisfaction());
     }
 }
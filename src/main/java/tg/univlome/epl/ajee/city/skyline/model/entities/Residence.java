@@ -1,47 +1,99 @@
 package tg.univlome.epl.ajee.city.skyline.model.entities;
 
 import tg.univlome.epl.ajee.city.skyline.model.config.RandomRange;
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Représente une résidence dans la ville.
  * Une résidence a un niveau et contient des habitants.
+ *
+ * Niveau, besoin d'énergie, pouvoir d'achat, nombre d'habitants et
+ * alimentation sont rangés dans le {@link ResidenceStore} de la ville :
+ * l'objet n'est qu'une poignée vers sa case. Hors de toute ville, ces
+ * valeurs sont gardées dans l'objet même ; la case n'est créée qu'à l'ajout
+ * ({@link #moveTo(ResidenceStore)}). La population est compacte : un octet de
+ * satisfaction par habitant, les objets {@link Inhabitant} n'étant créés
+ * qu'à la demande.
  */
 public class Residence {
 
-    private static int idCounter = 0;
+    // Identifiants uniques dans la JVM, même avec plusieurs parties en parallèle
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger();
 
     private final int id;
     private String name;
-    private ResidenceLevel level;
-    private final List<Inhabitant> inhabitants;
-    private int energyNeed; // Consommation d'énergie (calculée aléatoirement)
-    private int purchasePower; // Pouvoir d'achat (calculé aléatoirement)
-    private boolean energySupplied; // Si la résidence est alimentée en énergie
+    private ResidenceStore store; // Colonnes : niveau, besoin, pouvoir d'achat, habitants, alimentation
+    private int slot; // Case dans le stockage
+    // État hors stockage (store == null) : mêmes colonnes
+    private int detachedNeed;
+    private int detachedPower;
+    private byte detachedLevel;
+    private int detachedInhabitants;
+    private boolean detachedSupplied;
+    private byte[] satisfactions; // Satisfaction (0 à 100) des habitants, agrandi à la demande
+    private int satisfactionSum; // Somme des satisfactions des habitants
+    private final WorldRandom random; // Aléa de la partie
+    private final List<ResidenceListener> listeners = new ArrayList<>(1);
+
+    public Residence(String name, ResidenceLevel level, WorldRandom random) {
+        this(ID_COUNTER.incrementAndGet(), name, level, random);
+    }
 
     public Residence(String name, ResidenceLevel level) {
-        this.id = ++idCounter;
-        this.name = name;
-        this.level = level;
-        this.inhabitants = new ArrayList<>();
-        this.energySupplied = false;
+        this(name, level, WorldRandom.unseeded());
+    }
 
-        // Calcul des valeurs aléatoires basées sur le niveau
-        recalculateRandomValues();
+    public Residence(ResidenceLevel level, WorldRandom random) {
+        this(ID_COUNTER.incrementAndGet(), level, random);
     }
 
     public Residence(ResidenceLevel level) {
-        this("Résidence_" + (idCounter + 1), level);
+        this(level, WorldRandom.unseeded());
+    }
+
+    private Residence(int id, ResidenceLevel level, WorldRandom random) {
+        this(id, "Résidence_" + id, level, random);
+    }
+
+    private Residence(int id, String name, ResidenceLevel level, WorldRandom random) {
+        this.id = id;
+        this.name = name;
+        this.detachedLevel = (byte) level.ordinal();
+        this.slot = -1;
+        this.random = random;
+        this.satisfactions = new byte[0];
+
+        // Calcul des valeurs aléatoires basées sur le niveau
+        recalculateRandomValues();
     }
 
     /**
      * Recalcule les valeurs aléatoires (appeler après un changement de niveau).
      */
     public void recalculateRandomValues() {
-        this.energyNeed = new RandomRange(level.getMinEnergyNeed(), level.getMaxEnergyNeed()).getValue();
-        this.purchasePower = new RandomRange(level.getMinPurchasePower(), level.getMaxPurchasePower()).getValue();
+        SplittableRandom stream = random.stream(WorldRandom.Stream.RESIDENCES);
+        ResidenceLevel level = getLevel();
+        int previousNeed = getEnergyNeed();
+        int need = new RandomRange(level.getMinEnergyNeed(), level.getMaxEnergyNeed()).getValue(stream);
+        int power = new RandomRange(level.getMinPurchasePower(), level.getMaxPurchasePower()).getValue(stream);
+        if (store == null) {
+            detachedNeed = need;
+            detachedPower = power;
+        } else {
+            store.energyNeed[slot] = need;
+            store.purchasePower[slot] = power;
+        }
+        fireChanged(need - previousNeed, 0, 0);
+    }
+
+    public WorldRandom getRandom() {
+        return random;
     }
 
     public int getId() {
@@ -57,7 +109,7 @@ public class Residence {
     }
 
     public ResidenceLevel getLevel() {
-        return level;
+        return ResidenceStore.levelOf(store == null ? detachedLevel : store.level[slot]);
     }
 
     /**
@@ -65,92 +117,245 @@ public class Residence {
      */
     public boolean upgrade() {
         ResidenceLevel[] levels = ResidenceLevel.values();
-        int currentIndex = level.ordinal();
+        int currentIndex = getLevel().ordinal();
         if (currentIndex < levels.length - 1) {
-            this.level = levels[currentIndex + 1];
+            if (store == null) {
+                detachedLevel = (byte) (currentIndex + 1);
+            } else {
+                store.setLevel(slot, (byte) (currentIndex + 1));
+            }
             recalculateRandomValues();
             return true;
         }
         return false;
     }
 
+    /**
+     * Retourne des vues sur les habitants, créées à chaque appel (réservé à
+     * l'affichage).
+     */
     public List<Inhabitant> getInhabitants() {
-        return new ArrayList<>(inhabitants);
+        int count = getInhabitantCount();
+        List<Inhabitant> views = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            views.add(new Inhabitant(this, i));
+        }
+        return views;
+    }
+
+    public Inhabitant getInhabitant(int index) {
+        checkIndex(index);
+        return new Inhabitant(this, index);
     }
 
     public int getInhabitantCount() {
-        return inhabitants.size();
+        return store == null ? detachedInhabitants : store.inhabitants[slot];
+    }
+
+    private void setInhabitantCount(int count) {
+        if (store == null) {
+            detachedInhabitants = count;
+        } else {
+            store.inhabitants[slot] = count;
+        }
+    }
+
+    public int getSatisfaction(int index) {
+        checkIndex(index);
+        return satisfactions[index];
     }
 
     /**
-     * Ajoute un habitant si la résidence n'est pas pleine.
+     * Fixe la satisfaction d'un habitant (bornée entre 0 et 100).
      */
-    public boolean addInhabitant(Inhabitant inhabitant) {
-        if (inhabitants.size() < level.getMaxInhabitants()) {
-            inhabitants.add(inhabitant);
-            return true;
+    public void setSatisfaction(int index, int satisfaction) {
+        checkIndex(index);
+        int previous = satisfactions[index];
+        int value = Math.max(0, Math.min(100, satisfaction));
+        satisfactions[index] = (byte) value;
+        satisfactionSum += value - previous;
+        fireChanged(0, 0, value - previous);
+    }
+
+    /**
+     * Ajoute un habitant de satisfaction donnée si la résidence n'est pas
+     * pleine.
+     */
+    public boolean addInhabitant(int satisfaction) {
+        int count = getInhabitantCount();
+        int max = getLevel().getMaxInhabitants();
+        if (count >= max) {
+            return false;
         }
-        return false;
+        int value = Math.max(0, Math.min(100, satisfaction));
+        if (count == satisfactions.length) {
+            satisfactions = Arrays.copyOf(satisfactions, Math.min(max, Math.max(4, count * 2)));
+        }
+        satisfactions[count] = (byte) value;
+        setInhabitantCount(count + 1);
+        satisfactionSum += value;
+        fireChanged(0, 1, value);
+        return true;
     }
 
     /**
-     * Ajoute un nouvel habitant généré automatiquement.
+     * Ajoute un nouvel habitant, de satisfaction initiale aléatoire entre 50
+     * et 80.
+     *
+     * @return false si la résidence est pleine
      */
-    public Inhabitant addNewInhabitant() {
-        if (inhabitants.size() < level.getMaxInhabitants()) {
-            Inhabitant inhabitant = new Inhabitant(this);
-            inhabitants.add(inhabitant);
-            return inhabitant;
+    public boolean addNewInhabitant() {
+        if (isFull()) {
+            return false;
         }
-        return null;
+        return addInhabitant(50 + random.stream(WorldRandom.Stream.POPULATION).nextInt(31));
+    }
+
+    /**
+     * Retire l'habitant de la place {@code index} ; les suivants avancent
+     * d'une place.
+     */
+    public void removeInhabitant(int index) {
+        checkIndex(index);
+        int satisfaction = satisfactions[index];
+        int count = getInhabitantCount();
+        System.arraycopy(satisfactions, index + 1, satisfactions, index, count - index - 1);
+        setInhabitantCount(count - 1);
+        satisfactionSum -= satisfaction;
+        fireChanged(0, -1, -satisfaction);
     }
 
     public boolean removeInhabitant(Inhabitant inhabitant) {
-        return inhabitants.remove(inhabitant);
+        if (inhabitant.getResidence() != this || inhabitant.getIndex() >= getInhabitantCount()) {
+            return false;
+        }
+        removeInhabitant(inhabitant.getIndex());
+        return true;
+    }
+
+    private void checkIndex(int index) {
+        int count = getInhabitantCount();
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Habitant " + index + " sur " + count);
+        }
+    }
+
+    // ===== Stockage =====
+
+    int getSlot() {
+        return slot;
+    }
+
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    boolean isStoredIn(ResidenceStore candidate) {
+        return store == candidate;
+    }
+
+    /**
+     * Déplace l'état de la résidence dans un autre stockage.
+     */
+    void moveTo(ResidenceStore target) {
+        if (store == target) {
+            return;
+        }
+        int newSlot = target.add(this, getEnergyNeed(), getPurchasePower(), (byte) getLevel().ordinal(),
+                getInhabitantCount(), isEnergySupplied());
+        if (store != null) {
+            store.remove(slot);
+        }
+        store = target;
+        slot = newSlot;
+    }
+
+    /**
+     * Ramène l'état de la résidence dans l'objet et libère sa case (retrait
+     * de la ville).
+     */
+    void detach() {
+        if (store == null) {
+            return;
+        }
+        detachedNeed = store.energyNeed[slot];
+        detachedPower = store.purchasePower[slot];
+        detachedLevel = store.level[slot];
+        detachedInhabitants = store.inhabitants[slot];
+        detachedSupplied = store.isSupplied(slot);
+        store.remove(slot);
+        store = null;
+        slot = -1;
+    }
+
+    void addListener(ResidenceListener listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(ResidenceListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireChanged(int energyNeedDelta, int inhabitantsDelta, int satisfactionDelta) {
+        if (energyNeedDelta == 0 && inhabitantsDelta == 0 && satisfactionDelta == 0) {
+            return;
+        }
+        for (ResidenceListener listener : listeners) {
+            listener.residenceChanged(this, energyNeedDelta, inhabitantsDelta, satisfactionDelta);
+        }
     }
 
     public int getEnergyNeed() {
-        return energyNeed;
+        return store == null ? detachedNeed : store.energyNeed[slot];
     }
 
     public int getPurchasePower() {
-        return purchasePower;
+        return store == null ? detachedPower : store.purchasePower[slot];
     }
 
     public boolean isEnergySupplied() {
-        return energySupplied;
+        return store == null ? detachedSupplied : store.isSupplied(slot);
     }
 
     public void setEnergySupplied(boolean energySupplied) {
-        this.energySupplied = energySupplied;
+        if (store == null) {
+            detachedSupplied = energySupplied;
+        } else {
+            store.setSupplied(slot, energySupplied);
+        }
+    }
+
+    /**
+     * Somme des satisfactions des habitants.
+     */
+    public int getSatisfactionSum() {
+        return satisfactionSum;
     }
 
     public boolean isFull() {
-        return inhabitants.size() >= level.getMaxInhabitants();
+        return getInhabitantCount() >= getLevel().getMaxInhabitants();
     }
 
     /**
      * Calcule la satisfaction moyenne des habitants.
      */
     public double getAverageSatisfaction() {
-        if (inhabitants.isEmpty()) {
+        int count = getInhabitantCount();
+        if (count == 0) {
             return 0;
         }
-        return inhabitants.stream()
-                .mapToInt(Inhabitant::getSatisfaction)
-                .average()
-                .orElse(0);
+        return (double) satisfactionSum / count;
     }
 
     /**
      * Calcule le montant que la résidence peut payer pour l'énergie.
      */
     public int calculateEnergyPayment(double pricePerUnit) {
-        if (!energySupplied) {
+        if (!isEnergySupplied()) {
             return 0;
         }
-        double payment = energyNeed * pricePerUnit;
-        return (int) Math.min(payment, purchasePower);
+        double payment = getEnergyNeed() * pricePerUnit;
+        return (int) Math.min(payment, getPurchasePower());
     }
 
     /**
@@ -161,16 +366,16 @@ public class Residence {
      * @return Le montant total des taxes (habitantes × taxe par habitant)
      */
     public int calculateTax() {
-        if (!energySupplied) {
+        if (!isEnergySupplied()) {
             return 0; // Pas de taxe si pas d'électricité
         }
-        return inhabitants.size() * level.getTaxPerInhabitant();
+        return getInhabitantCount() * getLevel().getTaxPerInhabitant();
     }
 
     @Override
     public String toString() {
         return String.format("Résidence[%d] %s - %s (%d/%d habitants, Besoin: %d kWh)",
-                id, name, level.getDisplayName(), inhabitants.size(),
-                level.getMaxInhabitants(), energyNeed);
+                id, name, getLevel().getDisplayName(), getInhabitantCount(),
+                getLevel().getMaxInhabitants(), getEnergyNeed());
     }
 }
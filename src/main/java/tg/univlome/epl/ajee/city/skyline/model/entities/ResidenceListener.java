@@ -0,0 +1,11 @@
+package tg.univlome.epl.ajee.city.skyline.model.entities;
+
+/**
+ * Reçoit les variations des valeurs d'une résidence que la ville agrège
+ * (demande, habitants, satisfaction cumulée).
+ */
+@FunctionalInterface
+interface ResidenceListener {
+
+    void residenceChanged(Residence residence, int energyNeedDelta, int inhabitantsDelta, int satisfactionDelta);
+}
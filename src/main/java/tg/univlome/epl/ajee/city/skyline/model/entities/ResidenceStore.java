@@ -0,0 +1,375 @@
+package tg.univlome.epl.ajee.city.skyline.model.entities;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Stockage en colonnes de l'état des résidences (besoin d'énergie, pouvoir
+ * d'achat, niveau, habitants, alimentation), une case par résidence.
+ *
+ * Chaque {@link Residence} est une poignée vers sa case ({@code slot}) :
+ * ses accesseurs lisent et écrivent ces tableaux. Les cases sont denses
+ * (0 à {@link #size()} - 1). Les noyaux ci-dessous parcourent les premières
+ * cases d'un seul tenant, en tableaux primitifs, sans déréférencer les
+ * résidences.
+ *
+ * Une résidence hors de toute ville garde son état en elle-même ; la ville
+ * lui crée une case dans son stockage à l'ajout
+ * ({@link City#getResidenceStore()}).
+ */
+public final class ResidenceStore {
+
+    private static final ResidenceLevel[] LEVELS = ResidenceLevel.values();
+
+    // Bonus de priorité par niveau lors d'un déficit (les niveaux supérieurs d'abord)
+    private static final double[] PRIORITY_BONUS = new double[LEVELS.length];
+
+    static {
+        for (int i = 0; i < LEVELS.length; i++) {
+            double priority = (i + 1) / 4.0;
+            PRIORITY_BONUS[i] = priority * 0.2;
+        }
+    }
+
+    // Noyau de cumul vectoriel, null si jdk.incubator.vector n'est pas chargé
+    private static final Kernel VECTOR_KERNEL = loadVectorKernel();
+
+    private Residence[] handles;
+    int[] energyNeed;
+    int[] purchasePower;
+    byte[] level;
+    int[] inhabitants;
+    boolean[] supplied;
+    // Colonnes dérivées du niveau (voir setLevel)
+    int[] capacity;
+    int[] taxRate;
+    private int size;
+    private long version; // Incrémenté quand des cases changent de résidence
+
+    public ResidenceStore() {
+        this(16);
+    }
+
+    ResidenceStore(int capacity) {
+        handles = new Residence[capacity];
+        energyNeed = new int[capacity];
+        purchasePower = new int[capacity];
+        level = new byte[capacity];
+        inhabitants = new int[capacity];
+        supplied = new boolean[capacity];
+        this.capacity = new int[capacity];
+        taxRate = new int[capacity];
+    }
+
+    /**
+     * Charge {@link VectorKernel} par réflexion : la classe dépend d'un
+     * module en incubation, absent sans {@code --add-modules
+     * jdk.incubator.vector}.
+     */
+    private static Kernel loadVectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (Kernel) Class.forName(ResidenceStore.class.getPackageName() + ".VectorKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Indique si {@link #accumulate(int, double)} utilise l'API Vector.
+     */
+    public static boolean isVectorized() {
+        return VECTOR_KERNEL != null;
+    }
+
+    static ResidenceLevel levelOf(byte ordinal) {
+        return LEVELS[ordinal];
+    }
+
+    /**
+     * Change le niveau d'une case et ses colonnes dérivées.
+     */
+    void setLevel(int slot, byte levelOrdinal) {
+        ResidenceLevel value = LEVELS[levelOrdinal];
+        level[slot] = levelOrdinal;
+        capacity[slot] = value.getMaxInhabitants();
+        taxRate[slot] = value.getTaxPerInhabitant();
+    }
+
+    boolean isSupplied(int slot) {
+        return supplied[slot];
+    }
+
+    void setSupplied(int slot, boolean isSupplied) {
+        supplied[slot] = isSupplied;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Compteur qui change à chaque ajout, retrait ou réordonnancement.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Residence get(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("Case " + slot + " sur " + size);
+        }
+        return handles[slot];
+    }
+
+    // ===== Cases =====
+
+    /**
+     * Ajoute une résidence et retourne sa case.
+     */
+    int add(Residence handle, int need, int power, byte levelOrdinal, int inhabitantCount, boolean isSupplied) {
+        if (size == handles.length) {
+            int newCapacity = Math.max(4, size * 2);
+            handles = Arrays.copyOf(handles, newCapacity);
+            energyNeed = Arrays.copyOf(energyNeed, newCapacity);
+            purchasePower = Arrays.copyOf(purchasePower, newCapacity);
+            level = Arrays.copyOf(level, newCapacity);
+            inhabitants = Arrays.copyOf(inhabitants, newCapacity);
+            supplied = Arrays.copyOf(supplied, newCapacity);
+            capacity = Arrays.copyOf(capacity, newCapacity);
+            taxRate = Arrays.copyOf(taxRate, newCapacity);
+        }
+        int slot = size++;
+        handles[slot] = handle;
+        energyNeed[slot] = need;
+        purchasePower[slot] = power;
+        setLevel(slot, levelOrdinal);
+        inhabitants[slot] = inhabitantCount;
+        setSupplied(slot, isSupplied);
+        version++;
+        return slot;
+    }
+
+    /**
+     * Libère une case : la dernière résidence prend sa place.
+     */
+    void remove(int slot) {
+        int last = --size;
+        if (slot != last) {
+            copy(last, slot);
+            handles[slot].setSlot(slot);
+        }
+        handles[last] = null;
+        version++;
+    }
+
+    /**
+     * Range les résidences données dans les premières cases, dans cet
+     * ordre, pour que les noyaux les parcourent d'un seul tenant.
+     *
+     * @return false (sans rien modifier) si l'une d'elles n'est pas dans
+     *         ce stockage
+     */
+    public boolean arrange(Residence[] order) {
+        for (Residence residence : order) {
+            if (!residence.isStoredIn(this)) {
+                return false;
+            }
+        }
+        boolean moved = false;
+        for (int i = 0; i < order.length; i++) {
+            int slot = order[i].getSlot();
+            if (slot != i) {
+                swap(i, slot);
+                moved = true;
+            }
+        }
+        if (moved) {
+            version++;
+        }
+        return true;
+    }
+
+    private void copy(int from, int to) {
+        handles[to] = handles[from];
+        energyNeed[to] = energyNeed[from];
+        purchasePower[to] = purchasePower[from];
+        level[to] = level[from];
+        inhabitants[to] = inhabitants[from];
+        supplied[to] = supplied[from];
+        capacity[to] = capacity[from];
+        taxRate[to] = taxRate[from];
+    }
+
+    private void swap(int a, int b) {
+        Residence handle = handles[a];
+        int need = energyNeed[a];
+        int power = purchasePower[a];
+        byte levelOrdinal = level[a];
+        int inhabitantCount = inhabitants[a];
+        boolean isSupplied = supplied[a];
+        copy(b, a);
+        handles[b] = handle;
+        energyNeed[b] = need;
+        purchasePower[b] = power;
+        setLevel(b, levelOrdinal);
+        inhabitants[b] = inhabitantCount;
+        supplied[b] = isSupplied;
+        handles[a].setSlot(a);
+        handles[b].setSlot(b);
+    }
+
+    // ===== Noyaux (cases 0 à count - 1) =====
+
+    /**
+     * Alimente toutes les résidences.
+     */
+    public void supplyAll(int count) {
+        Arrays.fill(supplied, 0, count, true);
+    }
+
+    /**
+     * Distribution proportionnelle en cas de déficit : un tirage par
+     * résidence, les niveaux supérieurs ayant priorité.
+     */
+    public void distribute(int count, double ratio, SplittableRandom random) {
+        for (int i = 0; i < count; i++) {
+            supplied[i] = random.nextDouble() < ratio + PRIORITY_BONUS[level[i]];
+        }
+    }
+
+    /**
+     * Cumule en un seul passage, sur les cases 0 à count - 1 : résidences
+     * alimentées, énergie vendue, paiements d'électricité au prix donné
+     * (voir {@link Residence#calculateEnergyPayment(double)}), taxes
+     * ({@link Residence#calculateTax()}), habitants et places.
+     *
+     * Utilise le noyau vectoriel s'il est disponible (voir
+     * {@link #isVectorized()}) et le prix positif ; le résultat est
+     * identique à {@link #accumulateScalar(int, double)}.
+     */
+    public Totals accumulate(int count, double pricePerUnit) {
+        if (VECTOR_KERNEL != null && pricePerUnit >= 0 && Double.isFinite(pricePerUnit)) {
+            return VECTOR_KERNEL.accumulate(this, count, pricePerUnit);
+        }
+        return accumulateScalar(count, pricePerUnit);
+    }
+
+    /**
+     * Version scalaire de {@link #accumulate(int, double)}, toujours
+     * disponible.
+     */
+    public Totals accumulateScalar(int count, double pricePerUnit) {
+        int suppliedCount = 0;
+        int energySold = 0;
+        int payments = 0;
+        int taxes = 0;
+        int inhabitantCount = 0;
+        int places = 0;
+        for (int i = 0; i < count; i++) {
+            int residents = inhabitants[i];
+            if (supplied[i]) {
+                suppliedCount++;
+                energySold += energyNeed[i];
+                payments += (int) Math.min(energyNeed[i] * pricePerUnit, purchasePower[i]);
+                taxes += residents * taxRate[i];
+            }
+            inhabitantCount += residents;
+            places += capacity[i];
+        }
+        return new Totals(suppliedCount, energySold, payments, taxes, inhabitantCount, places);
+    }
+
+    /**
+     * Cumule par niveau ({@link ResidenceLevel#ordinal()}) le besoin
+     * d'énergie et le pouvoir d'achat des cases 0 à count - 1, alimentées
+     * ou non. Les tableaux sont remis à zéro avant le cumul.
+     */
+    public void sumDemandByLevel(int count, long[] needs, long[] powers) {
+        Arrays.fill(needs, 0);
+        Arrays.fill(powers, 0);
+        for (int i = 0; i < count; i++) {
+            needs[level[i]] += energyNeed[i];
+            powers[level[i]] += purchasePower[i];
+        }
+    }
+
+    /**
+     * Résultat de {@link #accumulate(int, double)}.
+     */
+    public static final class Totals {
+
+        private final int supplied;
+        private final int energySold;
+        private final int energyPayments;
+        private final int taxes;
+        private final int inhabitants;
+        private final int capacity;
+
+        Totals(int supplied, int energySold, int energyPayments, int taxes, int inhabitants, int capacity) {
+            this.supplied = supplied;
+            this.energySold = energySold;
+            this.energyPayments = energyPayments;
+            this.taxes = taxes;
+            this.inhabitants = inhabitants;
+            this.capacity = capacity;
+        }
+
+        public int getSupplied() {
+            return supplied;
+        }
+
+        public int getEnergySold() {
+            return energySold;
+        }
+
+        public int getEnergyPayments() {
+            return energyPayments;
+        }
+
+        public int getTaxes() {
+            return taxes;
+        }
+
+        public int getInhabitants() {
+            return inhabitants;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Totals)) {
+                return false;
+            }
+            Totals other = (Totals) o;
+            return supplied == other.supplied && energySold == other.energySold
+                    && energyPayments == other.energyPayments && taxes == other.taxes
+                    && inhabitants == other.inhabitants && capacity == other.capacity;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(supplied, energySold, energyPayments, taxes, inhabitants, capacity);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d alimentées, %d kWh, %d € payés, %d € de taxes, %d/%d habitants",
+                    supplied, energySold, energyPayments, taxes, inhabitants, capacity);
+        }
+    }
+
+    /**
+     * Implémentation de {@link #accumulate(int, double)}.
+     */
+    interface Kernel {
+        Totals accumulate(ResidenceStore store, int count, double pricePerUnit);
+    }
+}
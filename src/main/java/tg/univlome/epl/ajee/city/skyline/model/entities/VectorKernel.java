@@ -0,0 +1,78 @@
+package tg.univlome.epl.ajee.city.skyline.model.entities;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Cumul des colonnes d'un {@link ResidenceStore} avec l'API Vector
+ * (module en incubation {@code jdk.incubator.vector}).
+ *
+ * Le paiement d'une résidence vaut {@code (int) min(besoin × prix, pouvoir
+ * d'achat)}, comme dans {@link Residence#calculateEnergyPayment(double)}.
+ * La conversion {@code D2I} suit la règle du cast {@code (int)} (troncature
+ * vers zéro, saturation, NaN → 0) et les sommes d'int débordent dans
+ * chaque voie comme dans la boucle scalaire : les totaux sont identiques.
+ *
+ * Chargé par réflexion ({@link ResidenceStore#isVectorized()}).
+ */
+final class VectorKernel implements ResidenceStore.Kernel {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    // Autant de voies int que de voies double, pour les conversions
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(DOUBLES.length() * Integer.SIZE));
+
+    @Override
+    public ResidenceStore.Totals accumulate(ResidenceStore store, int count, double pricePerUnit) {
+        IntVector energySold = IntVector.zero(INTS);
+        IntVector payments = IntVector.zero(INTS);
+        IntVector taxes = IntVector.zero(INTS);
+        IntVector inhabitants = IntVector.zero(INTS);
+        IntVector places = IntVector.zero(INTS);
+        int suppliedCount = 0;
+
+        int upper = INTS.loopBound(count);
+        int i = 0;
+        for (; i < upper; i += INTS.length()) {
+            VectorMask<Integer> supplied = VectorMask.fromArray(INTS, store.supplied, i);
+            IntVector need = IntVector.fromArray(INTS, store.energyNeed, i);
+            IntVector residents = IntVector.fromArray(INTS, store.inhabitants, i);
+            IntVector power = IntVector.fromArray(INTS, store.purchasePower, i);
+            IntVector payment = (IntVector) ((DoubleVector) need.convertShape(VectorOperators.I2D, DOUBLES, 0))
+                    .mul(pricePerUnit)
+                    .min((DoubleVector) power.convertShape(VectorOperators.I2D, DOUBLES, 0))
+                    .convertShape(VectorOperators.D2I, INTS, 0);
+
+            suppliedCount += supplied.trueCount();
+            energySold = energySold.add(need, supplied);
+            payments = payments.add(payment, supplied);
+            taxes = taxes.add(residents.mul(IntVector.fromArray(INTS, store.taxRate, i)), supplied);
+            inhabitants = inhabitants.add(residents);
+            places = places.add(IntVector.fromArray(INTS, store.capacity, i));
+        }
+
+        int energySum = energySold.reduceLanes(VectorOperators.ADD);
+        int paymentSum = payments.reduceLanes(VectorOperators.ADD);
+        int taxSum = taxes.reduceLanes(VectorOperators.ADD);
+        int inhabitantSum = inhabitants.reduceLanes(VectorOperators.ADD);
+        int placeSum = places.reduceLanes(VectorOperators.ADD);
+
+        // Dernières cases (moins d'un vecteur)
+        for (; i < count; i++) {
+            int residents = store.inhabitants[i];
+            if (store.supplied[i]) {
+                suppliedCount++;
+                energySum += store.energyNeed[i];
+                paymentSum += (int) Math.min(store.energyNeed[i] * pricePerUnit, store.purchasePower[i]);
+                taxSum += residents * store.taxRate[i];
+            }
+            inhabitantSum += residents;
+            placeSum += store.capacity[i];
+        }
+        return new ResidenceStore.Totals(suppliedCount, energySum, paymentSum, taxSum, inhabitantSum, placeSum);
+    }
+}
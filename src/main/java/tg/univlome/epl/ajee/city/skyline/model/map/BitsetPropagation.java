@@ -0,0 +1,236 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Propagation de l'électricité entre maisons par dilatation de bitsets.
+ *
+ * La zone englobant les résidences est représentée ligne par ligne en mots
+ * de 64 bits : masque des résidences, cellules déjà atteintes et front
+ * courant. Pour chaque décalage du voisinage de propagation, un masque
+ * indique les sources dont le tracé vers la cible est dégagé (cache de
+ * visibilité). Un niveau se calcule en décalant le front filtré par ces
+ * masques, 64 cellules à la fois, puis en gardant les résidences non
+ * atteintes. Les niveaux obtenus sont identiques à ceux du parcours en
+ * largeur, en mode séquentiel comme en mode parallèle.
+ */
+class BitsetPropagation {
+
+    private static final int RANGE = LineOfSightCache.RANGE;
+
+    /**
+     * Nombre minimal de lignes par bande en mode parallèle.
+     */
+    static final int MIN_STRIP_ROWS = 16;
+
+    private final CityMap map;
+    private final ForkJoinPool pool; // null = séquentiel
+
+    // Zone englobante (en cases) et dimensions des bitsets
+    private int minX;
+    private int minY;
+    private int rows;
+    private int words;
+
+    private long[][] residences; // [ligne][mot]
+    private long[][][] visibleSources; // [décalage][ligne][mot]
+
+    // État du niveau en cours
+    private long[][] visited;
+    private long[][] frontier;
+    private long[][] next;
+    private int lo; // Première ligne non vide du front
+    private int hi; // Dernière ligne non vide du front
+
+    BitsetPropagation(CityMap map) {
+        this(map, null);
+    }
+
+    /**
+     * @param pool Pool sur lequel répartir les bandes de lignes, ou null
+     */
+    BitsetPropagation(CityMap map, ForkJoinPool pool) {
+        this.map = map;
+        this.pool = pool;
+    }
+
+    /**
+     * Attribue un niveau de propagation aux résidences atteignables depuis
+     * les maisons alimentées directement (niveau 0, déjà positionnées).
+     *
+     * En mode parallèle, chaque niveau est calculé par bandes horizontales :
+     * une bande lit le front sur ses lignes plus {@link #RANGE} lignes de
+     * bordure de chaque côté, et n'écrit que ses propres lignes.
+     */
+    void propagate(Collection<MapCell> directlyPowered) {
+        List<MapCell> cells = map.getResidenceCells();
+        if (cells.isEmpty() || directlyPowered.isEmpty()) {
+            return;
+        }
+        buildMasks(cells);
+
+        visited = new long[rows][words];
+        frontier = new long[rows][words];
+        next = new long[rows][words];
+        lo = rows;
+        hi = -1;
+        for (MapCell cell : directlyPowered) {
+            int row = cell.getY() - minY;
+            int bit = cell.getX() - minX;
+            frontier[row][bit >>> 6] |= 1L << bit;
+            visited[row][bit >>> 6] |= 1L << bit;
+            lo = Math.min(lo, row);
+            hi = Math.max(hi, row);
+        }
+
+        int level = 0;
+        while (lo <= hi) {
+            int from = Math.max(0, lo - RANGE);
+            int count = Math.min(rows - 1, hi + RANGE) - from + 1;
+            int strips = ParallelStrips.stripCount(pool, count, MIN_STRIP_ROWS);
+            int[] stripLo = new int[strips];
+            int[] stripHi = new int[strips];
+            int nextLevel = level + 1;
+
+            ParallelStrips.run(pool, count, strips, (strip, start, end) -> {
+                int[] bounds = expandRows(from + start, from + end, nextLevel);
+                stripLo[strip] = bounds[0];
+                stripHi[strip] = bounds[1];
+            });
+
+            // Fusion des bandes dans l'ordre
+            int nextLo = rows;
+            int nextHi = -1;
+            for (int strip = 0; strip < strips; strip++) {
+                nextLo = Math.min(nextLo, stripLo[strip]);
+                nextHi = Math.max(nextHi, stripHi[strip]);
+            }
+
+            long[][] swap = frontier;
+            frontier = next;
+            next = swap;
+            lo = nextLo;
+            hi = nextHi;
+            level++;
+        }
+    }
+
+    /**
+     * Calcule le niveau suivant sur les lignes [first, last) : dilatation du
+     * front par chaque décalage du voisinage, puis conservation des
+     * résidences pas encore atteintes.
+     *
+     * @return Première et dernière ligne atteintes (rows et -1 si aucune)
+     */
+    private int[] expandRows(int first, int last, int level) {
+        int reachedLo = rows;
+        int reachedHi = -1;
+        for (int row = first; row < last; row++) {
+            long[] target = next[row];
+            Arrays.fill(target, 0L);
+            for (int bit = 0; bit < LineOfSightCache.STENCIL_SIZE; bit++) {
+                int source = row - LineOfSightCache.offsetY(bit);
+                if (source >= lo && source <= hi) {
+                    shiftInto(frontier[source], visibleSources[bit][source], target, LineOfSightCache.offsetX(bit));
+                }
+            }
+
+            for (int w = 0; w < words; w++) {
+                long reached = target[w] & residences[row][w] & ~visited[row][w];
+                target[w] = reached;
+                if (reached != 0) {
+                    visited[row][w] |= reached;
+                    assignLevel(row, w, reached, level);
+                    reachedLo = Math.min(reachedLo, row);
+                    reachedHi = Math.max(reachedHi, row);
+                }
+            }
+        }
+        return new int[] { reachedLo, reachedHi };
+    }
+
+    /**
+     * Construit le masque des résidences et, pour chaque décalage, celui des
+     * résidences dont le tracé vers la cellule décalée est dégagé.
+     */
+    private void buildMasks(List<MapCell> cells) {
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        minX = Integer.MAX_VALUE;
+        minY = Integer.MAX_VALUE;
+        for (MapCell cell : cells) {
+            minX = Math.min(minX, cell.getX());
+            minY = Math.min(minY, cell.getY());
+            maxX = Math.max(maxX, cell.getX());
+            maxY = Math.max(maxY, cell.getY());
+        }
+        rows = maxY - minY + 1;
+        words = ((maxX - minX) >>> 6) + 1;
+
+        residences = new long[rows][words];
+        for (MapCell cell : cells) {
+            int bit = cell.getX() - minX;
+            residences[cell.getY() - minY][bit >>> 6] |= 1L << bit;
+        }
+
+        // Masques de visibilité, remplis ligne par ligne
+        visibleSources = new long[LineOfSightCache.STENCIL_SIZE][rows][words];
+        LineOfSightCache lineOfSight = map.getLineOfSight();
+        int strips = ParallelStrips.stripCount(pool, rows, MIN_STRIP_ROWS);
+        ParallelStrips.run(pool, rows, strips, (strip, first, last) -> {
+            for (int row = first; row < last; row++) {
+                for (int w = 0; w < words; w++) {
+                    long bits = residences[row][w];
+                    while (bits != 0) {
+                        long word = Long.lowestOneBit(bits);
+                        int x = minX + (w << 6) + Long.numberOfTrailingZeros(bits);
+                        int mask = lineOfSight.getMask(x, minY + row);
+                        while (mask != 0) {
+                            visibleSources[Integer.numberOfTrailingZeros(mask)][row][w] |= word;
+                            mask &= mask - 1;
+                        }
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        });
+    }
+    /**
+     * Ajoute à {@code target} les bits de {@code frontier & sources} décalés
+     * de {@code dx} colonnes.
+     */
+    private void shiftInto(long[] frontier, long[] sources, long[] target, int dx) {
+        for (int w = 0; w < words; w++) {
+            long bits = frontier[w] & sources[w];
+            if (bits == 0) {
+                continue;
+            }
+            if (dx > 0) {
+                target[w] |= bits << dx;
+                if (w + 1 < words) {
+                    target[w + 1] |= bits >>> (64 - dx);
+                }
+            } else if (dx < 0) {
+                target[w] |= bits >>> -dx;
+                if (w > 0) {
+                    target[w - 1] |= bits << (64 + dx);
+                }
+            } else {
+                target[w] |= bits;
+            }
+        }
+    }
+
+    private void assignLevel(int row, int w, long bits, int level) {
+        while (bits != 0) {
+            int x = minX + (w << 6) + Long.numberOfTrailingZeros(bits);
+            MapCell cell = map.getCell(x, minY + row);
+            cell.setPowered(true);
+            cell.setPowerLevel(level);
+            bits &= bits - 1;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stockage par tronçons de {@link #CHUNK_SIZE} x {@link #CHUNK_SIZE} cases,
+ * alloués à la première modification.
+ *
+ * Tant qu'un tronçon n'a pas été modifié, ses lectures sont servies par un
+ * tronçon par défaut partagé (terrain constructible, aucun bâtiment), qui
+ * n'est jamais écrit. La mémoire et le temps d'initialisation dépendent donc
+ * de ce qui est construit, pas de la surface de la carte. L'état d'une
+ * cellule utilise le même codage que {@link PackedMapStorage}.
+ */
+class ChunkedMapStorage implements MapStorage {
+
+    static final int CHUNK_SHIFT = 6;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 64 cases
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Tronçon partagé par toutes les zones non modifiées (lecture seule).
+     */
+    private static final Chunk DEFAULT_CHUNK = new Chunk();
+
+    /**
+     * Tronçon de la carte : octet d'état et niveau d'alimentation + 1.
+     */
+    private static final class Chunk {
+        final byte[] states = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        final int[] powerLevels = new int[CHUNK_SIZE * CHUNK_SIZE];
+    }
+
+    private final int width;
+    private final int height;
+    private final int chunksX;
+    private final int chunksY;
+    private final Chunk[] chunks; // null = tronçon par défaut
+    private int allocatedChunks;
+    private final Map<Integer, Residence> residences;
+    private final Map<Integer, PowerPlant> powerPlants;
+
+    ChunkedMapStorage(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.chunksX = (width + CHUNK_MASK) >> CHUNK_SHIFT;
+        this.chunksY = (height + CHUNK_MASK) >> CHUNK_SHIFT;
+        this.chunks = new Chunk[chunksX * chunksY];
+        this.allocatedChunks = 0;
+        this.residences = new HashMap<>();
+        this.powerPlants = new HashMap<>();
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Retourne le nombre de tronçons réellement alloués.
+     */
+    int getAllocatedChunkCount() {
+        return allocatedChunks;
+    }
+
+    // ===== Accès aux tronçons =====
+
+    private int chunkIndex(int x, int y) {
+        return (y >> CHUNK_SHIFT) * chunksX + (x >> CHUNK_SHIFT);
+    }
+
+    private static int localIndex(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+    }
+
+    private Chunk chunkAt(int x, int y) {
+        Chunk chunk = chunks[chunkIndex(x, y)];
+        return chunk != null ? chunk : DEFAULT_CHUNK;
+    }
+
+    private Chunk allocate(int x, int y) {
+        int index = chunkIndex(x, y);
+        Chunk chunk = chunks[index];
+        if (chunk == null) {
+            chunk = new Chunk();
+            chunks[index] = chunk;
+            allocatedChunks++;
+        }
+        return chunk;
+    }
+
+    private byte state(int x, int y) {
+        return chunkAt(x, y).states[localIndex(x, y)];
+    }
+
+    /**
+     * Écrit l'octet d'état ; une écriture qui laisse un tronçon par défaut
+     * inchangé n'alloue rien.
+     */
+    private void writeState(int x, int y, byte state) {
+        if (chunks[chunkIndex(x, y)] == null && state == 0) {
+            return;
+        }
+        allocate(x, y).states[localIndex(x, y)] = state;
+    }
+
+    // ===== MapStorage =====
+
+    @Override
+    public MapCell getCell(int x, int y) {
+        return new MapCellView(this, x, y);
+    }
+
+    @Override
+    public TerrainType getTerrain(int x, int y) {
+        return PackedMapStorage.terrainOf(state(x, y));
+    }
+
+    @Override
+    public void setTerrain(int x, int y, TerrainType terrainType) {
+        writeState(x, y, PackedMapStorage.withTerrain(state(x, y), terrainType));
+    }
+
+    @Override
+    public MapCell.CellType getType(int x, int y) {
+        return PackedMapStorage.typeOf(state(x, y));
+    }
+
+    @Override
+    public Residence getResidence(int x, int y) {
+        return residences.get(y * width + x);
+    }
+
+    @Override
+    public PowerPlant getPowerPlant(int x, int y) {
+        return powerPlants.get(y * width + x);
+    }
+
+    @Override
+    public void setBuilding(int x, int y, MapCell.CellType type, Residence residence, PowerPlant powerPlant) {
+        writeState(x, y, PackedMapStorage.withType(state(x, y), type));
+        int pos = y * width + x;
+        if (residence != null) {
+            residences.put(pos, residence);
+        } else {
+            residences.remove(pos);
+        }
+        if (powerPlant != null) {
+            powerPlants.put(pos, powerPlant);
+        } else {
+            powerPlants.remove(pos);
+        }
+    }
+
+    @Override
+    public boolean isPowered(int x, int y) {
+        return (state(x, y) & PackedMapStorage.POWERED_BIT) != 0;
+    }
+
+    @Override
+    public void setPowered(int x, int y, boolean powered) {
+        writeState(x, y, PackedMapStorage.withFlag(state(x, y), PackedMapStorage.POWERED_BIT, powered));
+    }
+
+    @Override
+    public int getPowerLevel(int x, int y) {
+        return chunkAt(x, y).powerLevels[localIndex(x, y)] - 1;
+    }
+
+    @Override
+    public void setPowerLevel(int x, int y, int powerLevel) {
+        if (chunks[chunkIndex(x, y)] == null && powerLevel == -1) {
+            return;
+        }
+        allocate(x, y).powerLevels[localIndex(x, y)] = powerLevel + 1;
+    }
+
+    @Override
+    public boolean hasPowerLine(int x, int y) {
+        return (state(x, y) & PackedMapStorage.POWER_LINE_BIT) != 0;
+    }
+
+    @Override
+    public void setHasPowerLine(int x, int y, boolean hasPowerLine) {
+        writeState(x, y, PackedMapStorage.withFlag(state(x, y), PackedMapStorage.POWER_LINE_BIT, hasPowerLine));
+    }
+
+    /**
+     * Ne parcourt que les tronçons alloués : les autres sont entièrement
+     * constructibles. L'ordre reste colonne par colonne.
+     */
+    @Override
+    public List<MapCell> findCellsWithTerrain(TerrainType terrainType) {
+        if (terrainType == TerrainType.CONSTRUCTIBLE) {
+            return MapStorage.super.findCellsWithTerrain(terrainType);
+        }
+        List<MapCell> result = new ArrayList<>();
+        for (int cx = 0; cx < chunksX; cx++) {
+            int maxX = Math.min(width, (cx + 1) << CHUNK_SHIFT);
+            for (int x = cx << CHUNK_SHIFT; x < maxX; x++) {
+                for (int cy = 0; cy < chunksY; cy++) {
+                    Chunk chunk = chunks[cy * chunksX + cx];
+                    if (chunk == null) {
+                        continue;
+                    }
+                    int maxY = Math.min(height, (cy + 1) << CHUNK_SHIFT);
+                    for (int y = cy << CHUNK_SHIFT; y < maxY; y++) {
+                        if (PackedMapStorage.terrainOf(chunk.states[localIndex(x, y)]) == terrainType) {
+                            result.add(getCell(x, y));
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int countCellsWithTerrain(TerrainType terrainType) {
+        if (terrainType == TerrainType.CONSTRUCTIBLE) {
+            return MapStorage.super.countCellsWithTerrain(terrainType);
+        }
+        int count = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            if (chunks[i] == null) {
+                continue;
+            }
+            int minX = (i % chunksX) << CHUNK_SHIFT;
+            int minY = (i / chunksX) << CHUNK_SHIFT;
+            int maxX = Math.min(width, minX + CHUNK_SIZE);
+            int maxY = Math.min(height, minY + CHUNK_SIZE);
+            for (int y = minY; y < maxY; y++) {
+                for (int x = minX; x < maxX; x++) {
+                    if (PackedMapStorage.terrainOf(chunks[i].states[localIndex(x, y)]) == terrainType) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(chunks, null);
+        allocatedChunks = 0;
+        residences.clear();
+        powerPlants.clear();
+    }
+}
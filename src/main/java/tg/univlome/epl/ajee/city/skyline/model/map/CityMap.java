@@ -1,11 +1,17 @@
 package tg.univlome.epl.ajee.city.skyline.model.map;
 
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
 import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
 import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlantListener;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Représente la carte de la ville sous forme de grille 2D.
@@ -17,26 +23,91 @@ public class CityMap {
     public static final int DEFAULT_HEIGHT = 15;
     public static final int POWER_PLANT_COVERAGE_RADIUS = 5; // Rayon de couverture directe des centrales
 
+    /**
+     * Mode de stockage des cellules.
+     */
+    public enum StorageType {
+        OBJECTS("Un objet MapCell par case"),
+        PACKED("Tableaux de primitives, cellules en vues"),
+        CHUNKED("Tronçons de 64x64 alloués à la première modification");
+
+        private final String description;
+
+        StorageType(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
     private final int width;
     private final int height;
-    private final MapCell[][] cells;
-    private ElectricityGrid electricityGrid;
+    private final StorageType storageType;
+    private final MapStorage storage;
+    private final LineOfSightCache lineOfSight;
+    private long terrainVersion; // Incrémenté à chaque changement de terrain
+    private long buildingVersion; // Incrémenté à chaque placement ou démolition
+    private long appearanceVersion; // Incrémenté quand un bâtiment change sans être remplacé
+    private final ElectricityGrid electricityGrid;
+
+    // Index spatiaux des bâtiments, tenus à jour lors des placements/suppressions
+    private final SpatialIndex residenceIndex;
+    private final SpatialIndex powerPlantIndex;
+    // Centrales placées : un changement de niveau ou d'état modifie leur couverture
+    private final Map<PowerPlant, PowerPlantListener> plantListeners = new HashMap<>();
+    private final WorldRandom random; // Aléa de la partie (génération du terrain)
+
+    // Dernières couches copiées pour l'affichage (voir createSnapshot)
+    private MapSnapshot snapshot;
+    private long snapshotTerrainVersion;
+    private long snapshotBuildingVersion;
+    private long snapshotGridVersion;
 
     public CityMap() {
         this(DEFAULT_WIDTH, DEFAULT_HEIGHT);
     }
 
     public CityMap(int width, int height) {
-        this.width = width;
-        this.height = height;
-        this.cells = new MapCell[width][height];
+        this(width, height, StorageType.OBJECTS);
+    }
 
-        // Initialiser toutes les cellules avec terrain constructible par défaut
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                cells[x][y] = new MapCell(x, y, TerrainType.CONSTRUCTIBLE);
-            }
+    /**
+     * Crée une carte avec le mode de stockage donné.
+     * Le stockage PACKED est adapté aux très grandes cartes, CHUNKED aux
+     * très grandes cartes majoritairement vides.
+     */
+    public CityMap(int width, int height, StorageType storageType) {
+        this(width, height, storageType, WorldRandom.unseeded());
+    }
+
+    /**
+     * Crée une carte dont le terrain est généré avec l'aléa de la partie.
+     *
+     * @throws IllegalArgumentException si les dimensions dépassent
+     *         {@link PowerLine#MAX_WIDTH} x {@link PowerLine#MAX_HEIGHT}
+     */
+    public CityMap(int width, int height, StorageType storageType, WorldRandom random) {
+        if (width <= 0 || height <= 0 || width > PowerLine.MAX_WIDTH || height > PowerLine.MAX_HEIGHT
+                || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Dimensions de carte invalides : " + width + "x" + height
+                    + " (maximum " + PowerLine.MAX_WIDTH + "x" + PowerLine.MAX_HEIGHT + ")");
         }
+        this.width = width;
+        this.height = height;
+        this.storageType = storageType;
+        this.random = random;
+
+        // Toutes les cellules sont en terrain constructible par défaut
+        this.storage = switch (storageType) {
+            case OBJECTS -> new ObjectMapStorage(width, height);
+            case PACKED -> new PackedMapStorage(width, height);
+            case CHUNKED -> new ChunkedMapStorage(width, height);
+        };
+        this.lineOfSight = new LineOfSightCache(storage);
+        this.residenceIndex = new SpatialIndex(this);
+        this.powerPlantIndex = new SpatialIndex(this);
 
         // Générer l'océan par défaut (zone en bas à gauche)
         generateDefaultOcean();
@@ -59,7 +130,7 @@ public class CityMap {
                 int maxYForThisX = oceanStartY + (oceanMaxX - x);
                 if (y >= maxYForThisX || x <= 2) {
                     if (isValidPosition(x, y)) {
-                        cells[x][y].setTerrainType(TerrainType.WATER);
+                        changeTerrain(x, y, TerrainType.WATER);
                     }
                 }
             }
@@ -69,10 +140,10 @@ public class CityMap {
         int riverX = 3;
         for (int y = oceanStartY - 1; y >= oceanStartY - 4 && y >= 0; y--) {
             if (isValidPosition(riverX, y)) {
-                cells[riverX][y].setTerrainType(TerrainType.WATER);
+                changeTerrain(riverX, y, TerrainType.WATER);
             }
             // Légère variation aléatoire
-            if (new Random().nextBoolean() && riverX < width - 1) {
+            if (random.stream(WorldRandom.Stream.MAP).nextBoolean() && riverX < width - 1) {
                 riverX++;
             }
         }
@@ -90,7 +161,7 @@ public class CityMap {
 
     public MapCell getCell(int x, int y) {
         if (isValidPosition(x, y)) {
-            return cells[x][y];
+            return storage.getCell(x, y);
         }
         return null;
     }
@@ -103,6 +174,57 @@ public class CityMap {
         return electricityGrid;
     }
 
+    public StorageType getStorageType() {
+        return storageType;
+    }
+
+    /**
+     * Retourne un compteur qui change à chaque modification de terrain.
+     */
+    public long getTerrainVersion() {
+        return terrainVersion;
+    }
+
+    /**
+     * Retourne un compteur qui change à chaque placement ou suppression de
+     * bâtiment.
+     */
+    public long getBuildingVersion() {
+        return buildingVersion;
+    }
+
+    /**
+     * Signale qu'un bâtiment a changé d'aspect sans être remplacé
+     * (amélioration, arrêt) : la prochaine copie pour l'affichage le reprend.
+     */
+    public void markBuildingChanged() {
+        appearanceVersion++;
+    }
+
+    /**
+     * Lecture directe du terrain, sans créer de vue (coordonnées valides).
+     */
+    TerrainType getTerrainAt(int x, int y) {
+        return storage.getTerrain(x, y);
+    }
+
+    boolean hasPowerLineAt(int x, int y) {
+        return storage.hasPowerLine(x, y);
+    }
+
+    /**
+     * Même règle que {@link MapCell#isConstructible()}, sans créer de vue
+     * (coordonnées valides).
+     */
+    private boolean isConstructibleAt(int x, int y) {
+        TerrainType terrain = storage.getTerrain(x, y);
+        return terrain.isConstructible() && !terrain.blocksElectricity();
+    }
+
+    private boolean isEmptyAt(int x, int y) {
+        return storage.getType(x, y) == MapCell.CellType.EMPTY;
+    }
+
     // ===== Génération de terrain =====
 
     /**
@@ -112,7 +234,7 @@ public class CityMap {
      * @param riverLength Longueur moyenne des rivières
      */
     public void generateRandomWater(int riverCount, int riverLength) {
-        Random random = new Random();
+        SplittableRandom random = this.random.stream(WorldRandom.Stream.MAP);
 
         for (int r = 0; r < riverCount; r++) {
             // Point de départ aléatoire sur un bord
@@ -131,7 +253,7 @@ public class CityMap {
             int y = startY;
 
             for (int i = 0; i < riverLength && isValidPosition(x, y); i++) {
-                cells[x][y].setTerrainType(TerrainType.WATER);
+                changeTerrain(x, y, TerrainType.WATER);
 
                 // Direction aléatoire avec tendance vers l'avant
                 int direction = random.nextInt(10);
@@ -156,31 +278,38 @@ public class CityMap {
      * Définit le terrain d'une cellule.
      */
     public boolean setTerrain(int x, int y, TerrainType terrainType) {
-        MapCell cell = getCell(x, y);
-        if (cell != null) {
+        if (isValidPosition(x, y)) {
             // Ne pas changer le terrain si un bâtiment est présent
-            if (!cell.isEmpty() && terrainType == TerrainType.WATER) {
+            if (!isEmptyAt(x, y) && terrainType == TerrainType.WATER) {
                 return false;
             }
-            cell.setTerrainType(terrainType);
+            changeTerrain(x, y, terrainType);
             return true;
         }
         return false;
     }
 
+    /**
+     * Point de passage unique des changements de terrain : invalide le cache
+     * de visibilité et signale la cellule au réseau électrique.
+     */
+    private void changeTerrain(int x, int y, TerrainType terrainType) {
+        if (storage.getTerrain(x, y) == terrainType) {
+            return;
+        }
+        storage.setTerrain(x, y, terrainType);
+        terrainVersion++;
+        lineOfSight.invalidate(x, y);
+        if (electricityGrid != null) {
+            electricityGrid.markDirty(x, y);
+        }
+    }
+
     /**
      * Retourne toutes les cellules de type cours d'eau.
      */
     public List<MapCell> getWaterCells() {
-        List<MapCell> result = new ArrayList<>();
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                if (cells[x][y].isWater()) {
-                    result.add(cells[x][y]);
-                }
-            }
-        }
-        return result;
+        return storage.findCellsWithTerrain(TerrainType.WATER);
     }
 
     // ===== Placement de bâtiments =====
@@ -190,12 +319,13 @@ public class CityMap {
      * Vérifie que le terrain est constructible.
      */
     public boolean placeResidence(int x, int y, Residence residence) {
-        MapCell cell = getCell(x, y);
-        if (cell != null && cell.isEmpty() && cell.isConstructible()) {
-            if (cell.setResidence(residence)) {
-                updatePowerGrid();
-                return true;
-            }
+        if (isValidPosition(x, y) && isEmptyAt(x, y) && isConstructibleAt(x, y)) {
+            storage.setBuilding(x, y, MapCell.CellType.RESIDENCE, residence, null);
+            residenceIndex.add(x, y);
+            buildingVersion++;
+            electricityGrid.markDirty(x, y);
+            updatePowerGrid();
+            return true;
         }
         return false;
     }
@@ -206,8 +336,7 @@ public class CityMap {
      * Pour les autres centrales, elles doivent être sur terrain constructible.
      */
     public boolean placePowerPlant(int x, int y, PowerPlant powerPlant) {
-        MapCell cell = getCell(x, y);
-        if (cell == null || !cell.isEmpty()) {
+        if (!isValidPosition(x, y) || !isEmptyAt(x, y)) {
             return false;
         }
 
@@ -215,21 +344,28 @@ public class CityMap {
 
         if (isHydro) {
             // Les centrales hydrauliques DOIVENT être sur l'eau
-            if (!cell.isWater()) {
+            if (storage.getTerrain(x, y) != TerrainType.WATER) {
                 return false;
             }
         } else {
             // Les autres centrales DOIVENT être sur terrain constructible (pas l'eau)
-            if (!cell.isConstructible()) {
+            if (!isConstructibleAt(x, y)) {
                 return false;
             }
         }
 
-        if (cell.setPowerPlant(powerPlant)) {
-            updatePowerGrid();
-            return true;
-        }
-        return false;
+        storage.setBuilding(x, y, MapCell.CellType.POWER_PLANT, null, powerPlant);
+        powerPlantIndex.add(x, y);
+        PowerPlantListener listener = plant -> {
+            electricityGrid.markDirty(x, y);
+            markBuildingChanged();
+        };
+        powerPlant.addListener(listener);
+        plantListeners.put(powerPlant, listener);
+        buildingVersion++;
+        electricityGrid.markDirty(x, y);
+        updatePowerGrid();
+        return true;
     }
 
     /**
@@ -242,8 +378,7 @@ public class CityMap {
                 if (dx == 0 && dy == 0)
                     continue;
 
-                MapCell neighbor = getCell(x + dx, y + dy);
-                if (neighbor != null && neighbor.isWater()) {
+                if (isValidPosition(x + dx, y + dy) && storage.getTerrain(x + dx, y + dy) == TerrainType.WATER) {
                     return true;
                 }
             }
@@ -255,13 +390,38 @@ public class CityMap {
      * Supprime le bâtiment à la position donnée.
      */
     public void clearCell(int x, int y) {
-        MapCell cell = getCell(x, y);
-        if (cell != null) {
-            cell.clear();
+        if (isValidPosition(x, y)) {
+            // Démolir une case de ligne coupe les lignes qui la traversent
+            if (isEmptyAt(x, y) && storage.hasPowerLine(x, y)) {
+                for (PowerLine line : electricityGrid.removePowerLinesAt(x, y)) {
+                    unmarkPowerLineCells(line);
+                }
+            }
+            PowerPlant plant = storage.getPowerPlant(x, y);
+            if (plant != null) {
+                unlistenPowerPlant(plant);
+            }
+            // Comme MapCell.clear() ; une ligne qui passait sur le bâtiment
+            // démoli devient visible
+            storage.setBuilding(x, y, MapCell.CellType.EMPTY, null, null);
+            storage.setPowered(x, y, false);
+            storage.setPowerLevel(x, y, -1);
+            storage.setHasPowerLine(x, y, electricityGrid.hasPowerLineAt(x, y));
+            residenceIndex.remove(x, y);
+            powerPlantIndex.remove(x, y);
+            buildingVersion++;
+            electricityGrid.markDirty(x, y);
             updatePowerGrid();
         }
     }
 
+    private void unlistenPowerPlant(PowerPlant plant) {
+        PowerPlantListener listener = plantListeners.remove(plant);
+        if (listener != null) {
+            plant.removeListener(listener);
+        }
+    }
+
     // ===== Lignes électriques =====
 
     /**
@@ -270,35 +430,66 @@ public class CityMap {
     public boolean addPowerLine(int plantX, int plantY, int residenceX, int residenceY) {
         PowerLine line = electricityGrid.createAutoLine(plantX, plantY, residenceX, residenceY);
         if (line != null) {
-            // Marquer les cellules traversées par la ligne
-            for (java.awt.Point point : line.getPath()) {
-                MapCell cell = getCell(point.x, point.y);
-                if (cell != null && cell.isEmpty()) {
-                    cell.setHasPowerLine(true);
-                }
-            }
+            markPowerLineCells(line);
             return electricityGrid.addPowerLine(line);
         }
         return false;
     }
 
+    /**
+     * Raccorde une centrale à plusieurs résidences en une seule opération.
+     * Les lignes sont tracées en un seul parcours depuis la centrale et
+     * partagent leur tronc commun ; le réseau n'est mis à jour qu'une fois à
+     * la fin.
+     *
+     * @return Nombre de lignes créées
+     */
+    public int autoConnect(int plantX, int plantY, List<MapCell> residences) {
+        List<PowerLine> lines = electricityGrid.createAutoLines(plantX, plantY, residences);
+        for (PowerLine line : lines) {
+            markPowerLineCells(line);
+        }
+        return electricityGrid.addPowerLines(lines);
+    }
+
     /**
      * Ajoute une ligne électrique personnalisée.
      */
     public boolean addPowerLine(PowerLine line) {
         if (line.isValid(this)) {
-            // Marquer les cellules traversées par la ligne
-            for (java.awt.Point point : line.getPath()) {
-                MapCell cell = getCell(point.x, point.y);
-                if (cell != null && cell.isEmpty()) {
-                    cell.setHasPowerLine(true);
-                }
-            }
+            markPowerLineCells(line);
             return electricityGrid.addPowerLine(line);
         }
         return false;
     }
 
+    /**
+     * Marque les cellules vides traversées par la ligne.
+     */
+    private void markPowerLineCells(PowerLine line) {
+        for (int i = 0; i < line.getLength(); i++) {
+            int x = line.getPathX(i);
+            int y = line.getPathY(i);
+            if (isValidPosition(x, y) && isEmptyAt(x, y)) {
+                storage.setHasPowerLine(x, y, true);
+            }
+        }
+    }
+
+    /**
+     * Efface le marquage des cellules d'une ligne supprimée qui ne sont plus
+     * traversées par aucune autre ligne.
+     */
+    private void unmarkPowerLineCells(PowerLine line) {
+        for (int i = 0; i < line.getLength(); i++) {
+            int x = line.getPathX(i);
+            int y = line.getPathY(i);
+            if (isValidPosition(x, y) && !electricityGrid.hasPowerLineAt(x, y)) {
+                storage.setHasPowerLine(x, y, false);
+            }
+        }
+    }
+
     /**
      * Retourne toutes les lignes électriques.
      */
@@ -313,6 +504,9 @@ public class CityMap {
      * Utilise le nouveau système avec propagation entre maisons.
      */
     public void updatePowerGrid() {
+        if (electricityGrid.isUpToDate()) {
+            return; // Alimentation déjà à jour, rayon direct compris
+        }
         // Utiliser l'ElectricityGrid pour la mise à jour
         electricityGrid.updateGrid();
 
@@ -325,101 +519,129 @@ public class CityMap {
      * Garde la compatibilité avec le système existant.
      */
     private void updatePowerGridByRadius() {
+        if (electricityGrid.isParallelActive()) {
+            updatePowerGridByRadiusParallel();
+            return;
+        }
         // Pour chaque centrale, alimenter les résidences à proximité (rayon direct)
         List<MapCell> powerPlants = getPowerPlantCells();
         for (MapCell plantCell : powerPlants) {
             PowerPlant plant = plantCell.getPowerPlant();
             if (plant != null && plant.isOperational()) {
-                // Alimenter les cellules dans le rayon
-                for (int x = 0; x < width; x++) {
-                    for (int y = 0; y < height; y++) {
-                        MapCell cell = cells[x][y];
-                        if (cell.isResidence() && !cell.isPowered()) {
-                            double distance = plantCell.distanceTo(x, y);
-                            if (distance <= POWER_PLANT_COVERAGE_RADIUS) {
-                                // Vérifier qu'il n'y a pas de cours d'eau entre
-                                if (hasDirectPath(plantCell, cell)) {
-                                    cell.setPowered(true);
-                                    cell.setPowerLevel(0); // Alimentation directe
-                                }
-                            }
-                        }
+                for (MapCell cell : findResidencesInRadius(plantCell.getX(), plantCell.getY(),
+                        POWER_PLANT_COVERAGE_RADIUS)) {
+                    // Vérifier qu'il n'y a pas de cours d'eau entre
+                    if (!cell.isPowered() && hasDirectPath(plantCell, cell)) {
+                        cell.setPowered(true);
+                        cell.setPowerLevel(0); // Alimentation directe
                     }
                 }
             }
         }
     }
 
+    /**
+     * Variante parallèle : chaque tranche de résidences cherche elle-même une
+     * centrale active visible dans le rayon, si bien qu'une tâche n'écrit que
+     * dans ses propres cellules.
+     */
+    private void updatePowerGridByRadiusParallel() {
+        List<MapCell> residences = getResidenceCells();
+        ForkJoinPool pool = electricityGrid.getForkJoinPool();
+        int strips = ParallelStrips.stripCount(pool, residences.size(), ElectricityGrid.PARALLEL_MIN_SLICE);
+        ParallelStrips.run(pool, residences.size(), strips, (strip, from, to) -> {
+            for (MapCell cell : residences.subList(from, to)) {
+                if (!cell.isPowered() && isReachedByPlant(cell)) {
+                    cell.setPowered(true);
+                    cell.setPowerLevel(0); // Alimentation directe
+                }
+            }
+        });
+    }
+
+    private boolean isReachedByPlant(MapCell residence) {
+        for (MapCell plantCell : findPowerPlantsInRadius(residence.getX(), residence.getY(),
+                POWER_PLANT_COVERAGE_RADIUS)) {
+            PowerPlant plant = plantCell.getPowerPlant();
+            if (plant != null && plant.isOperational() && hasDirectPath(plantCell, residence)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Vérifie s'il existe un chemin direct sans obstacle entre deux cellules.
+     * Les paires proches sont servies par le cache de visibilité.
      */
-    private boolean hasDirectPath(MapCell from, MapCell to) {
-        int x0 = from.getX();
-        int y0 = from.getY();
-        int x1 = to.getX();
-        int y1 = to.getY();
+    boolean hasDirectPath(MapCell from, MapCell to) {
+        return lineOfSight.hasDirectPath(from.getX(), from.getY(), to.getX(), to.getY());
+    }
 
-        int dx = Math.abs(x1 - x0);
-        int dy = Math.abs(y1 - y0);
-        int sx = x0 < x1 ? 1 : -1;
-        int sy = y0 < y1 ? 1 : -1;
-        int err = dx - dy;
+    LineOfSightCache getLineOfSight() {
+        return lineOfSight;
+    }
 
-        int x = x0;
-        int y = y0;
+    // ===== Requêtes spatiales =====
 
-        while (x != x1 || y != y1) {
-            int e2 = 2 * err;
+    /**
+     * Retourne les résidences à une distance de Manhattan inférieure ou égale
+     * à {@code range} (hors cellule centrale).
+     */
+    public List<MapCell> findResidencesInRange(int x, int y, int range) {
+        return residenceIndex.query(x, y, range, SpatialIndex.Metric.MANHATTAN, false);
+    }
 
-            if (e2 > -dy) {
-                err -= dy;
-                x += sx;
-            }
+    /**
+     * Retourne les résidences à une distance euclidienne inférieure ou égale
+     * à {@code radius} (hors cellule centrale).
+     */
+    public List<MapCell> findResidencesInRadius(int x, int y, int radius) {
+        return residenceIndex.query(x, y, radius, SpatialIndex.Metric.EUCLIDEAN, false);
+    }
 
-            if (e2 < dx) {
-                err += dx;
-                y += sy;
-            }
+    /**
+     * Retourne les résidences du carré de côté 2 * radius + 1 centré sur la
+     * position (cellule centrale incluse).
+     */
+    public List<MapCell> findResidencesAround(int x, int y, int radius) {
+        return residenceIndex.query(x, y, radius, SpatialIndex.Metric.CHEBYSHEV, true);
+    }
 
-            MapCell cell = getCell(x, y);
-            if (cell == null || cell.isWater()) {
-                return false;
-            }
-        }
+    /**
+     * Retourne les centrales à une distance euclidienne inférieure ou égale
+     * à {@code radius} (hors cellule centrale).
+     */
+    public List<MapCell> findPowerPlantsInRadius(int x, int y, int radius) {
+        return powerPlantIndex.query(x, y, radius, SpatialIndex.Metric.EUCLIDEAN, false);
+    }
 
-        return true;
+    /**
+     * Retourne les centrales du carré de côté 2 * radius + 1 centré sur la
+     * position (cellule centrale incluse).
+     */
+    public List<MapCell> findPowerPlantsAround(int x, int y, int radius) {
+        return powerPlantIndex.query(x, y, radius, SpatialIndex.Metric.CHEBYSHEV, true);
     }
 
     // ===== Statistiques =====
 
     /**
      * Retourne toutes les cellules contenant une centrale.
+     * La liste est partagée et non modifiable ; elle reste valide jusqu'au
+     * prochain placement ou suppression.
      */
     public List<MapCell> getPowerPlantCells() {
-        List<MapCell> result = new ArrayList<>();
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                if (cells[x][y].isPowerPlant()) {
-                    result.add(cells[x][y]);
-                }
-            }
-        }
-        return result;
+        return powerPlantIndex.getAll();
     }
 
     /**
      * Retourne toutes les cellules contenant une résidence.
+     * La liste est partagée et non modifiable ; elle reste valide jusqu'au
+     * prochain placement ou suppression.
      */
     public List<MapCell> getResidenceCells() {
-        List<MapCell> result = new ArrayList<>();
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                if (cells[x][y].isResidence()) {
-                    result.add(cells[x][y]);
-                }
-            }
-        }
-        return result;
+        return residenceIndex.getAll();
     }
 
     /**
@@ -462,30 +684,14 @@ public class CityMap {
      * Retourne le nombre total de bâtiments.
      */
     public int getTotalBuildings() {
-        int count = 0;
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                if (!cells[x][y].isEmpty()) {
-                    count++;
-                }
-            }
-        }
-        return count;
+        return residenceIndex.size() + powerPlantIndex.size();
     }
 
     /**
      * Retourne le nombre de cellules avec cours d'eau.
      */
     public int getWaterCellCount() {
-        int count = 0;
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                if (cells[x][y].isWater()) {
-                    count++;
-                }
-            }
-        }
-        return count;
+        return storage.countCellsWithTerrain(TerrainType.WATER);
     }
 
     /**
@@ -504,7 +710,7 @@ public class CityMap {
         for (int y = 0; y < height; y++) {
             sb.append(String.format("%2d ", y));
             for (int x = 0; x < width; x++) {
-                MapCell cell = cells[x][y];
+                MapCell cell = storage.getCell(x, y);
                 sb.append(" ").append(cell.getDisplayIcon()).append(" ");
             }
             sb.append("\n");
@@ -513,19 +719,123 @@ public class CityMap {
         return sb.toString();
     }
 
+    // ===== Copie pour l'affichage =====
+
+    /**
+     * Copie ce qu'affiche la carte (voir {@link MapSnapshot}), sans créer de
+     * vue de cellule. Tant que le terrain, les bâtiments et le réseau n'ont
+     * pas changé, la copie précédente est rendue telle quelle ; sinon seules
+     * les couches touchées sont refaites, d'après les index de bâtiments
+     * (les chunks vides ne sont pas parcourus).
+     */
+    public MapSnapshot createSnapshot() {
+        long buildings = buildingVersion + appearanceVersion;
+        long grid = electricityGrid.getVersion();
+        if (snapshot != null && snapshotTerrainVersion == terrainVersion && snapshotBuildingVersion == buildings
+                && snapshotGridVersion == grid) {
+            return snapshot;
+        }
+        MapSnapshot.Terrain terrainLayer = snapshot != null && snapshotTerrainVersion == terrainVersion
+                ? snapshot.getTerrain()
+                : copyTerrain();
+        MapSnapshot.Buildings buildingLayer = snapshot != null && snapshotBuildingVersion == buildings
+                ? snapshot.getBuildings()
+                : copyBuildings();
+        // Une démolition remet l'alimentation de la case à zéro sans passer par le réseau
+        MapSnapshot.Power powerLayer = snapshot != null && snapshotBuildingVersion == buildings
+                && snapshotGridVersion == grid
+                        ? snapshot.getPower()
+                        : copyPower(buildingLayer);
+        snapshot = new MapSnapshot(width, height, terrainLayer, buildingLayer, powerLayer);
+        snapshotTerrainVersion = terrainVersion;
+        snapshotBuildingVersion = buildings;
+        snapshotGridVersion = grid;
+        return snapshot;
+    }
+
+    private MapSnapshot.Terrain copyTerrain() {
+        boolean[] water = new boolean[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                water[y * width + x] = storage.getTerrain(x, y) == TerrainType.WATER;
+            }
+        }
+        return new MapSnapshot.Terrain(water);
+    }
+
+    private MapSnapshot.Buildings copyBuildings() {
+        byte[] types = new byte[width * height]; // 0 = MapCell.CellType.EMPTY
+        int[] positions = new int[residenceIndex.size() + powerPlantIndex.size()];
+        int[] count = { 0 };
+        residenceIndex.forEachPosition(pos -> {
+            types[pos] = (byte) MapCell.CellType.RESIDENCE.ordinal();
+            positions[count[0]++] = pos;
+        });
+        powerPlantIndex.forEachPosition(pos -> {
+            types[pos] = (byte) MapCell.CellType.POWER_PLANT.ordinal();
+            positions[count[0]++] = pos;
+        });
+        Arrays.sort(positions);
+
+        byte[] kinds = new byte[positions.length];
+        int[] production = new int[positions.length];
+        int[] plantPositions = new int[powerPlantIndex.size()];
+        int plants = 0;
+        for (int i = 0; i < positions.length; i++) {
+            int x = positions[i] % width;
+            int y = positions[i] / width;
+            kinds[i] = -1;
+            if (types[positions[i]] == MapCell.CellType.RESIDENCE.ordinal()) {
+                Residence residence = storage.getResidence(x, y);
+                if (residence != null) {
+                    kinds[i] = (byte) residence.getLevel().ordinal();
+                }
+            } else {
+                PowerPlant plant = storage.getPowerPlant(x, y);
+                if (plant != null) {
+                    kinds[i] = (byte) plant.getEnergyType().ordinal();
+                    production[i] = (int) plant.calculateNominalProduction();
+                    plantPositions[plants++] = positions[i];
+                }
+            }
+        }
+        return new MapSnapshot.Buildings(types, positions, kinds, production,
+                plants == plantPositions.length ? plantPositions : Arrays.copyOf(plantPositions, plants));
+    }
+
+    /**
+     * Seuls les bâtiments sont alimentés : un niveau par bâtiment de la
+     * couche donnée.
+     */
+    private MapSnapshot.Power copyPower(MapSnapshot.Buildings buildings) {
+        int[] levels = new int[buildings.positions.length];
+        for (int i = 0; i < levels.length; i++) {
+            int x = buildings.positions[i] % width;
+            int y = buildings.positions[i] / width;
+            if (storage.isPowered(x, y)) {
+                levels[i] = storage.getPowerLevel(x, y) + 1;
+            }
+        }
+        return new MapSnapshot.Power(levels);
+    }
+
     /**
      * Réinitialise la carte pour une nouvelle partie.
      */
     public void reset() {
-        // Réinitialiser toutes les cellules
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                cells[x][y] = new MapCell(x, y, TerrainType.CONSTRUCTIBLE);
-            }
+        for (PowerPlant plant : new ArrayList<>(plantListeners.keySet())) {
+            unlistenPowerPlant(plant);
         }
+        // Réinitialiser toutes les cellules
+        storage.reset();
+        terrainVersion++;
+        buildingVersion++;
+        lineOfSight.clear();
+        residenceIndex.clear();
+        powerPlantIndex.clear();
         // Regénérer l'océan
         generateDefaultOcean();
-        // Recréer la grille électrique
-        this.electricityGrid = new ElectricityGrid(this);
+        // Vider la grille électrique (sa configuration est conservée)
+        electricityGrid.clear();
     }
 }
@@ -2,6 +2,7 @@ package tg.univlome.epl.ajee.city.skyline.model.map;
 
 import java.awt.Point;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -9,10 +10,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Gère le réseau électrique de la ville.
  * Inclut les lignes de raccordement et la propagation entre maisons.
+ *
+ * Par défaut, la mise à jour est incrémentale : seules les cellules signalées
+ * par {@link #markDirty(int, int)} (et les lignes ajoutées/supprimées) sont
+ * recalculées, le reste du réseau gardant son état.
  */
 public class ElectricityGrid {
 
@@ -21,12 +27,177 @@ public class ElectricityGrid {
      */
     public static final int MAX_PROPAGATION_DISTANCE = 3;
 
+    /**
+     * Rayon (en cases) autour d'une cellule modifiée dans lequel le statut
+     * des résidences peut changer : couverture d'une centrale ou liens de
+     * propagation passant par la cellule.
+     */
+    static final int AFFECTED_RADIUS = Math.max(CityMap.POWER_PLANT_COVERAGE_RADIUS, MAX_PROPAGATION_DISTANCE);
+
+    /**
+     * Nombre minimal de résidences par tranche en mode parallèle.
+     */
+    static final int PARALLEL_MIN_SLICE = 1024;
+
+    /**
+     * Surface (en cases) à partir de laquelle les reconstructions complètes
+     * passent en mode parallèle : 1024 x 1024 par défaut.
+     */
+    public static final long DEFAULT_PARALLEL_THRESHOLD = 1024L * 1024L;
+
+    /**
+     * Algorithme de propagation utilisé lors d'une reconstruction complète.
+     * Les deux moteurs attribuent les mêmes niveaux.
+     */
+    public enum PropagationEngine {
+        BFS("Parcours en largeur"),
+        BITSET("Dilatation de bitsets par mots de 64 bits");
+
+        private final String description;
+
+        PropagationEngine(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
     private final CityMap map;
     private final List<PowerLine> powerLines;
+    private final List<PowerLine> powerLinesView; // Vue en lecture seule
+    private final Map<Integer, List<PowerLine>> linesByCell; // Lignes passant par chaque position
+    private final Map<Long, List<PowerLine>> linesByEnd; // Lignes par case d'arrivée (voir endKey)
+    private final PowerLineRouter router;
+
+    // État de la mise à jour incrémentale
+    private final Set<Integer> dirtyCells; // Positions (y * largeur + x) modifiées
+    private final Set<PowerLine> changedLines; // Lignes ajoutées ou supprimées
+    private boolean initialized; // Une reconstruction complète a déjà eu lieu
+    private long version; // Incrémenté à chaque recalcul des niveaux
+    private boolean incrementalEnabled;
+    private boolean verificationEnabled; // Mode test : compare avec une reconstruction complète
+    private PropagationEngine propagationEngine;
+    private long parallelThreshold;
+    private ForkJoinPool forkJoinPool;
 
     public ElectricityGrid(CityMap map) {
         this.map = map;
         this.powerLines = new ArrayList<>();
+        this.powerLinesView = Collections.unmodifiableList(powerLines);
+        this.linesByCell = new HashMap<>();
+        this.linesByEnd = new HashMap<>();
+        this.router = new PowerLineRouter(map);
+        this.dirtyCells = new HashSet<>();
+        this.changedLines = new HashSet<>();
+        this.initialized = false;
+        this.incrementalEnabled = true;
+        this.verificationEnabled = false;
+        this.propagationEngine = PropagationEngine.BFS;
+        this.parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+        this.forkJoinPool = ForkJoinPool.commonPool();
+    }
+
+    // ===== Configuration de la mise à jour =====
+
+    public boolean isIncrementalEnabled() {
+        return incrementalEnabled;
+    }
+
+    /**
+     * Active ou désactive la mise à jour incrémentale.
+     * Désactivée, chaque mise à jour reconstruit tout le réseau.
+     */
+    public void setIncrementalEnabled(boolean incrementalEnabled) {
+        this.incrementalEnabled = incrementalEnabled;
+        if (!incrementalEnabled) {
+            invalidate();
+        }
+    }
+
+    public boolean isVerificationEnabled() {
+        return verificationEnabled;
+    }
+
+    /**
+     * Mode test : après chaque mise à jour incrémentale, le réseau est
+     * reconstruit entièrement et les niveaux obtenus sont comparés.
+     * Une divergence lève une {@link IllegalStateException}.
+     */
+    public void setVerificationEnabled(boolean verificationEnabled) {
+        this.verificationEnabled = verificationEnabled;
+    }
+
+    public PropagationEngine getPropagationEngine() {
+        return propagationEngine;
+    }
+
+    /**
+     * Choisit le moteur de propagation des reconstructions complètes.
+     * Prend effet à la prochaine reconstruction.
+     */
+    public void setPropagationEngine(PropagationEngine propagationEngine) {
+        this.propagationEngine = propagationEngine;
+    }
+
+    public long getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Définit la surface de carte (en cases) à partir de laquelle les
+     * reconstructions complètes sont parallélisées.
+     */
+    public void setParallelThreshold(long parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Vérifie si les reconstructions complètes s'exécutent en parallèle :
+     * carte au-delà du seuil et pool de plus d'un thread.
+     */
+    public boolean isParallelActive() {
+        return forkJoinPool.getParallelism() > 1
+                && (long) map.getWidth() * map.getHeight() >= parallelThreshold;
+    }
+
+    /**
+     * Signale qu'une cellule a changé (bâtiment, terrain, état d'une centrale).
+     * Le recalcul est effectué au prochain {@link #updateGrid()}.
+     */
+    public void markDirty(int x, int y) {
+        if (map.isValidPosition(x, y)) {
+            dirtyCells.add(y * map.getWidth() + x);
+        }
+    }
+
+    /**
+     * Force une reconstruction complète au prochain {@link #updateGrid()}.
+     */
+    public void invalidate() {
+        initialized = false;
+        dirtyCells.clear();
+        changedLines.clear();
+    }
+
+    /**
+     * Retire toutes les lignes (nouvelle partie) en conservant la
+     * configuration de la mise à jour.
+     */
+    public void clear() {
+        powerLines.clear();
+        linesByCell.clear();
+        linesByEnd.clear();
+        invalidate();
     }
 
     /**
@@ -37,18 +208,35 @@ public class ElectricityGrid {
      */
     public boolean addPowerLine(PowerLine line) {
         if (line.isValid(map)) {
-            powerLines.add(line);
+            register(line);
             updateGrid();
             return true;
         }
         return false;
     }
 
+    /**
+     * Ajoute plusieurs lignes puis met le réseau à jour une seule fois.
+     *
+     * @return Nombre de lignes valides ajoutées
+     */
+    public int addPowerLines(List<PowerLine> lines) {
+        int added = 0;
+        for (PowerLine line : lines) {
+            if (line.isValid(map)) {
+                register(line);
+                added++;
+            }
+        }
+        updateGrid();
+        return added;
+    }
+
     /**
      * Supprime une ligne électrique du réseau.
      */
     public void removePowerLine(PowerLine line) {
-        powerLines.remove(line);
+        unregister(line);
         updateGrid();
     }
 
@@ -56,9 +244,9 @@ public class ElectricityGrid {
      * Supprime une ligne électrique par son ID.
      */
     public boolean removePowerLineById(int lineId) {
-        for (int i = 0; i < powerLines.size(); i++) {
-            if (powerLines.get(i).getId() == lineId) {
-                powerLines.remove(i);
+        for (PowerLine line : powerLines) {
+            if (line.getId() == lineId) {
+                unregister(line);
                 updateGrid();
                 return true;
             }
@@ -67,40 +255,163 @@ public class ElectricityGrid {
     }
 
     /**
-     * Retourne toutes les lignes électriques.
+     * Supprime les lignes qui passent par une cellule (cellule démolie).
+     * Le réseau est mis à jour au prochain {@link #updateGrid()}.
+     *
+     * @return Les lignes supprimées
+     */
+    public List<PowerLine> removePowerLinesAt(int x, int y) {
+        List<PowerLine> removed = new ArrayList<>(getPowerLinesAt(x, y));
+        for (PowerLine line : removed) {
+            unregister(line);
+        }
+        return removed;
+    }
+
+    /**
+     * Retourne toutes les lignes électriques (vue en lecture seule).
      */
     public List<PowerLine> getPowerLines() {
-        return new ArrayList<>(powerLines);
+        return powerLinesView;
+    }
+
+    /**
+     * Retourne les lignes qui passent par une cellule (lecture seule).
+     */
+    public List<PowerLine> getPowerLinesAt(int x, int y) {
+        if (!map.isValidPosition(x, y)) {
+            return Collections.emptyList();
+        }
+        List<PowerLine> lines = linesByCell.get(y * map.getWidth() + x);
+        return lines != null ? Collections.unmodifiableList(lines) : Collections.emptyList();
+    }
+
+    /**
+     * Vérifie si au moins une ligne passe par une cellule.
+     */
+    public boolean hasPowerLineAt(int x, int y) {
+        return map.isValidPosition(x, y) && linesByCell.containsKey(y * map.getWidth() + x);
+    }
+
+    // ===== Index des lignes par cellule =====
+
+    private void register(PowerLine line) {
+        powerLines.add(line);
+        changedLines.add(line);
+        int width = map.getWidth();
+        for (int i = 0; i < line.getLength(); i++) {
+            int pos = line.getPathY(i) * width + line.getPathX(i);
+            linesByCell.computeIfAbsent(pos, k -> new ArrayList<>(1)).add(line);
+        }
+        linesByEnd.computeIfAbsent(endKey(line.getEnd().x, line.getEnd().y), k -> new ArrayList<>(1)).add(line);
+    }
+
+    private void unregister(PowerLine line) {
+        if (!powerLines.remove(line)) {
+            return;
+        }
+        changedLines.add(line);
+        int width = map.getWidth();
+        for (int i = 0; i < line.getLength(); i++) {
+            int pos = line.getPathY(i) * width + line.getPathX(i);
+            List<PowerLine> lines = linesByCell.get(pos);
+            if (lines != null && lines.remove(line) && lines.isEmpty()) {
+                linesByCell.remove(pos);
+            }
+        }
+        long key = endKey(line.getEnd().x, line.getEnd().y);
+        List<PowerLine> ending = linesByEnd.get(key);
+        if (ending != null && ending.remove(line) && ending.isEmpty()) {
+            linesByEnd.remove(key);
+        }
+    }
+
+    /**
+     * Clé d'une case d'arrivée ; une ligne peut arriver hors de la carte.
+     */
+    private static long endKey(int x, int y) {
+        return ((long) y << Integer.SIZE) | (x & 0xFFFFFFFFL);
     }
 
     /**
-     * Met à jour tout le réseau électrique.
+     * Indique si {@link #updateGrid()} n'aurait rien à faire : aucune
+     * cellule ni ligne modifiée depuis la dernière mise à jour.
+     */
+    public boolean isUpToDate() {
+        return incrementalEnabled && initialized && dirtyCells.isEmpty() && changedLines.isEmpty();
+    }
+
+    /**
+     * Retourne un compteur qui change à chaque recalcul de l'alimentation.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Met à jour le réseau électrique.
+     * En mode incrémental, seule la zone touchée par les cellules et lignes
+     * modifiées depuis la dernière mise à jour est recalculée ; sinon (ou lors
+     * de la première mise à jour) le réseau est reconstruit entièrement.
+     */
+    public void updateGrid() {
+        if (!incrementalEnabled || !initialized) {
+            rebuildGrid();
+            return;
+        }
+        if (dirtyCells.isEmpty() && changedLines.isEmpty()) {
+            return; // Rien n'a changé
+        }
+
+        version++;
+        updateIncremental();
+
+        if (verificationEnabled) {
+            verifyAgainstRebuild();
+        }
+    }
+
+    /**
+     * Reconstruit tout le réseau électrique.
      * 1. Réinitialise l'alimentation de toutes les cellules
      * 2. Alimente les maisons dans le rayon de couverture des centrales
      * (directement raccordées)
      * 3. Alimente les maisons via les lignes électriques (directement raccordées)
      * 4. Propage l'électricité aux maisons voisines
+     *
+     * En mode parallèle ({@link #isParallelActive()}), les étapes 1, 2a et 4
+     * sont réparties sur le pool, la propagation utilisant le moteur bitset
+     * par bandes de lignes.
      */
-    public void updateGrid() {
+    public void rebuildGrid() {
+        version++;
+        dirtyCells.clear();
+        changedLines.clear();
+        initialized = true;
+        ForkJoinPool pool = isParallelActive() ? forkJoinPool : null;
+
         // 1. Réinitialiser l'alimentation de toutes les cellules
-        resetPower();
+        resetPower(pool);
 
         // 2. Identifier et alimenter les maisons directement raccordées
         Set<MapCell> directlyPowered = new HashSet<>();
 
         // 2a. Alimenter les résidences dans le rayon de couverture des centrales
-        List<MapCell> powerPlants = map.getPowerPlantCells();
-        for (MapCell plantCell : powerPlants) {
-            if (plantCell.getPowerPlant() != null && plantCell.getPowerPlant().isOperational()) {
-                // Trouver toutes les résidences dans le rayon de couverture
-                List<MapCell> residencesInRange = findResidencesInCoverageRadius(
-                        plantCell.getX(), plantCell.getY(), CityMap.POWER_PLANT_COVERAGE_RADIUS);
-
-                for (MapCell residence : residencesInRange) {
-                    if (!residence.isPowered()) {
-                        residence.setPowered(true);
-                        residence.setPowerLevel(0); // Niveau 0 = raccordement direct
-                        directlyPowered.add(residence);
+        if (pool != null) {
+            directlyPowered.addAll(powerCoveredResidences(pool));
+        } else {
+            for (MapCell plantCell : map.getPowerPlantCells()) {
+                if (plantCell.getPowerPlant() != null && plantCell.getPowerPlant().isOperational()) {
+                    // Trouver toutes les résidences dans le rayon de couverture
+                    List<MapCell> residencesInRange = findResidencesInCoverageRadius(
+                            plantCell.getX(), plantCell.getY(), CityMap.POWER_PLANT_COVERAGE_RADIUS);
+
+                    for (MapCell residence : residencesInRange) {
+                        if (!residence.isPowered()) {
+                            residence.setPowered(true);
+                            residence.setPowerLevel(0); // Niveau 0 = raccordement direct
+                            directlyPowered.add(residence);
+                        }
                     }
                 }
             }
@@ -130,68 +441,242 @@ public class ElectricityGrid {
             }
         }
 
-        // 3. Propager l'électricité aux maisons voisines (BFS)
-        propagatePower(directlyPowered);
+        // 3. Propager l'électricité aux maisons voisines
+        if (pool != null || propagationEngine == PropagationEngine.BITSET) {
+            new BitsetPropagation(map, pool).propagate(directlyPowered);
+        } else {
+            propagatePower(directlyPowered);
+        }
     }
 
+    // ===== Mise à jour incrémentale =====
+
     /**
-     * Trouve les résidences dans le rayon de couverture d'une centrale.
+     * Recalcule uniquement la zone affectée par les changements.
+     *
+     * Les niveaux de propagation sont des distances (en sauts) depuis les
+     * maisons raccordées directement. On invalide d'abord les maisons proches
+     * des changements, puis, niveau par niveau, celles qui ont perdu leur
+     * seul appui (voisine de niveau inférieur). Les maisons invalidées sont
+     * ensuite recalculées par un parcours en largeur qui peut aussi abaisser
+     * le niveau des maisons voisines non invalidées.
      */
-    private List<MapCell> findResidencesInCoverageRadius(int centerX, int centerY, int radius) {
-        List<MapCell> residences = new ArrayList<>();
-
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dy = -radius; dy <= radius; dy++) {
-                if (dx == 0 && dy == 0)
-                    continue;
+    private void updateIncremental() {
+        Set<Integer> affected = collectAffectedResidences();
+        Set<Integer> invalid = invalidateDependents(affected);
+
+        // Réinitialiser les maisons invalidées
+        for (int pos : invalid) {
+            MapCell cell = cellAt(pos);
+            cell.setPowered(false);
+            cell.setPowerLevel(-1);
+        }
 
-                // Distance euclidienne
-                double distance = Math.sqrt(dx * dx + dy * dy);
-                if (distance > radius)
-                    continue;
+        // Points de départ : maisons raccordées directement, ou appuyées sur
+        // une voisine dont le niveau est resté valide
+        List<List<Integer>> buckets = new ArrayList<>();
+        for (int pos : invalid) {
+            MapCell cell = cellAt(pos);
+            int level = isDirectlyConnected(cell) ? 0 : bestSupportLevel(cell, invalid);
+            if (level >= 0) {
+                setLevel(cell, level);
+                bucket(buckets, level).add(pos);
+            }
+        }
 
-                MapCell cell = map.getCell(centerX + dx, centerY + dy);
-                if (cell != null && cell.isResidence()) {
-                    residences.add(cell);
+        // Propagation par niveaux croissants
+        for (int level = 0; level < buckets.size(); level++) {
+            List<Integer> current = buckets.get(level);
+            for (int i = 0; i < current.size(); i++) {
+                MapCell cell = cellAt(current.get(i));
+                if (cell.getPowerLevel() != level) {
+                    continue; // Entrée obsolète, un meilleur niveau a été trouvé
+                }
+                for (MapCell neighbor : findResidencesInRange(cell, MAX_PROPAGATION_DISTANCE)) {
+                    int neighborLevel = neighbor.getPowerLevel();
+                    if ((neighborLevel < 0 || neighborLevel > level + 1) && hasDirectPath(cell, neighbor)) {
+                        setLevel(neighbor, level + 1);
+                        bucket(buckets, level + 1).add(positionOf(neighbor));
+                    }
                 }
             }
         }
-        return residences;
+
+        // Cellules modifiées qui ne sont pas des résidences
+        for (int pos : dirtyCells) {
+            MapCell cell = cellAt(pos);
+            if (cell.isPowerPlant()) {
+                cell.setPowered(true);
+                cell.setPowerLevel(0);
+            } else if (!cell.isResidence()) {
+                cell.setPowered(false);
+                cell.setPowerLevel(-1);
+            }
+        }
+
+        dirtyCells.clear();
+        changedLines.clear();
     }
 
     /**
-     * Réinitialise l'alimentation de toutes les cellules sauf les centrales.
+     * Retourne les résidences dont le raccordement direct ou les liens de
+     * propagation peuvent avoir changé.
      */
-    private void resetPower() {
-        for (int x = 0; x < map.getWidth(); x++) {
-            for (int y = 0; y < map.getHeight(); y++) {
-                MapCell cell = map.getCell(x, y);
-                if (cell.isPowerPlant()) {
-                    cell.setPowered(true);
-                    cell.setPowerLevel(0);
-                } else {
-                    cell.setPowered(false);
-                    cell.setPowerLevel(-1);
+    private Set<Integer> collectAffectedResidences() {
+        Set<Integer> affected = new HashSet<>();
+        int width = map.getWidth();
+
+        for (int pos : dirtyCells) {
+            addResidencesAround(affected, pos % width, pos / width, AFFECTED_RADIUS);
+        }
+
+        // Le bout d'une ligne alimente ses voisines : une ligne ajoutée,
+        // supprimée, coupée par l'eau ou dont la centrale a changé
+        // modifie le raccordement direct autour de son arrivée.
+        Set<PowerLine> touchedLines = new HashSet<>(changedLines);
+        for (int pos : dirtyCells) {
+            collectTouchedLines(touchedLines, pos % width, pos / width);
+        }
+        for (PowerLine line : touchedLines) {
+            Point end = line.getEnd();
+            addResidencesAround(affected, end.x, end.y, 1);
+        }
+        return affected;
+    }
+
+    private void addResidencesAround(Set<Integer> result, int centerX, int centerY, int radius) {
+        for (MapCell cell : map.findResidencesAround(centerX, centerY, radius)) {
+            result.add(positionOf(cell));
+        }
+    }
+
+    /**
+     * Ajoute les lignes dont le chemin passe par la cellule modifiée, ou dont
+     * le point de départ lui est adjacent (centrale).
+     */
+    private void collectTouchedLines(Set<PowerLine> result, int x, int y) {
+        result.addAll(getPowerLinesAt(x, y));
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (PowerLine line : getPowerLinesAt(x + dx, y + dy)) {
+                    Point start = line.getStart();
+                    if (start.x == x + dx && start.y == y + dy) {
+                        result.add(line);
+                    }
                 }
             }
         }
     }
 
     /**
-     * Vérifie si une ligne est connectée à une centrale opérationnelle.
+     * Étend l'ensemble des maisons affectées à celles qui dépendaient d'elles.
+     * Traite les niveaux (avant changement) dans l'ordre croissant : une maison
+     * de niveau k+1 n'est invalidée que si aucune voisine valide de niveau k
+     * ne peut encore l'alimenter.
      */
-    private boolean isConnectedToPowerPlant(PowerLine line) {
-        Point start = line.getStart();
+    private Set<Integer> invalidateDependents(Set<Integer> affected) {
+        Set<Integer> invalid = new HashSet<>(affected);
+        Set<Integer> expanded = new HashSet<>();
+        List<List<Integer>> buckets = new ArrayList<>();
+
+        for (int pos : affected) {
+            int level = cellAt(pos).getPowerLevel();
+            if (level >= 0) {
+                bucket(buckets, level).add(pos);
+            }
+        }
 
-        // Vérifier les cellules adjacentes au point de départ
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                if (dx == 0 && dy == 0)
+        for (int level = 0; level < buckets.size(); level++) {
+            List<Integer> current = buckets.get(level);
+            for (int i = 0; i < current.size(); i++) {
+                int pos = current.get(i);
+                if (!expanded.add(pos)) {
                     continue;
+                }
+                MapCell cell = cellAt(pos);
+                if (!invalid.contains(pos)) {
+                    if (hasValidSupport(cell, level, invalid)) {
+                        continue;
+                    }
+                    invalid.add(pos);
+                }
+                for (MapCell neighbor : findResidencesInRange(cell, MAX_PROPAGATION_DISTANCE)) {
+                    int neighborPos = positionOf(neighbor);
+                    if (!invalid.contains(neighborPos) && neighbor.getPowerLevel() == level + 1
+                            && hasDirectPath(cell, neighbor)) {
+                        bucket(buckets, level + 1).add(neighborPos);
+                    }
+                }
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * Vérifie qu'une maison de niveau donné est encore alimentée par une
+     * voisine valide de niveau inférieur.
+     */
+    private boolean hasValidSupport(MapCell cell, int level, Set<Integer> invalid) {
+        for (MapCell neighbor : findResidencesInRange(cell, MAX_PROPAGATION_DISTANCE)) {
+            if (neighbor.getPowerLevel() == level - 1 && !invalid.contains(positionOf(neighbor))
+                    && hasDirectPath(neighbor, cell)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retourne le meilleur niveau obtenu via une voisine valide, ou -1.
+     */
+    private int bestSupportLevel(MapCell cell, Set<Integer> invalid) {
+        int best = -1;
+        for (MapCell neighbor : findResidencesInRange(cell, MAX_PROPAGATION_DISTANCE)) {
+            int neighborLevel = neighbor.getPowerLevel();
+            if (neighborLevel >= 0 && (best < 0 || neighborLevel + 1 < best)
+                    && !invalid.contains(positionOf(neighbor)) && hasDirectPath(neighbor, cell)) {
+                best = neighborLevel + 1;
+            }
+        }
+        return best;
+    }
 
-                MapCell cell = map.getCell(start.x + dx, start.y + dy);
-                if (cell != null && cell.isPowerPlant()) {
-                    if (cell.getPowerPlant() != null && cell.getPowerPlant().isOperational()) {
+    /**
+     * Vérifie si une résidence est raccordée directement : dans le rayon de
+     * couverture d'une centrale active ou au bout d'une ligne électrique.
+     */
+    private boolean isDirectlyConnected(MapCell residence) {
+        return isFedByLine(residence) || isCoveredByPlant(residence);
+    }
+
+    /**
+     * Vérifie si une résidence est dans le rayon de couverture d'une centrale
+     * active.
+     */
+    private boolean isCoveredByPlant(MapCell residence) {
+        for (MapCell cell : map.findPowerPlantsInRadius(residence.getX(), residence.getY(),
+                CityMap.POWER_PLANT_COVERAGE_RADIUS)) {
+            if (cell.getPowerPlant() != null && cell.getPowerPlant().isOperational()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Vérifie si une résidence est au bout d'une ligne valide reliée à une
+     * centrale active. Seules les lignes arrivant à une case d'elle sont
+     * examinées (index par case d'arrivée).
+     */
+    private boolean isFedByLine(MapCell residence) {
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                List<PowerLine> lines = linesByEnd.get(endKey(residence.getX() + dx, residence.getY() + dy));
+                if (lines == null) {
+                    continue;
+                }
+                for (PowerLine line : lines) {
+                    if (line.isValid(map) && isConnectedToPowerPlant(line)) {
                         return true;
                     }
                 }
@@ -201,20 +686,122 @@ public class ElectricityGrid {
     }
 
     /**
-     * Retourne les résidences adjacentes à une position (rayon de 1 case).
+     * Mode test : compare l'état incrémental avec une reconstruction complète.
      */
-    private List<MapCell> getAdjacentResidences(int x, int y) {
-        List<MapCell> residences = new ArrayList<>();
+    private void verifyAgainstRebuild() {
+        Map<MapCell, Integer> incrementalLevels = new HashMap<>();
+        for (MapCell cell : map.getResidenceCells()) {
+            incrementalLevels.put(cell, cell.getPowerLevel());
+        }
+
+        rebuildGrid();
+
+        for (Map.Entry<MapCell, Integer> entry : incrementalLevels.entrySet()) {
+            int expected = entry.getKey().getPowerLevel();
+            if (expected != entry.getValue()) {
+                throw new IllegalStateException(String.format(
+                        "Réseau incrémental incohérent en (%d,%d) : niveau %d au lieu de %d",
+                        entry.getKey().getX(), entry.getKey().getY(), entry.getValue(), expected));
+            }
+        }
+    }
+
+    private void setLevel(MapCell cell, int level) {
+        cell.setPowered(true);
+        cell.setPowerLevel(level);
+    }
+
+    private static List<Integer> bucket(List<List<Integer>> buckets, int level) {
+        while (buckets.size() <= level) {
+            buckets.add(new ArrayList<>());
+        }
+        return buckets.get(level);
+    }
+
+    private MapCell cellAt(int pos) {
+        return map.getCell(pos % map.getWidth(), pos / map.getWidth());
+    }
+
+    private int positionOf(MapCell cell) {
+        return cell.getY() * map.getWidth() + cell.getX();
+    }
+
+    /**
+     * Trouve les résidences dans le rayon de couverture d'une centrale.
+     */
+    private List<MapCell> findResidencesInCoverageRadius(int centerX, int centerY, int radius) {
+        return map.findResidencesInRadius(centerX, centerY, radius);
+    }
+
+    /**
+     * Réinitialise l'alimentation des bâtiments.
+     * Les cellules vides sont déjà remises à zéro par {@link MapCell#clear()}.
+     */
+    private void resetPower(ForkJoinPool pool) {
+        for (MapCell cell : map.getPowerPlantCells()) {
+            cell.setPowered(true);
+            cell.setPowerLevel(0);
+        }
+        List<MapCell> residences = map.getResidenceCells();
+        int strips = ParallelStrips.stripCount(pool, residences.size(), PARALLEL_MIN_SLICE);
+        ParallelStrips.run(pool, residences.size(), strips, (strip, from, to) -> {
+            for (MapCell cell : residences.subList(from, to)) {
+                cell.setPowered(false);
+                cell.setPowerLevel(-1);
+            }
+        });
+    }
 
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                MapCell cell = map.getCell(x + dx, y + dy);
-                if (cell != null && cell.isResidence()) {
-                    residences.add(cell);
+    /**
+     * Alimente en parallèle les résidences couvertes par une centrale active
+     * et les retourne. Chaque tranche de la liste des résidences est traitée
+     * par une tâche ; les résultats sont fusionnés dans l'ordre des tranches.
+     */
+    private List<MapCell> powerCoveredResidences(ForkJoinPool pool) {
+        List<MapCell> residences = map.getResidenceCells();
+        int strips = ParallelStrips.stripCount(pool, residences.size(), PARALLEL_MIN_SLICE);
+        List<List<MapCell>> covered = new ArrayList<>();
+        for (int strip = 0; strip < strips; strip++) {
+            covered.add(new ArrayList<>());
+        }
+        ParallelStrips.run(pool, residences.size(), strips, (strip, from, to) -> {
+            for (MapCell residence : residences.subList(from, to)) {
+                if (isCoveredByPlant(residence)) {
+                    setLevel(residence, 0); // Niveau 0 = raccordement direct
+                    covered.get(strip).add(residence);
                 }
             }
+        });
+
+        List<MapCell> result = new ArrayList<>();
+        for (List<MapCell> part : covered) {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    /**
+     * Vérifie si une ligne est connectée à une centrale opérationnelle.
+     */
+    private boolean isConnectedToPowerPlant(PowerLine line) {
+        Point start = line.getStart();
+
+        // Vérifier les cellules adjacentes au point de départ
+        for (MapCell cell : map.findPowerPlantsAround(start.x, start.y, 1)) {
+            if (cell.getX() == start.x && cell.getY() == start.y)
+                continue;
+            if (cell.getPowerPlant() != null && cell.getPowerPlant().isOperational()) {
+                return true;
+            }
         }
-        return residences;
+        return false;
+    }
+
+    /**
+     * Retourne les résidences adjacentes à une position (rayon de 1 case).
+     */
+    private List<MapCell> getAdjacentResidences(int x, int y) {
+        return map.findResidencesAround(x, y, 1);
     }
 
     /**
@@ -255,69 +842,15 @@ public class ElectricityGrid {
      * Trouve toutes les résidences dans un rayon donné autour d'une cellule.
      */
     private List<MapCell> findResidencesInRange(MapCell center, int range) {
-        List<MapCell> residences = new ArrayList<>();
-
-        for (int dx = -range; dx <= range; dx++) {
-            for (int dy = -range; dy <= range; dy++) {
-                if (dx == 0 && dy == 0)
-                    continue;
-
-                // Vérifier la distance (Manhattan)
-                if (Math.abs(dx) + Math.abs(dy) > range)
-                    continue;
-
-                MapCell cell = map.getCell(center.getX() + dx, center.getY() + dy);
-                if (cell != null && cell.isResidence()) {
-                    residences.add(cell);
-                }
-            }
-        }
-        return residences;
+        return map.findResidencesInRange(center.getX(), center.getY(), range);
     }
 
     /**
      * Vérifie s'il existe un chemin direct entre deux cellules sans obstacle.
-     * Utilise un tracé de ligne simple (Bresenham simplifié).
+     * Délègue au cache de visibilité de la carte.
      */
     private boolean hasDirectPath(MapCell from, MapCell to) {
-        int x0 = from.getX();
-        int y0 = from.getY();
-        int x1 = to.getX();
-        int y1 = to.getY();
-
-        int dx = Math.abs(x1 - x0);
-        int dy = Math.abs(y1 - y0);
-        int sx = x0 < x1 ? 1 : -1;
-        int sy = y0 < y1 ? 1 : -1;
-        int err = dx - dy;
-
-        int x = x0;
-        int y = y0;
-
-        while (x != x1 || y != y1) {
-            int e2 = 2 * err;
-
-            if (e2 > -dy) {
-                err -= dy;
-                x += sx;
-            }
-
-            if (e2 < dx) {
-                err += dx;
-                y += sy;
-            }
-
-            // Vérifier si la cellule intermédiaire bloque
-            MapCell cell = map.getCell(x, y);
-            if (cell == null) {
-                return false;
-            }
-            if (cell.getTerrainType().blocksElectricity()) {
-                return false; // Cours d'eau bloque le passage
-            }
-        }
-
-        return true;
+        return map.hasDirectPath(from, to);
     }
 
     /**
@@ -342,13 +875,56 @@ public class ElectricityGrid {
             return null;
         }
 
-        PowerLine line = new PowerLine(start, end);
-        line.calculateStraightPath();
+        // Tracé contournant les cours d'eau
+        int[] path = router.route(start.x, start.y, end.x, end.y);
+        if (path == null) {
+            return null;
+        }
 
-        if (line.isValid(map)) {
-            return line;
+        return toLine(start, end, path);
+    }
+
+    /**
+     * Crée les lignes d'une centrale vers plusieurs résidences, tracées en un
+     * seul parcours depuis la centrale : les lignes partagent leur tronc
+     * commun (plus courts chemins depuis le même départ).
+     *
+     * @return Les lignes créées, dans l'ordre des résidences (sans les
+     *         résidences impossibles à raccorder)
+     */
+    public List<PowerLine> createAutoLines(int plantX, int plantY, List<MapCell> residences) {
+        List<PowerLine> lines = new ArrayList<>();
+        Point start = findAdjacentEmptyCell(plantX, plantY);
+        if (start == null) {
+            return lines;
         }
-        return null;
+
+        Point[] ends = new Point[residences.size()];
+        int[] endXs = new int[ends.length];
+        int[] endYs = new int[ends.length];
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = findAdjacentEmptyCell(residences.get(i).getX(), residences.get(i).getY());
+            // Sans case libre, une arrivée hors de la carte n'est jamais atteinte
+            endXs[i] = ends[i] != null ? ends[i].x : -1;
+            endYs[i] = ends[i] != null ? ends[i].y : -1;
+        }
+
+        int[][] paths = router.routeAll(start.x, start.y, endXs, endYs);
+        for (int i = 0; i < ends.length; i++) {
+            if (paths[i] != null) {
+                lines.add(toLine(start, ends[i], paths[i]));
+            }
+        }
+        return lines;
+    }
+
+    private PowerLine toLine(Point start, Point end, int[] path) {
+        PowerLine line = new PowerLine(start, end);
+        int width = map.getWidth();
+        for (int i = 1; i < path.length; i++) {
+            line.addPathPoint(path[i] % width, path[i] / width);
+        }
+        return line;
     }
 
     /**
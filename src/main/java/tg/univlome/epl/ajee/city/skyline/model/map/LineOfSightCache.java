@@ -0,0 +1,216 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import java.util.Arrays;
+
+/**
+ * Cache de visibilité entre cellules proches (aucun cours d'eau sur le tracé).
+ *
+ * Pour chaque cellule source, un masque de bits indique quelles cellules du
+ * voisinage de propagation (distance de Manhattan au plus {@link #RANGE})
+ * sont visibles. Les masques sont calculés à la première demande, rangés
+ * dans des tuiles allouées à la demande, et invalidés autour d'une cellule
+ * dont le terrain change. Au-delà du voisinage, le tracé est parcouru.
+ */
+class LineOfSightCache {
+
+    /**
+     * Distance de Manhattan maximale couverte par les masques.
+     */
+    static final int RANGE = ElectricityGrid.MAX_PROPAGATION_DISTANCE;
+
+    /**
+     * Nombre de cellules du voisinage (bits utilisés dans un masque).
+     */
+    static final int STENCIL_SIZE = 2 * RANGE * (RANGE + 1);
+
+    private static final int STENCIL_SIDE = 2 * RANGE + 1;
+    private static final int[] OFFSET_X;
+    private static final int[] OFFSET_Y;
+    private static final int[] BIT_BY_OFFSET; // Indexé par (dy + RANGE) * STENCIL_SIDE + dx + RANGE
+
+    private static final int VALID_BIT = 1 << 31; // Masque calculé
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    static {
+        OFFSET_X = new int[STENCIL_SIZE];
+        OFFSET_Y = new int[STENCIL_SIZE];
+        BIT_BY_OFFSET = new int[STENCIL_SIDE * STENCIL_SIDE];
+        Arrays.fill(BIT_BY_OFFSET, -1);
+
+        int bit = 0;
+        for (int dy = -RANGE; dy <= RANGE; dy++) {
+            for (int dx = -RANGE; dx <= RANGE; dx++) {
+                int distance = Math.abs(dx) + Math.abs(dy);
+                if (distance == 0 || distance > RANGE)
+                    continue;
+                OFFSET_X[bit] = dx;
+                OFFSET_Y[bit] = dy;
+                BIT_BY_OFFSET[(dy + RANGE) * STENCIL_SIDE + dx + RANGE] = bit;
+                bit++;
+            }
+        }
+    }
+
+    private final MapStorage storage;
+    private final int tilesX;
+    private final int[][] tiles; // Masques par cellule, null = tuile jamais consultée
+
+    LineOfSightCache(MapStorage storage) {
+        this.storage = storage;
+        this.tilesX = (storage.getWidth() + TILE_MASK) >> TILE_SHIFT;
+        int tilesY = (storage.getHeight() + TILE_MASK) >> TILE_SHIFT;
+        this.tiles = new int[tilesX * tilesY][];
+    }
+
+    /**
+     * Vérifie s'il existe un chemin direct sans cours d'eau entre deux
+     * positions (tracé de Bresenham partant de la première).
+     */
+    boolean hasDirectPath(int x0, int y0, int x1, int y1) {
+        int bit = bitFor(x1 - x0, y1 - y0);
+        if (bit < 0 || !isValid(x0, y0)) {
+            return walk(storage, x0, y0, x1, y1);
+        }
+        return (maskAt(x0, y0) & (1 << bit)) != 0;
+    }
+
+    /**
+     * Retourne le masque de visibilité d'une cellule : le bit {@code b} est
+     * levé si le tracé vers ({@code x + offsetX(b)}, {@code y + offsetY(b)})
+     * est dégagé.
+     */
+    int getMask(int x, int y) {
+        return maskAt(x, y) & ~VALID_BIT;
+    }
+
+    static int offsetX(int bit) {
+        return OFFSET_X[bit];
+    }
+
+    static int offsetY(int bit) {
+        return OFFSET_Y[bit];
+    }
+
+    /**
+     * Signale que le terrain d'une cellule a changé : les masques des sources
+     * dont un tracé peut passer par cette cellule sont à recalculer.
+     */
+    void invalidate(int x, int y) {
+        for (int dy = -RANGE; dy <= RANGE; dy++) {
+            int span = RANGE - Math.abs(dy);
+            for (int dx = -span; dx <= span; dx++) {
+                int sx = x + dx;
+                int sy = y + dy;
+                if (!isValid(sx, sy)) {
+                    continue;
+                }
+                int[] tile = tiles[tileIndex(sx, sy)];
+                if (tile != null) {
+                    tile[localIndex(sx, sy)] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Oublie tous les masques (carte réinitialisée).
+     */
+    void clear() {
+        Arrays.fill(tiles, null);
+    }
+
+    /**
+     * Parcourt le tracé de Bresenham de (x0, y0) vers (x1, y1) et vérifie
+     * qu'aucune cellule traversée (arrivée comprise) ne bloque l'électricité.
+     */
+    static boolean walk(MapStorage storage, int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1;
+        int sy = y0 < y1 ? 1 : -1;
+        int err = dx - dy;
+
+        int x = x0;
+        int y = y0;
+
+        while (x != x1 || y != y1) {
+            int e2 = 2 * err;
+
+            if (e2 > -dy) {
+                err -= dy;
+                x += sx;
+            }
+
+            if (e2 < dx) {
+                err += dx;
+                y += sy;
+            }
+
+            // Vérifier si la cellule intermédiaire bloque
+            if (x < 0 || x >= storage.getWidth() || y < 0 || y >= storage.getHeight()) {
+                return false;
+            }
+            if (storage.getTerrain(x, y).blocksElectricity()) {
+                return false; // Cours d'eau bloque le passage
+            }
+        }
+
+        return true;
+    }
+
+    private int maskAt(int x, int y) {
+        int[] tile = tileAt(tileIndex(x, y));
+        int local = localIndex(x, y);
+        int mask = tile[local];
+        if ((mask & VALID_BIT) == 0) {
+            mask = VALID_BIT;
+            for (int bit = 0; bit < OFFSET_X.length; bit++) {
+                if (walk(storage, x, y, x + OFFSET_X[bit], y + OFFSET_Y[bit])) {
+                    mask |= 1 << bit;
+                }
+            }
+            tile[local] = mask;
+        }
+        return mask;
+    }
+
+    /**
+     * Retourne la tuile, allouée au premier accès. Les lectures peuvent être
+     * concurrentes (mise à jour parallèle du réseau) : l'allocation est
+     * synchronisée, et un masque écrit deux fois a toujours la même valeur.
+     */
+    private int[] tileAt(int index) {
+        int[] tile = tiles[index];
+        if (tile == null) {
+            synchronized (this) {
+                tile = tiles[index];
+                if (tile == null) {
+                    tile = new int[TILE_SIZE * TILE_SIZE];
+                    tiles[index] = tile;
+                }
+            }
+        }
+        return tile;
+    }
+
+    private static int bitFor(int dx, int dy) {
+        if (Math.abs(dx) + Math.abs(dy) > RANGE) {
+            return -1;
+        }
+        return BIT_BY_OFFSET[(dy + RANGE) * STENCIL_SIDE + dx + RANGE];
+    }
+
+    private boolean isValid(int x, int y) {
+        return x >= 0 && x < storage.getWidth() && y >= 0 && y < storage.getHeight();
+    }
+
+    private int tileIndex(int x, int y) {
+        return (y >> TILE_SHIFT) * tilesX + (x >> TILE_SHIFT);
+    }
+
+    private static int localIndex(int x, int y) {
+        return ((y & TILE_MASK) << TILE_SHIFT) | (x & TILE_MASK);
+    }
+}
@@ -5,8 +5,13 @@ import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
 
 /**
  * Représente une cellule de la carte de la ville.
+ *
+ * Classe sans état : la position et l'état de la cellule sont lus par les
+ * accesseurs abstraits, implémentés par une cellule stockée
+ * ({@link StoredMapCell}) ou par une vue sur un stockage compact
+ * ({@link MapCellView}). Les méthodes dérivées ne passent que par eux.
  */
-public class MapCell {
+public abstract class MapCell {
 
     /**
      * Types de cellules possibles (bâtiments).
@@ -34,87 +39,50 @@ public class MapCell {
         }
     }
 
-    private final int x;
-    private final int y;
-    private TerrainType terrainType; // Type de terrain (constructible ou cours d'eau)
-    private CellType type; // Type de bâtiment
-    private Residence residence;
-    private PowerPlant powerPlant;
-    private boolean powered; // Si la cellule est alimentée en électricité
-    private int powerLevel; // Niveau d'alimentation (-1 = non alimenté, 0 = direct, 1+ = propagation)
-    private boolean hasPowerLine; // Si une ligne électrique passe par cette cellule
-
-    public MapCell(int x, int y) {
-        this(x, y, TerrainType.CONSTRUCTIBLE);
-    }
-
-    public MapCell(int x, int y, TerrainType terrainType) {
-        this.x = x;
-        this.y = y;
-        this.terrainType = terrainType;
-        this.type = CellType.EMPTY;
-        this.powered = false;
-        this.powerLevel = -1;
-        this.hasPowerLine = false;
-    }
+    public abstract int getX();
 
-    public int getX() {
-        return x;
-    }
-
-    public int getY() {
-        return y;
-    }
+    public abstract int getY();
 
     // ===== Terrain =====
 
-    public TerrainType getTerrainType() {
-        return terrainType;
-    }
+    public abstract TerrainType getTerrainType();
 
-    public void setTerrainType(TerrainType terrainType) {
-        this.terrainType = terrainType;
-    }
+    public abstract void setTerrainType(TerrainType terrainType);
 
     /**
      * Vérifie si le terrain est constructible (code 0).
      */
     public boolean isConstructible() {
-        return terrainType.isConstructible() && !terrainType.blocksElectricity();
+        TerrainType terrain = getTerrainType();
+        return terrain.isConstructible() && !terrain.blocksElectricity();
     }
 
     /**
      * Vérifie si le terrain est un cours d'eau (code 1).
      */
     public boolean isWater() {
-        return terrainType == TerrainType.WATER;
+        return getTerrainType() == TerrainType.WATER;
     }
 
     // ===== Type de bâtiment =====
 
-    public CellType getType() {
-        return type;
-    }
+    public abstract CellType getType();
 
     public boolean isEmpty() {
-        return type == CellType.EMPTY;
+        return getType() == CellType.EMPTY;
     }
 
     public boolean isResidence() {
-        return type == CellType.RESIDENCE;
+        return getType() == CellType.RESIDENCE;
     }
 
     public boolean isPowerPlant() {
-        return type == CellType.POWER_PLANT;
+        return getType() == CellType.POWER_PLANT;
     }
 
-    public Residence getResidence() {
-        return residence;
-    }
+    public abstract Residence getResidence();
 
-    public PowerPlant getPowerPlant() {
-        return powerPlant;
-    }
+    public abstract PowerPlant getPowerPlant();
 
     /**
      * Place une résidence sur cette cellule.
@@ -126,9 +94,7 @@ public class MapCell {
         if (!isConstructible()) {
             return false;
         }
-        this.residence = residence;
-        this.powerPlant = null;
-        this.type = CellType.RESIDENCE;
+        storeBuilding(CellType.RESIDENCE, residence, null);
         return true;
     }
 
@@ -154,74 +120,71 @@ public class MapCell {
             }
         }
 
-        this.powerPlant = powerPlant;
-        this.residence = null;
-        this.type = CellType.POWER_PLANT;
+        storeBuilding(CellType.POWER_PLANT, null, powerPlant);
         return true;
     }
 
+    /**
+     * Enregistre le bâtiment de la cellule, sans vérification.
+     */
+    abstract void storeBuilding(CellType type, Residence residence, PowerPlant powerPlant);
+
     /**
      * Vide la cellule (supprime le bâtiment mais garde le terrain).
      */
     public void clear() {
-        this.residence = null;
-        this.powerPlant = null;
-        this.type = CellType.EMPTY;
-        this.powered = false;
-        this.powerLevel = -1;
-        this.hasPowerLine = false;
+        storeBuilding(CellType.EMPTY, null, null);
+        storePowered(false);
+        setPowerLevel(-1);
+        setHasPowerLine(false);
     }
 
     // ===== Alimentation électrique =====
 
-    public boolean isPowered() {
-        return powered;
-    }
+    public abstract boolean isPowered();
 
     public void setPowered(boolean powered) {
-        this.powered = powered;
+        storePowered(powered);
+        Residence residence = getResidence();
         if (residence != null) {
             residence.setEnergySupplied(powered);
         }
     }
 
+    /**
+     * Enregistre l'état d'alimentation, sans prévenir la résidence.
+     */
+    abstract void storePowered(boolean powered);
+
     /**
      * Retourne le niveau d'alimentation.
      * -1 = non alimenté
      * 0 = raccordement direct à une centrale
      * 1+ = alimenté par propagation (le nombre indique le niveau de propagation)
      */
-    public int getPowerLevel() {
-        return powerLevel;
-    }
+    public abstract int getPowerLevel();
 
-    public void setPowerLevel(int powerLevel) {
-        this.powerLevel = powerLevel;
-    }
+    public abstract void setPowerLevel(int powerLevel);
 
     /**
      * Vérifie si cette cellule est alimentée directement par une centrale.
      */
     public boolean isDirectlyPowered() {
-        return powered && powerLevel == 0;
+        return isPowered() && getPowerLevel() == 0;
     }
 
     /**
      * Vérifie si cette cellule est alimentée par propagation.
      */
     public boolean isPoweredByPropagation() {
-        return powered && powerLevel > 0;
+        return isPowered() && getPowerLevel() > 0;
     }
 
     // ===== Lignes électriques =====
 
-    public boolean hasPowerLine() {
-        return hasPowerLine;
-    }
+    public abstract boolean hasPowerLine();
 
-    public void setHasPowerLine(boolean hasPowerLine) {
-        this.hasPowerLine = hasPowerLine;
-    }
+    public abstract void setHasPowerLine(boolean hasPowerLine);
 
     // ===== Utilitaires =====
 
@@ -229,8 +192,8 @@ public class MapCell {
      * Calcule la distance à une autre cellule (Euclidienne).
      */
     public double distanceTo(MapCell other) {
-        int dx = this.x - other.x;
-        int dy = this.y - other.y;
+        int dx = getX() - other.getX();
+        int dy = getY() - other.getY();
         return Math.sqrt(dx * dx + dy * dy);
     }
 
@@ -238,8 +201,8 @@ public class MapCell {
      * Calcule la distance à une position (Euclidienne).
      */
     public double distanceTo(int otherX, int otherY) {
-        int dx = this.x - otherX;
-        int dy = this.y - otherY;
+        int dx = getX() - otherX;
+        int dy = getY() - otherY;
         return Math.sqrt(dx * dx + dy * dy);
     }
 
@@ -247,14 +210,14 @@ public class MapCell {
      * Calcule la distance de Manhattan à une autre cellule.
      */
     public int manhattanDistanceTo(MapCell other) {
-        return Math.abs(this.x - other.x) + Math.abs(this.y - other.y);
+        return Math.abs(getX() - other.getX()) + Math.abs(getY() - other.getY());
     }
 
     /**
      * Calcule la distance de Manhattan à une position.
      */
     public int manhattanDistanceTo(int otherX, int otherY) {
-        return Math.abs(this.x - otherX) + Math.abs(this.y - otherY);
+        return Math.abs(getX() - otherX) + Math.abs(getY() - otherY);
     }
 
     /**
@@ -262,18 +225,19 @@ public class MapCell {
      */
     public String getDisplayIcon() {
         if (isWater()) {
-            return terrainType.getIcon(); // 🌊
+            return getTerrainType().getIcon(); // 🌊
         }
-        if (hasPowerLine && isEmpty()) {
+        if (hasPowerLine() && isEmpty()) {
             return CellType.POWER_LINE.getIcon(); // ─
         }
-        return type.getIcon();
+        return getType().getIcon();
     }
 
     @Override
     public String toString() {
-        String powerInfo = powered ? (powerLevel == 0 ? "⚡Direct" : "⚡Prop" + powerLevel) : "❌";
+        int powerLevel = getPowerLevel();
+        String powerInfo = isPowered() ? (powerLevel == 0 ? "⚡Direct" : "⚡Prop" + powerLevel) : "❌";
         return String.format("Cell[%d,%d] %s (%s) %s",
-                x, y, type.getDisplayName(), terrainType.getDisplayName(), powerInfo);
+                getX(), getY(), getType().getDisplayName(), getTerrainType().getDisplayName(), powerInfo);
     }
 }
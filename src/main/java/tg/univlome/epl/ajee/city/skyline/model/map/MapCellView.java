@@ -0,0 +1,113 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+
+/**
+ * Vue légère sur une position d'un {@link MapStorage} compact.
+ *
+ * La vue ne garde que le stockage et sa position : toutes les lectures et
+ * écritures sont redirigées vers le stockage. Deux vues sur la même
+ * position sont égales. Les vues ne sont créées que pour les appelants qui
+ * demandent un {@link MapCell} ; la carte lit et écrit le stockage par
+ * coordonnées.
+ */
+final class MapCellView extends MapCell {
+
+    private final MapStorage storage;
+    private final int x;
+    private final int y;
+
+    MapCellView(MapStorage storage, int x, int y) {
+        this.storage = storage;
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public int getX() {
+        return x;
+    }
+
+    @Override
+    public int getY() {
+        return y;
+    }
+
+    @Override
+    public TerrainType getTerrainType() {
+        return storage.getTerrain(getX(), getY());
+    }
+
+    @Override
+    public void setTerrainType(TerrainType terrainType) {
+        storage.setTerrain(getX(), getY(), terrainType);
+    }
+
+    @Override
+    public CellType getType() {
+        return storage.getType(getX(), getY());
+    }
+
+    @Override
+    public Residence getResidence() {
+        return storage.getResidence(getX(), getY());
+    }
+
+    @Override
+    public PowerPlant getPowerPlant() {
+        return storage.getPowerPlant(getX(), getY());
+    }
+
+    @Override
+    void storeBuilding(CellType type, Residence residence, PowerPlant powerPlant) {
+        storage.setBuilding(getX(), getY(), type, residence, powerPlant);
+    }
+
+    @Override
+    public boolean isPowered() {
+        return storage.isPowered(getX(), getY());
+    }
+
+    @Override
+    void storePowered(boolean powered) {
+        storage.setPowered(getX(), getY(), powered);
+    }
+
+    @Override
+    public int getPowerLevel() {
+        return storage.getPowerLevel(getX(), getY());
+    }
+
+    @Override
+    public void setPowerLevel(int powerLevel) {
+        storage.setPowerLevel(getX(), getY(), powerLevel);
+    }
+
+    @Override
+    public boolean hasPowerLine() {
+        return storage.hasPowerLine(getX(), getY());
+    }
+
+    @Override
+    public void setHasPowerLine(boolean hasPowerLine) {
+        storage.setHasPowerLine(getX(), getY(), hasPowerLine);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MapCellView)) {
+            return false;
+        }
+        MapCellView other = (MapCellView) o;
+        return storage == other.storage && getX() == other.getX() && getY() == other.getY();
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * getX() + getY();
+    }
+}
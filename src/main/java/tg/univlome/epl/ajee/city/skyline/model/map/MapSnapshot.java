@@ -0,0 +1,180 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import tg.univlome.epl.ajee.city.skyline.model.energy.EnergyType;
+import tg.univlome.epl.ajee.city.skyline.model.entities.ResidenceLevel;
+
+import java.util.Arrays;
+
+/**
+ * Copie en lecture seule de ce qu'affiche la carte : terrain, bâtiments et
+ * alimentation de chaque case.
+ *
+ * Prise sous le verrou du moteur ({@link CityMap#createSnapshot()}),
+ * elle est ensuite lue sans verrou par l'interface pendant que la
+ * simulation continue. Elle ne garde aucune référence vers le modèle.
+ * Les trois couches ne sont jamais modifiées : une couche inchangée est
+ * partagée avec la copie précédente.
+ */
+public final class MapSnapshot {
+
+    private static final MapCell.CellType[] TYPES = MapCell.CellType.values();
+    private static final ResidenceLevel[] RESIDENCE_LEVELS = ResidenceLevel.values();
+    private static final EnergyType[] ENERGY_TYPES = EnergyType.values();
+
+    /**
+     * Cours d'eau, une case par position (y * largeur + x).
+     */
+    static final class Terrain {
+        final boolean[] water;
+
+        Terrain(boolean[] water) {
+            this.water = water;
+        }
+    }
+
+    /**
+     * Bâtiments : le type de chaque case, puis le détail de chaque bâtiment
+     * rangé par position croissante.
+     */
+    static final class Buildings {
+        final byte[] types; // MapCell.CellType, une case par position
+        final int[] positions; // Positions des bâtiments, triées
+        final byte[] kinds; // Niveau de résidence ou type d'énergie, -1 sinon
+        final int[] production; // Production nominale des centrales (kWh)
+        final int[] plantPositions;
+
+        Buildings(byte[] types, int[] positions, byte[] kinds, int[] production, int[] plantPositions) {
+            this.types = types;
+            this.positions = positions;
+            this.kinds = kinds;
+            this.production = production;
+            this.plantPositions = plantPositions;
+        }
+    }
+
+    /**
+     * Alimentation de chaque bâtiment (dans l'ordre de
+     * {@link Buildings#positions}) : 1 + niveau, 0 si non alimenté.
+     */
+    static final class Power {
+        final int[] levels;
+
+        Power(int[] levels) {
+            this.levels = levels;
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final Terrain terrain;
+    private final Buildings buildings;
+    private final Power power;
+
+    MapSnapshot(int width, int height, Terrain terrain, Buildings buildings, Power power) {
+        this.width = width;
+        this.height = height;
+        this.terrain = terrain;
+        this.buildings = buildings;
+        this.power = power;
+    }
+
+    Terrain getTerrain() {
+        return terrain;
+    }
+
+    Buildings getBuildings() {
+        return buildings;
+    }
+
+    Power getPower() {
+        return power;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isValidPosition(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    // ===== Cases (coordonnées valides) =====
+
+    public MapCell.CellType getType(int x, int y) {
+        return TYPES[buildings.types[y * width + x]];
+    }
+
+    public boolean isWater(int x, int y) {
+        return terrain.water[y * width + x];
+    }
+
+    public boolean isPowered(int x, int y) {
+        return getPowerLevel(x, y) >= 0;
+    }
+
+    /**
+     * Niveau d'alimentation : 0 = direct, 1+ = par propagation, -1 si la
+     * case n'est pas alimentée.
+     */
+    public int getPowerLevel(int x, int y) {
+        int index = indexOf(x, y);
+        return index >= 0 ? power.levels[index] - 1 : -1;
+    }
+
+    /**
+     * Niveau de la résidence de la case, null s'il n'y en a pas.
+     */
+    public ResidenceLevel getResidenceLevel(int x, int y) {
+        int index = indexOf(x, y);
+        return index >= 0 && buildings.types[y * width + x] == MapCell.CellType.RESIDENCE.ordinal()
+                && buildings.kinds[index] >= 0
+                        ? RESIDENCE_LEVELS[buildings.kinds[index]]
+                        : null;
+    }
+
+    /**
+     * Type d'énergie de la centrale de la case, null s'il n'y en a pas.
+     */
+    public EnergyType getEnergyType(int x, int y) {
+        int index = indexOf(x, y);
+        return index >= 0 && buildings.types[y * width + x] == MapCell.CellType.POWER_PLANT.ordinal()
+                && buildings.kinds[index] >= 0
+                        ? ENERGY_TYPES[buildings.kinds[index]]
+                        : null;
+    }
+
+    /**
+     * Production à pleine capacité de la centrale de la case (0 sans
+     * centrale ou à l'arrêt).
+     */
+    public int getNominalProduction(int x, int y) {
+        int index = indexOf(x, y);
+        return index >= 0 ? buildings.production[index] : 0;
+    }
+
+    /**
+     * Rang du bâtiment de la case dans {@link Buildings#positions}, négatif
+     * s'il n'y en a pas.
+     */
+    private int indexOf(int x, int y) {
+        return Arrays.binarySearch(buildings.positions, y * width + x);
+    }
+
+    // ===== Centrales =====
+
+    public int getPowerPlantCount() {
+        return buildings.plantPositions.length;
+    }
+
+    public int getPowerPlantX(int index) {
+        return buildings.plantPositions[index] % width;
+    }
+
+    public int getPowerPlantY(int index) {
+        return buildings.plantPositions[index] / width;
+    }
+}
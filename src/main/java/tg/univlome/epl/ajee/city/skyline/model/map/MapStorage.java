@@ -0,0 +1,88 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stockage des cellules d'une {@link CityMap}.
+ *
+ * Les accès se font par coordonnées, sans passer par un objet {@link MapCell},
+ * ce qui permet de conserver l'état de la carte dans des tableaux de
+ * primitives. Les coordonnées sont supposées valides (vérifiées par CityMap).
+ */
+interface MapStorage {
+
+    int getWidth();
+
+    int getHeight();
+
+    /**
+     * Retourne la cellule à la position donnée (objet stocké ou vue).
+     */
+    MapCell getCell(int x, int y);
+
+    TerrainType getTerrain(int x, int y);
+
+    void setTerrain(int x, int y, TerrainType terrainType);
+
+    MapCell.CellType getType(int x, int y);
+
+    Residence getResidence(int x, int y);
+
+    PowerPlant getPowerPlant(int x, int y);
+
+    /**
+     * Remplace le bâtiment de la cellule (type, résidence, centrale).
+     */
+    void setBuilding(int x, int y, MapCell.CellType type, Residence residence, PowerPlant powerPlant);
+
+    boolean isPowered(int x, int y);
+
+    void setPowered(int x, int y, boolean powered);
+
+    int getPowerLevel(int x, int y);
+
+    void setPowerLevel(int x, int y, int powerLevel);
+
+    boolean hasPowerLine(int x, int y);
+
+    void setHasPowerLine(int x, int y, boolean hasPowerLine);
+
+    /**
+     * Retourne les cellules d'un type de terrain, colonne par colonne.
+     */
+    default List<MapCell> findCellsWithTerrain(TerrainType terrainType) {
+        List<MapCell> result = new ArrayList<>();
+        for (int x = 0; x < getWidth(); x++) {
+            for (int y = 0; y < getHeight(); y++) {
+                if (getTerrain(x, y) == terrainType) {
+                    result.add(getCell(x, y));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compte les cellules d'un type de terrain.
+     */
+    default int countCellsWithTerrain(TerrainType terrainType) {
+        int count = 0;
+        for (int x = 0; x < getWidth(); x++) {
+            for (int y = 0; y < getHeight(); y++) {
+                if (getTerrain(x, y) == terrainType) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Remet toute la carte en terrain constructible, sans bâtiment.
+     */
+    void reset();
+}
@@ -0,0 +1,106 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+
+/**
+ * Stockage historique : un objet {@link MapCell} par position.
+ * Adapté aux petites cartes de l'interface graphique.
+ */
+class ObjectMapStorage implements MapStorage {
+
+    private final int width;
+    private final int height;
+    private final MapCell[][] cells;
+
+    ObjectMapStorage(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new MapCell[width][height];
+        reset();
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public MapCell getCell(int x, int y) {
+        return cells[x][y];
+    }
+
+    @Override
+    public TerrainType getTerrain(int x, int y) {
+        return cells[x][y].getTerrainType();
+    }
+
+    @Override
+    public void setTerrain(int x, int y, TerrainType terrainType) {
+        cells[x][y].setTerrainType(terrainType);
+    }
+
+    @Override
+    public MapCell.CellType getType(int x, int y) {
+        return cells[x][y].getType();
+    }
+
+    @Override
+    public Residence getResidence(int x, int y) {
+        return cells[x][y].getResidence();
+    }
+
+    @Override
+    public PowerPlant getPowerPlant(int x, int y) {
+        return cells[x][y].getPowerPlant();
+    }
+
+    @Override
+    public void setBuilding(int x, int y, MapCell.CellType type, Residence residence, PowerPlant powerPlant) {
+        cells[x][y].storeBuilding(type, residence, powerPlant);
+    }
+
+    @Override
+    public boolean isPowered(int x, int y) {
+        return cells[x][y].isPowered();
+    }
+
+    @Override
+    public void setPowered(int x, int y, boolean powered) {
+        cells[x][y].storePowered(powered);
+    }
+
+    @Override
+    public int getPowerLevel(int x, int y) {
+        return cells[x][y].getPowerLevel();
+    }
+
+    @Override
+    public void setPowerLevel(int x, int y, int powerLevel) {
+        cells[x][y].setPowerLevel(powerLevel);
+    }
+
+    @Override
+    public boolean hasPowerLine(int x, int y) {
+        return cells[x][y].hasPowerLine();
+    }
+
+    @Override
+    public void setHasPowerLine(int x, int y, boolean hasPowerLine) {
+        cells[x][y].setHasPowerLine(hasPowerLine);
+    }
+
+    @Override
+    public void reset() {
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                cells[x][y] = new StoredMapCell(x, y, TerrainType.CONSTRUCTIBLE);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stockage compact en tableaux de primitives (une entrée par position).
+ *
+ * Chaque cellule occupe un octet d'état et un entier de niveau
+ * d'alimentation ; les bâtiments sont rangés dans des tables creuses.
+ * Les cellules renvoyées par {@link #getCell(int, int)} sont des vues
+ * créées à la demande.
+ */
+class PackedMapStorage implements MapStorage {
+
+    // Disposition de l'octet d'état
+    static final int TYPE_MASK = 0x03; // Bits 0-1 : ordinal du CellType
+    static final int POWERED_BIT = 0x04; // Bit 2 : alimentée
+    static final int POWER_LINE_BIT = 0x08; // Bit 3 : ligne électrique
+    static final int TERRAIN_SHIFT = 4; // Bits 4-7 : code du terrain
+
+    private static final MapCell.CellType[] CELL_TYPES = MapCell.CellType.values();
+    private static final TerrainType[] TERRAINS = new TerrainType[16];
+
+    static {
+        for (TerrainType terrain : TerrainType.values()) {
+            TERRAINS[terrain.getCode()] = terrain;
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final byte[] states;
+    private final int[] powerLevels; // Niveau + 1 (0 = non alimenté)
+    private final Map<Integer, Residence> residences;
+    private final Map<Integer, PowerPlant> powerPlants;
+
+    PackedMapStorage(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.states = new byte[width * height];
+        this.powerLevels = new int[width * height];
+        this.residences = new HashMap<>();
+        this.powerPlants = new HashMap<>();
+    }
+
+    private int index(int x, int y) {
+        return y * width + x;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public MapCell getCell(int x, int y) {
+        return new MapCellView(this, x, y);
+    }
+
+    @Override
+    public TerrainType getTerrain(int x, int y) {
+        return terrainOf(states[index(x, y)]);
+    }
+
+    @Override
+    public void setTerrain(int x, int y, TerrainType terrainType) {
+        int i = index(x, y);
+        states[i] = withTerrain(states[i], terrainType);
+    }
+
+    @Override
+    public MapCell.CellType getType(int x, int y) {
+        return typeOf(states[index(x, y)]);
+    }
+
+    @Override
+    public Residence getResidence(int x, int y) {
+        return residences.get(index(x, y));
+    }
+
+    @Override
+    public PowerPlant getPowerPlant(int x, int y) {
+        return powerPlants.get(index(x, y));
+    }
+
+    @Override
+    public void setBuilding(int x, int y, MapCell.CellType type, Residence residence, PowerPlant powerPlant) {
+        int i = index(x, y);
+        states[i] = withType(states[i], type);
+        if (residence != null) {
+            residences.put(i, residence);
+        } else {
+            residences.remove(i);
+        }
+        if (powerPlant != null) {
+            powerPlants.put(i, powerPlant);
+        } else {
+            powerPlants.remove(i);
+        }
+    }
+
+    @Override
+    public boolean isPowered(int x, int y) {
+        return (states[index(x, y)] & POWERED_BIT) != 0;
+    }
+
+    @Override
+    public void setPowered(int x, int y, boolean powered) {
+        int i = index(x, y);
+        states[i] = withFlag(states[i], POWERED_BIT, powered);
+    }
+
+    @Override
+    public int getPowerLevel(int x, int y) {
+        return powerLevels[index(x, y)] - 1;
+    }
+
+    @Override
+    public void setPowerLevel(int x, int y, int powerLevel) {
+        powerLevels[index(x, y)] = powerLevel + 1;
+    }
+
+    @Override
+    public boolean hasPowerLine(int x, int y) {
+        return (states[index(x, y)] & POWER_LINE_BIT) != 0;
+    }
+
+    @Override
+    public void setHasPowerLine(int x, int y, boolean hasPowerLine) {
+        int i = index(x, y);
+        states[i] = withFlag(states[i], POWER_LINE_BIT, hasPowerLine);
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(states, (byte) 0);
+        Arrays.fill(powerLevels, 0);
+        residences.clear();
+        powerPlants.clear();
+    }
+
+    // ===== Codage de l'octet d'état =====
+
+    static TerrainType terrainOf(byte state) {
+        return TERRAINS[(state & 0xFF) >>> TERRAIN_SHIFT];
+    }
+
+    static MapCell.CellType typeOf(byte state) {
+        return CELL_TYPES[state & TYPE_MASK];
+    }
+
+    static byte withTerrain(byte state, TerrainType terrainType) {
+        return (byte) ((state & ~(0xF << TERRAIN_SHIFT)) | (terrainType.getCode() << TERRAIN_SHIFT));
+    }
+
+    static byte withType(byte state, MapCell.CellType type) {
+        return (byte) ((state & ~TYPE_MASK) | type.ordinal());
+    }
+
+    static byte withFlag(byte state, int bit, boolean value) {
+        return (byte) (value ? state | bit : state & ~bit);
+    }
+}
@@ -0,0 +1,84 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Découpe un intervalle [0, count) en bandes contiguës traitées en parallèle
+ * sur un {@link ForkJoinPool}.
+ *
+ * Chaque bande n'écrit que dans sa propre portion des données ; les
+ * résultats sont ensuite fusionnés dans l'ordre des bandes, ce qui rend le
+ * résultat indépendant de l'ordonnancement des tâches.
+ */
+final class ParallelStrips {
+
+    /**
+     * Traitement d'une bande : éléments de {@code from} (inclus) à
+     * {@code to} (exclu).
+     */
+    interface StripBody {
+        void run(int strip, int from, int to);
+    }
+
+    private ParallelStrips() {
+    }
+
+    /**
+     * Calcule le nombre de bandes : environ quatre par thread du pool, sans
+     * descendre sous {@code minSize} éléments par bande.
+     */
+    static int stripCount(ForkJoinPool pool, int count, int minSize) {
+        if (pool == null) {
+            return 1;
+        }
+        int strips = Math.min(count / Math.max(1, minSize), pool.getParallelism() * 4);
+        return Math.max(1, strips);
+    }
+
+    static int stripStart(int count, int strips, int strip) {
+        return (int) ((long) count * strip / strips);
+    }
+
+    /**
+     * Exécute {@code body} sur chaque bande et attend la fin de toutes.
+     * Sans pool (ou avec une seule bande), l'exécution est séquentielle.
+     */
+    static void run(ForkJoinPool pool, int count, int strips, StripBody body) {
+        if (pool == null || strips <= 1) {
+            for (int strip = 0; strip < strips; strip++) {
+                body.run(strip, stripStart(count, strips, strip), stripStart(count, strips, strip + 1));
+            }
+            return;
+        }
+        pool.invoke(new StripTask(body, count, strips, 0, strips));
+    }
+
+    private static final class StripTask extends RecursiveAction {
+
+        private final StripBody body;
+        private final int count;
+        private final int strips;
+        private final int first; // Première bande (incluse)
+        private final int last; // Dernière bande (exclue)
+
+        StripTask(StripBody body, int count, int strips, int first, int last) {
+            this.body = body;
+            this.count = count;
+            this.strips = strips;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first == 1) {
+                body.run(first, stripStart(count, strips, first), stripStart(count, strips, first + 1));
+                return;
+            }
+            int middle = (first + last) >>> 1;
+            invokeAll(new StripTask(body, count, strips, first, middle),
+                    new StripTask(body, count, strips, middle, last));
+        }
+    }
+}
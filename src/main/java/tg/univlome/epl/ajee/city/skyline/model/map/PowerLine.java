@@ -2,27 +2,44 @@ package tg.univlome.epl.ajee.city.skyline.model.map;
 
 import java.awt.Point;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Représente une ligne électrique reliant une centrale à une maison.
  * La ligne suit un chemin de cases contigües.
+ *
+ * Le chemin est stocké sous forme compacte : un entier par case
+ * ({@code y << 16 | x}), lisible sans allocation via
+ * {@link #getPathX(int)} et {@link #getPathY(int)}. Les dimensions de
+ * carte sont donc limitées à {@link #MAX_WIDTH} x {@link #MAX_HEIGHT}
+ * (vérifié par {@link CityMap}).
  */
 public class PowerLine {
 
-    private static int idCounter = 0;
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger();
+
+    private static final int COORDINATE_BITS = 16;
+    private static final int COORDINATE_MASK = (1 << COORDINATE_BITS) - 1;
+
+    // Plus grandes dimensions codables : x sur 16 bits, y sur 15 (bit de signe exclu)
+    public static final int MAX_WIDTH = 1 << COORDINATE_BITS;
+    public static final int MAX_HEIGHT = 1 << (Integer.SIZE - 1 - COORDINATE_BITS);
 
     private final int id;
     private final Point start; // Case de départ (adjacente à la centrale)
     private final Point end; // Case d'arrivée (adjacente à la maison)
-    private final List<Point> path; // Chemin complet de la ligne
+    private int[] path; // Chemin complet de la ligne (cases codées)
+    private int pathLength;
 
     public PowerLine(Point start, Point end) {
-        this.id = ++idCounter;
+        this.id = ID_COUNTER.incrementAndGet();
         this.start = start;
         this.end = end;
-        this.path = new ArrayList<>();
-        this.path.add(start);
+        this.path = new int[8];
+        this.pathLength = 0;
+        addPathPoint(start.x, start.y);
     }
 
     public PowerLine(int startX, int startY, int endX, int endY) {
@@ -41,22 +58,52 @@ public class PowerLine {
         return end;
     }
 
+    /**
+     * Retourne une copie du chemin sous forme de points.
+     * Préférer {@link #getPathX(int)} / {@link #getPathY(int)} pour un
+     * simple parcours.
+     */
     public List<Point> getPath() {
-        return new ArrayList<>(path);
+        List<Point> points = new ArrayList<>(pathLength);
+        for (int i = 0; i < pathLength; i++) {
+            points.add(new Point(getPathX(i), getPathY(i)));
+        }
+        return points;
+    }
+
+    /**
+     * Abscisse de la case {@code index} du chemin.
+     */
+    public int getPathX(int index) {
+        return path[index] & COORDINATE_MASK;
+    }
+
+    /**
+     * Ordonnée de la case {@code index} du chemin.
+     */
+    public int getPathY(int index) {
+        return path[index] >> COORDINATE_BITS;
     }
 
     /**
      * Ajoute un point au chemin de la ligne.
      */
     public void addPathPoint(Point point) {
-        path.add(point);
+        addPathPoint(point.x, point.y);
     }
 
     /**
      * Ajoute un point au chemin de la ligne.
      */
     public void addPathPoint(int x, int y) {
-        path.add(new Point(x, y));
+        if (pathLength == path.length) {
+            path = Arrays.copyOf(path, pathLength * 2);
+        }
+        path[pathLength++] = encode(x, y);
+    }
+
+    private static int encode(int x, int y) {
+        return (y << COORDINATE_BITS) | (x & COORDINATE_MASK);
     }
 
     /**
@@ -64,23 +111,23 @@ public class PowerLine {
      * Utilise un chemin en ligne droite (Manhattan).
      */
     public void calculateStraightPath() {
-        path.clear();
+        pathLength = 0;
 
         int x = start.x;
         int y = start.y;
 
-        path.add(new Point(x, y));
+        addPathPoint(x, y);
 
         // Avancer horizontalement d'abord
         while (x != end.x) {
             x += (end.x > x) ? 1 : -1;
-            path.add(new Point(x, y));
+            addPathPoint(x, y);
         }
 
         // Puis verticalement
         while (y != end.y) {
             y += (end.y > y) ? 1 : -1;
-            path.add(new Point(x, y));
+            addPathPoint(x, y);
         }
     }
 
@@ -88,12 +135,13 @@ public class PowerLine {
      * Vérifie si la ligne est valide (ne traverse pas d'obstacles).
      */
     public boolean isValid(CityMap map) {
-        for (Point point : path) {
-            MapCell cell = map.getCell(point.x, point.y);
-            if (cell == null) {
+        for (int i = 0; i < pathLength; i++) {
+            int x = getPathX(i);
+            int y = getPathY(i);
+            if (!map.isValidPosition(x, y)) {
                 return false; // Hors limites
             }
-            if (cell.getTerrainType().blocksElectricity()) {
+            if (map.getTerrainAt(x, y).blocksElectricity()) {
                 return false; // Cours d'eau
             }
         }
@@ -104,8 +152,9 @@ public class PowerLine {
      * Vérifie si la ligne passe par une cellule donnée.
      */
     public boolean passesThrough(int x, int y) {
-        for (Point point : path) {
-            if (point.x == x && point.y == y) {
+        int code = encode(x, y);
+        for (int i = 0; i < pathLength; i++) {
+            if (path[i] == code) {
                 return true;
             }
         }
@@ -116,7 +165,7 @@ public class PowerLine {
      * Retourne la longueur de la ligne (nombre de cases).
      */
     public int getLength() {
-        return path.size();
+        return pathLength;
     }
 
     @Override
@@ -0,0 +1,506 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Calcule le tracé des lignes électriques automatiques (A* sur la grille).
+ *
+ * Le tracé avance case par case (4 directions), contourne les cours d'eau et
+ * privilégie les cases déjà traversées par une ligne. La recherche se fait
+ * d'abord dans une fenêtre autour des deux extrémités, puis sur toute la
+ * carte si aucun chemin n'y est trouvé ; cette seconde recherche est évitée
+ * quand les extrémités sont dans des zones de terre séparées par l'eau.
+ *
+ * L'heuristique tient compte de la distance aux lignes existantes : loin
+ * de toute ligne, elle vaut le coût exact d'un tracé en terrain libre.
+ * Plusieurs arrivées depuis un même départ sont tracées en un seul parcours
+ * ({@link #routeAll(int, int, int[], int[])}). Les tracés sont mis en cache
+ * par extrémités ; le cache est vidé dès que le terrain change.
+ */
+class PowerLineRouter {
+
+    /**
+     * Coût d'un pas sur une case sans ligne.
+     */
+    static final int STEP_COST = 2;
+
+    /**
+     * Coût d'un pas sur une case déjà traversée par une ligne.
+     */
+    static final int LINE_STEP_COST = 1;
+
+    /**
+     * Marge (en cases) de la fenêtre de recherche autour des extrémités.
+     */
+    static final int WINDOW_MARGIN = 16;
+
+    /**
+     * Nombre maximal de tracés gardés en cache.
+     */
+    static final int CACHE_SIZE = 1024;
+
+    private static final int[] DIRECTION_X = { 0, 1, 0, -1 };
+    private static final int[] DIRECTION_Y = { -1, 0, 1, 0 };
+
+    private final CityMap map;
+    private final Map<Long, int[]> cache;
+    private long cachedTerrainVersion;
+
+    // Tampons de recherche réutilisés d'un appel à l'autre
+    private int[] gScore = new int[0];
+    private int[] parent = new int[0];
+    private int[] stamp = new int[0]; // Génération à laquelle la case a été atteinte
+    private boolean[] closed = new boolean[0];
+    private int[] lineDistance = new int[0]; // Distance (en pas) à la ligne la plus proche de la fenêtre
+    private int[] targetStamp = new int[0]; // Génération à laquelle la case est une arrivée
+    private long[] heap = new long[64]; // (f << 32) | h : à f égal, la case la plus proche de l'arrivée
+    private int[] heapIndex = new int[64]; // Index local de chaque entrée du tas
+    private int heapSize;
+    private int generation;
+    private boolean lastSearchCoveredMap;
+    private long expandedCount; // Cases fermées depuis la création (tests)
+
+    // Zones de terre connexes (4 directions), recalculées après un changement de terrain
+    private int[] components;
+    private long componentsVersion = -1;
+
+    PowerLineRouter(CityMap map) {
+        this.map = map;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+        this.cachedTerrainVersion = map.getTerrainVersion();
+    }
+
+    /**
+     * Calcule le tracé entre deux cases.
+     *
+     * @return Positions (y * largeur + x) du départ à l'arrivée incluses, ou
+     *         null si aucun chemin n'évite les cours d'eau
+     */
+    int[] route(int startX, int startY, int endX, int endY) {
+        if (isBlocked(startX, startY) || isBlocked(endX, endY)) {
+            return null;
+        }
+        if (cachedTerrainVersion != map.getTerrainVersion()) {
+            cache.clear();
+            cachedTerrainVersion = map.getTerrainVersion();
+        }
+
+        int width = map.getWidth();
+        long key = cacheKey(startX, startY, endX, endY);
+        int[] path = cache.get(key);
+        if (path == null) {
+            // Extrémités séparées par l'eau : inutile de parcourir la fenêtre
+            if (!isConnected(startY * width + startX, endY * width + endX)) {
+                return null;
+            }
+            path = search(startX, startY, endX, endY, WINDOW_MARGIN);
+            if (path == null && !lastSearchCoveredMap) {
+                path = search(startX, startY, endX, endY, Math.max(map.getWidth(), map.getHeight()));
+            }
+            if (path == null) {
+                return null;
+            }
+            cache.put(key, path);
+        }
+        return path.clone();
+    }
+
+    /**
+     * Calcule les tracés d'un même départ vers plusieurs arrivées, en un
+     * seul parcours (Dijkstra s'arrêtant quand toutes les arrivées sont
+     * atteintes). Les arrivées hors de la fenêtre commune sont tracées une à
+     * une par {@link #route(int, int, int, int)}.
+     *
+     * @return Pour chaque arrivée, le tracé (comme {@link #route}) ou null
+     */
+    int[][] routeAll(int startX, int startY, int[] endXs, int[] endYs) {
+        int[][] paths = new int[endXs.length][];
+        if (isBlocked(startX, startY)) {
+            return paths;
+        }
+        if (cachedTerrainVersion != map.getTerrainVersion()) {
+            cache.clear();
+            cachedTerrainVersion = map.getTerrainVersion();
+        }
+
+        // Arrivées déjà en cache, et fenêtre englobant les autres
+        int width = map.getWidth();
+        int minX = startX;
+        int minY = startY;
+        int maxX = startX;
+        int maxY = startY;
+        int pending = 0;
+        boolean[] reachable = new boolean[endXs.length];
+        for (int i = 0; i < endXs.length; i++) {
+            if (isBlocked(endXs[i], endYs[i]) || !isConnected(startY * width + startX, endYs[i] * width + endXs[i])) {
+                continue;
+            }
+            reachable[i] = true;
+            int[] path = cache.get(cacheKey(startX, startY, endXs[i], endYs[i]));
+            if (path != null) {
+                paths[i] = path.clone();
+                continue;
+            }
+            minX = Math.min(minX, endXs[i]);
+            minY = Math.min(minY, endYs[i]);
+            maxX = Math.max(maxX, endXs[i]);
+            maxY = Math.max(maxY, endYs[i]);
+            pending++;
+        }
+        if (pending == 0) {
+            return paths;
+        }
+
+        minX = Math.max(0, minX - WINDOW_MARGIN);
+        minY = Math.max(0, minY - WINDOW_MARGIN);
+        maxX = Math.min(map.getWidth() - 1, maxX + WINDOW_MARGIN);
+        maxY = Math.min(map.getHeight() - 1, maxY + WINDOW_MARGIN);
+        int windowWidth = maxX - minX + 1;
+        prepare(windowWidth * (maxY - minY + 1));
+
+        int remaining = 0;
+        for (int i = 0; i < endXs.length; i++) {
+            if (paths[i] == null && reachable[i]) {
+                int target = (endYs[i] - minY) * windowWidth + (endXs[i] - minX);
+                if (targetStamp[target] != generation) {
+                    targetStamp[target] = generation;
+                    remaining++;
+                }
+            }
+        }
+
+        int start = (startY - minY) * windowWidth + (startX - minX);
+        visit(start, 0, -1);
+        push(0, 0, start);
+        while (heapSize > 0 && remaining > 0) {
+            int current = pop();
+            if (closed[current]) {
+                continue; // Entrée obsolète
+            }
+            closed[current] = true;
+            expandedCount++;
+            if (targetStamp[current] == generation) {
+                remaining--;
+            }
+            expand(current, minX, minY, maxX, maxY, windowWidth, -1, -1, false, 0);
+        }
+
+        for (int i = 0; i < endXs.length; i++) {
+            if (paths[i] != null || !reachable[i]) {
+                continue;
+            }
+            int target = (endYs[i] - minY) * windowWidth + (endXs[i] - minX);
+            if (stamp[target] == generation && closed[target]) {
+                int[] path = buildPath(target, minX, minY, windowWidth);
+                cache.put(cacheKey(startX, startY, endXs[i], endYs[i]), path);
+                paths[i] = path.clone();
+            }
+        }
+        // Arrivées non atteintes dans la fenêtre : recherche individuelle
+        for (int i = 0; i < endXs.length; i++) {
+            if (paths[i] == null && reachable[i]) {
+                paths[i] = route(startX, startY, endXs[i], endYs[i]);
+            }
+        }
+        return paths;
+    }
+
+    private long cacheKey(int startX, int startY, int endX, int endY) {
+        int width = map.getWidth();
+        return (long) (startY * width + startX) << 32 | (endY * width + endX);
+    }
+
+    /**
+     * Nombre total de cases fermées par les recherches (mesure du travail,
+     * pour les tests).
+     */
+    long getExpandedCount() {
+        return expandedCount;
+    }
+
+    /**
+     * Vérifie que deux positions appartiennent à la même zone de terre.
+     */
+    private boolean isConnected(int from, int to) {
+        if (components == null || componentsVersion != map.getTerrainVersion()) {
+            labelComponents();
+        }
+        return components[from] == components[to];
+    }
+
+    /**
+     * Étiquette les zones de terre par remplissage (0 = cours d'eau). Le
+     * terrain est lu une seule fois par case ; le remplissage ne consulte
+     * ensuite que le tableau.
+     */
+    private void labelComponents() {
+        int width = map.getWidth();
+        int height = map.getHeight();
+        if (components == null || components.length != width * height) {
+            components = new int[width * height];
+        }
+        componentsVersion = map.getTerrainVersion();
+        for (int pos = 0; pos < components.length; pos++) {
+            components[pos] = isBlocked(pos % width, pos / width) ? 0 : -1; // -1 = terre non étiquetée
+        }
+
+        int[] stack = new int[64];
+        int label = 0;
+        for (int seed = 0; seed < components.length; seed++) {
+            if (components[seed] != -1) {
+                continue;
+            }
+            label++;
+            components[seed] = label;
+            int size = 0;
+            stack[size++] = seed;
+            while (size > 0) {
+                int pos = stack[--size];
+                int x = pos % width;
+                for (int d = 0; d < DIRECTION_X.length; d++) {
+                    int nx = x + DIRECTION_X[d];
+                    int neighbor = pos + DIRECTION_Y[d] * width + DIRECTION_X[d];
+                    if (nx < 0 || nx >= width || neighbor < 0 || neighbor >= components.length
+                            || components[neighbor] != -1) {
+                        continue;
+                    }
+                    components[neighbor] = label;
+                    if (size == stack.length) {
+                        stack = Arrays.copyOf(stack, size * 2);
+                    }
+                    stack[size++] = neighbor;
+                }
+            }
+        }
+    }
+
+    private boolean isBlocked(int x, int y) {
+        return !map.isValidPosition(x, y) || map.getTerrainAt(x, y).blocksElectricity();
+    }
+
+    /**
+     * A* dans la fenêtre englobant les extrémités, élargie de {@code margin}.
+     */
+    private int[] search(int startX, int startY, int endX, int endY, int margin) {
+        int minX = Math.max(0, Math.min(startX, endX) - margin);
+        int minY = Math.max(0, Math.min(startY, endY) - margin);
+        int maxX = Math.min(map.getWidth() - 1, Math.max(startX, endX) + margin);
+        int maxY = Math.min(map.getHeight() - 1, Math.max(startY, endY) + margin);
+        int windowWidth = maxX - minX + 1;
+        lastSearchCoveredMap = minX == 0 && minY == 0
+                && maxX == map.getWidth() - 1 && maxY == map.getHeight() - 1;
+        int area = windowWidth * (maxY - minY + 1);
+        prepare(area);
+
+        int start = (startY - minY) * windowWidth + (startX - minX);
+        int target = (endY - minY) * windowWidth + (endX - minX);
+        boolean hasLines = computeLineDistances(minX, minY, maxX, maxY);
+        int endLineDistance = hasLines ? lineDistance[target] : Integer.MAX_VALUE;
+
+        visit(start, 0, -1);
+        int h = heuristic(startX, startY, endX, endY, hasLines ? lineDistance[start] : 0, endLineDistance);
+        push(h, h, start);
+
+        while (heapSize > 0) {
+            int current = pop();
+            if (closed[current]) {
+                continue; // Entrée obsolète
+            }
+            closed[current] = true;
+            expandedCount++;
+            if (current == target) {
+                return buildPath(target, minX, minY, windowWidth);
+            }
+            expand(current, minX, minY, maxX, maxY, windowWidth, endX, endY, hasLines, endLineDistance);
+        }
+        return null;
+    }
+
+    /**
+     * Relâche les voisines d'une case fermée. Sans arrivée ({@code endX}
+     * négatif), l'heuristique est nulle (Dijkstra).
+     */
+    private void expand(int current, int minX, int minY, int maxX, int maxY, int windowWidth,
+            int endX, int endY, boolean hasLines, int endLineDistance) {
+        int x = minX + current % windowWidth;
+        int y = minY + current / windowWidth;
+        for (int d = 0; d < DIRECTION_X.length; d++) {
+            int nx = x + DIRECTION_X[d];
+            int ny = y + DIRECTION_Y[d];
+            if (nx < minX || nx > maxX || ny < minY || ny > maxY || isBlocked(nx, ny)) {
+                continue;
+            }
+            int neighbor = (ny - minY) * windowWidth + (nx - minX);
+            int g = gScore[current] + (map.hasPowerLineAt(nx, ny) ? LINE_STEP_COST : STEP_COST);
+            if (stamp[neighbor] != generation || g < gScore[neighbor]) {
+                visit(neighbor, g, current);
+                int h = endX < 0 ? 0
+                        : heuristic(nx, ny, endX, endY, hasLines ? lineDistance[neighbor] : 0, endLineDistance);
+                push(g + h, h, neighbor);
+            }
+        }
+    }
+
+    /**
+     * Minorant du coût restant, cohérent (varie d'au plus le coût d'un pas).
+     *
+     * Sur un chemin de M pas au moins, chaque pas coûte au moins
+     * {@link #LINE_STEP_COST} ; les pas menant à une case sans ligne coûtent
+     * {@link #STEP_COST}. Avant la première case de ligne, il y en a au moins
+     * {@code lineDistance - 1}, et après la dernière au moins la distance de
+     * l'arrivée aux lignes ; sans ligne, tous les pas sont au plein coût.
+     */
+    private static int heuristic(int x, int y, int endX, int endY, int lineDistance, int endLineDistance) {
+        int steps = Math.abs(endX - x) + Math.abs(endY - y);
+        long offLine = endLineDistance == Integer.MAX_VALUE ? steps
+                : (long) Math.max(0, lineDistance - 1) + endLineDistance;
+        return steps * LINE_STEP_COST + (int) Math.min(steps, offLine) * (STEP_COST - LINE_STEP_COST);
+    }
+
+    /**
+     * Distance (en pas, à l'intérieur de la fenêtre) de chaque case à la
+     * case de ligne la plus proche, par un parcours en largeur depuis toutes
+     * les cases de ligne ; l'eau n'est pas contournée, ce qui donne un
+     * minorant.
+     *
+     * @return false si la fenêtre ne contient aucune ligne
+     */
+    private boolean computeLineDistances(int minX, int minY, int maxX, int maxY) {
+        int windowWidth = maxX - minX + 1;
+        int area = windowWidth * (maxY - minY + 1);
+        if (lineDistance.length < area) {
+            lineDistance = new int[area];
+        }
+        // La file est rangée dans parent, réinitialisé ensuite par visit()
+        int tail = 0;
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                int local = (y - minY) * windowWidth + (x - minX);
+                if (map.hasPowerLineAt(x, y)) {
+                    lineDistance[local] = 0;
+                    parent[tail++] = local;
+                } else {
+                    lineDistance[local] = Integer.MAX_VALUE;
+                }
+            }
+        }
+        if (tail == 0) {
+            return false;
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = parent[head];
+            int x = current % windowWidth;
+            int y = current / windowWidth;
+            int next = lineDistance[current] + 1;
+            for (int d = 0; d < DIRECTION_X.length; d++) {
+                int nx = x + DIRECTION_X[d];
+                int ny = y + DIRECTION_Y[d];
+                if (nx < 0 || nx >= windowWidth || ny < 0 || ny > maxY - minY) {
+                    continue;
+                }
+                int neighbor = ny * windowWidth + nx;
+                if (lineDistance[neighbor] == Integer.MAX_VALUE) {
+                    lineDistance[neighbor] = next;
+                    parent[tail++] = neighbor;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void prepare(int area) {
+        if (gScore.length < area) {
+            gScore = new int[area];
+            parent = new int[area];
+            stamp = new int[area];
+            closed = new boolean[area];
+            targetStamp = new int[area];
+            generation = 0;
+        }
+        generation++;
+        heapSize = 0;
+    }
+
+    private void visit(int index, int g, int from) {
+        if (stamp[index] != generation) {
+            stamp[index] = generation;
+            closed[index] = false;
+        }
+        gScore[index] = g;
+        parent[index] = from;
+    }
+
+    private int[] buildPath(int target, int minX, int minY, int windowWidth) {
+        int length = 0;
+        for (int i = target; i >= 0; i = parent[i]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int width = map.getWidth();
+        int i = target;
+        for (int k = length - 1; k >= 0; k--) {
+            int x = minX + i % windowWidth;
+            int y = minY + i / windowWidth;
+            path[k] = y * width + x;
+            i = parent[i];
+        }
+        return path;
+    }
+
+    // ===== Tas binaire (f, h, index) =====
+
+    private void push(int f, int h, int index) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+            heapIndex = Arrays.copyOf(heapIndex, heapSize * 2);
+        }
+        long key = (long) f << 32 | h;
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heap[up] <= key) {
+                break;
+            }
+            heap[i] = heap[up];
+            heapIndex[i] = heapIndex[up];
+            i = up;
+        }
+        heap[i] = key;
+        heapIndex[i] = index;
+    }
+
+    /**
+     * Retire l'entrée de plus petite clé et retourne son index local.
+     */
+    private int pop() {
+        int top = heapIndex[0];
+        long last = heap[--heapSize];
+        int lastIndex = heapIndex[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapIndex[i] = heapIndex[child];
+            i = child;
+        }
+        heap[i] = last;
+        heapIndex[i] = lastIndex;
+        return top;
+    }
+}
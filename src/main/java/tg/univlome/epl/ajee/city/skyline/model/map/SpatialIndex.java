@@ -0,0 +1,196 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Index spatial d'un type de bâtiment sur la carte (résidences ou centrales).
+ *
+ * Les positions sont rangées dans des seaux de {@link #BUCKET_SIZE} x
+ * {@link #BUCKET_SIZE} cases : une requête de voisinage ne parcourt que les
+ * seaux qui recoupent la zone, et la liste complète des bâtiments est gardée
+ * en cache jusqu'à la prochaine modification.
+ */
+class SpatialIndex {
+
+    /**
+     * Côté d'un seau (en cases).
+     */
+    static final int BUCKET_SIZE = 16;
+
+    /**
+     * Distances utilisables pour les requêtes de voisinage.
+     */
+    enum Metric {
+        MANHATTAN,
+        EUCLIDEAN,
+        CHEBYSHEV
+    }
+
+    private final CityMap map;
+    private final int bucketsX;
+    private final int bucketsY;
+    private final int[][] buckets; // Positions (y * largeur + x), allouées à la demande
+    private final int[] bucketSizes;
+    private int size;
+    private List<MapCell> snapshot; // Cache de getAll(), null si obsolète
+
+    SpatialIndex(CityMap map) {
+        this.map = map;
+        this.bucketsX = (map.getWidth() + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        this.bucketsY = (map.getHeight() + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        this.buckets = new int[bucketsX * bucketsY][];
+        this.bucketSizes = new int[bucketsX * bucketsY];
+        this.size = 0;
+        this.snapshot = Collections.emptyList();
+    }
+
+    /**
+     * Ajoute une position à l'index (sans effet si elle y est déjà).
+     */
+    void add(int x, int y) {
+        int bucket = bucketOf(x, y);
+        int pos = y * map.getWidth() + x;
+        if (indexInBucket(bucket, pos) >= 0) {
+            return;
+        }
+        int[] cells = buckets[bucket];
+        if (cells == null) {
+            cells = new int[4];
+        } else if (bucketSizes[bucket] == cells.length) {
+            cells = Arrays.copyOf(cells, cells.length * 2);
+        }
+        cells[bucketSizes[bucket]++] = pos;
+        buckets[bucket] = cells;
+        size++;
+        snapshot = null;
+    }
+
+    /**
+     * Retire une position de l'index (sans effet si elle n'y est pas).
+     */
+    void remove(int x, int y) {
+        int bucket = bucketOf(x, y);
+        int index = indexInBucket(bucket, y * map.getWidth() + x);
+        if (index < 0) {
+            return;
+        }
+        int last = --bucketSizes[bucket];
+        buckets[bucket][index] = buckets[bucket][last];
+        size--;
+        snapshot = null;
+    }
+
+    void clear() {
+        Arrays.fill(buckets, null);
+        Arrays.fill(bucketSizes, 0);
+        size = 0;
+        snapshot = Collections.emptyList();
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Retourne toutes les cellules indexées, dans l'ordre du parcours de la
+     * grille (colonne par colonne). La liste est partagée et non modifiable.
+     * Construite au premier appel après une modification : comme le reste
+     * de la carte, à ne lire que depuis un thread à la fois.
+     */
+    List<MapCell> getAll() {
+        if (snapshot == null) {
+            int height = map.getHeight();
+            int width = map.getWidth();
+            long[] keys = new long[size];
+            int count = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                for (int i = 0; i < bucketSizes[b]; i++) {
+                    int pos = buckets[b][i];
+                    keys[count++] = (long) (pos % width) * height + pos / width;
+                }
+            }
+            Arrays.sort(keys);
+
+            List<MapCell> cells = new ArrayList<>(size);
+            for (long key : keys) {
+                cells.add(map.getCell((int) (key / height), (int) (key % height)));
+            }
+            snapshot = Collections.unmodifiableList(cells);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Parcourt les positions indexées (y * largeur + x), dans l'ordre des
+     * seaux, sans créer de cellule.
+     */
+    void forEachPosition(IntConsumer action) {
+        for (int b = 0; b < buckets.length; b++) {
+            for (int i = 0; i < bucketSizes[b]; i++) {
+                action.accept(buckets[b][i]);
+            }
+        }
+    }
+
+    /**
+     * Retourne les cellules indexées à une distance inférieure ou égale à
+     * {@code radius} du centre.
+     *
+     * @param includeCenter Inclure la cellule centrale si elle est indexée
+     */
+    List<MapCell> query(int centerX, int centerY, int radius, Metric metric, boolean includeCenter) {
+        List<MapCell> result = new ArrayList<>();
+        if (size == 0) {
+            return result;
+        }
+        int width = map.getWidth();
+        int minBucketX = Math.max(0, (centerX - radius) / BUCKET_SIZE);
+        int maxBucketX = Math.min(bucketsX - 1, Math.max(0, centerX + radius) / BUCKET_SIZE);
+        int minBucketY = Math.max(0, (centerY - radius) / BUCKET_SIZE);
+        int maxBucketY = Math.min(bucketsY - 1, Math.max(0, centerY + radius) / BUCKET_SIZE);
+
+        for (int by = minBucketY; by <= maxBucketY; by++) {
+            for (int bx = minBucketX; bx <= maxBucketX; bx++) {
+                int bucket = by * bucketsX + bx;
+                for (int i = 0; i < bucketSizes[bucket]; i++) {
+                    int pos = buckets[bucket][i];
+                    int dx = pos % width - centerX;
+                    int dy = pos / width - centerY;
+                    if (dx == 0 && dy == 0 && !includeCenter) {
+                        continue;
+                    }
+                    if (isWithin(dx, dy, radius, metric)) {
+                        result.add(map.getCell(centerX + dx, centerY + dy));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isWithin(int dx, int dy, int radius, Metric metric) {
+        return switch (metric) {
+            case MANHATTAN -> Math.abs(dx) + Math.abs(dy) <= radius;
+            case EUCLIDEAN -> dx * dx + dy * dy <= radius * radius;
+            case CHEBYSHEV -> Math.abs(dx) <= radius && Math.abs(dy) <= radius;
+        };
+    }
+
+    private int bucketOf(int x, int y) {
+        return (y / BUCKET_SIZE) * bucketsX + x / BUCKET_SIZE;
+    }
+
+    private int indexInBucket(int bucket, int pos) {
+        int[] cells = buckets[bucket];
+        for (int i = 0; i < bucketSizes[bucket]; i++) {
+            if (cells[i] == pos) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,102 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+
+/**
+ * Cellule qui porte elle-même son état ({@link ObjectMapStorage}).
+ */
+final class StoredMapCell extends MapCell {
+
+    private final int x;
+    private final int y;
+    private TerrainType terrainType; // Type de terrain (constructible ou cours d'eau)
+    private CellType type; // Type de bâtiment
+    private Residence residence;
+    private PowerPlant powerPlant;
+    private boolean powered; // Si la cellule est alimentée en électricité
+    private int powerLevel; // Niveau d'alimentation (-1 = non alimenté, 0 = direct, 1+ = propagation)
+    private boolean hasPowerLine; // Si une ligne électrique passe par cette cellule
+
+    StoredMapCell(int x, int y, TerrainType terrainType) {
+        this.x = x;
+        this.y = y;
+        this.terrainType = terrainType;
+        this.type = CellType.EMPTY;
+        this.powered = false;
+        this.powerLevel = -1;
+        this.hasPowerLine = false;
+    }
+
+    @Override
+    public int getX() {
+        return x;
+    }
+
+    @Override
+    public int getY() {
+        return y;
+    }
+
+    @Override
+    public TerrainType getTerrainType() {
+        return terrainType;
+    }
+
+    @Override
+    public void setTerrainType(TerrainType terrainType) {
+        this.terrainType = terrainType;
+    }
+
+    @Override
+    public CellType getType() {
+        return type;
+    }
+
+    @Override
+    public Residence getResidence() {
+        return residence;
+    }
+
+    @Override
+    public PowerPlant getPowerPlant() {
+        return powerPlant;
+    }
+
+    @Override
+    void storeBuilding(CellType type, Residence residence, PowerPlant powerPlant) {
+        this.type = type;
+        this.residence = residence;
+        this.powerPlant = powerPlant;
+    }
+
+    @Override
+    public boolean isPowered() {
+        return powered;
+    }
+
+    @Override
+    void storePowered(boolean powered) {
+        this.powered = powered;
+    }
+
+    @Override
+    public int getPowerLevel() {
+        return powerLevel;
+    }
+
+    @Override
+    public void setPowerLevel(int powerLevel) {
+        this.powerLevel = powerLevel;
+    }
+
+    @Override
+    public boolean hasPowerLine() {
+        return hasPowerLine;
+    }
+
+    @Override
+    public void setHasPowerLine(boolean hasPowerLine) {
+        this.hasPowerLine = hasPowerLine;
+    }
+}
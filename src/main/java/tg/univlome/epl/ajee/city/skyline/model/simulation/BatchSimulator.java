@@ -0,0 +1,427 @@
+package tg.univlome.epl.ajee.city.skyline.model.simulation;
+
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
+import tg.univlome.epl.ajee.city.skyline.model.economy.Market;
+import tg.univlome.epl.ajee.city.skyline.model.energy.CoalPlant;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+import tg.univlome.epl.ajee.city.skyline.model.energy.WindPlant;
+import tg.univlome.epl.ajee.city.skyline.model.entities.City;
+import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
+import tg.univlome.epl.ajee.city.skyline.model.entities.ResidenceLevel;
+import tg.univlome.epl.ajee.city.skyline.model.map.CityMap;
+import tg.univlome.epl.ajee.city.skyline.model.map.MapCell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Simulateur de parties en lot, pour équilibrer les niveaux de difficulté.
+ *
+ * Joue en parallèle (sur un {@link ForkJoinPool}) des milliers de parties
+ * indépendantes, chacune avec sa graine, sa carte et un joueur automatique
+ * qui suit une {@link Strategy}. Les résultats sont rendus dans l'ordre des
+ * graines : un même lot donne toujours le même rapport, quel que soit le
+ * nombre de threads.
+ */
+public class BatchSimulator {
+
+    /**
+     * Stratégies de construction du joueur automatique.
+     */
+    public enum Strategy {
+        PASSIVE("Ville de départ, aucune construction ensuite"),
+        COAL("Agrandit la ville et construit des centrales à charbon"),
+        WIND("Agrandit la ville et construit des éoliennes");
+
+        private final String description;
+
+        Strategy(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    public static final int DEFAULT_DAYS = 360;
+
+    // Carte de chaque partie : petite, la géographie ne compte pas ici
+    private static final int MAP_WIDTH = 30;
+    private static final int MAP_HEIGHT = 20;
+    private static final int INITIAL_RESIDENCES = 2;
+
+    // Le joueur garde une réserve pour la maintenance
+    private static final int MONEY_RESERVE = 1000;
+
+    private final ForkJoinPool pool;
+    private Strategy strategy = Strategy.COAL;
+    private int maxDays = DEFAULT_DAYS;
+    private Market.PricingMode pricingMode = Market.PricingMode.SUPPLY_RATIO;
+
+    public BatchSimulator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchSimulator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public int getMaxDays() {
+        return maxDays;
+    }
+
+    /**
+     * Durée maximale d'une partie, en jours de jeu.
+     */
+    public void setMaxDays(int maxDays) {
+        this.maxDays = maxDays;
+    }
+
+    public Market.PricingMode getPricingMode() {
+        return pricingMode;
+    }
+
+    /**
+     * Mode de fixation du prix de l'électricité dans chaque partie.
+     */
+    public void setPricingMode(Market.PricingMode pricingMode) {
+        this.pricingMode = pricingMode;
+    }
+
+    // ===== Exécution =====
+
+    /**
+     * Joue {@code worlds} parties dans un niveau de difficulté. Les graines
+     * des parties découlent de {@code baseSeed}.
+     *
+     * @return les résultats, dans l'ordre des graines
+     */
+    public List<WorldResult> run(GameDifficulty difficulty, long baseSeed, int worlds) {
+        SplittableRandom seeds = new SplittableRandom(baseSeed);
+        List<Callable<WorldResult>> tasks = new ArrayList<>(worlds);
+        for (int i = 0; i < worlds; i++) {
+            long seed = seeds.nextLong();
+            tasks.add(() -> runWorld(difficulty, seed));
+        }
+
+        List<WorldResult> results = new ArrayList<>(worlds);
+        try {
+            for (Future<WorldResult> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'une partie simulée", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Joue une partie complète et retourne son résultat.
+     */
+    public WorldResult runWorld(GameDifficulty difficulty, long seed) {
+        GameEngine engine = new GameEngine(seed);
+        engine.setDifficulty(difficulty);
+        engine.getMarket().setPricingMode(pricingMode);
+        engine.setCityMap(new CityMap(MAP_WIDTH, MAP_HEIGHT, CityMap.StorageType.OBJECTS, engine.getRandom()));
+        engine.reset();
+
+        Builder builder = new Builder(engine);
+        builder.buildPlant();
+        for (int i = 0; i < INITIAL_RESIDENCES; i++) {
+            builder.buildResidence();
+        }
+        engine.initializeGame();
+
+        int ticks = 0;
+        while (engine.isRunning() && engine.getPlayer().getDaysSurvived() < maxDays) {
+            int day = engine.getPlayer().getDaysSurvived();
+            while (engine.isRunning() && engine.getPlayer().getDaysSurvived() == day) {
+                engine.runCycle();
+                ticks++;
+            }
+            if (engine.isRunning() && strategy != Strategy.PASSIVE) {
+                builder.playDay();
+            }
+        }
+
+        return new WorldResult(seed, difficulty, ticks, engine.getPlayer().getDaysSurvived(),
+                engine.isGameOver(), engine.isGameOver() && engine.getPlayer().getMoney() < 0,
+                engine.getCity().getGlobalHappiness(), engine.getPlayer().getMoney(),
+                engine.getCity().getTotalInhabitants());
+    }
+
+    /**
+     * Joueur automatique d'une partie : construit au plus près du centre de
+     * la carte.
+     */
+    private final class Builder {
+        private final GameEngine engine;
+        private final CityMap map;
+        private final int[] sites; // Cases triées par distance au centre (y * largeur + x)
+        private int nextSite;
+
+        Builder(GameEngine engine) {
+            this.engine = engine;
+            this.map = engine.getCityMap();
+            int centerX = map.getWidth() / 2;
+            int centerY = map.getHeight() / 2;
+            Integer[] cells = new Integer[map.getWidth() * map.getHeight()];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = i;
+            }
+            Arrays.sort(cells, Comparator.comparingInt(i -> {
+                int dx = i % map.getWidth() - centerX;
+                int dy = i / map.getWidth() - centerY;
+                return dx * dx + dy * dy;
+            }));
+            this.sites = Arrays.stream(cells).mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Décision de fin de journée, d'après la production garantie (au plus
+         * bas de la variabilité) : une centrale si elle ne couvre plus la
+         * demande, sinon une nouvelle résidence s'il reste de la marge.
+         */
+        void playDay() {
+            City city = engine.getCity();
+            double guaranteed = city.getPowerPlants().stream()
+                    .mapToDouble(p -> p.calculateNominalProduction() * p.getEnergyType().getReliability())
+                    .sum();
+            int demand = city.calculateTotalDemand();
+            if (guaranteed < demand) {
+                PowerPlant plant = createPlant();
+                if (engine.getPlayer().getMoney() >= plant.getBaseCost() + MONEY_RESERVE) {
+                    buildPlant(plant);
+                }
+            } else if (guaranteed > demand + ResidenceLevel.BASIC.getMaxEnergyNeed()) {
+                buildResidence();
+            }
+        }
+
+        void buildPlant() {
+            buildPlant(createPlant());
+        }
+
+        private void buildPlant(PowerPlant plant) {
+            MapCell cell = nextFreeCell();
+            if (cell != null && engine.buildPowerPlant(plant)) {
+                map.placePowerPlant(cell.getX(), cell.getY(), plant);
+            }
+        }
+
+        void buildResidence() {
+            MapCell cell = nextFreeCell();
+            if (cell == null) {
+                return;
+            }
+            // Comme en jeu : de 1 à 3 habitants à l'arrivée
+            Residence residence = new Residence(ResidenceLevel.BASIC, engine.getRandom());
+            int inhabitants = engine.getRandom().nextInt(WorldRandom.Stream.POPULATION, 1, 3);
+            for (int i = 0; i < inhabitants; i++) {
+                residence.addNewInhabitant();
+            }
+            if (map.placeResidence(cell.getX(), cell.getY(), residence)) {
+                engine.getCity().addResidence(residence);
+            }
+        }
+
+        private PowerPlant createPlant() {
+            return strategy == Strategy.WIND ? new WindPlant() : new CoalPlant();
+        }
+
+        private MapCell nextFreeCell() {
+            while (nextSite < sites.length) {
+                int site = sites[nextSite];
+                MapCell cell = map.getCell(site % map.getWidth(), site / map.getWidth());
+                if (cell.isEmpty() && cell.isConstructible()) {
+                    return cell;
+                }
+                nextSite++;
+            }
+            return null;
+        }
+    }
+
+    // ===== Résultats =====
+
+    /**
+     * Résultat d'une partie simulée.
+     */
+    public static final class WorldResult {
+        private final long seed;
+        private final GameDifficulty difficulty;
+        private final int ticks;
+        private final int daysSurvived;
+        private final boolean gameOver;
+        private final boolean bankrupt;
+        private final int finalHappiness;
+        private final int finalMoney;
+        private final int finalInhabitants;
+
+        WorldResult(long seed, GameDifficulty difficulty, int ticks, int daysSurvived, boolean gameOver,
+                boolean bankrupt, int finalHappiness, int finalMoney, int finalInhabitants) {
+            this.seed = seed;
+            this.difficulty = difficulty;
+            this.ticks = ticks;
+            this.daysSurvived = daysSurvived;
+            this.gameOver = gameOver;
+            this.bankrupt = bankrupt;
+            this.finalHappiness = finalHappiness;
+            this.finalMoney = finalMoney;
+            this.finalInhabitants = finalInhabitants;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public GameDifficulty getDifficulty() {
+            return difficulty;
+        }
+
+        public int getTicks() {
+            return ticks;
+        }
+
+        public int getDaysSurvived() {
+            return daysSurvived;
+        }
+
+        /**
+         * Vrai si la partie s'est terminée avant la durée maximale.
+         */
+        public boolean isGameOver() {
+            return gameOver;
+        }
+
+        /**
+         * Vrai si la partie s'est terminée par une faillite (et non par le
+         * mécontentement).
+         */
+        public boolean isBankrupt() {
+            return bankrupt;
+        }
+
+        public int getFinalHappiness() {
+            return finalHappiness;
+        }
+
+        public int getFinalMoney() {
+            return finalMoney;
+        }
+
+        public int getFinalInhabitants() {
+            return finalInhabitants;
+        }
+    }
+
+    /**
+     * Statistiques d'un lot de parties (un niveau de difficulté).
+     */
+    public static final class Report {
+        private final int worlds;
+        private final double bankruptcyRate;
+        private final double gameOverRate;
+        private final int[] sortedDays;
+        private final int[] sortedHappiness;
+
+        private Report(int worlds, double bankruptcyRate, double gameOverRate, int[] sortedDays,
+                int[] sortedHappiness) {
+            this.worlds = worlds;
+            this.bankruptcyRate = bankruptcyRate;
+            this.gameOverRate = gameOverRate;
+            this.sortedDays = sortedDays;
+            this.sortedHappiness = sortedHappiness;
+        }
+
+        public static Report of(List<WorldResult> results) {
+            int bankruptcies = 0;
+            int gameOvers = 0;
+            int[] days = new int[results.size()];
+            int[] happiness = new int[results.size()];
+            for (int i = 0; i < results.size(); i++) {
+                WorldResult result = results.get(i);
+                if (result.isBankrupt()) {
+                    bankruptcies++;
+                }
+                if (result.isGameOver()) {
+                    gameOvers++;
+                }
+                days[i] = result.getDaysSurvived();
+                happiness[i] = result.getFinalHappiness();
+            }
+            Arrays.sort(days);
+            Arrays.sort(happiness);
+            int worlds = Math.max(1, results.size());
+            return new Report(results.size(), (double) bankruptcies / worlds, (double) gameOvers / worlds,
+                    days, happiness);
+        }
+
+        public int getWorlds() {
+            return worlds;
+        }
+
+        /**
+         * Part des parties terminées par une faillite (0 à 1).
+         */
+        public double getBankruptcyRate() {
+            return bankruptcyRate;
+        }
+
+        /**
+         * Part des parties perdues, toutes causes confondues (0 à 1).
+         */
+        public double getGameOverRate() {
+            return gameOverRate;
+        }
+
+        /**
+         * Jours survécus au centile donné (0 à 100).
+         */
+        public int getDaysPercentile(int percentile) {
+            return percentile(sortedDays, percentile);
+        }
+
+        public double getMeanDays() {
+            return Arrays.stream(sortedDays).average().orElse(0);
+        }
+
+        /**
+         * Bonheur final au centile donné (0 à 100).
+         */
+        public int getHappinessPercentile(int percentile) {
+            return percentile(sortedHappiness, percentile);
+        }
+
+        public double getMeanHappiness() {
+            return Arrays.stream(sortedHappiness).average().orElse(0);
+        }
+
+        private static int percentile(int[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.round(percentile / 100.0 * (sorted.length - 1));
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+}
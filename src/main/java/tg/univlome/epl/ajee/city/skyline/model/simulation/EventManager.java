@@ -1,22 +1,26 @@
 package tg.univlome.epl.ajee.city.skyline.model.simulation;
 
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
 import tg.univlome.epl.ajee.city.skyline.utils.Constants;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Gestionnaire des événements aléatoires du jeu.
  */
 public class EventManager {
 
-    private static final Random RANDOM = new Random();
-
     private final List<GameEvent> activeEvents;
     private final List<GameEvent> eventHistory;
+    private final WorldRandom random; // Flux lu à chaque tirage (voir WorldRandom#reseed)
 
     public EventManager() {
+        this(WorldRandom.unseeded());
+    }
+
+    public EventManager(WorldRandom random) {
+        this.random = random;
         this.activeEvents = new ArrayList<>();
         this.eventHistory = new ArrayList<>();
     }
@@ -27,7 +31,7 @@ public class EventManager {
      * @return L'événement généré ou null
      */
     public GameEvent tryGenerateEvent() {
-        if (RANDOM.nextDouble() < Constants.EVENT_PROBABILITY_PER_CYCLE) {
+        if (random.nextDouble(WorldRandom.Stream.EVENTS) < Constants.EVENT_PROBABILITY_PER_CYCLE) {
             GameEvent event = generateRandomEvent();
             addEvent(event);
             return event;
@@ -39,7 +43,7 @@ public class EventManager {
      * Génère un événement aléatoire.
      */
     private GameEvent generateRandomEvent() {
-        int eventType = RANDOM.nextInt(5);
+        int eventType = random.stream(WorldRandom.Stream.EVENTS).nextInt(5);
         return switch (eventType) {
             case 0 -> GameEvent.createStorm();
             case 1 -> GameEvent.createHeatWave();
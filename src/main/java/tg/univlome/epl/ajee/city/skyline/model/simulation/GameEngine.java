@@ -1,15 +1,22 @@
 package tg.univlome.epl.ajee.city.skyline.model.simulation;
 
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
 import tg.univlome.epl.ajee.city.skyline.model.economy.Market;
+import tg.univlome.epl.ajee.city.skyline.model.economy.MeritOrderBook;
+import tg.univlome.epl.ajee.city.skyline.model.economy.Transaction;
 import tg.univlome.epl.ajee.city.skyline.model.entities.*;
 import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+import tg.univlome.epl.ajee.city.skyline.model.statistics.MetricsTimeSeries;
 import tg.univlome.epl.ajee.city.skyline.observer.GameEventType;
 import tg.univlome.epl.ajee.city.skyline.observer.GameObservable;
 import tg.univlome.epl.ajee.city.skyline.observer.GameObserver;
 import tg.univlome.epl.ajee.city.skyline.utils.Constants;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * Moteur principal du jeu.
@@ -18,6 +25,7 @@ import java.util.List;
 public class GameEngine implements GameObservable {
 
     private final List<GameObserver> observers;
+    private final WorldRandom random;
     private final City city;
     private final Player player;
     private final Market market;
@@ -26,14 +34,55 @@ public class GameEngine implements GameObservable {
     private GameState state;
     private tg.univlome.epl.ajee.city.skyline.model.map.CityMap cityMap;
     private GameDifficulty difficulty = GameDifficulty.NORMAL;
+    private long tickCount;
+    private int lastProduction;
+    private int lastDemand;
+    private final MetricsTimeSeries metrics = new MetricsTimeSeries();
+
+    // Besoin et pouvoir d'achat par niveau de résidence (demandes au carnet d'ordres)
+    private final long[] demandNeeds = new long[ResidenceLevel.values().length];
+    private final long[] demandPowers = new long[ResidenceLevel.values().length];
+
+    // Résidences de la carte, reconstruites seulement quand les bâtiments changent
+    private Residence[] residences = new Residence[0];
+    private long residencesVersion = -1;
+    // Stockage de la ville rangé dans l'ordre de ce tableau, à cette version
+    private Residence[] arrangedResidences;
+    private long arrangedStoreVersion = -1;
+    private boolean storeArranged;
+
+    // Totaux du dernier passage sur les résidences
+    private ResidenceStats residenceStats = ResidenceStats.EMPTY;
+    private long statsBuildingVersion = -1;
+    private boolean residenceStatsDirty = true;
+
+    // Verrou de la partie : tenu par le thread de simulation pendant chaque
+    // cycle et par l'interface pendant ses actions sur le modèle
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    // Notifications comptées pendant un lot de cycles (null hors lot)
+    private int[] batchEventCounts;
+
+    // Mesure du temps passé dans chaque phase (désactivée par défaut)
+    private boolean phaseTimingEnabled;
+    private final TickProfiler profiler = new TickProfiler();
 
     public GameEngine() {
-        this.observers = new ArrayList<>();
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Crée un moteur dont tout l'aléa découle de la graine : une même graine
+     * et une même suite d'actions donnent une partie identique.
+     */
+    public GameEngine(long seed) {
+        this.observers = new CopyOnWriteArrayList<>();
+        this.random = new WorldRandom(seed);
         this.city = new City();
         this.player = new Player();
-        this.market = new Market();
+        this.market = new Market(random);
         this.timeManager = new TimeManager();
-        this.eventManager = new EventManager();
+        this.eventManager = new EventManager(random);
         this.state = GameState.NOT_STARTED;
         this.cityMap = null;
     }
@@ -48,12 +97,26 @@ public class GameEngine implements GameObservable {
 
     public void setCityMap(tg.univlome.epl.ajee.city.skyline.model.map.CityMap cityMap) {
         this.cityMap = cityMap;
+        this.residencesVersion = -1;
+        this.residenceStatsDirty = true;
     }
 
     public tg.univlome.epl.ajee.city.skyline.model.map.CityMap getCityMap() {
         return cityMap;
     }
 
+    /**
+     * Retourne l'aléa de la partie, à transmettre aux entités créées pour
+     * elle (carte, résidences).
+     */
+    public WorldRandom getRandom() {
+        return random;
+    }
+
+    public long getSeed() {
+        return random.getSeed();
+    }
+
     @Override
     public List<GameObserver> getObservers() {
         return observers;
@@ -69,16 +132,32 @@ public class GameEngine implements GameObservable {
     }
 
     /**
-     * Réinitialise le jeu pour une nouvelle partie.
+     * Réinitialise le jeu pour une nouvelle partie avec la même graine :
+     * la partie rejouée est reproductible depuis {@link #getSeed()}.
      * Applique automatiquement les paramètres de difficulté.
      */
     public void reset() {
+        reset(random.getSeed());
+    }
+
+    /**
+     * Réinitialise le jeu pour une nouvelle partie tirée de la graine
+     * donnée : tous les flux d'aléa repartent de zéro.
+     */
+    public void reset(long seed) {
+        this.random.reseed(seed);
         this.state = GameState.NOT_STARTED;
         this.player.reset();
         this.city.reset();
         this.market.reset();
         this.timeManager.reset();
         this.eventManager.reset();
+        this.tickCount = 0;
+        this.lastProduction = 0;
+        this.lastDemand = 0;
+        this.metrics.clear();
+        this.residenceStats = ResidenceStats.EMPTY;
+        this.residenceStatsDirty = true;
         if (this.cityMap != null) {
             this.cityMap.reset();
         }
@@ -96,6 +175,9 @@ public class GameEngine implements GameObservable {
             return;
         }
 
+        long cycleStart = phaseStart();
+        long mark = cycleStart;
+
         // 1. Avancer le temps
         TimeCycle completedCycle = timeManager.advanceTime();
 
@@ -112,6 +194,7 @@ public class GameEngine implements GameObservable {
             default -> {
             } // Pas de notification pour les heures/minutes
         }
+        mark = endPhase(TickPhase.TIME, mark);
 
         // 2. Calculer production et demande
         int production = city.calculateTotalProduction();
@@ -120,26 +203,40 @@ public class GameEngine implements GameObservable {
         // Appliquer modificateurs d'événements
         double eventModifier = eventManager.calculateProductionModifier();
         production = (int) (production * eventModifier);
+        lastProduction = production;
+        lastDemand = demand;
+        mark = endPhase(TickPhase.PRODUCTION, mark);
 
         // 3. Mettre à jour le marché
-        market.updatePrice(production, demand);
+        if (market.getPricingMode() == Market.PricingMode.MERIT_ORDER) {
+            submitDemandBids();
+            market.clearOrderBook(production);
+        } else {
+            market.updatePrice(production, demand);
+        }
+        mark = endPhase(TickPhase.MARKET, mark);
 
-        // 4. Distribuer l'énergie aux résidences
-        distributeEnergy(production, demand);
+        // 4. Distribuer l'énergie aux résidences et calculer paiements et
+        // taxes, en un seul passage
+        ResidenceStats stats = sweepResidences(production, demand, true);
+        mark = endPhase(TickPhase.DISTRIBUTION, mark);
 
         // 5. Collecter les revenus de vente d'électricité
-        int revenue = collectRevenue();
+        int revenue = market.sellEnergy(stats.getEnergySold(), stats.getEnergyPayments(),
+                timeManager.getTotalDays());
         player.earn(revenue);
+        mark = endPhase(TickPhase.REVENUE, mark);
 
         // 6. Collecter les taxes des habitants (seulement si alimentés)
-        int taxes = calculateTotalTaxFromMap();
+        int taxes = stats.getTaxes();
         player.earn(taxes);
         if (taxes > 0) {
             // Enregistrer comme REVENU
-            market.recordIncome(taxes, "💰 Taxes collectées", timeManager.getTotalDays());
+            market.recordIncome(Transaction.Category.TAXES, taxes, null, timeManager.getTotalDays());
         }
 
         notifyObservers(GameEventType.MONEY_CHANGED, player.getMoney());
+        mark = endPhase(TickPhase.TAXES, mark);
 
         // 7. Payer la maintenance
         int maintenance = city.calculateTotalMaintenance();
@@ -147,16 +244,22 @@ public class GameEngine implements GameObservable {
             // Pas assez d'argent pour la maintenance
             city.adjustGlobalHappiness(-5);
         }
-        market.recordExpense(maintenance, "Maintenance des centrales", timeManager.getTotalDays());
+        market.recordExpense(Transaction.Category.MAINTENANCE, maintenance, null, timeManager.getTotalDays());
+        mark = endPhase(TickPhase.MAINTENANCE, mark);
 
         // 8. Mettre à jour le bonheur
         updateHappiness(production, demand);
+        mark = endPhase(TickPhase.HAPPINESS, mark);
 
         // 9. Croissance de la population (les résidences se remplissent au fil du
-        // temps)
+        // temps). Passage séparé : la croissance dépend du bonheur mis à jour
+        // après la maintenance, donc des revenus calculés plus haut.
         if (completedCycle == TimeCycle.DAY || completedCycle == TimeCycle.MONTH || completedCycle == TimeCycle.YEAR) {
-            growPopulation();
+            stats = stats.withAddedInhabitants(growPopulation());
         }
+        residenceStats = stats;
+        residenceStatsDirty = false;
+        mark = endPhase(TickPhase.GROWTH, mark);
 
         // 10. Gérer les événements aléatoires
         GameEvent newEvent = eventManager.tryGenerateEvent();
@@ -164,78 +267,322 @@ public class GameEngine implements GameObservable {
             notifyObservers(GameEventType.RANDOM_EVENT, newEvent);
         }
         eventManager.updateEvents();
+        mark = endPhase(TickPhase.EVENTS, mark);
 
         // 11. Vérifier condition de fin
         checkGameOver();
+        mark = endPhase(TickPhase.GAME_OVER, mark);
+
+        // 12. Enregistrer les indicateurs pour les courbes
+        metrics.record(tickCount, timeManager.getTotalDays(), player.getMoney(), city.getGlobalHappiness(),
+                lastProduction, lastDemand, market.getCurrentPrice(), city.getTotalInhabitants());
+        mark = endPhase(TickPhase.METRICS, mark);
+        tickCount++;
+        if (phaseTimingEnabled) {
+            profiler.recordCycle(mark - cycleStart);
+        }
     }
 
     /**
-     * Distribue l'énergie aux résidences.
+     * Exécute jusqu'à {@code count} cycles d'affilée (moins si la partie
+     * s'arrête en route). Les notifications courantes sont regroupées en une
+     * seule notification {@link GameEventType#TICKS_SUMMARY} envoyée à la
+     * fin du lot.
+     *
+     * @return le nombre de cycles exécutés
      */
-    private void distributeEnergy(int production, int demand) {
-        // Utiliser les résidences de la carte
-        java.util.List<Residence> residences = getResidencesFromMap();
-
-        if (production >= demand) {
-            // Assez d'énergie pour tout le monde
-            for (Residence residence : residences) {
-                residence.setEnergySupplied(true);
+    public int runCycles(int count) {
+        if (batchEventCounts != null) {
+            throw new IllegalStateException("Lot de cycles déjà en cours");
+        }
+        int startMoney = player.getMoney();
+        int startHappiness = city.getGlobalHappiness();
+        int executed = 0;
+        batchEventCounts = new int[GameEventType.values().length];
+        try {
+            while (executed < count && state == GameState.RUNNING) {
+                runCycle();
+                executed++;
             }
-        } else {
-            // Pas assez d'énergie - distribution proportionnelle
-            double ratio = (double) production / demand;
-            for (Residence residence : residences) {
-                // Les résidences de niveau supérieur ont priorité
-                double priority = (residence.getLevel().ordinal() + 1) / 4.0;
-                residence.setEnergySupplied(Math.random() < (ratio + priority * 0.2));
+        } finally {
+            int[] counts = batchEventCounts;
+            batchEventCounts = null;
+            if (executed > 0) {
+                notifyObservers(GameEventType.TICKS_SUMMARY, new TickSummary(executed, counts,
+                        player.getMoney() - startMoney, city.getGlobalHappiness() - startHappiness));
             }
-            notifyObservers(GameEventType.ENERGY_SHORTAGE, demand - production);
         }
+        return executed;
+    }
+
+    @Override
+    public void notifyObservers(GameEventType eventType, Object data) {
+        if (batchEventCounts != null && TickSummary.isSummarized(eventType)) {
+            batchEventCounts[eventType.ordinal()]++;
+            return;
+        }
+        GameObservable.super.notifyObservers(eventType, data);
+    }
+
+    // === Accès concurrent ===
+
+    /**
+     * Retourne le verrou de la partie. Tout accès au modèle depuis un autre
+     * thread que celui de la simulation (actions du joueur, lectures de
+     * l'interface) doit se faire sous ce verrou.
+     */
+    public ReentrantLock getLock() {
+        return lock;
     }
 
     /**
-     * Collecte les revenus de vente d'électricité.
+     * Exécute une action sous le verrou de la partie.
      */
-    private int collectRevenue() {
-        int totalRevenue = 0;
-        int totalEnergySold = 0;
+    public void runLocked(Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        // Utiliser les résidences de la carte
-        java.util.List<Residence> residences = getResidencesFromMap();
+    /**
+     * Calcule une valeur sous le verrou de la partie.
+     */
+    public <T> T callLocked(Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        for (Residence residence : residences) {
-            if (residence.isEnergySupplied()) {
-                int payment = residence.calculateEnergyPayment(market.getCurrentPrice());
-                totalRevenue += payment;
-                totalEnergySold += residence.getEnergyNeed();
-            }
+    /**
+     * Crée un instantané de l'état courant. À appeler sous le verrou.
+     * Production et demande sont celles du dernier cycle ; avant le premier,
+     * la production nominale des centrales (sans tirage aléatoire, pour ne
+     * pas décaler l'aléa de la partie).
+     */
+    public GameSnapshot createSnapshot() {
+        int production = lastProduction;
+        int demand = lastDemand;
+        if (tickCount == 0) {
+            production = (int) city.getPowerPlants().stream()
+                    .mapToDouble(PowerPlant::calculateNominalProduction)
+                    .sum();
+            demand = city.calculateTotalDemand();
         }
-        return market.sellEnergy(totalEnergySold, totalRevenue, timeManager.getTotalDays());
+
+        return new GameSnapshot(tickCount, state, timeManager.formatDate(), player.getDaysSurvived(),
+                player.getMoney(), city.getGlobalHappiness(), city.getTotalInhabitants(),
+                production, demand, getResidenceStats(), market.getCurrentPrice());
     }
 
     /**
-     * Retourne les résidences de la carte.
+     * Met à jour l'alimentation des cases de la carte. Sert à l'affichage
+     * seulement (la simulation n'en dépend pas) : appelé par
+     * {@link SimulationLoop} avant chaque publication. À appeler sous le
+     * verrou.
      */
-    private java.util.List<Residence> getResidencesFromMap() {
+    public void updatePowerGrid() {
         if (cityMap != null) {
-            java.util.List<Residence> residences = new java.util.ArrayList<>();
-            for (var cell : cityMap.getResidenceCells()) {
-                if (cell.getResidence() != null) {
-                    residences.add(cell.getResidence());
+            cityMap.updatePowerGrid();
+        }
+    }
+
+    /**
+     * Retourne les totaux du dernier passage sur les résidences. Si les
+     * bâtiments ont changé depuis (action du joueur, partie non commencée),
+     * ils sont recalculés sans modifier l'alimentation. À appeler sous le
+     * verrou.
+     */
+    public ResidenceStats getResidenceStats() {
+        long buildingVersion = cityMap != null ? cityMap.getBuildingVersion() : -1;
+        if (residenceStatsDirty || tickCount == 0 || buildingVersion != statsBuildingVersion) {
+            residenceStats = sweepResidences(0, 0, false);
+            residenceStatsDirty = false;
+        }
+        return residenceStats;
+    }
+
+    // === Mesure des phases ===
+
+    public boolean isPhaseTimingEnabled() {
+        return phaseTimingEnabled;
+    }
+
+    /**
+     * Active la mesure du temps passé dans chaque phase de
+     * {@link #runCycle()} (voir {@link #getProfiler()}). Désactivée, la
+     * mesure ne coûte qu'un test par phase.
+     */
+    public void setPhaseTimingEnabled(boolean phaseTimingEnabled) {
+        this.phaseTimingEnabled = phaseTimingEnabled;
+    }
+
+    /**
+     * Retourne le profil des cycles mesurés (histogrammes par phase).
+     */
+    public TickProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Retourne le temps cumulé (en nanosecondes) passé dans une phase.
+     */
+    public long getPhaseNanos(TickPhase phase) {
+        return profiler.getTotalNanos(phase);
+    }
+
+    /**
+     * Retourne le nombre de cycles mesurés.
+     */
+    public long getTimedCycles() {
+        return profiler.getCycles();
+    }
+
+    public void resetPhaseTimings() {
+        profiler.reset();
+    }
+
+    private long phaseStart() {
+        return phaseTimingEnabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Ajoute la durée de la phase qui se termine et retourne le début de la
+     * suivante.
+     */
+    private long endPhase(TickPhase phase, long start) {
+        if (!phaseTimingEnabled) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        profiler.record(phase, now - start);
+        return now;
+    }
+
+    /**
+     * Soumet au carnet d'ordres une demande par niveau de résidence : le
+     * besoin total du groupe, au prix qu'il peut payer (pouvoir d'achat
+     * rapporté au besoin).
+     */
+    private void submitDemandBids() {
+        ResidenceStore store = city.getResidenceStore();
+        store.sumDemandByLevel(store.size(), demandNeeds, demandPowers);
+        MeritOrderBook book = market.getOrderBook();
+        book.clearDemand();
+        for (int i = 0; i < demandNeeds.length; i++) {
+            if (demandNeeds[i] > 0) {
+                book.addDemand((double) demandPowers[i] / demandNeeds[i], demandNeeds[i]);
+            }
+        }
+    }
+
+    /**
+     * Passage unique sur les résidences : distribue l'énergie (si
+     * {@code distribute}) puis cumule énergie vendue, paiements, taxes et
+     * occupation.
+     */
+    private ResidenceStats sweepResidences(int production, int demand, boolean distribute) {
+        Residence[] residences = getResidences();
+        // Pas assez d'énergie : distribution proportionnelle
+        boolean shortage = distribute && production < demand;
+        double ratio = shortage ? (double) production / demand : 1.0;
+        double price = market.getCurrentPrice();
+
+        if (isStoreArranged(residences)) {
+            // Les résidences occupent les premières cases du stockage, dans
+            // l'ordre de la carte : noyaux sur tableaux primitifs
+            ResidenceStore store = city.getResidenceStore();
+            int count = residences.length;
+            if (shortage) {
+                store.distribute(count, ratio, random.stream(WorldRandom.Stream.DISTRIBUTION));
+            } else if (distribute) {
+                store.supplyAll(count);
+            }
+            if (shortage) {
+                notifyObservers(GameEventType.ENERGY_SHORTAGE, demand - production);
+            }
+            statsBuildingVersion = cityMap != null ? cityMap.getBuildingVersion() : -1;
+            ResidenceStore.Totals totals = store.accumulate(count, price);
+            return new ResidenceStats(count, totals.getSupplied(), totals.getEnergySold(), totals.getEnergyPayments(),
+                    totals.getTaxes(), totals.getInhabitants(), totals.getCapacity());
+        }
+
+        int supplied = 0;
+        int energySold = 0;
+        int payments = 0;
+        int taxes = 0;
+        int inhabitants = 0;
+        int capacity = 0;
+        for (Residence residence : residences) {
+            if (distribute) {
+                boolean powered = true;
+                if (shortage) {
+                    // Les résidences de niveau supérieur ont priorité
+                    double priority = (residence.getLevel().ordinal() + 1) / 4.0;
+                    powered = random.nextDouble(WorldRandom.Stream.DISTRIBUTION) < (ratio + priority * 0.2);
                 }
+                residence.setEnergySupplied(powered);
+            }
+            if (residence.isEnergySupplied()) {
+                supplied++;
+                energySold += residence.getEnergyNeed();
+                payments += residence.calculateEnergyPayment(price);
+                taxes += residence.calculateTax();
             }
-            return residences;
+            inhabitants += residence.getInhabitantCount();
+            capacity += residence.getLevel().getMaxInhabitants();
         }
-        return city.getResidences();
+
+        if (shortage) {
+            notifyObservers(GameEventType.ENERGY_SHORTAGE, demand - production);
+        }
+        statsBuildingVersion = cityMap != null ? cityMap.getBuildingVersion() : -1;
+        return new ResidenceStats(residences.length, supplied, energySold, payments, taxes, inhabitants, capacity);
+    }
+
+    /**
+     * Range le stockage de la ville dans l'ordre des résidences données si
+     * elles y sont toutes (sinon le passage se fait résidence par résidence).
+     */
+    private boolean isStoreArranged(Residence[] residences) {
+        ResidenceStore store = city.getResidenceStore();
+        if (residences != arrangedResidences || store.getVersion() != arrangedStoreVersion) {
+            storeArranged = store.arrange(residences);
+            arrangedResidences = residences;
+            arrangedStoreVersion = store.getVersion();
+        }
+        return storeArranged;
     }
 
     /**
-     * Calcule les taxes totales depuis la carte.
+     * Retourne les résidences de la carte (celles de la ville sans carte).
+     * Le tableau est partagé et reconstruit seulement après un placement ou
+     * une démolition.
      */
-    private int calculateTotalTaxFromMap() {
-        return getResidencesFromMap().stream()
-                .mapToInt(Residence::calculateTax)
-                .sum();
+    private Residence[] getResidences() {
+        if (cityMap == null) {
+            return city.getResidences().toArray(new Residence[0]);
+        }
+        long version = cityMap.getBuildingVersion();
+        if (version != residencesVersion) {
+            var cells = cityMap.getResidenceCells();
+            Residence[] rebuilt = new Residence[cells.size()];
+            int count = 0;
+            for (var cell : cells) {
+                Residence residence = cell.getResidence();
+                if (residence != null) {
+                    rebuilt[count++] = residence;
+                }
+            }
+            residences = count == rebuilt.length ? rebuilt : java.util.Arrays.copyOf(rebuilt, count);
+            residencesVersion = version;
+        }
+        return residences;
     }
 
     /**
@@ -276,24 +623,14 @@ public class GameEngine implements GameObservable {
      * Fait croître la population dans les résidences.
      * Chaque jour, les résidences qui ne sont pas pleines
      * ont une chance de recevoir un nouvel habitant.
+     *
+     * @return le nombre de nouveaux habitants
      */
-    private void growPopulation() {
+    private int growPopulation() {
         int happiness = city.getGlobalHappiness();
+        int added = 0;
 
-        // Utiliser les résidences de la carte si disponible, sinon celles de City
-        java.util.List<Residence> residences;
-        if (cityMap != null) {
-            residences = new java.util.ArrayList<>();
-            for (var cell : cityMap.getResidenceCells()) {
-                if (cell.getResidence() != null) {
-                    residences.add(cell.getResidence());
-                }
-            }
-        } else {
-            residences = city.getResidences();
-        }
-
-        for (Residence residence : residences) {
+        for (Residence residence : getResidences()) {
             // Si la résidence est pleine, pas de croissance
             if (residence.isFull()) {
                 continue;
@@ -314,10 +651,12 @@ public class GameEngine implements GameObservable {
             // Cap à 100%
             growthChance = Math.min(1.0, growthChance);
 
-            if (Math.random() < growthChance) {
+            if (random.nextDouble(WorldRandom.Stream.POPULATION) < growthChance) {
                 residence.addNewInhabitant();
+                added++;
             }
         }
+        return added;
     }
 
     /**
@@ -343,9 +682,12 @@ public class GameEngine implements GameObservable {
      */
     public boolean buildPowerPlant(PowerPlant plant) {
         if (player.canAfford(plant.getBaseCost())) {
+            plant.setRandom(random);
             player.spend(plant.getBaseCost());
             city.addPowerPlant(plant);
-            market.recordExpense(plant.getBaseCost(), "Construction: " + plant.getName(), timeManager.getTotalDays());
+            market.getOrderBook().add(plant);
+            market.recordExpense(Transaction.Category.CONSTRUCTION, plant.getBaseCost(), plant.getName(),
+                    timeManager.getTotalDays());
             notifyObservers(GameEventType.PLANT_BUILT, plant);
             notifyObservers(GameEventType.MONEY_CHANGED, player.getMoney());
             return true;
@@ -353,6 +695,14 @@ public class GameEngine implements GameObservable {
         return false;
     }
 
+    /**
+     * Démolit une centrale.
+     */
+    public boolean removePowerPlant(PowerPlant plant) {
+        market.getOrderBook().remove(plant);
+        return city.removePowerPlant(plant);
+    }
+
     /**
      * Améliore une centrale existante.
      */
@@ -361,7 +711,7 @@ public class GameEngine implements GameObservable {
         if (cost > 0 && player.canAfford(cost)) {
             player.spend(cost);
             plant.upgrade();
-            market.recordExpense(cost, "Amélioration: " + plant.getName(), timeManager.getTotalDays());
+            market.recordExpense(Transaction.Category.UPGRADE, cost, plant.getName(), timeManager.getTotalDays());
             notifyObservers(GameEventType.PLANT_UPGRADED, plant);
             notifyObservers(GameEventType.MONEY_CHANGED, player.getMoney());
             return true;
@@ -380,7 +730,12 @@ public class GameEngine implements GameObservable {
         if (cost > 0 && player.canAfford(cost)) {
             player.spend(cost);
             residence.upgrade();
-            market.recordExpense(cost, "Amélioration: " + residence.getName(), timeManager.getTotalDays());
+            residenceStatsDirty = true;
+            if (cityMap != null) {
+                cityMap.markBuildingChanged();
+            }
+            market.recordExpense(Transaction.Category.UPGRADE, cost, residence.getName(),
+                    timeManager.getTotalDays());
             notifyObservers(GameEventType.RESIDENCE_UPGRADED, residence);
             notifyObservers(GameEventType.MONEY_CHANGED, player.getMoney());
             return true;
@@ -434,6 +789,20 @@ public class GameEngine implements GameObservable {
         return eventManager;
     }
 
+    /**
+     * Retourne l'historique des indicateurs, à lire sous le verrou.
+     */
+    public MetricsTimeSeries getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Retourne le nombre de cycles exécutés depuis le début de la partie.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
     public GameState getState() {
         return state;
     }
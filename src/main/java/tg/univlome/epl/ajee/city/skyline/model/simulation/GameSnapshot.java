@@ -0,0 +1,106 @@
+package tg.univlome.epl.ajee.city.skyline.model.simulation;
+
+/**
+ * État résumé de la partie à la fin d'un cycle, en lecture seule.
+ *
+ * Publié par {@link SimulationLoop} après chaque cycle : l'interface le lit
+ * sans verrou, depuis n'importe quel thread, pendant que la simulation
+ * continue.
+ */
+public final class GameSnapshot {
+
+    private final long tickCount;
+    private final GameState state;
+    private final String date;
+    private final int daysSurvived;
+    private final int money;
+    private final int happiness;
+    private final int inhabitants;
+    private final int production;
+    private final int demand;
+    private final ResidenceStats residenceStats;
+    private final double price;
+
+    public GameSnapshot(long tickCount, GameState state, String date, int daysSurvived, int money,
+            int happiness, int inhabitants, int production, int demand, ResidenceStats residenceStats, double price) {
+        this.tickCount = tickCount;
+        this.state = state;
+        this.date = date;
+        this.daysSurvived = daysSurvived;
+        this.money = money;
+        this.happiness = happiness;
+        this.inhabitants = inhabitants;
+        this.production = production;
+        this.demand = demand;
+        this.residenceStats = residenceStats;
+        this.price = price;
+    }
+
+    /**
+     * Nombre de cycles exécutés depuis le début de la partie.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Date du jeu, déjà formatée.
+     */
+    public String getDate() {
+        return date;
+    }
+
+    public int getDaysSurvived() {
+        return daysSurvived;
+    }
+
+    public int getMoney() {
+        return money;
+    }
+
+    public int getHappiness() {
+        return happiness;
+    }
+
+    public int getInhabitants() {
+        return inhabitants;
+    }
+
+    /**
+     * Production du dernier cycle (kWh), événements compris.
+     */
+    public int getProduction() {
+        return production;
+    }
+
+    /**
+     * Demande du dernier cycle (kWh).
+     */
+    public int getDemand() {
+        return demand;
+    }
+
+    /**
+     * Demande de logement (en %) : part des places libres dans les
+     * résidences de la carte.
+     */
+    public int getHousingDemand() {
+        return residenceStats.getHousingDemand();
+    }
+
+    /**
+     * Totaux du dernier passage sur les résidences (paiements, taxes,
+     * occupation).
+     */
+    public ResidenceStats getResidenceStats() {
+        return residenceStats;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+}
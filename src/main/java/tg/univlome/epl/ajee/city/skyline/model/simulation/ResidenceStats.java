@@ -0,0 +1,97 @@
+package tg.univlome.epl.ajee.city.skyline.model.simulation;
+
+/**
+ * Totaux calculés en un seul passage sur les résidences de la carte
+ * pendant un cycle : alimentation, paiements, taxes et occupation.
+ *
+ * Immuable : l'interface réutilise ces valeurs au lieu de reparcourir la
+ * carte ({@link GameEngine#getResidenceStats()},
+ * {@link GameSnapshot#getResidenceStats()}).
+ */
+public final class ResidenceStats {
+
+    public static final ResidenceStats EMPTY = new ResidenceStats(0, 0, 0, 0, 0, 0, 0);
+
+    private final int residences;
+    private final int supplied;
+    private final int energySold;
+    private final int energyPayments;
+    private final int taxes;
+    private final int inhabitants;
+    private final int capacity;
+
+    public ResidenceStats(int residences, int supplied, int energySold, int energyPayments, int taxes,
+            int inhabitants, int capacity) {
+        this.residences = residences;
+        this.supplied = supplied;
+        this.energySold = energySold;
+        this.energyPayments = energyPayments;
+        this.taxes = taxes;
+        this.inhabitants = inhabitants;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Copie avec des habitants en plus (croissance de fin de cycle).
+     */
+    ResidenceStats withAddedInhabitants(int added) {
+        if (added == 0) {
+            return this;
+        }
+        return new ResidenceStats(residences, supplied, energySold, energyPayments, taxes,
+                inhabitants + added, capacity);
+    }
+
+    public int getResidences() {
+        return residences;
+    }
+
+    /**
+     * Nombre de résidences alimentées.
+     */
+    public int getSupplied() {
+        return supplied;
+    }
+
+    /**
+     * Énergie vendue aux résidences alimentées (kWh).
+     */
+    public int getEnergySold() {
+        return energySold;
+    }
+
+    /**
+     * Somme des paiements d'électricité des résidences (€).
+     */
+    public int getEnergyPayments() {
+        return energyPayments;
+    }
+
+    public int getTaxes() {
+        return taxes;
+    }
+
+    public int getInhabitants() {
+        return inhabitants;
+    }
+
+    /**
+     * Nombre de places (habitants maximum) dans les résidences.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Demande de logement (en %) : part des places libres, 0 sans résidence.
+     */
+    public int getHousingDemand() {
+        return capacity > 0 ? Math.max(0, 100 - (inhabitants * 100) / capacity) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d résidences (%d alimentées), %d kWh vendus, %d € payés, %d € de taxes, %d/%d habitants",
+                residences, supplied, energySold, energyPayments, taxes, inhabitants, capacity);
+    }
+}
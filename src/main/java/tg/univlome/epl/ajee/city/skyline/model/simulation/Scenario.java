@@ -0,0 +1,389 @@
+package tg.univlome.epl.ajee.city.skyline.model.simulation;
+
+import tg.univlome.epl.ajee.city.skyline.model.economy.Market;
+import tg.univlome.epl.ajee.city.skyline.model.energy.*;
+import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
+import tg.univlome.epl.ajee.city.skyline.model.entities.ResidenceLevel;
+import tg.univlome.epl.ajee.city.skyline.model.map.CityMap;
+import tg.univlome.epl.ajee.city.skyline.model.map.TerrainType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Description textuelle d'une partie, utilisée pour lancer la simulation
+ * sans interface.
+ *
+ * Une instruction par ligne ; les lignes vides et celles commençant par
+ * {@code #} sont ignorées :
+ *
+ * <pre>
+ * map 60 40 PACKED          # largeur, hauteur, [stockage]
+ * difficulty HARD           # niveau de difficulté
+ * seed 42                   # graine de l'aléa (partie reproductible)
+ * pricing MERIT_ORDER       # fixation du prix : SUPPLY_RATIO (défaut) ou MERIT_ORDER
+ * ticks 2000                # nombre de cycles par défaut
+ * money 20000               # argent du joueur
+ * water 3 40                # rivières aléatoires : nombre, longueur
+ * terrain 10 5 WATER        # terrain d'une case
+ * plant 10 10 COAL          # centrale (payée comme en jeu)
+ * residence 12 10 BASIC 2   # résidence : niveau, [habitants]
+ * residences 20 20 5 4 BASIC 1  # bloc de résidences : x, y, largeur, hauteur, niveau, [habitants]
+ * line 10 10 12 10          # ligne automatique centrale → résidence
+ * </pre>
+ *
+ * {@code map}, {@code difficulty}, {@code seed}, {@code pricing} et
+ * {@code ticks} s'appliquent à toute la partie ; les autres instructions sont exécutées dans l'ordre du fichier.
+ */
+public class Scenario {
+
+    /**
+     * Nombre de cycles simulés si le scénario ne le précise pas.
+     */
+    public static final int DEFAULT_TICKS = 1000;
+
+    /**
+     * Instruction exécutée sur la partie.
+     */
+    private static final class Action {
+        final int lineNumber;
+        final String name;
+        final String[] args;
+
+        Action(int lineNumber, String name, String[] args) {
+            this.lineNumber = lineNumber;
+            this.name = name;
+            this.args = args;
+        }
+    }
+
+    private final String name;
+    private int width = CityMap.DEFAULT_WIDTH;
+    private int height = CityMap.DEFAULT_HEIGHT;
+    private CityMap.StorageType storageType = CityMap.StorageType.OBJECTS;
+    private GameDifficulty difficulty = GameDifficulty.NORMAL;
+    private Market.PricingMode pricingMode = Market.PricingMode.SUPPLY_RATIO;
+    private int ticks = DEFAULT_TICKS;
+    private Long seed; // null = graine tirée au hasard
+    private final List<Action> actions = new ArrayList<>();
+
+    private Scenario(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Charge un scénario depuis un fichier texte (UTF-8).
+     *
+     * @throws IllegalArgumentException si une ligne est invalide
+     */
+    public static Scenario load(Path file) throws IOException {
+        return parse(file.getFileName().toString(), Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Analyse les lignes d'un scénario.
+     *
+     * @throws IllegalArgumentException si une ligne est invalide
+     */
+    public static Scenario parse(String name, List<String> lines) {
+        Scenario scenario = new Scenario(name);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] tokens = line.split("\\s+");
+            String[] args = new String[tokens.length - 1];
+            System.arraycopy(tokens, 1, args, 0, args.length);
+            scenario.add(new Action(i + 1, tokens[0].toLowerCase(), args));
+        }
+        return scenario;
+    }
+
+    private void add(Action action) {
+        switch (action.name) {
+            case "map" -> {
+                checkArgs(action, 2, 3);
+                width = positive(action, 0);
+                height = positive(action, 1);
+                if (action.args.length > 2) {
+                    storageType = enumArg(action, 2, CityMap.StorageType.class);
+                }
+            }
+            case "difficulty" -> {
+                checkArgs(action, 1, 1);
+                difficulty = enumArg(action, 0, GameDifficulty.class);
+            }
+            case "pricing" -> {
+                checkArgs(action, 1, 1);
+                pricingMode = enumArg(action, 0, Market.PricingMode.class);
+            }
+            case "seed" -> {
+                checkArgs(action, 1, 1);
+                try {
+                    seed = Long.parseLong(action.args[0]);
+                } catch (NumberFormatException e) {
+                    throw error(action, "nombre attendu : '" + action.args[0] + "'");
+                }
+            }
+            case "ticks" -> {
+                checkArgs(action, 1, 1);
+                ticks = positive(action, 0);
+            }
+            case "money", "water", "terrain", "plant", "residence", "residences", "line" -> {
+                validate(action);
+                actions.add(action);
+            }
+            default -> throw error(action, "instruction inconnue '" + action.name + "'");
+        }
+    }
+
+    /**
+     * Vérifie la syntaxe d'une instruction dès le chargement.
+     */
+    private void validate(Action action) {
+        switch (action.name) {
+            case "money" -> {
+                checkArgs(action, 1, 1);
+                intArg(action, 0);
+            }
+            case "water" -> {
+                checkArgs(action, 2, 2);
+                positive(action, 0);
+                positive(action, 1);
+            }
+            case "terrain" -> {
+                checkArgs(action, 3, 3);
+                intArg(action, 0);
+                intArg(action, 1);
+                enumArg(action, 2, TerrainType.class);
+            }
+            case "plant" -> {
+                checkArgs(action, 3, 3);
+                intArg(action, 0);
+                intArg(action, 1);
+                enumArg(action, 2, EnergyType.class);
+            }
+            case "residence" -> {
+                checkArgs(action, 3, 4);
+                intArg(action, 0);
+                intArg(action, 1);
+                enumArg(action, 2, ResidenceLevel.class);
+                if (action.args.length > 3) {
+                    intArg(action, 3);
+                }
+            }
+            case "residences" -> {
+                checkArgs(action, 5, 6);
+                intArg(action, 0);
+                intArg(action, 1);
+                positive(action, 2);
+                positive(action, 3);
+                enumArg(action, 4, ResidenceLevel.class);
+                if (action.args.length > 5) {
+                    intArg(action, 5);
+                }
+            }
+            case "line" -> {
+                checkArgs(action, 4, 4);
+                for (int i = 0; i < 4; i++) {
+                    intArg(action, i);
+                }
+            }
+            default -> throw error(action, "instruction inconnue '" + action.name + "'");
+        }
+    }
+
+    /**
+     * Crée un moteur avec la graine du scénario (ou une graine tirée au
+     * hasard si le scénario n'en fixe pas).
+     *
+     * @see #createEngine(long)
+     */
+    public GameEngine createEngine() {
+        return createEngine(seed != null ? seed : ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Crée un moteur de jeu prêt à démarrer, avec sa carte, et y applique
+     * les instructions du scénario. Le moteur n'est pas encore lancé
+     * ({@link GameEngine#initializeGame()}). Une même graine donne toujours
+     * la même partie.
+     *
+     * @throws IllegalArgumentException si une instruction ne peut pas être
+     *                                  appliquée (case occupée, argent
+     *                                  insuffisant...)
+     */
+    public GameEngine createEngine(long seed) {
+        GameEngine engine = new GameEngine(seed);
+        engine.setDifficulty(difficulty);
+        engine.getMarket().setPricingMode(pricingMode);
+        engine.setCityMap(new CityMap(width, height, storageType, engine.getRandom()));
+        engine.reset();
+
+        for (Action action : actions) {
+            apply(engine, action);
+        }
+        return engine;
+    }
+
+    private void apply(GameEngine engine, Action action) {
+        CityMap map = engine.getCityMap();
+        switch (action.name) {
+            case "money" -> engine.getPlayer().setMoney(intArg(action, 0));
+            case "water" -> map.generateRandomWater(intArg(action, 0), intArg(action, 1));
+            case "terrain" -> {
+                if (!map.setTerrain(intArg(action, 0), intArg(action, 1), enumArg(action, 2, TerrainType.class))) {
+                    throw error(action, "terrain impossible à modifier");
+                }
+            }
+            case "plant" -> {
+                PowerPlant plant = createPlant(enumArg(action, 2, EnergyType.class));
+                if (!map.isValidPosition(intArg(action, 0), intArg(action, 1))
+                        || !map.getCell(intArg(action, 0), intArg(action, 1)).isEmpty()) {
+                    throw error(action, "case occupée ou hors de la carte");
+                }
+                if (!engine.buildPowerPlant(plant)) {
+                    throw error(action, "pas assez d'argent");
+                }
+                if (!map.placePowerPlant(intArg(action, 0), intArg(action, 1), plant)) {
+                    throw error(action, "centrale impossible à placer");
+                }
+            }
+            case "residence" -> {
+                int inhabitants = action.args.length > 3 ? intArg(action, 3) : 0;
+                if (!placeResidence(engine, intArg(action, 0), intArg(action, 1),
+                        enumArg(action, 2, ResidenceLevel.class), inhabitants)) {
+                    throw error(action, "résidence impossible à placer");
+                }
+            }
+            case "residences" -> {
+                int inhabitants = action.args.length > 5 ? intArg(action, 5) : 0;
+                ResidenceLevel level = enumArg(action, 4, ResidenceLevel.class);
+                for (int dy = 0; dy < intArg(action, 3); dy++) {
+                    for (int dx = 0; dx < intArg(action, 2); dx++) {
+                        // Les cases non constructibles du bloc sont ignorées
+                        placeResidence(engine, intArg(action, 0) + dx, intArg(action, 1) + dy, level, inhabitants);
+                    }
+                }
+            }
+            case "line" -> {
+                if (!map.addPowerLine(intArg(action, 0), intArg(action, 1), intArg(action, 2), intArg(action, 3))) {
+                    throw error(action, "aucun tracé possible pour la ligne");
+                }
+            }
+            default -> throw error(action, "instruction inconnue '" + action.name + "'");
+        }
+    }
+
+    /**
+     * Place une résidence comme le fait la carte en jeu : sur la carte et
+     * dans la ville.
+     */
+    private static boolean placeResidence(GameEngine engine, int x, int y, ResidenceLevel level, int inhabitants) {
+        Residence residence = new Residence(level, engine.getRandom());
+        for (int i = 0; i < inhabitants; i++) {
+            residence.addNewInhabitant();
+        }
+        if (engine.getCityMap().placeResidence(x, y, residence)) {
+            engine.getCity().addResidence(residence);
+            return true;
+        }
+        return false;
+    }
+
+    private static PowerPlant createPlant(EnergyType type) {
+        return switch (type) {
+            case COAL -> new CoalPlant();
+            case SOLAR -> new SolarPlant();
+            case WIND -> new WindPlant();
+            case NUCLEAR -> new NuclearPlant();
+            case HYDRO -> new HydroPlant();
+        };
+    }
+
+    // ===== Lecture des arguments =====
+
+    private static void checkArgs(Action action, int min, int max) {
+        if (action.args.length < min || action.args.length > max) {
+            throw error(action, min == max
+                    ? String.format("'%s' attend %d argument(s)", action.name, min)
+                    : String.format("'%s' attend %d à %d arguments", action.name, min, max));
+        }
+    }
+
+    private static int intArg(Action action, int index) {
+        try {
+            return Integer.parseInt(action.args[index]);
+        } catch (NumberFormatException e) {
+            throw error(action, "nombre attendu : '" + action.args[index] + "'");
+        }
+    }
+
+    private static int positive(Action action, int index) {
+        int value = intArg(action, index);
+        if (value <= 0) {
+            throw error(action, "nombre strictement positif attendu : " + value);
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> E enumArg(Action action, int index, Class<E> type) {
+        try {
+            return Enum.valueOf(type, action.args[index].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw error(action, "valeur inconnue pour " + type.getSimpleName() + " : '" + action.args[index] + "'");
+        }
+    }
+
+    private static IllegalArgumentException error(Action action, String message) {
+        return new IllegalArgumentException("Ligne " + action.lineNumber + " : " + message);
+    }
+
+    // ===== Getters =====
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public CityMap.StorageType getStorageType() {
+        return storageType;
+    }
+
+    public GameDifficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public Market.PricingMode getPricingMode() {
+        return pricingMode;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Retourne la graine fixée par le scénario, ou null.
+     */
+    public Long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,241 @@
+package tg.univlome.epl.ajee.city.skyline.model.simulation;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Boucle de simulation à pas fixe, exécutée dans son propre thread.
+ *
+ * Le temps écoulé est accumulé puis consommé par pas de
+ * {@code 1 / ticksPerSecond} seconde : la vitesse de la partie ne dépend
+ * ni du rendu ni des autres événements de l'interface. Chaque cycle
+ * s'exécute sous le verrou du moteur ({@link GameEngine#getLock()}) et
+ * publie ensuite un {@link GameSnapshot}, lisible sans verrou. La mise à
+ * jour de l'alimentation de la carte ({@link GameEngine#updatePowerGrid()})
+ * est faite ici, juste avant la publication, et non par l'interface.
+ *
+ * En avance rapide, la vitesse demandée est ignorée : chaque « image »
+ * exécute un lot de K cycles ({@link GameEngine#runCycles(int)}), K étant
+ * ajusté au coût mesuré d'un cycle pour que le lot tienne dans
+ * {@link #FRAME_BUDGET_NANOS}.
+ */
+public class SimulationLoop {
+
+    /**
+     * Retard maximal rattrapé (au moins un pas) : au-delà (machine trop
+     * lente, thread suspendu), le temps perdu est abandonné au lieu
+     * d'enchaîner les cycles.
+     */
+    private static final long MAX_BACKLOG_NANOS = 250_000_000L;
+
+    /**
+     * Attente maximale entre deux vérifications de l'état de la partie.
+     */
+    private static final long MAX_PARK_NANOS = 20_000_000L;
+
+    /**
+     * Durée visée pour un lot de cycles en avance rapide (un peu moins
+     * qu'une image à 60 Hz, pour laisser le verrou à l'interface).
+     */
+    public static final long FRAME_BUDGET_NANOS = 12_000_000L;
+
+    /**
+     * Taille maximale d'un lot en avance rapide.
+     */
+    public static final int MAX_BATCH_TICKS = 4096;
+
+    private final GameEngine engine;
+    private volatile double ticksPerSecond;
+    private volatile boolean active;
+    private volatile boolean fastForward;
+    private volatile int batchSize = 1;
+    private double averageTickNanos = 100_000; // estimation initiale : 0,1 ms
+    private volatile GameSnapshot latestSnapshot;
+    private volatile boolean publishRequested;
+    private Thread thread;
+
+    public SimulationLoop(GameEngine engine, double ticksPerSecond) {
+        this.engine = engine;
+        setTicksPerSecond(ticksPerSecond);
+        publish();
+    }
+
+    /**
+     * Démarre le thread de simulation. Les cycles ne s'exécutent que
+     * lorsque la partie est en cours ({@link GameEngine#isRunning()}).
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        active = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Arrête le thread de simulation après le cycle en cours. Attend sa fin,
+     * sauf si l'appelant tient le verrou du moteur.
+     */
+    public synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        active = false;
+        LockSupport.unpark(thread);
+        if (!engine.getLock().isHeldByCurrentThread() && Thread.currentThread() != thread) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public double getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public void setTicksPerSecond(double ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Vitesse invalide : " + ticksPerSecond);
+        }
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    public boolean isFastForward() {
+        return fastForward;
+    }
+
+    /**
+     * Active l'avance rapide : les cycles s'enchaînent par lots aussi vite
+     * que possible.
+     */
+    public void setFastForward(boolean fastForward) {
+        this.fastForward = fastForward;
+    }
+
+    /**
+     * Taille du dernier lot exécuté en avance rapide.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Retourne le dernier état publié.
+     */
+    public GameSnapshot getLatestSnapshot() {
+        return latestSnapshot;
+    }
+
+    /**
+     * Demande la publication de l'état courant, par exemple après une action
+     * du joueur pendant la pause. Elle est faite par le thread de simulation,
+     * ou tout de suite s'il n'est pas démarré.
+     */
+    public synchronized void publish() {
+        if (thread == null) {
+            engine.runLocked(this::publishLocked);
+        } else {
+            publishRequested = true;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Met à jour l'alimentation de la carte puis publie l'état. Sous le
+     * verrou.
+     */
+    private void publishLocked() {
+        publishRequested = false;
+        engine.updatePowerGrid();
+        latestSnapshot = engine.createSnapshot();
+    }
+
+    private void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        while (active) {
+            if (publishRequested) {
+                engine.runLocked(this::publishLocked);
+            }
+            if (fastForward) {
+                if (!runBatch()) {
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                }
+                previous = System.nanoTime();
+                accumulator = 0;
+                continue;
+            }
+
+            long step = (long) (1_000_000_000L / ticksPerSecond);
+            long now = System.nanoTime();
+            accumulator = Math.min(accumulator + (now - previous), Math.max(step, MAX_BACKLOG_NANOS));
+            previous = now;
+
+            while (active && accumulator >= step) {
+                if (!tick()) {
+                    // Partie en pause ou terminée : le temps écoulé ne compte pas
+                    accumulator = 0;
+                    break;
+                }
+                accumulator -= step;
+            }
+            LockSupport.parkNanos(this, Math.min(step - accumulator, MAX_PARK_NANOS));
+        }
+    }
+
+    /**
+     * Exécute un lot de cycles dimensionné d'après le coût moyen d'un cycle.
+     *
+     * @return false si la partie n'est pas en cours
+     */
+    private boolean runBatch() {
+        int size = (int) Math.max(1, Math.min(MAX_BATCH_TICKS, FRAME_BUDGET_NANOS / averageTickNanos));
+        ReentrantLock lock = engine.getLock();
+        int executed;
+        long elapsed;
+        lock.lock();
+        try {
+            if (!engine.isRunning()) {
+                return false;
+            }
+            long start = System.nanoTime();
+            executed = engine.runCycles(size);
+            elapsed = System.nanoTime() - start;
+            publishLocked();
+        } finally {
+            lock.unlock();
+        }
+        if (executed > 0) {
+            averageTickNanos = 0.8 * averageTickNanos + 0.2 * Math.max(1.0, (double) elapsed / executed);
+        }
+        batchSize = size;
+        return true;
+    }
+
+    /**
+     * Exécute un cycle si la partie est en cours.
+     */
+    private boolean tick() {
+        ReentrantLock lock = engine.getLock();
+        lock.lock();
+        try {
+            if (!engine.isRunning()) {
+                return false;
+            }
+            engine.runCycle();
+            publishLocked();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package tg.univlome.epl.ajee.city.skyline.model.simulation;
+
+/**
+ * Phases d'un cycle de jeu ({@link GameEngine#runCycle()}), dans l'ordre
+ * d'exécution.
+ */
+public enum TickPhase {
+
+    TIME("Temps"),
+    PRODUCTION("Production / demande"),
+    MARKET("Marché"),
+    DISTRIBUTION("Distribution"),
+    REVENUE("Revenus"),
+    TAXES("Taxes"),
+    MAINTENANCE("Maintenance"),
+    HAPPINESS("Bonheur"),
+    GROWTH("Croissance"),
+    EVENTS("Événements"),
+    GAME_OVER("Fin de partie"),
+    METRICS("Mesures");
+
+    private final String displayName;
+
+    TickPhase(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
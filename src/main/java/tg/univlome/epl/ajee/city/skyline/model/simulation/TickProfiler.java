@@ -0,0 +1,190 @@
+package tg.univlome.epl.ajee.city.skyline.model.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Profil des durées de {@link GameEngine#runCycle()}, phase par phase.
+ *
+ * Chaque mesure (en nanosecondes) est rangée dans un histogramme de taille
+ * fixe à échelle logarithmique : la case {@code i} compte les durées de
+ * [2^i, 2^(i+1)) ns. L'enregistrement ne fait ni allocation ni tri ; les
+ * centiles sont donc approchés à une puissance de deux près.
+ *
+ * Écrit par le thread de simulation : les lectures depuis un autre thread
+ * se font sous le verrou du moteur.
+ */
+public final class TickProfiler {
+
+    /**
+     * Nombre de cases par histogramme (jusqu'à 2^40 ns, soit ~18 minutes).
+     */
+    public static final int BUCKET_COUNT = 40;
+
+    private static final int PHASE_COUNT = TickPhase.values().length;
+
+    private final long[][] phaseHistograms = new long[PHASE_COUNT][BUCKET_COUNT];
+    private final long[] phaseTotals = new long[PHASE_COUNT];
+    private final long[] phaseMax = new long[PHASE_COUNT];
+    private final long[] cycleHistogram = new long[BUCKET_COUNT];
+    private long cycleTotal;
+    private long cycleMax;
+    private long cycles;
+
+    /**
+     * Enregistre la durée d'une phase.
+     */
+    public void record(TickPhase phase, long nanos) {
+        int index = phase.ordinal();
+        phaseHistograms[index][bucket(nanos)]++;
+        phaseTotals[index] += nanos;
+        if (nanos > phaseMax[index]) {
+            phaseMax[index] = nanos;
+        }
+    }
+
+    /**
+     * Enregistre la durée d'un cycle complet.
+     */
+    public void recordCycle(long nanos) {
+        cycleHistogram[bucket(nanos)]++;
+        cycleTotal += nanos;
+        if (nanos > cycleMax) {
+            cycleMax = nanos;
+        }
+        cycles++;
+    }
+
+    public void reset() {
+        for (long[] histogram : phaseHistograms) {
+            Arrays.fill(histogram, 0L);
+        }
+        Arrays.fill(phaseTotals, 0L);
+        Arrays.fill(phaseMax, 0L);
+        Arrays.fill(cycleHistogram, 0L);
+        cycleTotal = 0;
+        cycleMax = 0;
+        cycles = 0;
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos <= 0) {
+            return 0;
+        }
+        return Math.min(BUCKET_COUNT - 1, 63 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    // ===== Lecture =====
+
+    /**
+     * Nombre de cycles mesurés.
+     */
+    public long getCycles() {
+        return cycles;
+    }
+
+    /**
+     * Temps cumulé passé dans une phase (ns).
+     */
+    public long getTotalNanos(TickPhase phase) {
+        return phaseTotals[phase.ordinal()];
+    }
+
+    public long getMaxNanos(TickPhase phase) {
+        return phaseMax[phase.ordinal()];
+    }
+
+    public double getMeanNanos(TickPhase phase) {
+        long count = count(phaseHistograms[phase.ordinal()]);
+        return count > 0 ? (double) phaseTotals[phase.ordinal()] / count : 0.0;
+    }
+
+    /**
+     * Centile (0 à 100) des durées d'une phase, arrondi à la borne
+     * supérieure de sa case d'histogramme (ns).
+     */
+    public long getPercentileNanos(TickPhase phase, double percentile) {
+        return percentile(phaseHistograms[phase.ordinal()], percentile);
+    }
+
+    /**
+     * Copie de l'histogramme d'une phase.
+     */
+    public long[] getHistogram(TickPhase phase) {
+        return phaseHistograms[phase.ordinal()].clone();
+    }
+
+    public long getCycleTotalNanos() {
+        return cycleTotal;
+    }
+
+    public long getCycleMaxNanos() {
+        return cycleMax;
+    }
+
+    public double getCycleMeanNanos() {
+        return cycles > 0 ? (double) cycleTotal / cycles : 0.0;
+    }
+
+    /**
+     * Centile (0 à 100) des durées de cycle complet (ns, approché).
+     */
+    public long getCyclePercentileNanos(double percentile) {
+        return percentile(cycleHistogram, percentile);
+    }
+
+    public long[] getCycleHistogram() {
+        return cycleHistogram.clone();
+    }
+
+    private static long count(long[] histogram) {
+        long count = 0;
+        for (long value : histogram) {
+            count += value;
+        }
+        return count;
+    }
+
+    private static long percentile(long[] histogram, double percentile) {
+        long count = count(histogram);
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= Math.max(1, rank)) {
+                return 1L << (i + 1);
+            }
+        }
+        return 1L << BUCKET_COUNT;
+    }
+
+    // ===== Affichage =====
+
+    /**
+     * Tableau récapitulatif (une ligne par phase, puis le cycle complet),
+     * en texte à chasse fixe.
+     */
+    public String formatTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-22s %10s %9s %9s %9s %9s %6s%n",
+                "Phase", "Total (ms)", "Moy. (µs)", "p50 (µs)", "p99 (µs)", "Max (µs)", "Part"));
+        long measured = 0;
+        for (TickPhase phase : TickPhase.values()) {
+            measured += getTotalNanos(phase);
+        }
+        for (TickPhase phase : TickPhase.values()) {
+            long total = getTotalNanos(phase);
+            table.append(String.format("%-22s %10.2f %9.2f %9.1f %9.1f %9.1f %5.1f%%%n",
+                    phase.getDisplayName(), total / 1e6, getMeanNanos(phase) / 1e3,
+                    getPercentileNanos(phase, 50) / 1e3, getPercentileNanos(phase, 99) / 1e3,
+                    getMaxNanos(phase) / 1e3, measured > 0 ? 100.0 * total / measured : 0.0));
+        }
+        table.append(String.format("%-22s %10.2f %9.2f %9.1f %9.1f %9.1f %6s%n",
+                "Cycle complet", cycleTotal / 1e6, getCycleMeanNanos() / 1e3,
+                getCyclePercentileNanos(50) / 1e3, getCyclePercentileNanos(99) / 1e3, cycleMax / 1e3, ""));
+        table.append(String.format("Cycles mesurés : %d%n", cycles));
+        return table.toString();
+    }
+}
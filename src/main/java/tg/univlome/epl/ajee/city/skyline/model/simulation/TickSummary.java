@@ -0,0 +1,105 @@
+package tg.univlome.epl.ajee.city.skyline.model.simulation;
+
+import tg.univlome.epl.ajee.city.skyline.observer.GameEventType;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Bilan d'un lot de cycles exécutés d'un coup ({@link GameEngine#runCycles(int)}).
+ *
+ * Pendant un lot, les notifications courantes (jours, argent, bonheur...)
+ * ne sont pas envoyées une à une : elles sont comptées puis remplacées par
+ * une seule notification {@link GameEventType#TICKS_SUMMARY} portant ce
+ * bilan.
+ */
+public final class TickSummary {
+
+    /**
+     * Notifications regroupées pendant un lot. Les autres (fin de partie,
+     * événements aléatoires, alertes) sont transmises immédiatement.
+     * Consultées via {@link #isSummarized(GameEventType)}.
+     */
+    private static final Set<GameEventType> SUMMARIZED_TYPES = EnumSet.of(
+            GameEventType.DAY_PASSED,
+            GameEventType.MONTH_PASSED,
+            GameEventType.YEAR_PASSED,
+            GameEventType.MONEY_CHANGED,
+            GameEventType.HAPPINESS_CHANGED,
+            GameEventType.ENERGY_SHORTAGE);
+
+    private final int ticks;
+    private final int[] eventCounts;
+    private final int moneyDelta;
+    private final int happinessDelta;
+
+    TickSummary(int ticks, int[] eventCounts, int moneyDelta, int happinessDelta) {
+        this.ticks = ticks;
+        this.eventCounts = eventCounts;
+        this.moneyDelta = moneyDelta;
+        this.happinessDelta = happinessDelta;
+    }
+
+    /**
+     * Indique si un type de notification est regroupé pendant un lot.
+     */
+    public static boolean isSummarized(GameEventType eventType) {
+        return SUMMARIZED_TYPES.contains(eventType);
+    }
+
+    /**
+     * Nombre de cycles exécutés dans le lot.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Nombre de notifications d'un type regroupées dans le lot.
+     */
+    public int getCount(GameEventType eventType) {
+        return eventCounts[eventType.ordinal()];
+    }
+
+    /**
+     * Jours écoulés (une fin de mois ou d'année termine aussi un jour).
+     */
+    public int getDaysPassed() {
+        return getCount(GameEventType.DAY_PASSED) + getMonthsPassed();
+    }
+
+    public int getMonthsPassed() {
+        return getCount(GameEventType.MONTH_PASSED) + getYearsPassed();
+    }
+
+    public int getYearsPassed() {
+        return getCount(GameEventType.YEAR_PASSED);
+    }
+
+    /**
+     * Nombre de cycles en pénurie d'énergie.
+     */
+    public int getShortageTicks() {
+        return getCount(GameEventType.ENERGY_SHORTAGE);
+    }
+
+    /**
+     * Variation de l'argent du joueur sur le lot.
+     */
+    public int getMoneyDelta() {
+        return moneyDelta;
+    }
+
+    /**
+     * Variation du bonheur global sur le lot.
+     */
+    public int getHappinessDelta() {
+        return happinessDelta;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d cycles | %d jours | Argent: %+d € | Bonheur: %+d | Pénuries: %d",
+                ticks, getDaysPassed(), moneyDelta, happinessDelta, getShortageTicks());
+    }
+}
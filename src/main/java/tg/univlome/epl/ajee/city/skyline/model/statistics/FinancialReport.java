@@ -0,0 +1,146 @@
+package tg.univlome.epl.ajee.city.skyline.model.statistics;
+
+import tg.univlome.epl.ajee.city.skyline.model.economy.FinancialIndex;
+import tg.univlome.epl.ajee.city.skyline.model.economy.Transaction;
+import tg.univlome.epl.ajee.city.skyline.model.economy.TransactionLedger;
+import tg.univlome.epl.ajee.city.skyline.utils.Constants;
+
+/**
+ * Rapport financier sur un intervalle de jours : totaux par catégorie,
+ * revenus, dépenses et solde.
+ *
+ * Immuable ; construit en O(log n) par catégorie à partir du
+ * {@link FinancialIndex} du journal ({@link TransactionLedger#getIndex()}),
+ * sans parcourir les transactions.
+ */
+public final class FinancialReport {
+
+    private static final Transaction.Category[] CATEGORIES = Transaction.Category.values();
+
+    private final int fromDay;
+    private final int toDay;
+    private final long[] totals; // Par catégorie
+    private final long income;
+    private final long expenses;
+
+    private FinancialReport(int fromDay, int toDay, long[] totals) {
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+        this.totals = totals;
+        long incomeSum = 0;
+        long expenseSum = 0;
+        for (Transaction.Category category : CATEGORIES) {
+            if (category.getType() == Transaction.Type.INCOME) {
+                incomeSum += totals[category.ordinal()];
+            } else {
+                expenseSum += totals[category.ordinal()];
+            }
+        }
+        this.income = incomeSum;
+        this.expenses = expenseSum;
+    }
+
+    /**
+     * Rapport du jour {@code fromDay} au jour {@code toDay} inclus.
+     */
+    public static FinancialReport of(FinancialIndex index, int fromDay, int toDay) {
+        if (toDay < fromDay) {
+            throw new IllegalArgumentException("Intervalle invalide : " + fromDay + " à " + toDay);
+        }
+        long[] totals = new long[CATEGORIES.length];
+        for (Transaction.Category category : CATEGORIES) {
+            totals[category.ordinal()] = index.sum(category, fromDay, toDay);
+        }
+        return new FinancialReport(fromDay, toDay, totals);
+    }
+
+    /**
+     * Rapport des {@code days} derniers jours, jusqu'au jour donné inclus.
+     */
+    public static FinancialReport lastDays(FinancialIndex index, int today, int days) {
+        return of(index, Math.max(1, today - days + 1), today);
+    }
+
+    /**
+     * Rapport d'un mois de la partie ({@link TransactionLedger#monthOf(int)}).
+     */
+    public static FinancialReport month(FinancialIndex index, int month) {
+        int firstDay = (month - 1) * Constants.DAYS_PER_MONTH + 1;
+        return of(index, firstDay, firstDay + Constants.DAYS_PER_MONTH - 1);
+    }
+
+    /**
+     * Rapport d'une année de la partie (à partir de 1).
+     */
+    public static FinancialReport year(FinancialIndex index, int year) {
+        int daysPerYear = Constants.DAYS_PER_MONTH * Constants.MONTHS_PER_YEAR;
+        int firstDay = (year - 1) * daysPerYear + 1;
+        return of(index, firstDay, firstDay + daysPerYear - 1);
+    }
+
+    public int getFromDay() {
+        return fromDay;
+    }
+
+    public int getToDay() {
+        return toDay;
+    }
+
+    public int getDays() {
+        return toDay - fromDay + 1;
+    }
+
+    public long getTotal(Transaction.Category category) {
+        return totals[category.ordinal()];
+    }
+
+    public long getEnergySales() {
+        return getTotal(Transaction.Category.ENERGY_SALE);
+    }
+
+    public long getTaxes() {
+        return getTotal(Transaction.Category.TAXES);
+    }
+
+    public long getMaintenance() {
+        return getTotal(Transaction.Category.MAINTENANCE);
+    }
+
+    public long getConstruction() {
+        return getTotal(Transaction.Category.CONSTRUCTION);
+    }
+
+    public long getUpgrades() {
+        return getTotal(Transaction.Category.UPGRADE);
+    }
+
+    public long getIncome() {
+        return income;
+    }
+
+    public long getExpenses() {
+        return expenses;
+    }
+
+    /**
+     * Revenus moins dépenses.
+     */
+    public long getNet() {
+        return income - expenses;
+    }
+
+    /**
+     * Solde moyen par jour de l'intervalle.
+     */
+    public double getAverageDailyNet() {
+        return (double) getNet() / getDays();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Jours %d à %d | Revenus: %,d€ (électricité %,d€, taxes %,d€) | "
+                + "Dépenses: %,d€ (maintenance %,d€, construction %,d€, améliorations %,d€) | Solde: %+,d€",
+                fromDay, toDay, income, getEnergySales(), getTaxes(),
+                expenses, getMaintenance(), getConstruction(), getUpgrades(), getNet());
+    }
+}
@@ -0,0 +1,356 @@
+package tg.univlome.epl.ajee.city.skyline.model.statistics;
+
+import tg.univlome.epl.ajee.city.skyline.model.economy.TransactionLedger;
+
+import java.util.Arrays;
+
+/**
+ * Historique des indicateurs de la partie (argent, bonheur, production,
+ * demande, prix, population), échantillonnés à chaque cycle.
+ *
+ * Trois résolutions, chacune dans un tampon circulaire de tableaux
+ * primitifs gardant min, max et moyenne par indicateur :
+ * - {@link Resolution#TICK} : chaque cycle, sur les {@value #TICKS_KEPT}
+ * derniers ;
+ * - {@link Resolution#DAY} : par jour de jeu, sur {@value #DAYS_KEPT} jours ;
+ * - {@link Resolution#MONTH} : par mois, sur {@value #MONTHS_KEPT} mois.
+ *
+ * Un cycle dure 1h30 de jeu : il n'y a pas de niveau horaire. Une courbe
+ * demandée avec un nombre de points maximal ({@link #getSeries}) est lue à
+ * la résolution la plus fine qui tient dans ce nombre ; le coût ne dépend
+ * pas de la durée de la partie.
+ */
+public class MetricsTimeSeries {
+
+    public static final int TICKS_KEPT = 2048;
+    public static final int DAYS_KEPT = 3600;
+    public static final int MONTHS_KEPT = 1200;
+
+    /**
+     * Indicateurs enregistrés.
+     */
+    public enum Metric {
+        MONEY("Argent", "€"),
+        HAPPINESS("Bonheur", "%"),
+        PRODUCTION("Production", "kWh"),
+        DEMAND("Demande", "kWh"),
+        PRICE("Prix", "€/kWh"),
+        POPULATION("Population", "habitants");
+
+        private final String displayName;
+        private final String unit;
+
+        Metric(String displayName, String unit) {
+            this.displayName = displayName;
+            this.unit = unit;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+    }
+
+    /**
+     * Résolutions, de la plus fine à la plus grossière. L'unité d'un point
+     * est le numéro de cycle, le jour ou le mois de la partie.
+     */
+    public enum Resolution {
+        TICK("Cycle"),
+        DAY("Jour"),
+        MONTH("Mois");
+
+        private final String displayName;
+
+        Resolution(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static final Metric[] METRICS = Metric.values();
+
+    private final Level[] levels = {
+            new Level(TICKS_KEPT),
+            new Level(DAYS_KEPT),
+            new Level(MONTHS_KEPT)
+    };
+    private final double[] sample = new double[METRICS.length];
+
+    /**
+     * Enregistre les indicateurs d'un cycle.
+     *
+     * @param tick Numéro du cycle
+     * @param day  Jour de la partie (à partir de 1)
+     */
+    public void record(long tick, int day, int money, int happiness, int production, int demand, double price,
+            int population) {
+        sample[Metric.MONEY.ordinal()] = money;
+        sample[Metric.HAPPINESS.ordinal()] = happiness;
+        sample[Metric.PRODUCTION.ordinal()] = production;
+        sample[Metric.DEMAND.ordinal()] = demand;
+        sample[Metric.PRICE.ordinal()] = price;
+        sample[Metric.POPULATION.ordinal()] = population;
+        levels[Resolution.TICK.ordinal()].add(tick, tick, sample);
+        levels[Resolution.DAY.ordinal()].add(day, tick, sample);
+        levels[Resolution.MONTH.ordinal()].add(TransactionLedger.monthOf(day), tick, sample);
+    }
+
+    /**
+     * Dernier point enregistré à une résolution, -1 si aucun.
+     */
+    public long getLatest(Resolution resolution) {
+        return levels[resolution.ordinal()].latest;
+    }
+
+    /**
+     * Plus ancien point encore gardé à une résolution, -1 si aucun.
+     */
+    public long getOldest(Resolution resolution) {
+        Level level = levels[resolution.ordinal()];
+        if (level.latest < 0) {
+            return -1;
+        }
+        return Math.max(level.first, level.latest - level.keys.length + 1);
+    }
+
+    /**
+     * Moyenne d'un indicateur sur un point (un cycle, un jour, un mois),
+     * NaN si ce point n'est pas gardé.
+     */
+    public double getAverage(Metric metric, Resolution resolution, long point) {
+        Level level = levels[resolution.ordinal()];
+        int row = level.row(point);
+        if (row < 0) {
+            return Double.NaN;
+        }
+        return level.sums[row * METRICS.length + metric.ordinal()] / level.counts[row];
+    }
+
+    /**
+     * Courbe d'un indicateur entre deux points d'une résolution (bornes
+     * incluses), regroupés par paquets consécutifs pour ne pas dépasser
+     * {@code maxPoints}. Les points absents sont ignorés.
+     */
+    public Series getSeries(Metric metric, Resolution resolution, long from, long to, int maxPoints) {
+        if (maxPoints <= 0) {
+            throw new IllegalArgumentException("Nombre de points invalide : " + maxPoints);
+        }
+        Level level = levels[resolution.ordinal()];
+        long oldest = getOldest(resolution);
+        long start = Math.max(from, oldest);
+        long end = Math.min(to, level.latest);
+        if (oldest < 0 || end < start) {
+            return new Series(metric, resolution, 1, new long[0], new double[0], new double[0], new double[0]);
+        }
+
+        long span = end - start + 1;
+        int group = (int) ((span + maxPoints - 1) / maxPoints);
+        int capacity = (int) ((span + group - 1) / group);
+        long[] points = new long[capacity];
+        double[] min = new double[capacity];
+        double[] max = new double[capacity];
+        double[] average = new double[capacity];
+        int size = 0;
+        int m = metric.ordinal();
+        for (long first = start; first <= end; first += group) {
+            double low = Double.POSITIVE_INFINITY;
+            double high = Double.NEGATIVE_INFINITY;
+            double sum = 0;
+            int count = 0;
+            for (long point = first; point < first + group && point <= end; point++) {
+                int row = level.row(point);
+                if (row < 0) {
+                    continue;
+                }
+                int cell = row * METRICS.length + m;
+                low = Math.min(low, level.mins[cell]);
+                high = Math.max(high, level.maxs[cell]);
+                sum += level.sums[cell];
+                count += level.counts[row];
+            }
+            if (count > 0) {
+                points[size] = first;
+                min[size] = low;
+                max[size] = high;
+                average[size] = sum / count;
+                size++;
+            }
+        }
+        return new Series(metric, resolution, group, Arrays.copyOf(points, size), Arrays.copyOf(min, size),
+                Arrays.copyOf(max, size), Arrays.copyOf(average, size));
+    }
+
+    /**
+     * Courbe sur un intervalle de jours, à la résolution la plus fine qui
+     * tient dans {@code maxPoints} points et garde encore le début de
+     * l'intervalle : cycles, puis jours, puis mois (regroupés si besoin).
+     */
+    public Series getSeriesForDays(Metric metric, int fromDay, int toDay, int maxPoints) {
+        Level days = levels[Resolution.DAY.ordinal()];
+        int fromRow = days.row(fromDay);
+        if (fromRow >= 0) {
+            long fromTick = days.firstTicks[fromRow];
+            int nextRow = days.row((long) toDay + 1);
+            long toTick = nextRow >= 0 ? days.firstTicks[nextRow] - 1 : getLatest(Resolution.TICK);
+            if (fromTick >= getOldest(Resolution.TICK) && toTick - fromTick < maxPoints) {
+                return getSeries(metric, Resolution.TICK, fromTick, toTick, maxPoints);
+            }
+            if (toDay - fromDay < maxPoints) {
+                return getSeries(metric, Resolution.DAY, fromDay, toDay, maxPoints);
+            }
+        }
+        return getSeries(metric, Resolution.MONTH, TransactionLedger.monthOf(fromDay),
+                TransactionLedger.monthOf(toDay), maxPoints);
+    }
+
+    /**
+     * Efface l'historique (nouvelle partie).
+     */
+    public void clear() {
+        for (Level level : levels) {
+            level.clear();
+        }
+    }
+
+    /**
+     * Courbe lue par {@link #getSeries} : un point par paquet de
+     * {@link #getGroup()} points de la résolution.
+     */
+    public static final class Series {
+
+        private final Metric metric;
+        private final Resolution resolution;
+        private final int group;
+        private final long[] points;
+        private final double[] min;
+        private final double[] max;
+        private final double[] average;
+
+        Series(Metric metric, Resolution resolution, int group, long[] points, double[] min, double[] max,
+                double[] average) {
+            this.metric = metric;
+            this.resolution = resolution;
+            this.group = group;
+            this.points = points;
+            this.min = min;
+            this.max = max;
+            this.average = average;
+        }
+
+        public Metric getMetric() {
+            return metric;
+        }
+
+        public Resolution getResolution() {
+            return resolution;
+        }
+
+        /**
+         * Nombre de points de la résolution regroupés dans chaque point.
+         */
+        public int getGroup() {
+            return group;
+        }
+
+        public int size() {
+            return points.length;
+        }
+
+        /**
+         * Premier cycle, jour ou mois du point {@code index}.
+         */
+        public long getPoint(int index) {
+            return points[index];
+        }
+
+        public double getMin(int index) {
+            return min[index];
+        }
+
+        public double getMax(int index) {
+            return max[index];
+        }
+
+        public double getAverage(int index) {
+            return average[index];
+        }
+    }
+
+    /**
+     * Tampon circulaire d'une résolution : la ligne {@code clé % lignes}
+     * garde min, max et somme de chaque indicateur pour sa clé.
+     */
+    private static final class Level {
+
+        private final long[] keys;
+        private final int[] counts;
+        private final long[] firstTicks; // Premier cycle enregistré dans la ligne
+        private final double[] mins;
+        private final double[] maxs;
+        private final double[] sums;
+        private long first = -1; // Première clé enregistrée
+        private long latest = -1;
+
+        Level(int rows) {
+            keys = new long[rows];
+            counts = new int[rows];
+            firstTicks = new long[rows];
+            mins = new double[rows * METRICS.length];
+            maxs = new double[rows * METRICS.length];
+            sums = new double[rows * METRICS.length];
+            clear();
+        }
+
+        void add(long key, long tick, double[] values) {
+            if (latest >= 0 && key <= latest - keys.length) {
+                return; // Plus ancien que la fenêtre
+            }
+            int row = (int) Math.floorMod(key, (long) keys.length);
+            int base = row * METRICS.length;
+            if (keys[row] != key) {
+                keys[row] = key;
+                counts[row] = 0;
+                firstTicks[row] = tick;
+                Arrays.fill(mins, base, base + METRICS.length, Double.POSITIVE_INFINITY);
+                Arrays.fill(maxs, base, base + METRICS.length, Double.NEGATIVE_INFINITY);
+                Arrays.fill(sums, base, base + METRICS.length, 0);
+            }
+            for (int m = 0; m < METRICS.length; m++) {
+                double value = values[m];
+                mins[base + m] = Math.min(mins[base + m], value);
+                maxs[base + m] = Math.max(maxs[base + m], value);
+                sums[base + m] += value;
+            }
+            counts[row]++;
+            if (first < 0) {
+                first = key;
+            }
+            latest = Math.max(latest, key);
+        }
+
+        /**
+         * Ligne de la clé, -1 si elle n'est pas (ou plus) gardée.
+         */
+        int row(long key) {
+            if (key < 0) {
+                return -1;
+            }
+            int row = (int) Math.floorMod(key, (long) keys.length);
+            return keys[row] == key ? row : -1;
+        }
+
+        void clear() {
+            Arrays.fill(keys, -1);
+            Arrays.fill(counts, 0);
+            first = -1;
+            latest = -1;
+        }
+    }
+}
@@ -41,7 +41,10 @@ public enum GameEventType {
     GAME_OVER("Fin de partie"),
     GAME_STARTED("Partie commencée"),
     GAME_PAUSED("Partie en pause"),
-    GAME_RESUMED("Partie reprise");
+    GAME_RESUMED("Partie reprise"),
+
+    // Simulation accélérée
+    TICKS_SUMMARY("Bilan de cycles");
 
     private final String displayName;
 
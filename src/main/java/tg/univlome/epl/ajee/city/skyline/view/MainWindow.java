@@ -1,6 +1,10 @@
 package tg.univlome.epl.ajee.city.skyline.view;
 
 import tg.univlome.epl.ajee.city.skyline.model.simulation.GameEngine;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.GameSnapshot;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.GameState;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.SimulationLoop;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.TickSummary;
 import tg.univlome.epl.ajee.city.skyline.observer.GameEventType;
 import tg.univlome.epl.ajee.city.skyline.observer.GameObserver;
 import tg.univlome.epl.ajee.city.skyline.utils.Constants;
@@ -21,6 +25,8 @@ import java.awt.*;
  */
 public class MainWindow extends JFrame implements GameObserver {
 
+    private static final int REFRESH_DELAY_MS = 33;
+
     private final GameEngine gameEngine;
     private final ResourceBar resourceBar;
     private final TimeControlBar timeControlBar;
@@ -29,7 +35,10 @@ public class MainWindow extends JFrame implements GameObserver {
     private final PowerPlantPanel powerPlantPanel;
     private final CityMapPanel cityMapPanel;
     private final EconomyPanel economyPanel;
-    private Timer gameTimer;
+    private SimulationLoop simulation;
+    private Timer refreshTimer;
+    private GameSnapshot lastRefreshed;
+    private volatile TickSummary lastSummary;
     private Runnable onReturnToMenu;
 
     public MainWindow(GameEngine gameEngine) {
@@ -83,12 +92,12 @@ public class MainWindow extends JFrame implements GameObserver {
         timeControlBar.setPlayPauseAction(e -> toggleGame());
         add(timeControlBar, BorderLayout.SOUTH);
 
+        // Thread de simulation et rafraîchissement de l'affichage
+        setupSimulation();
+
         // S'enregistrer comme observateur
         gameEngine.addObserver(this);
 
-        // Timer pour la boucle de jeu
-        setupGameTimer();
-
         // Mise à jour initiale
         refreshAll();
     }
@@ -102,65 +111,64 @@ public class MainWindow extends JFrame implements GameObserver {
         return panel;
     }
 
-    private void setupGameTimer() {
-        gameTimer = new Timer(timeControlBar.getTickDelay(), e -> {
-            if (gameEngine.isRunning()) {
-                gameEngine.runCycle();
+    private void setupSimulation() {
+        simulation = new SimulationLoop(gameEngine, 1000.0 / timeControlBar.getTickDelay());
+        simulation.start();
+
+        refreshTimer = new Timer(REFRESH_DELAY_MS, e -> {
+            simulation.setTicksPerSecond(1000.0 / timeControlBar.getTickDelay());
+            simulation.setFastForward(timeControlBar.isFastForward());
+            if (simulation.getLatestSnapshot() != lastRefreshed) {
                 refreshAll();
             }
         });
+        refreshTimer.start();
     }
 
     private void toggleGame() {
-        if (gameEngine.isPaused() || gameEngine.getState().name().equals("NOT_STARTED")) {
-            if (gameEngine.getState().name().equals("NOT_STARTED")) {
-                gameEngine.initializeGame();
+        boolean paused = gameEngine.callLocked(() -> {
+            if (gameEngine.isPaused() || gameEngine.getState() == GameState.NOT_STARTED) {
+                if (gameEngine.getState() == GameState.NOT_STARTED) {
+                    gameEngine.initializeGame();
+                }
+                gameEngine.resume();
+                return false;
             }
-            gameEngine.resume();
-            gameTimer.setDelay(timeControlBar.getTickDelay());
-            gameTimer.start();
-            timeControlBar.setPaused(false);
-        } else {
             gameEngine.pause();
-            gameTimer.stop();
-            timeControlBar.setPaused(true);
-        }
+            return true;
+        });
+        timeControlBar.setPaused(paused);
+    }
+
+    private void stopSimulation() {
+        simulation.stop();
+        refreshTimer.stop();
     }
 
     /**
      * Rafraîchit toute l'interface.
      */
     public void refreshAll() {
-        // Mettre à jour la barre de ressources
-        resourceBar.setMoney(gameEngine.getPlayer().getMoney());
-        resourceBar.setDate(gameEngine.getTimeManager().formatDate());
-        resourceBar.updateBalance(
-                gameEngine.getCity().calculateTotalProduction(),
-                gameEngine.getCity().calculateTotalDemand());
-        resourceBar.setHappiness(gameEngine.getCity().getGlobalHappiness());
-        resourceBar.setInhabitants(gameEngine.getCity().getTotalInhabitants());
-
-        // Calculer et afficher la demande de logement depuis la carte
-        int totalCapacity = 0;
-        int totalInhabitants = 0;
-        if (gameEngine.getCityMap() != null) {
-            for (var cell : gameEngine.getCityMap().getResidenceCells()) {
-                var residence = cell.getResidence();
-                if (residence != null) {
-                    totalCapacity += residence.getLevel().getMaxInhabitants();
-                    totalInhabitants += residence.getInhabitantCount();
-                }
-            }
-        }
-        if (totalCapacity > 0) {
-            int occupancyRate = (totalInhabitants * 100) / totalCapacity;
-            int housingDemand = Math.max(0, 100 - occupancyRate);
-            resourceBar.setHousingDemand(housingDemand);
-        } else {
-            resourceBar.setHousingDemand(0);
+        // Barre de ressources : dernier état publié par la simulation
+        GameSnapshot snapshot = simulation.getLatestSnapshot();
+        lastRefreshed = snapshot;
+        resourceBar.setMoney(snapshot.getMoney());
+        resourceBar.setDate(snapshot.getDate());
+        resourceBar.updateBalance(snapshot.getProduction(), snapshot.getDemand());
+        resourceBar.setHappiness(snapshot.getHappiness());
+        resourceBar.setInhabitants(snapshot.getInhabitants());
+        resourceBar.setHousingDemand(snapshot.getHousingDemand());
+        TickSummary summary = lastSummary;
+        if (timeControlBar.isFastForward() && summary != null) {
+            timeControlBar.setSummary(summary.toString());
         }
 
-        // Mettre à jour l'onglet actif
+        // Mettre à jour l'onglet actif (chaque onglet copie ses données sous
+        // le verrou et les affiche après)
+        refreshActiveTab();
+    }
+
+    private void refreshActiveTab() {
         Component activeTab = tabbedPane.getSelectedComponent();
         if (activeTab == cityMapPanel) {
             cityMapPanel.refresh();
@@ -171,28 +179,28 @@ public class MainWindow extends JFrame implements GameObserver {
         } else if (activeTab == economyPanel) {
             economyPanel.refresh();
         }
-
-        // Mettre à jour la vitesse du timer
-        if (gameTimer.getDelay() != timeControlBar.getTickDelay()) {
-            gameTimer.setDelay(timeControlBar.getTickDelay());
-        }
     }
 
     @Override
     public void onGameEvent(GameEventType eventType, Object data) {
-        SwingUtilities.invokeLater(() -> {
-            switch (eventType) {
-                case GAME_OVER -> showGameOverDialog((String) data);
-                case RANDOM_EVENT -> showEventNotification(data);
-                case HAPPINESS_CRITICAL -> showWarningNotification(
-                        "⚠️ Attention!", "Le niveau de bonheur est critique! Les habitants sont mécontents.");
-                default -> refreshAll();
+        switch (eventType) {
+            case GAME_OVER -> SwingUtilities.invokeLater(() -> showGameOverDialog((String) data));
+            // Bilan d'un lot de l'avance rapide : affiché au prochain rafraîchissement
+            case TICKS_SUMMARY -> lastSummary = (TickSummary) data;
+            case RANDOM_EVENT -> SwingUtilities.invokeLater(() -> showEventNotification(data));
+            case HAPPINESS_CRITICAL -> SwingUtilities.invokeLater(() -> showWarningNotification(
+                    "⚠️ Attention!", "Le niveau de bonheur est critique! Les habitants sont mécontents."));
+            default -> {
+                // Les événements du cycle sont affichés par le rafraîchissement périodique
+                if (SwingUtilities.isEventDispatchThread()) {
+                    simulation.publish();
+                }
             }
-        });
+        }
     }
 
     private void showGameOverDialog(String message) {
-        gameTimer.stop();
+        stopSimulation();
 
         String[] options;
         if (onReturnToMenu != null) {
@@ -202,7 +210,7 @@ public class MainWindow extends JFrame implements GameObserver {
         }
 
         int choice = JOptionPane.showOptionDialog(this,
-                message + "\n\nJours survécus: " + gameEngine.getPlayer().getDaysSurvived(),
+                message + "\n\nJours survécus: " + simulation.getLatestSnapshot().getDaysSurvived(),
                 "Game Over",
                 JOptionPane.DEFAULT_OPTION,
                 JOptionPane.ERROR_MESSAGE,
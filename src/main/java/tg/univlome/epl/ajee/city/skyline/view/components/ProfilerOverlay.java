@@ -0,0 +1,58 @@
+package tg.univlome.epl.ajee.city.skyline.view.components;
+
+import tg.univlome.epl.ajee.city.skyline.view.styles.Colors;
+import tg.univlome.epl.ajee.city.skyline.view.styles.Theme;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Panneau de débogage affiché par-dessus le jeu : profil des phases d'un
+ * cycle ({@link tg.univlome.epl.ajee.city.skyline.model.simulation.TickProfiler}).
+ */
+public class ProfilerOverlay extends JPanel {
+
+    private final JTextArea textArea;
+
+    public ProfilerOverlay() {
+        setLayout(new BorderLayout());
+        setOpaque(false);
+        setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+
+        JLabel title = new JLabel("Profil des cycles (F3)");
+        title.setFont(Theme.FONT_HEADER);
+        title.setForeground(Colors.TEXT_ON_DARK);
+        add(title, BorderLayout.NORTH);
+
+        textArea = new JTextArea();
+        textArea.setFont(Theme.FONT_MONO.deriveFont(12f));
+        textArea.setForeground(Colors.TEXT_ON_DARK);
+        textArea.setOpaque(false);
+        textArea.setEditable(false);
+        textArea.setFocusable(false);
+        add(textArea, BorderLayout.CENTER);
+
+        setVisible(false);
+    }
+
+    public void setTable(String table) {
+        textArea.setText(table);
+    }
+
+    @Override
+    public Dimension getMaximumSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        // Fond sombre semi-transparent
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Color background = Colors.BACKGROUND_DARK;
+        g2d.setColor(new Color(background.getRed(), background.getGreen(), background.getBlue(), 210));
+        g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 12, 12);
+        g2d.dispose();
+        super.paintComponent(g);
+    }
+}
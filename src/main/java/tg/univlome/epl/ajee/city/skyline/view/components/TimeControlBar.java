@@ -15,7 +15,9 @@ public class TimeControlBar extends JPanel {
     private final JButton playPauseButton;
     private final JButton speedUpButton;
     private final JButton speedDownButton;
+    private final JToggleButton fastForwardButton;
     private final JLabel speedLabel;
+    private final JLabel summaryLabel;
     private boolean isPaused;
     private int speed; // 1 = normal, 2 = rapide, 3 = très rapide
 
@@ -54,6 +56,14 @@ public class TimeControlBar extends JPanel {
         speedUpButton.setToolTipText("Accélérer");
         add(speedUpButton);
 
+        // Avance rapide : les cycles s'enchaînent aussi vite que possible
+        fastForwardButton = new JToggleButton(">>>");
+        fastForwardButton.setFont(Theme.FONT_BODY);
+        fastForwardButton.setPreferredSize(new Dimension(70, 35));
+        fastForwardButton.setToolTipText("Avance rapide");
+        fastForwardButton.setFocusPainted(false);
+        add(fastForwardButton);
+
         // Séparateur
         add(Box.createHorizontalStrut(20));
 
@@ -63,9 +73,16 @@ public class TimeControlBar extends JPanel {
         speedLabel.setForeground(Colors.TEXT_PRIMARY);
         add(speedLabel);
 
+        // Bilan de l'avance rapide
+        summaryLabel = new JLabel(" ");
+        summaryLabel.setFont(Theme.FONT_SMALL);
+        summaryLabel.setForeground(Colors.TEXT_SECONDARY);
+        add(summaryLabel);
+
         // Actions
         speedUpButton.addActionListener(e -> increaseSpeed());
         speedDownButton.addActionListener(e -> decreaseSpeed());
+        fastForwardButton.addActionListener(e -> updateSpeedLabel());
     }
 
     public void setPlayPauseAction(ActionListener listener) {
@@ -108,7 +125,21 @@ public class TimeControlBar extends JPanel {
     }
 
     private void updateSpeedLabel() {
-        speedLabel.setText("Vitesse: x" + speed);
+        speedLabel.setText(isFastForward() ? "Vitesse: max" : "Vitesse: x" + speed);
+        if (!isFastForward()) {
+            summaryLabel.setText(" ");
+        }
+    }
+
+    public boolean isFastForward() {
+        return fastForwardButton.isSelected();
+    }
+
+    /**
+     * Affiche le bilan de l'avance rapide (vide pour l'effacer).
+     */
+    public void setSummary(String summary) {
+        summaryLabel.setText(summary == null || summary.isEmpty() ? " " : summary);
     }
 
     public boolean isPaused() {
@@ -1,10 +1,12 @@
 package tg.univlome.epl.ajee.city.skyline.view.panels;
 
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
 import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
 import tg.univlome.epl.ajee.city.skyline.model.entities.ResidenceLevel;
 import tg.univlome.epl.ajee.city.skyline.model.energy.*;
 import tg.univlome.epl.ajee.city.skyline.model.map.CityMap;
 import tg.univlome.epl.ajee.city.skyline.model.map.MapCell;
+import tg.univlome.epl.ajee.city.skyline.model.map.MapSnapshot;
 import tg.univlome.epl.ajee.city.skyline.model.simulation.GameEngine;
 import tg.univlome.epl.ajee.city.skyline.view.styles.Colors;
 import tg.univlome.epl.ajee.city.skyline.view.styles.Theme;
@@ -18,6 +20,10 @@ import java.io.IOException;
 
 /**
  * Panneau affichant la carte de la ville en grille 2D.
+ *
+ * La carte est dessinée à partir d'une copie ({@link MapSnapshot}) prise
+ * sous le verrou du moteur ; les actions du joueur modifient le modèle sous
+ * le verrou et n'affichent leurs dialogues qu'une fois le verrou relâché.
  */
 public class CityMapPanel extends JPanel {
 
@@ -34,8 +40,12 @@ public class CityMapPanel extends JPanel {
     // Tuiles des centrales par type d'énergie
     private java.util.Map<EnergyType, BufferedImage> powerPlantTiles;
 
+    private static final Runnable NO_FEEDBACK = () -> {
+    };
+
     private final GameEngine gameEngine;
     private final CityMap cityMap;
+    private MapSnapshot mapSnapshot; // Dernière copie dessinée (EDT)
     private MapCell selectedCell;
     private BuildTool currentTool;
 
@@ -83,11 +93,13 @@ public class CityMapPanel extends JPanel {
 
     public CityMapPanel(GameEngine gameEngine) {
         this.gameEngine = gameEngine;
-        this.cityMap = new CityMap();
+        this.cityMap = new CityMap(CityMap.DEFAULT_WIDTH, CityMap.DEFAULT_HEIGHT,
+                CityMap.StorageType.OBJECTS, gameEngine.getRandom());
         this.currentTool = BuildTool.SELECT;
 
         // Lier la carte au GameEngine pour la croissance de population
         gameEngine.setCityMap(cityMap);
+        this.mapSnapshot = cityMap.createSnapshot();
 
         // Charger les tuiles de terrain
         loadTiles();
@@ -119,7 +131,14 @@ public class CityMapPanel extends JPanel {
         mapContainer.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                handleMapClick(e.getX(), e.getY());
+                int x = e.getX() / CELL_SIZE;
+                int y = e.getY() / CELL_SIZE;
+                if (currentTool == BuildTool.DEMOLISH && !confirmDemolish(x, y)) {
+                    return;
+                }
+                // La carte est lue par le thread de simulation : modification
+                // sous le verrou, dialogues après
+                gameEngine.callLocked(() -> handleMapClick(x, y)).run();
             }
         });
         mapContainer.addMouseMotionListener(new MouseMotionAdapter() {
@@ -127,9 +146,8 @@ public class CityMapPanel extends JPanel {
             public void mouseMoved(MouseEvent e) {
                 int x = e.getX() / CELL_SIZE;
                 int y = e.getY() / CELL_SIZE;
-                MapCell cell = cityMap.getCell(x, y);
-                if (cell != null) {
-                    mapContainer.setToolTipText(getCellTooltip(cell));
+                if (mapSnapshot.isValidPosition(x, y)) {
+                    mapContainer.setToolTipText(getCellTooltip(mapSnapshot, x, y));
                 }
             }
         });
@@ -274,21 +292,22 @@ public class CityMapPanel extends JPanel {
     }
 
     private void drawMap(Graphics2D g2d) {
+        MapSnapshot map = mapSnapshot;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
         // Dessiner les cellules
-        for (int x = 0; x < cityMap.getWidth(); x++) {
-            for (int y = 0; y < cityMap.getHeight(); y++) {
-                drawCell(g2d, cityMap.getCell(x, y));
+        for (int x = 0; x < map.getWidth(); x++) {
+            for (int y = 0; y < map.getHeight(); y++) {
+                drawCell(g2d, map, x, y);
             }
         }
 
         // Dessiner les zones de couverture des centrales
         g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.15f));
-        for (MapCell cell : cityMap.getPowerPlantCells()) {
-            int centerX = cell.getX() * CELL_SIZE + CELL_SIZE / 2;
-            int centerY = cell.getY() * CELL_SIZE + CELL_SIZE / 2;
+        for (int i = 0; i < map.getPowerPlantCount(); i++) {
+            int centerX = map.getPowerPlantX(i) * CELL_SIZE + CELL_SIZE / 2;
+            int centerY = map.getPowerPlantY(i) * CELL_SIZE + CELL_SIZE / 2;
             int radius = CityMap.POWER_PLANT_COVERAGE_RADIUS * CELL_SIZE;
 
             g2d.setColor(Colors.PRIMARY);
@@ -308,77 +327,75 @@ public class CityMapPanel extends JPanel {
         // Dessiner la grille
         g2d.setColor(Colors.BORDER);
         g2d.setStroke(new BasicStroke(GRID_LINE_WIDTH));
-        for (int x = 0; x <= cityMap.getWidth(); x++) {
-            g2d.drawLine(x * CELL_SIZE, 0, x * CELL_SIZE, cityMap.getHeight() * CELL_SIZE);
+        for (int x = 0; x <= map.getWidth(); x++) {
+            g2d.drawLine(x * CELL_SIZE, 0, x * CELL_SIZE, map.getHeight() * CELL_SIZE);
         }
-        for (int y = 0; y <= cityMap.getHeight(); y++) {
-            g2d.drawLine(0, y * CELL_SIZE, cityMap.getWidth() * CELL_SIZE, y * CELL_SIZE);
+        for (int y = 0; y <= map.getHeight(); y++) {
+            g2d.drawLine(0, y * CELL_SIZE, map.getWidth() * CELL_SIZE, y * CELL_SIZE);
         }
     }
 
-    private void drawCell(Graphics2D g2d, MapCell cell) {
-        int px = cell.getX() * CELL_SIZE;
-        int py = cell.getY() * CELL_SIZE;
+    private void drawCell(Graphics2D g2d, MapSnapshot map, int x, int y) {
+        int px = x * CELL_SIZE;
+        int py = y * CELL_SIZE;
 
         // Dessiner la tuile de fond (terrain ou eau) pour toutes les cellules
-        BufferedImage baseTile = cell.isWater() ? waterTile : groundTile;
+        BufferedImage baseTile = map.isWater(x, y) ? waterTile : groundTile;
         if (baseTile != null) {
             g2d.drawImage(baseTile, px, py, CELL_SIZE, CELL_SIZE, null);
         }
 
         // Pour les cellules non vides, dessiner le contenu
-        if (!cell.isEmpty()) {
-            switch (cell.getType()) {
-                case RESIDENCE -> {
-                    // Dessiner l'image de la résidence selon son niveau
-                    Residence residence = cell.getResidence();
-                    if (residence != null) {
-                        BufferedImage resTile = residenceTiles.get(residence.getLevel());
-                        if (resTile != null) {
-                            g2d.drawImage(resTile, px, py, CELL_SIZE, CELL_SIZE, null);
-                        }
-                        // Indicateur d'alimentation électrique
-                        if (!cell.isPowered()) {
-                            g2d.setColor(new Color(244, 67, 54, 150));
-                            g2d.fillRoundRect(px + 2, py + 2, CELL_SIZE - 4, CELL_SIZE - 4, 6, 6);
-                            // Icône d'erreur
-                            g2d.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 14));
-                            g2d.setColor(Color.WHITE);
-                            g2d.drawString("⚡", px + CELL_SIZE - 16, py + 14);
-                        }
+        switch (map.getType(x, y)) {
+            case RESIDENCE -> {
+                // Dessiner l'image de la résidence selon son niveau
+                ResidenceLevel level = map.getResidenceLevel(x, y);
+                if (level != null) {
+                    BufferedImage resTile = residenceTiles.get(level);
+                    if (resTile != null) {
+                        g2d.drawImage(resTile, px, py, CELL_SIZE, CELL_SIZE, null);
                     }
-                }
-                case POWER_PLANT -> {
-                    PowerPlant plant = cell.getPowerPlant();
-                    if (plant != null) {
-                        BufferedImage plantTile = powerPlantTiles.get(plant.getEnergyType());
-                        if (plantTile != null) {
-                            g2d.drawImage(plantTile, px, py, CELL_SIZE, CELL_SIZE, null);
-                        } else {
-                            // Fallback: overlay coloré avec icône
-                            Color overlayColor = withAlpha(getPlantColor(plant), 200);
-                            g2d.setColor(overlayColor);
-                            g2d.fillRoundRect(px + 3, py + 3, CELL_SIZE - 6, CELL_SIZE - 6, 8, 8);
-                            g2d.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 20));
-                            g2d.setColor(Colors.TEXT_ON_PRIMARY);
-                            String icon = plant.getEnergyType().getIcon();
-                            FontMetrics fm = g2d.getFontMetrics();
-                            int textX = px + (CELL_SIZE - fm.stringWidth(icon)) / 2;
-                            int textY = py + (CELL_SIZE + fm.getAscent()) / 2 - 2;
-                            g2d.drawString(icon, textX, textY);
-                        }
+                    // Indicateur d'alimentation électrique
+                    if (!map.isPowered(x, y)) {
+                        g2d.setColor(new Color(244, 67, 54, 150));
+                        g2d.fillRoundRect(px + 2, py + 2, CELL_SIZE - 4, CELL_SIZE - 4, 6, 6);
+                        // Icône d'erreur
+                        g2d.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 14));
+                        g2d.setColor(Color.WHITE);
+                        g2d.drawString("⚡", px + CELL_SIZE - 16, py + 14);
                     }
                 }
-                case POWER_LINE -> {
-                    g2d.setColor(new Color(255, 200, 100, 180));
-                    g2d.fillRoundRect(px + 3, py + 3, CELL_SIZE - 6, CELL_SIZE - 6, 8, 8);
-                    g2d.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 20));
-                    g2d.setColor(Colors.TEXT_ON_PRIMARY);
-                    g2d.drawString("─", px + 12, py + 26);
-                }
-                default -> {
+            }
+            case POWER_PLANT -> {
+                EnergyType type = map.getEnergyType(x, y);
+                if (type != null) {
+                    BufferedImage plantTile = powerPlantTiles.get(type);
+                    if (plantTile != null) {
+                        g2d.drawImage(plantTile, px, py, CELL_SIZE, CELL_SIZE, null);
+                    } else {
+                        // Fallback: overlay coloré avec icône
+                        Color overlayColor = withAlpha(getPlantColor(type), 200);
+                        g2d.setColor(overlayColor);
+                        g2d.fillRoundRect(px + 3, py + 3, CELL_SIZE - 6, CELL_SIZE - 6, 8, 8);
+                        g2d.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 20));
+                        g2d.setColor(Colors.TEXT_ON_PRIMARY);
+                        String icon = type.getIcon();
+                        FontMetrics fm = g2d.getFontMetrics();
+                        int textX = px + (CELL_SIZE - fm.stringWidth(icon)) / 2;
+                        int textY = py + (CELL_SIZE + fm.getAscent()) / 2 - 2;
+                        g2d.drawString(icon, textX, textY);
+                    }
                 }
             }
+            case POWER_LINE -> {
+                g2d.setColor(new Color(255, 200, 100, 180));
+                g2d.fillRoundRect(px + 3, py + 3, CELL_SIZE - 6, CELL_SIZE - 6, 8, 8);
+                g2d.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 20));
+                g2d.setColor(Colors.TEXT_ON_PRIMARY);
+                g2d.drawString("─", px + 12, py + 26);
+            }
+            default -> {
+            }
         }
     }
 
@@ -391,10 +408,10 @@ public class CityMapPanel extends JPanel {
         return new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
     }
 
-    private Color getPlantColor(PowerPlant plant) {
-        if (plant == null)
+    private Color getPlantColor(EnergyType type) {
+        if (type == null)
             return Colors.SURFACE;
-        return switch (plant.getEnergyType()) {
+        return switch (type) {
             case COAL -> Colors.ENERGY_COAL;
             case SOLAR -> Colors.ENERGY_SOLAR;
             case WIND -> Colors.ENERGY_WIND;
@@ -417,103 +434,136 @@ public class CityMapPanel extends JPanel {
         };
     }
 
-    private String getCellTooltip(MapCell cell) {
-        return switch (cell.getType()) {
-            case EMPTY -> cell.isWater() ? "Cours d'eau - Non constructible" : "Terrain vide - Cliquez pour construire";
+    private String getCellTooltip(MapSnapshot map, int x, int y) {
+        return switch (map.getType(x, y)) {
+            case EMPTY -> map.isWater(x, y) ? "Cours d'eau - Non constructible" : "Terrain vide - Cliquez pour construire";
             case RESIDENCE -> {
-                Residence r = cell.getResidence();
-                String powerInfo = cell.isPowered()
-                        ? (cell.getPowerLevel() == 0 ? "✅ Raccordée directement"
-                                : "✅ Alimentée par propagation (niveau " + cell.getPowerLevel() + ")")
+                ResidenceLevel level = map.getResidenceLevel(x, y);
+                String powerInfo = map.isPowered(x, y)
+                        ? (map.getPowerLevel(x, y) == 0 ? "✅ Raccordée directement"
+                                : "✅ Alimentée par propagation (niveau " + map.getPowerLevel(x, y) + ")")
                         : "❌ Sans électricité";
                 yield String.format("Résidence %s - %s",
-                        r != null ? r.getLevel().getDisplayName() : "",
+                        level != null ? level.getDisplayName() : "",
                         powerInfo);
             }
             case POWER_PLANT -> {
-                PowerPlant p = cell.getPowerPlant();
-                yield String.format("Centrale %s - Production: %d kWh",
-                        p != null ? p.getEnergyType().getDisplayName() : "",
-                        p != null ? p.calculateProduction() : 0);
+                EnergyType type = map.getEnergyType(x, y);
+                yield String.format("Centrale %s - Production: ~%d kWh",
+                        type != null ? type.getDisplayName() : "",
+                        map.getNominalProduction(x, y));
             }
             case POWER_LINE -> "Ligne électrique";
         };
     }
 
-    private void handleMapClick(int mouseX, int mouseY) {
-        int x = mouseX / CELL_SIZE;
-        int y = mouseY / CELL_SIZE;
+    /**
+     * Demande confirmation avant de démolir (hors du verrou, d'après la
+     * dernière copie de la carte).
+     */
+    private boolean confirmDemolish(int x, int y) {
+        if (!mapSnapshot.isValidPosition(x, y) || mapSnapshot.getType(x, y) == MapCell.CellType.EMPTY) {
+            return false;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "Voulez-vous démolir ce bâtiment?", "Confirmation",
+                JOptionPane.YES_NO_OPTION);
+        return confirm == JOptionPane.YES_OPTION;
+    }
+
+    /**
+     * Applique l'outil courant à une case, sous le verrou du moteur.
+     *
+     * @return la mise à jour de l'affichage et les dialogues, à exécuter une
+     *         fois le verrou relâché
+     */
+    private Runnable handleMapClick(int x, int y) {
         MapCell cell = cityMap.getCell(x, y);
 
         if (cell == null)
-            return;
+            return NO_FEEDBACK;
 
-        switch (currentTool) {
+        Runnable feedback = switch (currentTool) {
             case SELECT -> selectCell(cell);
             case RESIDENCE -> buildResidence(cell);
             case POWER_LINE -> buildPowerLine(cell);
             case DEMOLISH -> demolish(cell);
             default -> {
                 if (currentTool.getEnergyType() != null) {
-                    buildPowerPlant(cell, currentTool.getEnergyType());
+                    yield buildPowerPlant(cell, currentTool.getEnergyType());
                 }
+                yield NO_FEEDBACK;
             }
-        }
+        };
+
+        return withMapUpdate(feedback);
+    }
+
+    /**
+     * Reprend la copie de la carte (sous le verrou, refaite seulement si la
+     * carte a changé) ; elle est affichée avant le retour donné.
+     */
+    private Runnable withMapUpdate(Runnable feedback) {
+        MapSnapshot snapshot = cityMap.createSnapshot();
+        return () -> {
+            mapSnapshot = snapshot;
+            repaint();
+            feedback.run();
+        };
+    }
 
-        repaint();
+    /**
+     * Message à afficher une fois le verrou du moteur relâché.
+     */
+    private Runnable message(String text, String title, int messageType) {
+        return () -> JOptionPane.showMessageDialog(this, text, title, messageType);
     }
 
-    private void selectCell(MapCell cell) {
+    private Runnable selectCell(MapCell cell) {
         selectedCell = cell;
-        updateDetails(cell);
+        return describe(cell);
     }
 
-    private void buildResidence(MapCell cell) {
+    private Runnable buildResidence(MapCell cell) {
         if (!cell.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "Cette cellule n'est pas vide!",
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
-            return;
+            return message("Cette cellule n'est pas vide!", "Erreur", JOptionPane.ERROR_MESSAGE);
         }
 
-        Residence residence = new Residence(ResidenceLevel.BASIC);
+        Residence residence = new Residence(ResidenceLevel.BASIC, gameEngine.getRandom());
 
         // Ajouter des habitants initiaux (entre 1 et 3)
-        int initialInhabitants = 1 + (int) (Math.random() * 3);
+        int initialInhabitants = gameEngine.getRandom().nextInt(WorldRandom.Stream.POPULATION, 1, 3);
         for (int i = 0; i < initialInhabitants; i++) {
             residence.addNewInhabitant();
         }
 
         if (cityMap.placeResidence(cell.getX(), cell.getY(), residence)) {
             gameEngine.getCity().addResidence(residence);
-            JOptionPane.showMessageDialog(this,
-                    String.format("Résidence construite avec %d habitants!", initialInhabitants),
+            return message(String.format("Résidence construite avec %d habitants!", initialInhabitants),
                     "Succès", JOptionPane.INFORMATION_MESSAGE);
         }
+        return NO_FEEDBACK;
     }
 
-    private void buildPowerPlant(MapCell cell, EnergyType type) {
+    private Runnable buildPowerPlant(MapCell cell, EnergyType type) {
         if (!cell.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "Cette cellule n'est pas vide!",
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
-            return;
+            return message("Cette cellule n'est pas vide!", "Erreur", JOptionPane.ERROR_MESSAGE);
         }
 
         // Règles de construction selon le type de centrale
         if (type == EnergyType.HYDRO) {
             // Les centrales hydrauliques DOIVENT être construites sur l'eau
             if (!cell.isWater()) {
-                JOptionPane.showMessageDialog(this,
+                return message(
                         "💧 Les centrales hydrauliques doivent être construites\ndirectement sur un cours d'eau!",
                         "Erreur", JOptionPane.ERROR_MESSAGE);
-                return;
             }
         } else {
             // Les autres centrales NE PEUVENT PAS être construites sur l'eau
             if (cell.isWater()) {
-                JOptionPane.showMessageDialog(this,
+                return message(
                         "Impossible de construire sur l'eau!\nSeules les centrales hydrauliques peuvent y être placées.",
                         "Erreur", JOptionPane.ERROR_MESSAGE);
-                return;
             }
         }
 
@@ -527,19 +577,14 @@ public class CityMapPanel extends JPanel {
 
         if (gameEngine.buildPowerPlant(plant)) {
             if (cityMap.placePowerPlant(cell.getX(), cell.getY(), plant)) {
-                JOptionPane.showMessageDialog(this,
-                        plant.getEnergyType().getIcon() + " Centrale construite!",
+                return message(plant.getEnergyType().getIcon() + " Centrale construite!",
                         "Succès", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                // Le placement a échoué - ne devrait pas arriver si les vérifications sont
-                // correctes
-                JOptionPane.showMessageDialog(this, "Impossible de placer la centrale ici!",
-                        "Erreur", JOptionPane.ERROR_MESSAGE);
             }
-        } else {
-            JOptionPane.showMessageDialog(this, "Pas assez d'argent!",
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
+            // Le placement a échoué - ne devrait pas arriver si les vérifications sont
+            // correctes
+            return message("Impossible de placer la centrale ici!", "Erreur", JOptionPane.ERROR_MESSAGE);
         }
+        return message("Pas assez d'argent!", "Erreur", JOptionPane.ERROR_MESSAGE);
     }
 
     /**
@@ -547,194 +592,225 @@ public class CityMapPanel extends JPanel {
      * 1er clic : sélectionner une centrale
      * 2ème clic : sélectionner une résidence non alimentée
      */
-    private void buildPowerLine(MapCell cell) {
+    private Runnable buildPowerLine(MapCell cell) {
         // Si pas de point de départ sélectionné
         if (powerLineStart == null) {
             // Vérifier que c'est une centrale opérationnelle
             if (!cell.isPowerPlant()) {
-                JOptionPane.showMessageDialog(this,
-                        "🔌 Étape 1: Cliquez d'abord sur une centrale électrique",
+                return message("🔌 Étape 1: Cliquez d'abord sur une centrale électrique",
                         "Raccordement", JOptionPane.INFORMATION_MESSAGE);
-                return;
             }
 
             if (cell.getPowerPlant() == null || !cell.getPowerPlant().isOperational()) {
-                JOptionPane.showMessageDialog(this,
-                        "⚠️ Cette centrale n'est pas opérationnelle!",
-                        "Erreur", JOptionPane.ERROR_MESSAGE);
-                return;
+                return message("⚠️ Cette centrale n'est pas opérationnelle!", "Erreur", JOptionPane.ERROR_MESSAGE);
             }
 
             // Sauvegarder le point de départ
             powerLineStart = cell;
             selectedCell = cell;
-            updateDetails(cell);
-            JOptionPane.showMessageDialog(this,
+            Runnable details = describe(cell);
+            Runnable next = message(
                     "✅ Centrale sélectionnée!\n\n🔌 Étape 2: Cliquez maintenant sur une résidence\nnon alimentée pour créer le raccordement.",
                     "Raccordement", JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            // Deuxième clic - doit être une résidence
-            if (!cell.isResidence()) {
-                JOptionPane.showMessageDialog(this,
-                        "❌ Cliquez sur une résidence pour créer le raccordement.\n\n(Clic droit pour annuler)",
-                        "Erreur", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            // Vérifier si la résidence est déjà alimentée
-            if (cell.isPowered()) {
-                JOptionPane.showMessageDialog(this,
-                        "✅ Cette résidence est déjà alimentée!",
-                        "Information", JOptionPane.INFORMATION_MESSAGE);
-                powerLineStart = null;
-                return;
-            }
-
-            // Créer la ligne électrique automatiquement
-            var electricityGrid = cityMap.getElectricityGrid();
-            var powerLine = electricityGrid.createAutoLine(
-                    powerLineStart.getX(), powerLineStart.getY(),
-                    cell.getX(), cell.getY());
+            return () -> {
+                details.run();
+                next.run();
+            };
+        }
 
-            if (powerLine != null && electricityGrid.addPowerLine(powerLine)) {
-                JOptionPane.showMessageDialog(this,
-                        "🔌 Raccordement créé avec succès!\n\nLa résidence est maintenant alimentée.",
-                        "Succès", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "❌ Impossible de créer le raccordement.\n\n" +
-                                "Vérifiez qu'il n'y a pas d'obstacles (cours d'eau)\nentre la centrale et la résidence.",
-                        "Erreur", JOptionPane.ERROR_MESSAGE);
-            }
+        // Deuxième clic - doit être une résidence
+        if (!cell.isResidence()) {
+            return message("❌ Cliquez sur une résidence pour créer le raccordement.\n\n(Clic droit pour annuler)",
+                    "Erreur", JOptionPane.ERROR_MESSAGE);
+        }
 
-            // Réinitialiser
+        // Vérifier si la résidence est déjà alimentée
+        if (cell.isPowered()) {
             powerLineStart = null;
-            selectedCell = null;
+            return message("✅ Cette résidence est déjà alimentée!", "Information", JOptionPane.INFORMATION_MESSAGE);
+        }
+
+        // Créer la ligne électrique automatiquement
+        var electricityGrid = cityMap.getElectricityGrid();
+        var powerLine = electricityGrid.createAutoLine(
+                powerLineStart.getX(), powerLineStart.getY(),
+                cell.getX(), cell.getY());
+
+        Runnable result;
+        if (powerLine != null && electricityGrid.addPowerLine(powerLine)) {
+            // Alimentation recalculée avant la copie de la carte
+            cityMap.updatePowerGrid();
+            result = message("🔌 Raccordement créé avec succès!\n\nLa résidence est maintenant alimentée.",
+                    "Succès", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            result = message("❌ Impossible de créer le raccordement.\n\n" +
+                    "Vérifiez qu'il n'y a pas d'obstacles (cours d'eau)\nentre la centrale et la résidence.",
+                    "Erreur", JOptionPane.ERROR_MESSAGE);
         }
+
+        // Réinitialiser
+        powerLineStart = null;
+        selectedCell = null;
+        return result;
     }
 
-    private void demolish(MapCell cell) {
+    /**
+     * Démolit le bâtiment d'une case (confirmation déjà donnée).
+     */
+    private Runnable demolish(MapCell cell) {
         if (cell.isEmpty())
-            return;
+            return NO_FEEDBACK;
 
-        int confirm = JOptionPane.showConfirmDialog(this,
-                "Voulez-vous démolir ce bâtiment?", "Confirmation",
-                JOptionPane.YES_NO_OPTION);
+        if (cell.isResidence() && cell.getResidence() != null) {
+            gameEngine.getCity().removeResidence(cell.getResidence());
+        } else if (cell.isPowerPlant() && cell.getPowerPlant() != null) {
+            gameEngine.removePowerPlant(cell.getPowerPlant());
+        }
+        cityMap.clearCell(cell.getX(), cell.getY());
+        selectedCell = null;
+        return NO_FEEDBACK;
+    }
 
-        if (confirm == JOptionPane.YES_OPTION) {
-            if (cell.isResidence() && cell.getResidence() != null) {
-                gameEngine.getCity().removeResidence(cell.getResidence());
-            } else if (cell.isPowerPlant() && cell.getPowerPlant() != null) {
-                gameEngine.getCity().removePowerPlant(cell.getPowerPlant());
-            }
-            cityMap.clearCell(cell.getX(), cell.getY());
-            selectedCell = null;
+    /**
+     * Améliore un bâtiment, sous le verrou du moteur, et retourne les
+     * dialogues et la mise à jour des détails.
+     */
+    private Runnable upgrade(MapCell cell) {
+        Residence residence = cell.getResidence();
+        PowerPlant plant = cell.getPowerPlant();
+        boolean upgraded;
+        String upgradedName;
+        if (residence != null) {
+            upgraded = gameEngine.upgradeResidence(residence);
+            upgradedName = "Résidence améliorée en " + residence.getLevel().getDisplayName();
+        } else if (plant != null) {
+            upgraded = gameEngine.upgradePowerPlant(plant);
+            upgradedName = "Centrale améliorée en " + plant.getLevel().getDisplayName();
+        } else {
+            return NO_FEEDBACK;
+        }
+
+        if (!upgraded) {
+            return message("❌ Pas assez d'argent pour améliorer!", "Erreur", JOptionPane.ERROR_MESSAGE);
         }
+        Runnable details = describe(cell);
+        Runnable success = message("🎉 " + upgradedName + "!", "Succès", JOptionPane.INFORMATION_MESSAGE);
+        return withMapUpdate(() -> {
+            details.run();
+            success.run();
+        });
     }
 
-    private void updateDetails(MapCell cell) {
+    /**
+     * Lit les détails d'une case sous le verrou du moteur et retourne leur
+     * affichage, à exécuter une fois le verrou relâché.
+     */
+    private Runnable describe(MapCell cell) {
         if (cell == null) {
-            detailsTitle.setText("Sélection");
-            detailsInfo.setText("Cliquez sur une cellule");
-            actionButton.setVisible(false);
-            return;
+            return () -> showDetails("Sélection", "Cliquez sur une cellule", null);
         }
 
         switch (cell.getType()) {
             case EMPTY -> {
                 if (cell.isWater()) {
-                    detailsTitle.setText("🌊 Cours d'eau");
-                    detailsInfo.setText("<html>Position: " + cell.getX() + ", " + cell.getY() +
-                            "<br>Non constructible.<br>Bloque l'électricité.</html>");
-                } else {
-                    detailsTitle.setText("🌿 Terrain vide");
-                    detailsInfo.setText("<html>Position: " + cell.getX() + ", " + cell.getY() +
-                            "<br>Sélectionnez un outil<br>pour construire.</html>");
+                    String info = "<html>Position: " + cell.getX() + ", " + cell.getY() +
+                            "<br>Non constructible.<br>Bloque l'électricité.</html>";
+                    return () -> showDetails("🌊 Cours d'eau", info, null);
                 }
-                actionButton.setVisible(false);
+                String info = "<html>Position: " + cell.getX() + ", " + cell.getY() +
+                        "<br>Sélectionnez un outil<br>pour construire.</html>";
+                return () -> showDetails("🌿 Terrain vide", info, null);
             }
             case RESIDENCE -> {
                 Residence r = cell.getResidence();
                 if (r == null) {
-                    detailsTitle.setText("🏠 Résidence");
-                    detailsInfo.setText("<html>Erreur: résidence non trouvée</html>");
-                    actionButton.setVisible(false);
-                    break;
+                    return () -> showDetails("🏠 Résidence", "<html>Erreur: résidence non trouvée</html>", null);
                 }
-                detailsTitle.setText(r.getLevel().getIcon() + " " + r.getLevel().getDisplayName());
+                String title = r.getLevel().getIcon() + " " + r.getLevel().getDisplayName();
                 String powerStatus = cell.isPowered()
                         ? (cell.getPowerLevel() == 0 ? "✅ Raccordée"
                                 : "✅ Propagation (niv." + cell.getPowerLevel() + ")")
                         : "❌ Non";
-                detailsInfo.setText(
-                        String.format("<html>Niveau: %s<br>Habitants: %d/%d<br>Énergie: %s<br>Besoin: %d kWh</html>",
-                                r.getLevel().getDisplayName(),
-                                r.getInhabitantCount(), r.getLevel().getMaxInhabitants(),
-                                powerStatus,
-                                r.getEnergyNeed()));
-
-                // Configurer le bouton d'amélioration
-                // Supprimer les anciens listeners d'abord
-                for (var listener : actionButton.getActionListeners()) {
-                    actionButton.removeActionListener(listener);
-                }
-
-                if (r.getLevel().canUpgrade()) {
-                    int cost = r.getLevel().getUpgradeCost();
-                    actionButton.setText("⬆️ Améliorer (" + cost + "€)");
-                    actionButton.setVisible(true);
-                    actionButton.setEnabled(true);
-                    // Ajouter le nouveau listener
-                    final Residence residence = r;
-                    actionButton.addActionListener(e -> {
-                        if (gameEngine.upgradeResidence(residence)) {
-                            JOptionPane.showMessageDialog(this,
-                                    "🎉 Résidence améliorée en " + residence.getLevel().getDisplayName() + "!",
-                                    "Succès", JOptionPane.INFORMATION_MESSAGE);
-                            updateDetails(cell);
-                            repaint();
-                        } else {
-                            JOptionPane.showMessageDialog(this,
-                                    "❌ Pas assez d'argent pour améliorer!",
-                                    "Erreur", JOptionPane.ERROR_MESSAGE);
-                        }
-                    });
-                } else {
-                    actionButton.setText("🏆 Niveau maximum");
-                    actionButton.setVisible(true);
-                    actionButton.setEnabled(false);
-                }
-                detailsPanel.revalidate();
-                detailsPanel.repaint();
+                String info = String.format(
+                        "<html>Niveau: %s<br>Habitants: %d/%d<br>Énergie: %s<br>Besoin: %d kWh</html>",
+                        r.getLevel().getDisplayName(),
+                        r.getInhabitantCount(), r.getLevel().getMaxInhabitants(),
+                        powerStatus,
+                        r.getEnergyNeed());
+                // Bouton d'amélioration, ou niveau maximum
+                String action = r.getLevel().canUpgrade()
+                        ? "⬆️ Améliorer (" + r.getLevel().getUpgradeCost() + "€)"
+                        : "🏆 Niveau maximum";
+                boolean canUpgrade = r.getLevel().canUpgrade();
+                return () -> {
+                    showDetails(title, info, action);
+                    actionButton.setEnabled(canUpgrade);
+                    if (canUpgrade) {
+                        actionButton.addActionListener(e -> gameEngine.callLocked(() -> upgrade(cell)).run());
+                    }
+                };
             }
             case POWER_PLANT -> {
                 PowerPlant p = cell.getPowerPlant();
-                detailsTitle.setText(p.getEnergyType().getIcon() + " " + p.getEnergyType().getDisplayName());
-                detailsInfo.setText(String.format(
-                        "<html>Niveau: %s<br>Production: %d kWh<br>Maintenance: %d€<br>Couverture: %d cases</html>",
+                String title = p.getEnergyType().getIcon() + " " + p.getEnergyType().getDisplayName();
+                String info = String.format(
+                        "<html>Niveau: %s<br>Production: ~%d kWh<br>Maintenance: %d€<br>Couverture: %d cases</html>",
                         p.getLevel().getDisplayName(),
-                        p.calculateProduction(),
+                        (int) p.calculateNominalProduction(),
                         p.calculateMaintenance(),
-                        CityMap.POWER_PLANT_COVERAGE_RADIUS));
-                if (p.getLevel().canUpgrade()) {
-                    actionButton.setText("⬆️ Améliorer (" + p.calculateUpgradeCost() + "€)");
-                    actionButton.setVisible(true);
-                } else {
-                    actionButton.setVisible(false);
-                }
+                        CityMap.POWER_PLANT_COVERAGE_RADIUS);
+                String action = p.getLevel().canUpgrade()
+                        ? "⬆️ Améliorer (" + p.calculateUpgradeCost() + "€)"
+                        : null;
+                return () -> {
+                    showDetails(title, info, action);
+                    if (action != null) {
+                        actionButton.addActionListener(e -> gameEngine.callLocked(() -> upgrade(cell)).run());
+                    }
+                };
             }
             case POWER_LINE -> {
-                detailsTitle.setText("─ Ligne électrique");
-                detailsInfo.setText("<html>Position: " + cell.getX() + ", " + cell.getY() +
-                        "<br>Transporte l'électricité<br>vers les maisons.</html>");
-                actionButton.setVisible(false);
+                String info = "<html>Position: " + cell.getX() + ", " + cell.getY() +
+                        "<br>Transporte l'électricité<br>vers les maisons.</html>";
+                return () -> showDetails("─ Ligne électrique", info, null);
             }
         }
+        return NO_FEEDBACK;
     }
 
+    /**
+     * Affiche les détails de la sélection ; sans action, le bouton est
+     * masqué. Les anciens listeners du bouton sont retirés.
+     */
+    private void showDetails(String title, String info, String action) {
+        detailsTitle.setText(title);
+        detailsInfo.setText(info);
+        for (var listener : actionButton.getActionListeners()) {
+            actionButton.removeActionListener(listener);
+        }
+        if (action != null) {
+            actionButton.setText(action);
+            actionButton.setEnabled(true);
+        }
+        actionButton.setVisible(action != null);
+        detailsPanel.revalidate();
+        detailsPanel.repaint();
+    }
+
+    /**
+     * Rafraîchit l'affichage de la carte (hors du verrou du moteur).
+     */
     public void refresh() {
-        cityMap.updatePowerGrid();
-        repaint();
+        gameEngine.callLocked(this::prepareRefresh).run();
+    }
+
+    /**
+     * Reprend la copie de la carte sous le verrou du moteur et retourne son
+     * affichage, à exécuter une fois le verrou relâché. L'alimentation est
+     * déjà mise à jour par le thread de simulation avant chaque publication.
+     */
+    Runnable prepareRefresh() {
+        return withMapUpdate(NO_FEEDBACK);
     }
 
     public CityMap getCityMap() {
@@ -1,8 +1,9 @@
 package tg.univlome.epl.ajee.city.skyline.view.panels;
 
 import tg.univlome.epl.ajee.city.skyline.model.entities.City;
-import tg.univlome.epl.ajee.city.skyline.model.entities.Player;
 import tg.univlome.epl.ajee.city.skyline.model.simulation.GameEngine;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.GameSnapshot;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.ResidenceStats;
 import tg.univlome.epl.ajee.city.skyline.view.components.HappinessGauge;
 import tg.univlome.epl.ajee.city.skyline.view.styles.Colors;
 import tg.univlome.epl.ajee.city.skyline.view.styles.Theme;
@@ -113,19 +114,36 @@ public class DashboardPanel extends JPanel {
     }
 
     /**
-     * Rafraîchit l'affichage avec les données actuelles.
+     * Rafraîchit l'affichage avec les données actuelles (hors du verrou du
+     * moteur).
      */
     public void refresh() {
+        gameEngine.callLocked(this::prepareRefresh).run();
+    }
+
+    /**
+     * Copie les données affichées, sous le verrou du moteur, et retourne la
+     * mise à jour de l'affichage à exécuter une fois le verrou relâché.
+     * Production et demande sont celles du dernier cycle.
+     */
+    Runnable prepareRefresh() {
         City city = gameEngine.getCity();
-        Player player = gameEngine.getPlayer();
+        String cityName = city.getName();
+        int residenceCount = city.getResidenceCount();
+        int plantCount = city.getPowerPlantCount();
+        String price = gameEngine.getMarket().formatPrice();
+        GameSnapshot snapshot = gameEngine.createSnapshot();
+        return () -> show(cityName, residenceCount, plantCount, price, snapshot);
+    }
 
-        cityNameLabel.setText("🏙️ " + city.getName());
-        residenceCountLabel.setText(String.valueOf(city.getResidenceCount()));
-        plantCountLabel.setText(String.valueOf(city.getPowerPlantCount()));
-        inhabitantCountLabel.setText(String.valueOf(city.getTotalInhabitants()));
+    private void show(String cityName, int residenceCount, int plantCount, String price, GameSnapshot snapshot) {
+        cityNameLabel.setText("🏙️ " + cityName);
+        residenceCountLabel.setText(String.valueOf(residenceCount));
+        plantCountLabel.setText(String.valueOf(plantCount));
+        inhabitantCountLabel.setText(String.valueOf(snapshot.getInhabitants()));
 
-        int production = city.calculateTotalProduction();
-        int demand = city.calculateTotalDemand();
+        int production = snapshot.getProduction();
+        int demand = snapshot.getDemand();
         int balance = production - demand;
 
         productionLabel.setText(String.format("%,d kWh", production));
@@ -133,27 +151,15 @@ public class DashboardPanel extends JPanel {
         balanceLabel.setText(String.format("%+,d kWh", balance));
         balanceLabel.setForeground(balance >= 0 ? Colors.SUCCESS : Colors.ERROR);
 
-        priceLabel.setText(gameEngine.getMarket().formatPrice());
-
-        happinessGauge.setValue(city.getGlobalHappiness());
+        priceLabel.setText(price);
 
-        // Calcul de la demande de logement depuis la carte
-        int totalCapacity = 0;
-        int totalInhabitants = 0;
-        if (gameEngine.getCityMap() != null) {
-            for (var cell : gameEngine.getCityMap().getResidenceCells()) {
-                var residence = cell.getResidence();
-                if (residence != null) {
-                    totalCapacity += residence.getLevel().getMaxInhabitants();
-                    totalInhabitants += residence.getInhabitantCount();
-                }
-            }
-        }
+        happinessGauge.setValue(snapshot.getHappiness());
 
-        if (totalCapacity > 0) {
-            int occupancyRate = (totalInhabitants * 100) / totalCapacity;
+        // Demande de logement, calculée par le moteur lors du passage sur les résidences
+        ResidenceStats residenceStats = snapshot.getResidenceStats();
+        if (residenceStats.getCapacity() > 0) {
             // La demande est inverse du taux d'occupation
-            int housingDemand = Math.max(0, 100 - occupancyRate);
+            int housingDemand = residenceStats.getHousingDemand();
             housingDemandLabel.setText(housingDemand + "%");
 
             // Couleur selon la demande
@@ -1,10 +1,12 @@
 package tg.univlome.epl.ajee.city.skyline.view.panels;
 
-import tg.univlome.epl.ajee.city.skyline.model.economy.Market;
 import tg.univlome.epl.ajee.city.skyline.model.economy.Transaction;
-import tg.univlome.epl.ajee.city.skyline.model.entities.City;
-import tg.univlome.epl.ajee.city.skyline.model.entities.Player;
+import tg.univlome.epl.ajee.city.skyline.model.economy.TransactionStore;
 import tg.univlome.epl.ajee.city.skyline.model.simulation.GameEngine;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.ResidenceStats;
+import tg.univlome.epl.ajee.city.skyline.model.statistics.FinancialReport;
+import tg.univlome.epl.ajee.city.skyline.model.statistics.MetricsTimeSeries;
+import tg.univlome.epl.ajee.city.skyline.utils.Constants;
 import tg.univlome.epl.ajee.city.skyline.view.styles.Colors;
 import tg.univlome.epl.ajee.city.skyline.view.styles.Theme;
 
@@ -12,7 +14,6 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
 
 /**
  * Panneau Économie affichant les finances et transactions.
@@ -27,6 +28,7 @@ public class EconomyPanel extends JPanel {
     private final JLabel taxLabel;
     private final JLabel maintenanceLabel;
     private final JLabel netIncomeLabel;
+    private final JLabel monthlyNetLabel;
 
     // Table des transactions
     private final DefaultTableModel transactionModel;
@@ -35,9 +37,6 @@ public class EconomyPanel extends JPanel {
     // Indicateur de tendance
     private final JLabel trendLabel;
 
-    // Variables de suivi
-    private int lastMoney = 0;
-
     public EconomyPanel(GameEngine gameEngine) {
         this.gameEngine = gameEngine;
         setLayout(new BorderLayout(10, 10));
@@ -68,6 +67,7 @@ public class EconomyPanel extends JPanel {
         financePanel.add(Box.createVerticalStrut(10));
 
         netIncomeLabel = createValueLabel(financePanel, "📈 Revenu net/cycle:", "+0 €");
+        monthlyNetLabel = createValueLabel(financePanel, "📆 Solde sur 30 jours:", "+0 €");
 
         financePanel.add(Box.createVerticalStrut(15));
 
@@ -218,59 +218,77 @@ public class EconomyPanel extends JPanel {
     }
 
     /**
-     * Rafraîchit l'affichage avec les données actuelles.
+     * Rafraîchit l'affichage avec les données actuelles (hors du verrou du
+     * moteur).
      */
     public void refresh() {
-        Player player = gameEngine.getPlayer();
-        City city = gameEngine.getCity();
-        Market market = gameEngine.getMarket();
-
-        // Mise à jour des labels financiers
-        int currentMoney = player.getMoney();
-        moneyLabel.setText(String.format("%,d €", currentMoney));
-        moneyLabel.setForeground(currentMoney >= 0 ? Colors.SUCCESS : Colors.ERROR);
-
-        // Calculer les revenus du cycle depuis les résidences de la carte
-        int energyRevenue = 0;
-        int taxes = 0;
-        if (gameEngine.getCityMap() != null) {
-            for (var cell : gameEngine.getCityMap().getResidenceCells()) {
-                var residence = cell.getResidence();
-                if (residence != null) {
-                    if (residence.isEnergySupplied()) {
-                        energyRevenue += residence.calculateEnergyPayment(market.getCurrentPrice());
-                    }
-                    taxes += residence.calculateTax();
-                }
-            }
-        }
-        revenueLabel.setText(String.format("+%,d €", energyRevenue));
-        revenueLabel.setForeground(Colors.SUCCESS);
-
-        // Taxes
-        taxLabel.setText(String.format("+%,d €", taxes));
-        taxLabel.setForeground(taxes > 0 ? Colors.SUCCESS : Colors.TEXT_SECONDARY);
-
-        // Maintenance
-        int maintenance = city.calculateTotalMaintenance();
-        maintenanceLabel.setText(String.format("-%,d €", maintenance));
-        maintenanceLabel.setForeground(Colors.ERROR);
-
-        // Revenu net
-        int netIncome = energyRevenue + taxes - maintenance;
-        netIncomeLabel.setText(String.format("%+,d €", netIncome));
-        netIncomeLabel.setForeground(netIncome >= 0 ? Colors.SUCCESS : Colors.ERROR);
-
-        // Tendance
-        updateTrend(currentMoney);
-        lastMoney = currentMoney;
+        gameEngine.callLocked(this::prepareRefresh).run();
+    }
 
-        // Mise à jour des transactions
-        updateTransactionTable();
+    /**
+     * Copie les données affichées, sous le verrou du moteur, et retourne la
+     * mise à jour de l'affichage à exécuter une fois le verrou relâché.
+     */
+    Runnable prepareRefresh() {
+        int currentMoney = gameEngine.getPlayer().getMoney();
+
+        // Revenus du cycle, calculés par le moteur lors du passage sur les résidences
+        ResidenceStats residenceStats = gameEngine.getResidenceStats();
+        int energyRevenue = residenceStats.getEnergyPayments();
+        int taxes = residenceStats.getTaxes();
+        int maintenance = gameEngine.getCity().calculateTotalMaintenance();
+
+        // Solde des 30 derniers jours (revenus, taxes, maintenance, constructions...)
+        int totalDays = gameEngine.getTimeManager().getTotalDays();
+        FinancialReport report = FinancialReport.lastDays(gameEngine.getMarket().getLedger().getIndex(),
+                totalDays, Constants.DAYS_PER_MONTH);
+        long monthlyNet = report.getNet();
+
+        // Tendance : comparaison avec la moyenne de la veille
+        double yesterday = gameEngine.getMetrics().getAverage(MetricsTimeSeries.Metric.MONEY,
+                MetricsTimeSeries.Resolution.DAY, totalDays - 1);
+        double trend = Double.isNaN(yesterday) ? 0 : currentMoney - yesterday;
+
+        Object[][] transactions = copyRecentTransactions();
+
+        return () -> {
+            // Mise à jour des labels financiers
+            moneyLabel.setText(String.format("%,d €", currentMoney));
+            moneyLabel.setForeground(currentMoney >= 0 ? Colors.SUCCESS : Colors.ERROR);
+
+            revenueLabel.setText(String.format("+%,d €", energyRevenue));
+            revenueLabel.setForeground(Colors.SUCCESS);
+
+            // Taxes
+            taxLabel.setText(String.format("+%,d €", taxes));
+            taxLabel.setForeground(taxes > 0 ? Colors.SUCCESS : Colors.TEXT_SECONDARY);
+
+            // Maintenance
+            maintenanceLabel.setText(String.format("-%,d €", maintenance));
+            maintenanceLabel.setForeground(Colors.ERROR);
+
+            // Revenu net
+            int netIncome = energyRevenue + taxes - maintenance;
+            netIncomeLabel.setText(String.format("%+,d €", netIncome));
+            netIncomeLabel.setForeground(netIncome >= 0 ? Colors.SUCCESS : Colors.ERROR);
+
+            monthlyNetLabel.setText(String.format("%+,d €", monthlyNet));
+            monthlyNetLabel.setForeground(monthlyNet >= 0 ? Colors.SUCCESS : Colors.ERROR);
+
+            showTrend(trend);
+
+            // Mise à jour des transactions
+            transactionModel.setRowCount(0);
+            for (Object[] row : transactions) {
+                transactionModel.addRow(row);
+            }
+        };
     }
 
-    private void updateTrend(int currentMoney) {
-        int diff = currentMoney - lastMoney;
+    /**
+     * Affiche l'écart entre l'argent actuel et la moyenne de la veille.
+     */
+    private void showTrend(double diff) {
         if (diff > 100) {
             trendLabel.setText("📈 En hausse (+)");
             trendLabel.setForeground(Colors.SUCCESS);
@@ -283,26 +301,30 @@ public class EconomyPanel extends JPanel {
         }
     }
 
-    private void updateTransactionTable() {
-        // Vider la table
-        transactionModel.setRowCount(0);
-
-        // Ajouter les transactions récentes (max 15)
-        List<Transaction> transactions = gameEngine.getMarket().getRecentTransactions(15);
-
-        for (int i = transactions.size() - 1; i >= 0; i--) {
-            Transaction t = transactions.get(i);
-            String type = t.getType() == Transaction.Type.INCOME ? "💵 Revenu" : "💸 Dépense";
-            String amount = t.getType() == Transaction.Type.INCOME
-                    ? String.format("+%,d €", t.getAmount())
-                    : String.format("-%,d €", t.getAmount());
-
-            transactionModel.addRow(new Object[] {
-                    "Jour " + t.getDayInGame(),
+    /**
+     * Copie les lignes des transactions récentes (max 15, de la plus
+     * récente à la plus ancienne), lues en place : seules les descriptions
+     * affichées sont formatées.
+     */
+    private Object[][] copyRecentTransactions() {
+        TransactionStore transactions = gameEngine.getMarket().getLedger().getRecentStore();
+        int oldest = Math.max(0, transactions.size() - 15);
+        Object[][] rows = new Object[transactions.size() - oldest][];
+
+        for (int i = transactions.size() - 1; i >= oldest; i--) {
+            boolean income = transactions.getCategory(i).getType() == Transaction.Type.INCOME;
+            String type = income ? "💵 Revenu" : "💸 Dépense";
+            String amount = income
+                    ? String.format("+%,d €", transactions.getAmount(i))
+                    : String.format("-%,d €", transactions.getAmount(i));
+
+            rows[transactions.size() - 1 - i] = new Object[] {
+                    "Jour " + transactions.getDayInGame(i),
                     type,
                     amount,
-                    t.getDescription()
-            });
+                    transactions.describe(i)
+            };
         }
+        return rows;
     }
 }
@@ -1,8 +1,13 @@
 package tg.univlome.epl.ajee.city.skyline.view.panels;
 
 import tg.univlome.epl.ajee.city.skyline.model.simulation.GameEngine;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.GameSnapshot;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.GameState;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.SimulationLoop;
+import tg.univlome.epl.ajee.city.skyline.model.simulation.TickSummary;
 import tg.univlome.epl.ajee.city.skyline.observer.GameEventType;
 import tg.univlome.epl.ajee.city.skyline.observer.GameObserver;
+import tg.univlome.epl.ajee.city.skyline.view.components.ProfilerOverlay;
 import tg.univlome.epl.ajee.city.skyline.view.components.ResourceBar;
 import tg.univlome.epl.ajee.city.skyline.view.components.TimeControlBar;
 import tg.univlome.epl.ajee.city.skyline.view.styles.Colors;
@@ -10,12 +15,24 @@ import tg.univlome.epl.ajee.city.skyline.view.styles.Theme;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Panneau principal du jeu (utilisé dans le CardLayout).
+ *
+ * La simulation tourne dans son propre thread ({@link SimulationLoop}) ;
+ * l'affichage est rafraîchi à cadence fixe à partir du dernier état publié.
+ * Les onglets copient leurs données sous le verrou du moteur puis les
+ * affichent une fois le verrou relâché : rien n'est dessiné sous le verrou.
  */
 public class GamePanel extends JPanel implements GameObserver {
 
+    /**
+     * Délai entre deux rafraîchissements de l'affichage (~30 images/s).
+     */
+    private static final int REFRESH_DELAY_MS = 33;
+
     private final GameEngine gameEngine;
     private final ResourceBar resourceBar;
     private final TimeControlBar timeControlBar;
@@ -25,7 +42,12 @@ public class GamePanel extends JPanel implements GameObserver {
     private final CityMapPanel cityMapPanel;
     private final EconomyPanel economyPanel;
     private final ResidencePanel residencePanel;
-    private Timer gameTimer;
+    private final ProfilerOverlay profilerOverlay;
+    private SimulationLoop simulation;
+    private Timer refreshTimer;
+    private GameSnapshot lastRefreshed;
+    private volatile TickSummary lastSummary;
+    private final AtomicBoolean notificationPending = new AtomicBoolean();
     private Runnable onReturnToMenu;
 
     public GamePanel(GameEngine gameEngine, Runnable onReturnToMenu) {
@@ -60,19 +82,35 @@ public class GamePanel extends JPanel implements GameObserver {
         residencePanel = new ResidencePanel(gameEngine);
         tabbedPane.addTab("🏠 Résidences", residencePanel);
 
-        add(tabbedPane, BorderLayout.CENTER);
+        // Onglets, avec le profil des cycles (F3) par-dessus en haut à droite
+        profilerOverlay = new ProfilerOverlay();
+        profilerOverlay.setAlignmentX(1.0f);
+        profilerOverlay.setAlignmentY(0.0f);
+        tabbedPane.setAlignmentX(1.0f);
+        tabbedPane.setAlignmentY(0.0f);
+        JPanel centerPanel = new JPanel() {
+            @Override
+            public boolean isOptimizedDrawingEnabled() {
+                return false; // Composants superposés
+            }
+        };
+        centerPanel.setLayout(new OverlayLayout(centerPanel));
+        centerPanel.add(profilerOverlay);
+        centerPanel.add(tabbedPane);
+        add(centerPanel, BorderLayout.CENTER);
+        setupProfilerShortcut();
 
         // Barre de contrôle du temps (bas)
         timeControlBar = new TimeControlBar();
         timeControlBar.setPlayPauseAction(e -> toggleGame());
         add(timeControlBar, BorderLayout.SOUTH);
 
+        // Thread de simulation et rafraîchissement de l'affichage
+        setupSimulation();
+
         // S'enregistrer comme observateur
         gameEngine.addObserver(this);
 
-        // Timer pour la boucle de jeu
-        setupGameTimer();
-
         // Mise à jour initiale
         refreshAll();
     }
@@ -86,37 +124,78 @@ public class GamePanel extends JPanel implements GameObserver {
         return panel;
     }
 
-    private void setupGameTimer() {
-        gameTimer = new Timer(timeControlBar.getTickDelay(), e -> {
-            if (gameEngine.isRunning()) {
-                gameEngine.runCycle();
+    private void setupSimulation() {
+        simulation = new SimulationLoop(gameEngine, getTicksPerSecond());
+        simulation.start();
+
+        refreshTimer = new Timer(REFRESH_DELAY_MS, e -> {
+            simulation.setTicksPerSecond(getTicksPerSecond());
+            simulation.setFastForward(timeControlBar.isFastForward());
+            // Ne redessiner que si un nouvel état a été publié
+            if (simulation.getLatestSnapshot() != lastRefreshed) {
                 refreshAll();
             }
         });
+        refreshTimer.start();
+    }
+
+    private void setupProfilerShortcut() {
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("F3"), "toggleProfiler");
+        getActionMap().put("toggleProfiler", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                toggleProfiler();
+            }
+        });
+    }
+
+    /**
+     * Affiche ou masque le profil des cycles ; la mesure n'est active que
+     * pendant l'affichage.
+     */
+    private void toggleProfiler() {
+        boolean visible = !profilerOverlay.isVisible();
+        gameEngine.runLocked(() -> gameEngine.setPhaseTimingEnabled(visible));
+        profilerOverlay.setVisible(visible);
+        if (visible) {
+            refreshProfiler();
+        }
+        revalidate();
+        repaint();
+    }
+
+    private void refreshProfiler() {
+        profilerOverlay.setTable(gameEngine.callLocked(() -> gameEngine.getProfiler().formatTable()));
+    }
+
+    private double getTicksPerSecond() {
+        return 1000.0 / timeControlBar.getTickDelay();
     }
 
     private void toggleGame() {
-        if (gameEngine.isPaused() || gameEngine.getState().name().equals("NOT_STARTED")) {
-            if (gameEngine.getState().name().equals("NOT_STARTED")) {
-                gameEngine.initializeGame();
+        boolean paused = gameEngine.callLocked(() -> {
+            if (gameEngine.isPaused() || gameEngine.getState() == GameState.NOT_STARTED) {
+                if (gameEngine.getState() == GameState.NOT_STARTED) {
+                    gameEngine.initializeGame();
+                }
+                gameEngine.resume();
+                return false;
             }
-            gameEngine.resume();
-            gameTimer.setDelay(timeControlBar.getTickDelay());
-            gameTimer.start();
-            timeControlBar.setPaused(false);
-        } else {
             gameEngine.pause();
-            gameTimer.stop();
-            timeControlBar.setPaused(true);
-        }
+            return true;
+        });
+        timeControlBar.setPaused(paused);
     }
 
     /**
-     * Arrête le timer du jeu.
+     * Arrête la simulation et le rafraîchissement de l'affichage.
      */
     public void stopTimer() {
-        if (gameTimer != null) {
-            gameTimer.stop();
+        if (simulation != null) {
+            simulation.stop();
+        }
+        if (refreshTimer != null) {
+            refreshTimer.stop();
         }
     }
 
@@ -124,70 +203,68 @@ public class GamePanel extends JPanel implements GameObserver {
      * Rafraîchit toute l'interface.
      */
     public void refreshAll() {
-        // Mettre à jour la barre de ressources
-        resourceBar.setMoney(gameEngine.getPlayer().getMoney());
-        resourceBar.setDate(gameEngine.getTimeManager().formatDate());
-        resourceBar.updateBalance(
-                gameEngine.getCity().calculateTotalProduction(),
-                gameEngine.getCity().calculateTotalDemand());
-        resourceBar.setHappiness(gameEngine.getCity().getGlobalHappiness());
-        resourceBar.setInhabitants(gameEngine.getCity().getTotalInhabitants());
-
-        // Calculer et afficher la demande de logement depuis la carte
-        int totalCapacity = 0;
-        int totalInhabitants = 0;
-        if (gameEngine.getCityMap() != null) {
-            for (var cell : gameEngine.getCityMap().getResidenceCells()) {
-                var residence = cell.getResidence();
-                if (residence != null) {
-                    totalCapacity += residence.getLevel().getMaxInhabitants();
-                    totalInhabitants += residence.getInhabitantCount();
-                }
-            }
+        // Barre de ressources : dernier état publié, sans verrou
+        GameSnapshot snapshot = simulation.getLatestSnapshot();
+        lastRefreshed = snapshot;
+        resourceBar.setMoney(snapshot.getMoney());
+        resourceBar.setDate(snapshot.getDate());
+        resourceBar.updateBalance(snapshot.getProduction(), snapshot.getDemand());
+        resourceBar.setHappiness(snapshot.getHappiness());
+        resourceBar.setInhabitants(snapshot.getInhabitants());
+        resourceBar.setHousingDemand(snapshot.getHousingDemand());
+        TickSummary summary = lastSummary;
+        if (timeControlBar.isFastForward() && summary != null) {
+            timeControlBar.setSummary(summary.toString());
         }
-        if (totalCapacity > 0) {
-            int occupancyRate = (totalInhabitants * 100) / totalCapacity;
-            int housingDemand = Math.max(0, 100 - occupancyRate);
-            resourceBar.setHousingDemand(housingDemand);
-        } else {
-            resourceBar.setHousingDemand(0);
+
+        // Onglet actif : données copiées sous le verrou, affichées après
+        Runnable tabUpdate = gameEngine.callLocked(this::prepareActiveTab);
+        tabUpdate.run();
+
+        if (profilerOverlay.isVisible()) {
+            refreshProfiler();
         }
+    }
 
-        // Mettre à jour l'onglet actif
+    private Runnable prepareActiveTab() {
         Component activeTab = tabbedPane.getSelectedComponent();
         if (activeTab == cityMapPanel) {
-            cityMapPanel.refresh();
+            return cityMapPanel.prepareRefresh();
         } else if (activeTab == dashboardPanel) {
-            dashboardPanel.refresh();
+            return dashboardPanel.prepareRefresh();
         } else if (activeTab == powerPlantPanel) {
-            powerPlantPanel.refresh();
+            return powerPlantPanel.prepareRefresh();
         } else if (activeTab == economyPanel) {
-            economyPanel.refresh();
+            return economyPanel.prepareRefresh();
         } else if (activeTab == residencePanel) {
-            residencePanel.refresh();
-        }
-
-        // Mettre à jour la vitesse du timer
-        if (gameTimer.getDelay() != timeControlBar.getTickDelay()) {
-            gameTimer.setDelay(timeControlBar.getTickDelay());
+            return residencePanel.prepareRefresh();
         }
+        return () -> {
+        };
     }
 
     @Override
     public void onGameEvent(GameEventType eventType, Object data) {
-        SwingUtilities.invokeLater(() -> {
-            switch (eventType) {
-                case GAME_OVER -> showGameOverDialog((String) data);
-                case RANDOM_EVENT -> showEventNotification(data);
-                case HAPPINESS_CRITICAL -> showWarningNotification(
-                        "⚠️ Attention!", "Le niveau de bonheur est critique! Les habitants sont mécontents.");
-                default -> refreshAll();
+        switch (eventType) {
+            case GAME_OVER -> SwingUtilities.invokeLater(() -> showGameOverDialog((String) data));
+            // Bilan d'un lot de l'avance rapide : affiché au prochain rafraîchissement
+            case TICKS_SUMMARY -> lastSummary = (TickSummary) data;
+            case RANDOM_EVENT -> showNotification(() -> showEventNotification(data));
+            case HAPPINESS_CRITICAL -> showNotification(() -> showWarningNotification(
+                    "⚠️ Attention!", "Le niveau de bonheur est critique! Les habitants sont mécontents."));
+            default -> {
+                // Les événements du cycle sont affichés par le rafraîchissement
+                // périodique ; une action du joueur demande une publication,
+                // affichée au rafraîchissement suivant
+                if (SwingUtilities.isEventDispatchThread()) {
+                    simulation.publish();
+                }
             }
-        });
+        }
     }
 
     private void showGameOverDialog(String message) {
-        gameTimer.stop();
+        stopTimer();
 
         String[] options;
         if (onReturnToMenu != null) {
@@ -198,7 +275,7 @@ public class GamePanel extends JPanel implements GameObserver {
 
         int choice = JOptionPane.showOptionDialog(
                 SwingUtilities.getWindowAncestor(this),
-                message + "\n\n🗓️ Jours survécus: " + gameEngine.getPlayer().getDaysSurvived(),
+                message + "\n\n🗓️ Jours survécus: " + simulation.getLatestSnapshot().getDaysSurvived(),
                 "💀 Game Over",
                 JOptionPane.DEFAULT_OPTION,
                 JOptionPane.ERROR_MESSAGE,
@@ -213,6 +290,23 @@ public class GamePanel extends JPanel implements GameObserver {
         }
     }
 
+    /**
+     * Affiche une notification sur l'EDT. La simulation continue pendant que
+     * le dialogue est ouvert : les notifications reçues entre-temps sont
+     * ignorées au lieu de s'empiler.
+     */
+    private void showNotification(Runnable dialog) {
+        if (notificationPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                try {
+                    dialog.run();
+                } finally {
+                    notificationPending.set(false);
+                }
+            });
+        }
+    }
+
     private void showEventNotification(Object data) {
         if (data != null) {
             JOptionPane.showMessageDialog(
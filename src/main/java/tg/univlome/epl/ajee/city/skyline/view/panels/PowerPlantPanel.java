@@ -7,6 +7,7 @@ import tg.univlome.epl.ajee.city.skyline.view.styles.Theme;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -96,7 +97,9 @@ public class PowerPlantPanel extends JPanel {
             }
 
             if (plant != null) {
-                if (gameEngine.buildPowerPlant(plant)) {
+                // Seule la construction se fait sous le verrou, pas les dialogues
+                PowerPlant newPlant = plant;
+                if (gameEngine.callLocked(() -> gameEngine.buildPowerPlant(newPlant))) {
                     JOptionPane.showMessageDialog(this,
                             "Centrale construite avec succès!",
                             "Succès", JOptionPane.INFORMATION_MESSAGE);
@@ -113,7 +116,7 @@ public class PowerPlantPanel extends JPanel {
     /**
      * Crée une carte pour une centrale.
      */
-    private JPanel createPlantCard(PowerPlant plant) {
+    private JPanel createPlantCard(PlantRow plant) {
         JPanel card = Theme.createCardPanel();
         card.setLayout(new BorderLayout(10, 5));
         card.setMaximumSize(new Dimension(Integer.MAX_VALUE, 100));
@@ -122,28 +125,28 @@ public class PowerPlantPanel extends JPanel {
         JPanel infoPanel = new JPanel(new GridLayout(3, 1));
         infoPanel.setOpaque(false);
 
-        JLabel nameLabel = Theme.createHeaderLabel(plant.getDescription());
+        JLabel nameLabel = Theme.createHeaderLabel(plant.description);
         infoPanel.add(nameLabel);
 
         JLabel productionLabel = Theme.createBodyLabel(
                 String.format("Production: ~%d kWh | Maintenance: %d€",
-                        plant.calculateProduction(), plant.calculateMaintenance()));
+                        plant.production, plant.maintenance));
         infoPanel.add(productionLabel);
 
-        JLabel levelLabel = Theme.createBodyLabel("Niveau: " + plant.getLevel().getDisplayName());
-        if (plant.getLevel().canUpgrade()) {
+        JLabel levelLabel = Theme.createBodyLabel("Niveau: " + plant.levelName);
+        if (plant.canUpgrade) {
             levelLabel.setText(levelLabel.getText() +
-                    String.format(" (Amélioration: %d€)", plant.calculateUpgradeCost()));
+                    String.format(" (Amélioration: %d€)", plant.upgradeCost));
         }
         infoPanel.add(levelLabel);
 
         card.add(infoPanel, BorderLayout.CENTER);
 
         // Bouton améliorer
-        if (plant.getLevel().canUpgrade()) {
+        if (plant.canUpgrade) {
             JButton upgradeButton = Theme.createSecondaryButton("⬆️ Améliorer");
             upgradeButton.addActionListener(e -> {
-                if (gameEngine.upgradePowerPlant(plant)) {
+                if (gameEngine.callLocked(() -> gameEngine.upgradePowerPlant(plant.plant))) {
                     refresh();
                 } else {
                     JOptionPane.showMessageDialog(this,
@@ -154,7 +157,7 @@ public class PowerPlantPanel extends JPanel {
         }
 
         // Couleur selon le type
-        Color typeColor = switch (plant.getEnergyType()) {
+        Color typeColor = switch (plant.energyType) {
             case COAL -> Colors.ENERGY_COAL;
             case SOLAR -> Colors.ENERGY_SOLAR;
             case WIND -> Colors.ENERGY_WIND;
@@ -169,20 +172,32 @@ public class PowerPlantPanel extends JPanel {
     }
 
     /**
-     * Rafraîchit la liste des centrales.
+     * Rafraîchit la liste des centrales (hors du verrou du moteur).
      */
     public void refresh() {
-        plantListPanel.removeAll();
+        gameEngine.callLocked(this::prepareRefresh).run();
+    }
 
-        // Récupérer les centrales depuis la carte
-        java.util.List<PowerPlant> plants = new java.util.ArrayList<>();
+    /**
+     * Copie les centrales de la carte, sous le verrou du moteur, et retourne
+     * la mise à jour de la liste à exécuter une fois le verrou relâché. La
+     * production affichée est la production nominale (sans tirage
+     * aléatoire).
+     */
+    Runnable prepareRefresh() {
+        List<PlantRow> plants = new ArrayList<>();
         if (gameEngine.getCityMap() != null) {
             for (var cell : gameEngine.getCityMap().getPowerPlantCells()) {
                 if (cell.getPowerPlant() != null) {
-                    plants.add(cell.getPowerPlant());
+                    plants.add(new PlantRow(cell.getPowerPlant()));
                 }
             }
         }
+        return () -> show(plants);
+    }
+
+    private void show(List<PlantRow> plants) {
+        plantListPanel.removeAll();
 
         if (plants.isEmpty()) {
             JLabel emptyLabel = Theme
@@ -191,10 +206,10 @@ public class PowerPlantPanel extends JPanel {
             plantListPanel.add(emptyLabel);
         } else {
             int totalProduction = 0;
-            for (PowerPlant plant : plants) {
+            for (PlantRow plant : plants) {
                 plantListPanel.add(createPlantCard(plant));
                 plantListPanel.add(Box.createVerticalStrut(10));
-                totalProduction += plant.calculateProduction();
+                totalProduction += plant.production;
             }
             totalProductionLabel.setText(String.format("Production totale: %,d kWh", totalProduction));
         }
@@ -202,4 +217,30 @@ public class PowerPlantPanel extends JPanel {
         plantListPanel.revalidate();
         plantListPanel.repaint();
     }
+
+    /**
+     * Valeurs affichées pour une centrale, copiées sous le verrou. La
+     * centrale elle-même ne sert qu'à l'amélioration, faite sous le verrou.
+     */
+    private static final class PlantRow {
+        private final PowerPlant plant;
+        private final String description;
+        private final EnergyType energyType;
+        private final int production;
+        private final int maintenance;
+        private final String levelName;
+        private final boolean canUpgrade;
+        private final int upgradeCost;
+
+        PlantRow(PowerPlant plant) {
+            this.plant = plant;
+            this.description = plant.getDescription();
+            this.energyType = plant.getEnergyType();
+            this.production = (int) plant.calculateNominalProduction();
+            this.maintenance = plant.calculateMaintenance();
+            this.levelName = plant.getLevel().getDisplayName();
+            this.canUpgrade = plant.getLevel().canUpgrade();
+            this.upgradeCost = plant.calculateUpgradeCost();
+        }
+    }
 }
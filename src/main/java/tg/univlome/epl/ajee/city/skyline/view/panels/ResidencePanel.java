@@ -125,7 +125,19 @@ public class ResidencePanel extends JPanel {
         residenceTable.getColumnModel().getColumn(6).setPreferredWidth(100);
     }
 
+    /**
+     * Rafraîchit les statistiques et le tableau (hors du verrou du moteur).
+     */
     public void refresh() {
+        gameEngine.callLocked(this::prepareRefresh).run();
+    }
+
+    /**
+     * Copie les résidences de la carte, sous le verrou du moteur, et
+     * retourne la mise à jour de l'affichage à exécuter une fois le verrou
+     * relâché.
+     */
+    Runnable prepareRefresh() {
         List<MapCell> residenceCells = new ArrayList<>();
         if (gameEngine.getCityMap() != null) {
             residenceCells = gameEngine.getCityMap().getResidenceCells();
@@ -136,6 +148,7 @@ public class ResidencePanel extends JPanel {
         int population = 0;
         int capacity = 0;
         int powered = 0;
+        List<ResidenceRow> rows = new ArrayList<>(total);
 
         for (MapCell cell : residenceCells) {
             Residence r = cell.getResidence();
@@ -145,24 +158,75 @@ public class ResidencePanel extends JPanel {
                 if (r.isEnergySupplied()) {
                     powered++;
                 }
+                rows.add(new ResidenceRow(r));
             }
         }
 
-        totalResidencesLabel.setText(String.valueOf(total));
-        populationLabel.setText(population + " / " + capacity);
-        occupancyLabel.setText(capacity > 0 ? (population * 100 / capacity) + "%" : "0%");
-        poweredLabel.setText(powered + " / " + total);
+        int totalPopulation = population;
+        int totalCapacity = capacity;
+        int poweredCount = powered;
+        return () -> {
+            totalResidencesLabel.setText(String.valueOf(total));
+            populationLabel.setText(totalPopulation + " / " + totalCapacity);
+            occupancyLabel.setText(totalCapacity > 0 ? (totalPopulation * 100 / totalCapacity) + "%" : "0%");
+            poweredLabel.setText(poweredCount + " / " + total);
+
+            // Mettre à jour le tableau
+            tableModel.setResidences(rows);
+        };
+    }
 
-        // Mettre à jour le tableau
-        tableModel.setResidences(residenceCells);
+    /**
+     * Améliore une résidence, sous le verrou du moteur, et retourne le
+     * message à afficher une fois le verrou relâché.
+     */
+    private Runnable upgrade(Residence residence) {
+        if (!residence.getLevel().canUpgrade()) {
+            return () -> {
+            };
+        }
+        if (gameEngine.upgradeResidence(residence)) {
+            String message = "✅ " + residence.getName() + " améliorée en " + residence.getLevel().getDisplayName();
+            return () -> {
+                JOptionPane.showMessageDialog(ResidencePanel.this, message,
+                        "Amélioration réussie", JOptionPane.INFORMATION_MESSAGE);
+                refresh();
+            };
+        }
+        return () -> JOptionPane.showMessageDialog(ResidencePanel.this,
+                "❌ Fonds insuffisants pour améliorer cette résidence.",
+                "Amélioration impossible",
+                JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Valeurs affichées pour une résidence, copiées sous le verrou. La
+     * résidence elle-même ne sert qu'à l'amélioration, faite sous le verrou.
+     */
+    private static final class ResidenceRow {
+        private final Residence residence;
+        private final Object[] values;
+
+        ResidenceRow(Residence r) {
+            this.residence = r;
+            this.values = new Object[] {
+                    r.getName(),
+                    r.getLevel().getDisplayName(),
+                    r.getInhabitantCount() + "/" + r.getLevel().getMaxInhabitants(),
+                    r.getEnergyNeed() + " kWh",
+                    r.calculateTax() + "€",
+                    r.isEnergySupplied() ? "⚡" : "❌",
+                    r.getLevel().canUpgrade() ? "Améliorer" : "Max"
+            };
+        }
     }
 
     // === Table Model ===
     private class ResidenceTableModel extends AbstractTableModel {
         private final String[] columns = { "Nom", "Niveau", "Habitants", "Énergie", "Taxe", "Statut", "Action" };
-        private List<MapCell> residences = new ArrayList<>();
+        private List<ResidenceRow> residences = new ArrayList<>();
 
-        public void setResidences(List<MapCell> residences) {
+        public void setResidences(List<ResidenceRow> residences) {
             this.residences = residences;
             fireTableDataChanged();
         }
@@ -184,21 +248,8 @@ public class ResidencePanel extends JPanel {
 
         @Override
         public Object getValueAt(int rowIndex, int columnIndex) {
-            MapCell cell = residences.get(rowIndex);
-            Residence r = cell.getResidence();
-            if (r == null)
-                return "";
-
-            return switch (columnIndex) {
-                case 0 -> r.getName();
-                case 1 -> r.getLevel().getDisplayName();
-                case 2 -> r.getInhabitantCount() + "/" + r.getLevel().getMaxInhabitants();
-                case 3 -> r.getEnergyNeed() + " kWh";
-                case 4 -> r.calculateTax() + "€";
-                case 5 -> r.isEnergySupplied() ? "⚡" : "❌";
-                case 6 -> r.getLevel().canUpgrade() ? "Améliorer" : "Max";
-                default -> "";
-            };
+            Object[] values = residences.get(rowIndex).values;
+            return columnIndex < values.length ? values[columnIndex] : "";
         }
 
         @Override
@@ -208,7 +259,7 @@ public class ResidencePanel extends JPanel {
 
         public Residence getResidenceAt(int row) {
             if (row >= 0 && row < residences.size()) {
-                return residences.get(row).getResidence();
+                return residences.get(row).residence;
             }
             return null;
         }
@@ -250,21 +301,11 @@ public class ResidencePanel extends JPanel {
             button.setOpaque(true);
             button.addActionListener(e -> {
                 Residence residence = tableModel.getResidenceAt(currentRow);
-                if (residence != null && residence.getLevel().canUpgrade()) {
-                    if (gameEngine.upgradeResidence(residence)) {
-                        JOptionPane.showMessageDialog(ResidencePanel.this,
-                                "✅ " + residence.getName() + " améliorée en " + residence.getLevel().getDisplayName(),
-                                "Amélioration réussie",
-                                JOptionPane.INFORMATION_MESSAGE);
-                        refresh();
-                    } else {
-                        JOptionPane.showMessageDialog(ResidencePanel.this,
-                                "❌ Fonds insuffisants pour améliorer cette résidence.",
-                                "Amélioration impossible",
-                                JOptionPane.ERROR_MESSAGE);
-                    }
-                }
                 fireEditingStopped();
+                if (residence != null) {
+                    // Amélioration sous le verrou, message une fois le verrou relâché
+                    gameEngine.callLocked(() -> upgrade(residence)).run();
+                }
             });
         }
 
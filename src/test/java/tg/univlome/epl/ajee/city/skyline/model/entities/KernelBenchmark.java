@@ -0,0 +1,141 @@
+package tg.univlome.epl.ajee.city.skyline.model.entities;
+
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
+
+import java.util.SplittableRandom;
+
+/**
+ * Vérifie puis mesure le cumul des paiements et des taxes
+ * ({@link ResidenceStore#accumulate(int, double)}) : le noyau vectoriel
+ * doit donner exactement les mêmes totaux que la boucle scalaire, pour
+ * toutes les tailles (reste compris) et plusieurs prix.
+ *
+ * Usage : {@code KernelBenchmark [résidences] [répétitions] [graine]}. Sans
+ * {@code --add-modules jdk.incubator.vector}, seule la boucle scalaire est
+ * mesurée. Code de sortie 1 si les totaux diffèrent. Rangé avec les tests
+ * (hors du jar) ; l'égalité est aussi vérifiée par {@link ResidenceStoreTest}.
+ */
+public class KernelBenchmark {
+
+    private static final double[] PRICES = {0.0, 0.1, 0.15, 0.37, 1.0, 2.5, 1e12};
+
+    // Empêche le JIT d'éliminer les cumuls mesurés
+    private static volatile long checksum;
+
+    public static void main(String[] args) {
+        if (args.length > 3) {
+            System.err.println("Usage : KernelBenchmark [résidences] [répétitions] [graine]");
+            System.exit(2);
+        }
+
+        int residences = 1_000_000;
+        int repetitions = 200;
+        long seed = 1;
+        try {
+            if (args.length > 0) {
+                residences = Integer.parseInt(args[0]);
+            }
+            if (args.length > 1) {
+                repetitions = Integer.parseInt(args[1]);
+            }
+            if (args.length > 2) {
+                seed = Long.parseLong(args[2]);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Nombre invalide : " + e.getMessage());
+            System.exit(2);
+        }
+
+        ResidenceStore store = populate(residences, seed);
+        System.out.println("=== Noyaux de cumul des résidences ===");
+        System.out.printf("Résidences    : %d%n", store.size());
+        System.out.printf("Noyau         : %s%n", ResidenceStore.isVectorized() ? "vectoriel" : "scalaire uniquement");
+
+        int checked = verify(store);
+        if (checked < 0) {
+            System.exit(1);
+        }
+        System.out.printf("Vérification  : %d cumuls identiques%n", checked);
+
+        double scalar = measure(store, repetitions, false);
+        System.out.printf("Scalaire      : %8.1f µs par cumul%n", scalar);
+        if (ResidenceStore.isVectorized()) {
+            double vector = measure(store, repetitions, true);
+            System.out.printf("Vectoriel     : %8.1f µs par cumul (x%.2f)%n", vector, scalar / vector);
+        }
+    }
+
+    private static ResidenceStore populate(int count, long seed) {
+        WorldRandom random = new WorldRandom(seed);
+        SplittableRandom setup = new SplittableRandom(seed);
+        ResidenceLevel[] levels = ResidenceLevel.values();
+        City city = new City();
+        for (int i = 0; i < count; i++) {
+            Residence residence = new Residence(levels[setup.nextInt(levels.length)], random);
+            int inhabitants = setup.nextInt(residence.getLevel().getMaxInhabitants() + 1);
+            for (int k = 0; k < inhabitants; k++) {
+                residence.addInhabitant(50);
+            }
+            residence.setEnergySupplied(setup.nextInt(4) != 0);
+            city.addResidence(residence);
+        }
+        return city.getResidenceStore();
+    }
+
+    /**
+     * Compare les deux noyaux sur des préfixes de toutes les tailles jusqu'à
+     * 64, puis sur l'ensemble.
+     *
+     * @return le nombre de comparaisons, ou -1 à la première différence
+     */
+    private static int verify(ResidenceStore store) {
+        int checked = 0;
+        for (double price : PRICES) {
+            for (int count = 0; count <= Math.min(64, store.size()); count++) {
+                if (!sameTotals(store, count, price)) {
+                    return -1;
+                }
+                checked++;
+            }
+            if (!sameTotals(store, store.size(), price)) {
+                return -1;
+            }
+            checked++;
+        }
+        return checked;
+    }
+
+    private static boolean sameTotals(ResidenceStore store, int count, double price) {
+        ResidenceStore.Totals expected = store.accumulateScalar(count, price);
+        ResidenceStore.Totals actual = store.accumulate(count, price);
+        if (!expected.equals(actual)) {
+            System.err.printf("Différence (%d cases, prix %s) :%n  scalaire  %s%n  noyau     %s%n",
+                    count, price, expected, actual);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Temps moyen d'un cumul sur toutes les cases, après une mise en
+     * température.
+     */
+    private static double measure(ResidenceStore store, int repetitions, boolean vector) {
+        int count = store.size();
+        long sink = 0;
+        for (int i = 0; i < repetitions; i++) {
+            sink += run(store, count, vector).getEnergyPayments();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            sink += run(store, count, vector).getEnergyPayments();
+        }
+        long elapsed = System.nanoTime() - start;
+        checksum = sink;
+        return elapsed / 1e3 / repetitions;
+    }
+
+    private static ResidenceStore.Totals run(ResidenceStore store, int count, boolean vector) {
+        return vector ? store.accumulate(count, 0.15) : store.accumulateScalar(count, 0.15);
+    }
+}
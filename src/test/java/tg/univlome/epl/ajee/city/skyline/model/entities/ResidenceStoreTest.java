@@ -0,0 +1,108 @@
+package tg.univlome.epl.ajee.city.skyline.model.entities;
+
+import org.junit.jupiter.api.Test;
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Le noyau de cumul ({@link ResidenceStore#accumulate(int, double)}),
+ * vectoriel si le module est chargé, doit donner exactement les totaux de
+ * la boucle scalaire.
+ */
+class ResidenceStoreTest {
+
+    // Jusqu'à 70 cases : tous les restes possibles après les blocs vectoriels
+    private static final int MAX_COUNT = 70;
+    private static final double[] PRICES = {0.0, 0.1, 0.15, 0.37, 1.0, 2.5, 1e12};
+
+    @Test
+    void accumulateMatchesScalarForAllCountsAndPrices() {
+        for (long seed = 1; seed <= 5; seed++) {
+            ResidenceStore store = randomStore(seed, MAX_COUNT);
+            for (double price : PRICES) {
+                for (int count = 0; count <= MAX_COUNT; count++) {
+                    assertEquals(store.accumulateScalar(count, price), store.accumulate(count, price),
+                            "graine " + seed + ", " + count + " cases, prix " + price);
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyCountGivesZeroTotals() {
+        ResidenceStore store = randomStore(1, 10);
+        ResidenceStore.Totals totals = store.accumulate(0, 0.15);
+        assertEquals(new ResidenceStore.Totals(0, 0, 0, 0, 0, 0), totals);
+        assertEquals(totals, new ResidenceStore().accumulate(0, 0.15));
+    }
+
+    @Test
+    void paymentsAreCappedByPurchasePower() {
+        ResidenceStore store = new ResidenceStore();
+        for (int i = 0; i < MAX_COUNT; i++) {
+            add(store, 100, 30, ResidenceLevel.BASIC, 1, true);
+        }
+        for (int count = 0; count <= MAX_COUNT; count++) {
+            ResidenceStore.Totals totals = store.accumulate(count, 1.0);
+            assertEquals(30 * count, totals.getEnergyPayments());
+            assertEquals(store.accumulateScalar(count, 1.0), totals);
+            // 100 kWh à 0,15 : 15 par case, sous le plafond
+            assertEquals(15 * count, store.accumulate(count, 0.15).getEnergyPayments());
+        }
+    }
+
+    @Test
+    void unsuppliedSlotsOnlyCountInhabitantsAndPlaces() {
+        ResidenceStore store = new ResidenceStore();
+        for (int i = 0; i < MAX_COUNT; i++) {
+            add(store, 40, 100, ResidenceLevel.values()[i % ResidenceLevel.values().length], 2, i % 3 == 0);
+        }
+        int supplied = (MAX_COUNT + 2) / 3;
+        ResidenceStore.Totals totals = store.accumulate(MAX_COUNT, 0.5);
+        assertEquals(store.accumulateScalar(MAX_COUNT, 0.5), totals);
+        assertEquals(supplied, totals.getSupplied());
+        assertEquals(40 * supplied, totals.getEnergySold());
+        assertEquals(20 * supplied, totals.getEnergyPayments());
+        assertEquals(2 * MAX_COUNT, totals.getInhabitants());
+    }
+
+    @Test
+    void scalarMatchesResidenceMethods() {
+        WorldRandom random = new WorldRandom(9);
+        City city = new City();
+        int payments = 0;
+        int taxes = 0;
+        for (int i = 0; i < MAX_COUNT; i++) {
+            Residence residence = new Residence(ResidenceLevel.values()[i % ResidenceLevel.values().length], random);
+            residence.addInhabitant(50);
+            residence.setEnergySupplied(i % 4 != 0);
+            city.addResidence(residence);
+            payments += residence.calculateEnergyPayment(0.37);
+            taxes += residence.calculateTax();
+        }
+        ResidenceStore.Totals totals = city.getResidenceStore().accumulateScalar(MAX_COUNT, 0.37);
+        assertEquals(payments, totals.getEnergyPayments());
+        assertEquals(taxes, totals.getTaxes());
+    }
+
+    private static ResidenceStore randomStore(long seed, int count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ResidenceLevel[] levels = ResidenceLevel.values();
+        ResidenceStore store = new ResidenceStore();
+        for (int i = 0; i < count; i++) {
+            ResidenceLevel level = levels[random.nextInt(levels.length)];
+            add(store, random.nextInt(1, 500), random.nextInt(0, 300), level,
+                    random.nextInt(level.getMaxInhabitants() + 1), random.nextInt(4) != 0);
+        }
+        return store;
+    }
+
+    private static void add(ResidenceStore store, int need, int power, ResidenceLevel level, int inhabitants,
+            boolean supplied) {
+        Residence handle = new Residence(level, new WorldRandom(0));
+        store.add(handle, need, power, (byte) level.ordinal(), inhabitants, supplied);
+    }
+}
@@ -0,0 +1,43 @@
+package tg.univlome.epl.ajee.city.skyline.model.entities;
+
+import org.junit.jupiter.api.Test;
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * L'état d'une résidence est le même dans et hors du stockage de la ville.
+ */
+class ResidenceTest {
+
+    @Test
+    void stateSurvivesAddAndRemove() {
+        City city = new City("Test");
+        Residence residence = new Residence(ResidenceLevel.BASIC, new WorldRandom(3));
+        residence.addInhabitant(60);
+        residence.upgrade();
+        residence.setEnergySupplied(true);
+        String detached = describe(residence);
+        assertFalse(residence.isStoredIn(city.getResidenceStore()));
+
+        city.addResidence(residence);
+        assertTrue(residence.isStoredIn(city.getResidenceStore()));
+        assertEquals(1, city.getResidenceStore().size());
+        assertEquals(detached, describe(residence));
+
+        residence.addInhabitant(70);
+        String stored = describe(residence);
+        city.removeResidence(residence);
+        assertFalse(residence.isStoredIn(city.getResidenceStore()));
+        assertEquals(0, city.getResidenceStore().size());
+        assertEquals(stored, describe(residence));
+    }
+
+    private static String describe(Residence residence) {
+        return residence.getLevel() + " " + residence.getEnergyNeed() + " " + residence.getPurchasePower() + " "
+                + residence.getInhabitantCount() + " " + residence.isEnergySupplied() + " "
+                + residence.getSatisfactionSum();
+    }
+}
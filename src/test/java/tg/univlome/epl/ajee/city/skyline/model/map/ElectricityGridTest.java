@@ -0,0 +1,289 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import org.junit.jupiter.api.Test;
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
+import tg.univlome.epl.ajee.city.skyline.model.energy.CoalPlant;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+import tg.univlome.epl.ajee.city.skyline.model.energy.SolarPlant;
+import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
+import tg.univlome.epl.ajee.city.skyline.model.entities.ResidenceLevel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * La mise à jour incrémentale du réseau doit donner les mêmes niveaux
+ * qu'une reconstruction complète, quelle que soit la suite d'opérations ;
+ * les deux moteurs de propagation, séquentiels ou parallèles, donnent aussi
+ * les mêmes niveaux.
+ */
+class ElectricityGridTest {
+
+    private static final int WIDTH = 30;
+    private static final int HEIGHT = 20;
+    private static final int STEPS = 400;
+
+    @Test
+    void incrementalMatchesRebuildAfterRandomOperations() {
+        for (CityMap.StorageType storageType : CityMap.StorageType.values()) {
+            for (long seed = 1; seed <= 10; seed++) {
+                runRandomOperations(seed, storageType);
+            }
+        }
+    }
+
+    @Test
+    void turningPlantOffUnpowersItsCoverage() {
+        CityMap map = new CityMap(WIDTH, HEIGHT, CityMap.StorageType.OBJECTS, new WorldRandom(1));
+        PowerPlant plant = new CoalPlant();
+        assertTrue(map.placePowerPlant(15, 5, plant));
+        assertTrue(map.placeResidence(17, 5, new Residence(ResidenceLevel.BASIC, new WorldRandom(1))));
+        assertTrue(map.getCell(17, 5).isPowered());
+
+        plant.setOperational(false);
+        map.getElectricityGrid().updateGrid();
+        assertFalse(map.getCell(17, 5).isPowered());
+
+        plant.setOperational(true);
+        map.getElectricityGrid().updateGrid();
+        assertTrue(map.getCell(17, 5).isPowered());
+    }
+
+    @Test
+    void resetKeepsGridConfiguration() {
+        CityMap map = new CityMap(WIDTH, HEIGHT, CityMap.StorageType.PACKED, new WorldRandom(1));
+        ElectricityGrid grid = map.getElectricityGrid();
+        grid.setIncrementalEnabled(false);
+        grid.setPropagationEngine(ElectricityGrid.PropagationEngine.BITSET);
+        grid.setParallelThreshold(7);
+        assertTrue(map.placePowerPlant(15, 5, new CoalPlant()));
+        assertTrue(map.addPowerLine(15, 5, 25, 5));
+
+        map.reset();
+
+        assertSame(grid, map.getElectricityGrid());
+        assertFalse(grid.isIncrementalEnabled());
+        assertEquals(ElectricityGrid.PropagationEngine.BITSET, grid.getPropagationEngine());
+        assertEquals(7L, grid.getParallelThreshold());
+        assertTrue(grid.getPowerLines().isEmpty());
+        assertFalse(grid.hasPowerLineAt(20, 5));
+    }
+
+    @Test
+    void snapshotIsDetachedFromTheMap() {
+        CityMap map = new CityMap(WIDTH, HEIGHT, CityMap.StorageType.PACKED, new WorldRandom(1));
+        PowerPlant plant = new CoalPlant();
+        assertTrue(map.placePowerPlant(15, 5, plant));
+        assertTrue(map.placeResidence(17, 5, new Residence(ResidenceLevel.BASIC, new WorldRandom(1))));
+        map.updatePowerGrid();
+
+        MapSnapshot snapshot = map.createSnapshot();
+        map.clearCell(17, 5);
+        map.clearCell(15, 5);
+
+        assertEquals(MapCell.CellType.POWER_PLANT, snapshot.getType(15, 5));
+        assertEquals(plant.getEnergyType(), snapshot.getEnergyType(15, 5));
+        assertEquals((int) plant.calculateNominalProduction(), snapshot.getNominalProduction(15, 5));
+        assertEquals(1, snapshot.getPowerPlantCount());
+        assertEquals(15, snapshot.getPowerPlantX(0));
+        assertEquals(5, snapshot.getPowerPlantY(0));
+        assertEquals(MapCell.CellType.RESIDENCE, snapshot.getType(17, 5));
+        assertEquals(ResidenceLevel.BASIC, snapshot.getResidenceLevel(17, 5));
+        assertTrue(snapshot.isPowered(17, 5));
+        assertEquals(MapCell.CellType.EMPTY, map.createSnapshot().getType(17, 5));
+    }
+
+    @Test
+    void snapshotIsReusedUntilTheMapChanges() {
+        CityMap map = new CityMap(WIDTH, HEIGHT, CityMap.StorageType.CHUNKED, new WorldRandom(1));
+        PowerPlant plant = new CoalPlant();
+        assertTrue(map.placePowerPlant(15, 5, plant));
+        Residence residence = new Residence(ResidenceLevel.BASIC, new WorldRandom(1));
+        assertTrue(map.placeResidence(17, 5, residence));
+
+        MapSnapshot snapshot = map.createSnapshot();
+        map.updatePowerGrid();
+        assertSame(snapshot, map.createSnapshot());
+
+        residence.upgrade();
+        map.markBuildingChanged();
+        MapSnapshot upgraded = map.createSnapshot();
+        assertNotSame(snapshot, upgraded);
+        assertEquals(residence.getLevel(), upgraded.getResidenceLevel(17, 5));
+
+        plant.setOperational(false);
+        map.updatePowerGrid();
+        MapSnapshot stopped = map.createSnapshot();
+        assertEquals(0, stopped.getNominalProduction(15, 5));
+        assertFalse(stopped.isPowered(17, 5));
+        assertEquals(-1, stopped.getPowerLevel(17, 5));
+    }
+
+    @Test
+    void snapshotKeepsDeepPropagationLevels() {
+        CityMap map = new CityMap(600, HEIGHT, CityMap.StorageType.PACKED, new WorldRandom(1));
+        assertTrue(map.placePowerPlant(0, 0, new CoalPlant()));
+        for (int x = 3; x < 600; x += ElectricityGrid.MAX_PROPAGATION_DISTANCE) {
+            assertTrue(map.placeResidence(x, 0, new Residence(ResidenceLevel.BASIC, new WorldRandom(1))));
+        }
+        map.updatePowerGrid();
+
+        MapSnapshot snapshot = map.createSnapshot();
+        assertTrue(map.getCell(597, 0).getPowerLevel() > Byte.MAX_VALUE);
+        assertEquals(map.getCell(597, 0).getPowerLevel(), snapshot.getPowerLevel(597, 0));
+    }
+
+    @Test
+    void bitsetEngineMatchesBfs() {
+        for (CityMap.StorageType storageType : CityMap.StorageType.values()) {
+            for (long seed = 1; seed <= 10; seed++) {
+                CityMap map = randomMap(seed, storageType);
+                ElectricityGrid grid = map.getElectricityGrid();
+                grid.setParallelThreshold(Long.MAX_VALUE);
+
+                grid.setPropagationEngine(ElectricityGrid.PropagationEngine.BFS);
+                grid.rebuildGrid();
+                Map<Integer, Integer> bfs = levels(map);
+                assertTrue(bfs.containsValue(3), "propagation trop courte, graine " + seed);
+
+                grid.setPropagationEngine(ElectricityGrid.PropagationEngine.BITSET);
+                grid.rebuildGrid();
+                assertEquals(bfs, levels(map), storageType + ", graine " + seed);
+            }
+        }
+    }
+
+    @Test
+    void parallelRebuildMatchesSequentialBfs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (CityMap.StorageType storageType : CityMap.StorageType.values()) {
+                for (long seed = 1; seed <= 5; seed++) {
+                    CityMap map = randomMap(seed, storageType);
+                    ElectricityGrid grid = map.getElectricityGrid();
+                    grid.setParallelThreshold(Long.MAX_VALUE);
+                    grid.setPropagationEngine(ElectricityGrid.PropagationEngine.BFS);
+                    grid.rebuildGrid();
+                    Map<Integer, Integer> sequential = levels(map);
+
+                    grid.setForkJoinPool(pool);
+                    grid.setParallelThreshold(1);
+                    assertTrue(grid.isParallelActive());
+                    for (ElectricityGrid.PropagationEngine engine : ElectricityGrid.PropagationEngine.values()) {
+                        grid.setPropagationEngine(engine);
+                        for (int run = 0; run < 5; run++) {
+                            grid.rebuildGrid();
+                            assertEquals(sequential, levels(map),
+                                    storageType + ", graine " + seed + ", " + engine + ", essai " + run);
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void runRandomOperations(long seed, CityMap.StorageType storageType) {
+        SplittableRandom random = new SplittableRandom(seed);
+        WorldRandom world = new WorldRandom(seed);
+        CityMap map = new CityMap(WIDTH, HEIGHT, storageType, world);
+        map.generateRandomWater(2, 12);
+        ElectricityGrid grid = map.getElectricityGrid();
+        List<PowerPlant> plants = new ArrayList<>();
+        Map<PowerPlant, int[]> positions = new HashMap<>();
+
+        for (int step = 0; step < STEPS; step++) {
+            int x = random.nextInt(WIDTH);
+            int y = random.nextInt(HEIGHT);
+            int operation = random.nextInt(10);
+            String description;
+            if (operation < 4) {
+                description = "résidence en (" + x + "," + y + ")";
+                map.placeResidence(x, y, new Residence(ResidenceLevel.BASIC, world));
+            } else if (operation < 5) {
+                description = "centrale en (" + x + "," + y + ")";
+                PowerPlant plant = random.nextBoolean() ? new CoalPlant() : new SolarPlant();
+                if (map.placePowerPlant(x, y, plant)) {
+                    plants.add(plant);
+                    positions.put(plant, new int[] { x, y });
+                }
+            } else if (operation < 6) {
+                description = "démolition en (" + x + "," + y + ")";
+                MapCell cell = map.getCell(x, y);
+                if (cell.getPowerPlant() != null) {
+                    plants.remove(cell.getPowerPlant());
+                    positions.remove(cell.getPowerPlant());
+                }
+                map.clearCell(x, y);
+            } else if (operation < 8 && !plants.isEmpty()) {
+                PowerPlant plant = plants.get(random.nextInt(plants.size()));
+                description = "arrêt/redémarrage de " + plant;
+                plant.setOperational(!plant.isOperational());
+            } else if (operation < 9 && !plants.isEmpty()) {
+                PowerPlant plant = plants.get(random.nextInt(plants.size()));
+                description = "amélioration de " + plant;
+                plant.upgrade();
+            } else if (!plants.isEmpty()) {
+                int[] start = positions.get(plants.get(random.nextInt(plants.size())));
+                description = "ligne depuis (" + start[0] + "," + start[1] + ")";
+                map.addPowerLine(start[0], start[1], x, y);
+            } else {
+                continue;
+            }
+
+            grid.updateGrid();
+            Map<Integer, Integer> incremental = levels(map);
+            grid.rebuildGrid();
+            assertEquals(levels(map), incremental,
+                    storageType + ", graine " + seed + ", étape " + step + " : " + description);
+        }
+    }
+
+    /**
+     * Carte aléatoire de 60 à 200 cases de côté : rivières, centrales,
+     * quartiers et lignes.
+     */
+    private static CityMap randomMap(long seed, CityMap.StorageType storageType) {
+        SplittableRandom random = new SplittableRandom(seed);
+        WorldRandom world = new WorldRandom(seed);
+        int width = random.nextInt(60, 201);
+        int height = random.nextInt(60, 201);
+        CityMap map = new CityMap(width, height, storageType, world);
+        map.generateRandomWater(3, Math.min(width, height) / 2);
+        List<int[]> plants = new ArrayList<>();
+        for (int i = 0; i < width * height / 800; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            if (map.placePowerPlant(x, y, random.nextBoolean() ? new CoalPlant() : new SolarPlant())) {
+                plants.add(new int[] { x, y });
+            }
+        }
+        for (int i = 0; i < width * height / 6; i++) {
+            map.placeResidence(random.nextInt(width), random.nextInt(height),
+                    new Residence(ResidenceLevel.BASIC, world));
+        }
+        for (int i = 0; i < plants.size() && i < 10; i++) {
+            map.addPowerLine(plants.get(i)[0], plants.get(i)[1], random.nextInt(width), random.nextInt(height));
+        }
+        return map;
+    }
+
+    private static Map<Integer, Integer> levels(CityMap map) {
+        Map<Integer, Integer> levels = new HashMap<>();
+        for (MapCell cell : map.getResidenceCells()) {
+            levels.put(cell.getY() * map.getWidth() + cell.getX(), cell.getPowerLevel());
+        }
+        return levels;
+    }
+}
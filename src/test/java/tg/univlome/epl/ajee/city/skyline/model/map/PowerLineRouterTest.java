@@ -0,0 +1,145 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import org.junit.jupiter.api.Test;
+import tg.univlome.epl.ajee.city.skyline.model.config.WorldRandom;
+import tg.univlome.epl.ajee.city.skyline.model.energy.CoalPlant;
+import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
+import tg.univlome.epl.ajee.city.skyline.model.entities.ResidenceLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tracés automatiques : coût minimal, parcours unique pour plusieurs
+ * arrivées et travail borné.
+ */
+class PowerLineRouterTest {
+
+    @Test
+    void singleRoutesHaveMinimalCost() {
+        for (long seed = 1; seed <= 10; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            CityMap map = new CityMap(80, 60, CityMap.StorageType.PACKED, new WorldRandom(seed));
+            map.generateRandomWater(3, 40);
+            // Quelques lignes existantes, que les tracés doivent préférer
+            for (int i = 0; i < 5; i++) {
+                int x = random.nextInt(80);
+                int y = random.nextInt(60);
+                if (map.placePowerPlant(x, y, new CoalPlant())) {
+                    map.addPowerLine(x, y, random.nextInt(80), random.nextInt(60));
+                }
+            }
+
+            int startX = random.nextInt(80);
+            int startY = random.nextInt(60);
+            int[] endXs = new int[40];
+            int[] endYs = new int[40];
+            for (int i = 0; i < endXs.length; i++) {
+                endXs[i] = random.nextInt(80);
+                endYs[i] = random.nextInt(60);
+            }
+            int[][] bulk = new PowerLineRouter(map).routeAll(startX, startY, endXs, endYs);
+            PowerLineRouter single = new PowerLineRouter(map);
+            for (int i = 0; i < endXs.length; i++) {
+                int[] path = single.route(startX, startY, endXs[i], endYs[i]);
+                String context = "graine " + seed + ", arrivée " + i;
+                if (path == null) {
+                    assertNull(bulk[i], context);
+                    continue;
+                }
+                assertNotNull(bulk[i], context);
+                checkPath(map, path, startX, startY, endXs[i], endYs[i]);
+                checkPath(map, bulk[i], startX, startY, endXs[i], endYs[i]);
+
+                // A* et Dijkstra sur la même fenêtre : même coût minimal
+                int[] dijkstra = new PowerLineRouter(map).routeAll(startX, startY,
+                        new int[] { endXs[i] }, new int[] { endYs[i] })[0];
+                assertEquals(cost(map, dijkstra), cost(map, path), context);
+            }
+        }
+    }
+
+    @Test
+    void openLandRouteGoesStraightToTheTarget() {
+        CityMap map = new CityMap(512, 512, CityMap.StorageType.CHUNKED, new WorldRandom(1));
+        PowerLineRouter router = new PowerLineRouter(map);
+        int[] path = router.route(10, 10, 400, 300);
+        assertEquals(391 + 291 - 1, path.length);
+        // Heuristique exacte hors des lignes : quasiment aucune case en trop
+        assertTrue(router.getExpandedCount() < 2L * path.length, "cases fermées : " + router.getExpandedCount());
+    }
+
+    @Test
+    void autoConnectRoutesAllResidencesInOnePass() {
+        WorldRandom world = new WorldRandom(5);
+        CityMap map = new CityMap(512, 512, CityMap.StorageType.PACKED, world);
+        map.generateRandomWater(4, 200);
+        SplittableRandom random = new SplittableRandom(5);
+        int plantX = 256;
+        int plantY = 256;
+        while (!map.placePowerPlant(plantX, plantY, new CoalPlant())) {
+            plantX++;
+        }
+        List<MapCell> residences = new ArrayList<>();
+        while (residences.size() < 300) {
+            int x = random.nextInt(96, 416);
+            int y = random.nextInt(96, 416);
+            if (map.placeResidence(x, y, new Residence(ResidenceLevel.BASIC, world))) {
+                residences.add(map.getCell(x, y));
+            }
+        }
+
+        List<PowerLine> lines = map.getElectricityGrid().createAutoLines(plantX, plantY, residences);
+        assertTrue(lines.size() > 250, lines.size() + " lignes");
+
+        // Même résultat que des tracés individuels, pour un seul parcours
+        int[] endXs = new int[lines.size()];
+        int[] endYs = new int[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            endXs[i] = lines.get(i).getEnd().x;
+            endYs[i] = lines.get(i).getEnd().y;
+        }
+        PowerLineRouter router = new PowerLineRouter(map);
+        router.routeAll(lines.get(0).getStart().x, lines.get(0).getStart().y, endXs, endYs);
+        assertTrue(router.getExpandedCount() <= 512L * 512L, "cases fermées : " + router.getExpandedCount());
+
+        assertEquals(lines.size(), map.autoConnect(plantX, plantY, residences));
+        for (MapCell residence : residences) {
+            if (lines.stream().anyMatch(line -> Math.abs(line.getEnd().x - residence.getX()) <= 1
+                    && Math.abs(line.getEnd().y - residence.getY()) <= 1)) {
+                assertTrue(map.getCell(residence.getX(), residence.getY()).isPowered());
+            }
+        }
+    }
+
+    private static int cost(CityMap map, int[] path) {
+        int cost = 0;
+        for (int i = 1; i < path.length; i++) {
+            int x = path[i] % map.getWidth();
+            int y = path[i] / map.getWidth();
+            cost += map.hasPowerLineAt(x, y) ? PowerLineRouter.LINE_STEP_COST : PowerLineRouter.STEP_COST;
+        }
+        return cost;
+    }
+
+    private static void checkPath(CityMap map, int[] path, int startX, int startY, int endX, int endY) {
+        int width = map.getWidth();
+        assertEquals(startY * width + startX, path[0]);
+        assertEquals(endY * width + endX, path[path.length - 1]);
+        for (int i = 0; i < path.length; i++) {
+            int x = path[i] % width;
+            int y = path[i] / width;
+            assertTrue(!map.getTerrainAt(x, y).blocksElectricity(), "eau en (" + x + "," + y + ")");
+            if (i > 0) {
+                int previous = path[i - 1];
+                assertEquals(1, Math.abs(previous % width - x) + Math.abs(previous / width - y));
+            }
+        }
+    }
+}
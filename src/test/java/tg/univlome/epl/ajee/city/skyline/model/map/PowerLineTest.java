@@ -0,0 +1,44 @@
+package tg.univlome.epl.ajee.city.skyline.model.map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Codage compact du chemin des lignes et limites de taille de carte.
+ */
+class PowerLineTest {
+
+    @Test
+    void pathKeepsLargestCoordinates() {
+        int maxX = PowerLine.MAX_WIDTH - 1;
+        int maxY = PowerLine.MAX_HEIGHT - 1;
+        PowerLine line = new PowerLine(maxX, maxY, 0, 0);
+        line.addPathPoint(maxX, 0);
+        line.addPathPoint(0, maxY);
+
+        assertEquals(maxX, line.getPathX(0));
+        assertEquals(maxY, line.getPathY(0));
+        assertEquals(maxX, line.getPathX(1));
+        assertEquals(0, line.getPathY(1));
+        assertEquals(0, line.getPathX(2));
+        assertEquals(maxY, line.getPathY(2));
+        assertTrue(line.passesThrough(maxX, maxY));
+        assertFalse(line.passesThrough(0, 0));
+    }
+
+    @Test
+    void mapRejectsDimensionsBeyondPathEncoding() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CityMap(PowerLine.MAX_WIDTH + 1, 1, CityMap.StorageType.CHUNKED));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CityMap(1, PowerLine.MAX_HEIGHT + 1, CityMap.StorageType.CHUNKED));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CityMap(PowerLine.MAX_WIDTH, PowerLine.MAX_HEIGHT, CityMap.StorageType.CHUNKED));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CityMap(0, 10, CityMap.StorageType.OBJECTS));
+    }
+}
@@ -0,0 +1,89 @@
+package tg.univlome.epl.ajee.city.skyline.model.simulation;
+
+import org.junit.jupiter.api.Test;
+import tg.univlome.epl.ajee.city.skyline.model.energy.CoalPlant;
+import tg.univlome.epl.ajee.city.skyline.model.energy.PowerPlant;
+import tg.univlome.epl.ajee.city.skyline.model.energy.WindPlant;
+import tg.univlome.epl.ajee.city.skyline.model.entities.Residence;
+import tg.univlome.epl.ajee.city.skyline.model.entities.ResidenceLevel;
+import tg.univlome.epl.ajee.city.skyline.model.map.CityMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Une partie rejouée sur le même moteur après {@link GameEngine#reset()}
+ * doit être identique à la première.
+ */
+class GameEngineTest {
+
+    private static final int CYCLES = 600;
+
+    @Test
+    void resetReplaysTheSameGame() {
+        GameEngine engine = newEngine(42);
+        List<String> first = play(engine);
+
+        engine.reset();
+        assertEquals(42L, engine.getSeed());
+        assertEquals(first, play(engine));
+    }
+
+    @Test
+    void resetWithSeedMatchesFreshEngine() {
+        GameEngine engine = newEngine(42);
+        List<String> first = play(engine);
+
+        engine.reset(7);
+        assertEquals(7L, engine.getSeed());
+        List<String> reseeded = play(engine);
+        assertEquals(play(newEngine(7)), reseeded);
+        assertNotEquals(first, reseeded);
+    }
+
+    private static GameEngine newEngine(long seed) {
+        GameEngine engine = new GameEngine(seed);
+        engine.setCityMap(new CityMap(40, 30, CityMap.StorageType.OBJECTS, engine.getRandom()));
+        engine.reset();
+        return engine;
+    }
+
+    /**
+     * Construit une petite ville puis relève l'état à chaque cycle.
+     */
+    private static List<String> play(GameEngine engine) {
+        CityMap map = engine.getCityMap();
+        engine.getPlayer().setMoney(100000);
+        placePlant(engine, 20, 10, new CoalPlant());
+        placePlant(engine, 24, 10, new WindPlant());
+        for (int y = 12; y < 14; y++) {
+            for (int x = 19; x < 22; x++) {
+                Residence residence = new Residence(ResidenceLevel.BASIC, engine.getRandom());
+                residence.addNewInhabitant();
+                residence.addNewInhabitant();
+                if (map.placeResidence(x, y, residence)) {
+                    engine.getCity().addResidence(residence);
+                }
+            }
+        }
+        map.generateRandomWater(2, 12);
+        engine.initializeGame();
+
+        List<String> trace = new ArrayList<>();
+        for (int i = 0; i < CYCLES && engine.isRunning(); i++) {
+            engine.runCycle();
+            trace.add(engine.getPlayer().getMoney() + " " + engine.getMarket().getCurrentPrice() + " "
+                    + engine.getCity().getGlobalHappiness() + " " + engine.getCity().getTotalInhabitants());
+        }
+        return trace;
+    }
+
+    private static void placePlant(GameEngine engine, int x, int y, PowerPlant plant) {
+        if (engine.buildPowerPlant(plant)) {
+            engine.getCityMap().placePowerPlant(x, y, plant);
+        }
+    }
+}
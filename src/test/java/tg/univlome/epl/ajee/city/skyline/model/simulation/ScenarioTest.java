@@ -0,0 +1,31 @@
+package tg.univlome.epl.ajee.city.skyline.model.simulation;
+
+import org.junit.jupiter.api.Test;
+import tg.univlome.epl.ajee.city.skyline.model.economy.Market;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Instructions globales d'un scénario.
+ */
+class ScenarioTest {
+
+    @Test
+    void pricingDirectiveSetsTheMarketMode() {
+        Scenario scenario = Scenario.parse("test", List.of("map 20 20", "pricing merit_order # préséance"));
+        assertEquals(Market.PricingMode.MERIT_ORDER, scenario.getPricingMode());
+        assertEquals(Market.PricingMode.MERIT_ORDER, scenario.createEngine(1).getMarket().getPricingMode());
+
+        Scenario defaults = Scenario.parse("test", List.of("map 20 20"));
+        assertEquals(Market.PricingMode.SUPPLY_RATIO, defaults.createEngine(1).getMarket().getPricingMode());
+    }
+
+    @Test
+    void pricingDirectiveIsValidated() {
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parse("test", List.of("pricing AUCTION")));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parse("test", List.of("pricing")));
+    }
+}